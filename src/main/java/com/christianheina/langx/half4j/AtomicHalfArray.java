@@ -0,0 +1,322 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.BinaryOperator;
+
+/**
+ * A {@link Half} array in which elements may be updated atomically.
+ *
+ * <p>
+ * Two {@code half} values are packed into each element of an {@link AtomicIntegerArray} and updated with
+ * compare-and-set, so concurrent updates of neighbouring elements never overwrite each other. Arithmetic updates are
+ * computed in {@code float} and rounded to the nearest {@code half} once, ties to even.
+ *
+ * <p>
+ * {@code AtomicHalfArray} is implemented to provide, as much as possible, the same interface as
+ * {@link java.util.concurrent.atomic.AtomicIntegerArray}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class AtomicHalfArray implements Serializable {
+
+    private static final long serialVersionUID = -4016282838406478563L;
+
+    /**
+     * The packed {@code half} bits, element {@code i} is stored in the low bits of {@code array[i / 2]} when {@code i}
+     * is even and in the high bits when {@code i} is odd.
+     *
+     * @serial
+     */
+    private final AtomicIntegerArray array;
+
+    /**
+     * The number of elements.
+     *
+     * @serial
+     */
+    private final int length;
+
+    /**
+     * Creates a new AtomicHalfArray of the given length, with all elements initially positive zero.
+     *
+     * @param length
+     *            the length of the array
+     */
+    public AtomicHalfArray(int length) {
+        this.length = length;
+        this.array = new AtomicIntegerArray((length + 1) >>> 1);
+    }
+
+    /**
+     * Creates a new AtomicHalfArray with the same length as, and all elements copied from, the given array of
+     * {@code half} short bits.
+     *
+     * @param shortBits
+     *            the array to copy elements from
+     */
+    public AtomicHalfArray(short[] shortBits) {
+        this(shortBits.length);
+        for (int i = 0; i < shortBits.length; i++) {
+            setShortBits(i, shortBits[i]);
+        }
+    }
+
+    /**
+     * Returns the length of the array.
+     *
+     * @return the length of the array
+     */
+    public final int length() {
+        return length;
+    }
+
+    /**
+     * Gets the current value at position {@code i}.
+     *
+     * @param i
+     *            the index
+     *
+     * @return the current value
+     */
+    public final Half get(int i) {
+        return Half.shortBitsToHalf(getShortBits(i));
+    }
+
+    /**
+     * Gets the {@code half} short bits of the current value at position {@code i}.
+     *
+     * @param i
+     *            the index
+     *
+     * @return the short bits of the current value
+     */
+    public final short getShortBits(int i) {
+        return unpack(array.get(checkedIndex(i) >>> 1), i);
+    }
+
+    /**
+     * Sets the element at position {@code i} to the given value.
+     *
+     * @param i
+     *            the index
+     * @param newValue
+     *            the new value
+     */
+    public final void set(int i, Half newValue) {
+        setShortBits(i, Half.halfToRawShortBits(newValue));
+    }
+
+    /**
+     * Sets the element at position {@code i} to the given {@code half} short bits.
+     *
+     * @param i
+     *            the index
+     * @param newShortBits
+     *            the short bits of the new value
+     */
+    public final void setShortBits(int i, short newShortBits) {
+        getAndSetShortBits(i, newShortBits);
+    }
+
+    /**
+     * Atomically sets the element at position {@code i} to the given value and returns the old value.
+     *
+     * @param i
+     *            the index
+     * @param newValue
+     *            the new value
+     *
+     * @return the previous value
+     */
+    public final Half getAndSet(int i, Half newValue) {
+        return Half.shortBitsToHalf(getAndSetShortBits(i, Half.halfToRawShortBits(newValue)));
+    }
+
+    /**
+     * Atomically sets the element at position {@code i} to the given value if the current value has the same
+     * {@code half} short bits as the expected value.
+     *
+     * @param i
+     *            the index
+     * @param expect
+     *            the expected value
+     * @param update
+     *            the new value
+     *
+     * @return {@code true} if successful. False return indicates that the actual value was not equal to the expected
+     *         value.
+     */
+    public final boolean compareAndSet(int i, Half expect, Half update) {
+        return compareAndSetShortBits(i, Half.halfToRawShortBits(expect), Half.halfToRawShortBits(update));
+    }
+
+    /**
+     * Atomically sets the element at position {@code i} to the given short bits if the current short bits equal the
+     * expected short bits.
+     *
+     * @param i
+     *            the index
+     * @param expect
+     *            the expected short bits
+     * @param update
+     *            the new short bits
+     *
+     * @return {@code true} if successful. False return indicates that the actual value was not equal to the expected
+     *         value.
+     */
+    public final boolean compareAndSetShortBits(int i, short expect, short update) {
+        int index = checkedIndex(i) >>> 1;
+        while (true) {
+            int current = array.get(index);
+            if (unpack(current, i) != expect) {
+                return false;
+            }
+            if (array.compareAndSet(index, current, pack(current, i, update))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Atomically adds the given value to the element at position {@code i} and returns the previous value.
+     *
+     * @param i
+     *            the index
+     * @param delta
+     *            the value to add
+     *
+     * @return the previous value
+     */
+    public final Half getAndAdd(int i, float delta) {
+        return Half.shortBitsToHalf(update(i, delta, false));
+    }
+
+    /**
+     * Atomically adds the given value to the element at position {@code i} and returns the updated value.
+     *
+     * @param i
+     *            the index
+     * @param delta
+     *            the value to add
+     *
+     * @return the updated value
+     */
+    public final Half addAndGet(int i, float delta) {
+        return Half.shortBitsToHalf(update(i, delta, true));
+    }
+
+    /**
+     * Atomically updates the element at position {@code i} with the results of applying the given function to the
+     * current and given values, returning the updated value. The function should be side-effect-free, since it may be
+     * re-applied when attempted updates fail due to contention among threads.
+     *
+     * @param i
+     *            the index
+     * @param x
+     *            the update value
+     * @param accumulatorFunction
+     *            a side-effect-free function of two arguments
+     *
+     * @return the updated value
+     */
+    public final Half accumulateAndGet(int i, Half x, BinaryOperator<Half> accumulatorFunction) {
+        int index = checkedIndex(i) >>> 1;
+        while (true) {
+            int current = array.get(index);
+            short next = Half
+                    .halfToRawShortBits(accumulatorFunction.apply(Half.shortBitsToHalf(unpack(current, i)), x));
+            if (array.compareAndSet(index, current, pack(current, i, next))) {
+                return Half.shortBitsToHalf(next);
+            }
+        }
+    }
+
+    /**
+     * Returns the {@code half} short bits of the current values of the array.
+     *
+     * @return the short bits of the current values
+     */
+    public short[] toShortBitsArray() {
+        short[] shortBits = new short[length];
+        for (int i = 0; i < length; i++) {
+            shortBits[i] = getShortBits(i);
+        }
+        return shortBits;
+    }
+
+    /**
+     * Returns the String representation of the current values of array.
+     *
+     * @return the String representation of the current values of array
+     */
+    @Override
+    public String toString() {
+        if (length == 0) {
+            return "[]";
+        }
+        StringBuilder b = new StringBuilder().append('[');
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                b.append(", ");
+            }
+            b.append(get(i));
+        }
+        return b.append(']').toString();
+    }
+
+    private short getAndSetShortBits(int i, short newShortBits) {
+        int index = checkedIndex(i) >>> 1;
+        while (true) {
+            int current = array.get(index);
+            if (array.compareAndSet(index, current, pack(current, i, newShortBits))) {
+                return unpack(current, i);
+            }
+        }
+    }
+
+    private short update(int i, float delta, boolean returnUpdated) {
+        int index = checkedIndex(i) >>> 1;
+        while (true) {
+            int current = array.get(index);
+            short previous = unpack(current, i);
+            short next = Half.roundToHalfShortBits(Half.halfShortToFloat(previous) + delta);
+            if (array.compareAndSet(index, current, pack(current, i, next))) {
+                return returnUpdated ? next : previous;
+            }
+        }
+    }
+
+    private int checkedIndex(int i) {
+        if (i < 0 || i >= length) {
+            throw new IndexOutOfBoundsException("index " + i);
+        }
+        return i;
+    }
+
+    private static short unpack(int packed, int i) {
+        return (short) (packed >>> ((i & 1) << 4));
+    }
+
+    private static int pack(int packed, int i, short shortBits) {
+        int shift = (i & 1) << 4;
+        return (packed & ~(0xffff << shift)) | ((shortBits & 0xffff) << shift);
+    }
+
+}
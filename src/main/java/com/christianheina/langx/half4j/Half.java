@@ -198,10 +198,17 @@ public class Half extends Number implements Comparable<Half> {
      * @return the {@code Half} float-point object with the same bit pattern.
      */
     public static Half shortBitsToHalf(short shortBits) {
+        if (HalfMetrics.enabled) {
+            HalfMetrics.converted(HalfMetrics.Path.SCALAR, 1);
+        }
         return new Half(halfShortToFloat(shortBits));
     }
 
-    private static float halfShortToFloat(short shortBits) {
+    static float halfShortToFloat(short shortBits) {
+        return HalfIntrinsics.AVAILABLE ? HalfIntrinsics.toFloat(shortBits) : arithmeticHalfShortToFloat(shortBits);
+    }
+
+    static float arithmeticHalfShortToFloat(short shortBits) {
         int intBits = (int) shortBits;
         int exponent = (intBits & HalfConsts.EXP_BIT_MASK) >> 10;
         int significand = (intBits & HalfConsts.SIGNIF_BIT_MASK) << 13;
@@ -287,18 +294,28 @@ public class Half extends Number implements Comparable<Half> {
      * @return the bits that represent the half-point number.
      */
     public static short halfToRawShortBits(Half half) {
-        return floatToHalfShortBits(half.floatRepresentation);
+        short shortBits = floatToHalfShortBits(half.floatRepresentation);
+        if (HalfMetrics.enabled) {
+            HalfMetrics.converted(HalfMetrics.Path.SCALAR, 1);
+            HalfMetrics.encoded(half.floatRepresentation, shortBits);
+        }
+        return shortBits;
     }
 
-    private static short floatToHalfShortBits(float floatValue) {
+    static short floatToHalfShortBits(float floatValue) {
+        return HalfIntrinsics.AVAILABLE ? HalfIntrinsics.toHalfShortBits(floatValue)
+                : arithmeticFloatToHalfShortBits(floatValue);
+    }
+
+    static short arithmeticFloatToHalfShortBits(float floatValue) {
         int intBits = Float.floatToRawIntBits(floatValue);
         int exponent = (intBits & 0x7F800000) >> 23;
         int significand = intBits & 0x007FFFFF;
 
         // Check infinities and NaNs
         if (exponent > 142) {
-            // sign | positive infinity short value
-            return (short) ((intBits & 0x80000000) >> 16 | 0x7c00 | significand >> 13);
+            // sign | positive infinity short value | NaN significand
+            return (short) ((intBits & 0x80000000) >> 16 | 0x7c00 | (exponent == 0xff ? significand >> 13 : 0));
         }
 
         // sign | normal | subnormal
@@ -308,6 +325,53 @@ public class Half extends Number implements Comparable<Half> {
                         * ((((0x007FF000 + significand) >> (125 - exponent)) + 1) >> 1));
     }
 
+    /**
+     * Rounds a {@code double} to the nearest {@code half} value, ties to even.
+     */
+    static short roundToHalfShortBits(double value) {
+        if (Double.isNaN(value)) {
+            return 0x7e00;
+        }
+        int sign = value < 0 || (value == 0 && 1 / value < 0) ? 0x8000 : 0;
+        double abs = Math.abs(value);
+        if (abs >= 65520.0) {
+            // at or above the midpoint between the largest finite value and 2^16
+            return (short) (sign | 0x7c00);
+        }
+        if (abs < 0x1p-14) {
+            // subnormal, multiples of 2^-24
+            return (short) (sign | (int) Math.rint(abs * 0x1p24));
+        }
+        int exponent = Math.getExponent(abs);
+        int significand = (int) Math.rint(Math.scalb(abs, 10 - exponent));
+        // a significand rounded up to 2^11 carries into the exponent
+        return (short) (sign | (((exponent + 15) << 10) + significand - 1024));
+    }
+
+    /**
+     * Rounds a {@code float} to the nearest {@code half} value, ties to even. Gives the same result as
+     * {@link #roundToHalfShortBits(double)} without leaving integer arithmetic for normal values.
+     */
+    static short roundToHalfShortBits(float value) {
+        int intBits = Float.floatToRawIntBits(value);
+        int sign = (intBits >>> 16) & 0x8000;
+        int abs = intBits & 0x7fffffff;
+        if (abs > 0x7f800000) {
+            return 0x7e00;
+        }
+        if (abs >= 0x477ff000) {
+            // at or above 65520, the midpoint between the largest finite value and 2^16
+            return (short) (sign | 0x7c00);
+        }
+        if (abs < 0x38800000) {
+            // subnormal, multiples of 2^-24
+            return (short) (sign | (int) Math.rint(Float.intBitsToFloat(abs) * 0x1p24f));
+        }
+        // rebias the exponent and round the 13 dropped significand bits, a carry moves into the exponent
+        int rebiased = abs - 0x38000000;
+        return (short) (sign | (rebiased + 0xfff + ((rebiased >> 13) & 1)) >> 13);
+    }
+
     /**
      * Returns the value of the specified number as a {@code short}.
      *
@@ -471,7 +535,10 @@ public class Half extends Number implements Comparable<Half> {
     public static Half valueOf(float floatValue) {
         // check for infinities
         if (floatValue > 65504.0f || floatValue < -65504.0f) {
-            return Half.shortBitsToHalf((short) ((Float.floatToIntBits(floatValue) & 0x80000000) >> 16 | 0x7c00));
+            if (HalfMetrics.enabled && !Float.isInfinite(floatValue)) {
+                HalfMetrics.overflowed();
+            }
+            return new Half(halfShortToFloat((short) ((Float.floatToIntBits(floatValue) & 0x80000000) >> 16 | 0x7c00)));
         }
         return new Half(floatValue);
     }
@@ -809,4 +876,16 @@ public class Half extends Number implements Comparable<Half> {
         return new Half(Float.min(a.floatRepresentation, b.floatRepresentation));
     }
 
+    /**
+     * Replaces this {@code Half} with a serialization proxy holding its {@code half} short bits.
+     *
+     * @serialData the object is written as a {@code Ser} proxy, see {@link HalfSerialization} for the format of the
+     *             value
+     * 
+     * @return the serialization proxy
+     */
+    private Object writeReplace() {
+        return new Ser(this);
+    }
+
 }
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * One or more variables that together maintain an initially zero {@link Half} sum.
+ *
+ * <p>
+ * Updates are accumulated in striped {@code double} cells of a {@link DoubleAdder}, so threads contending on the same
+ * sum rarely interfere with each other. The sum is rounded to the nearest {@code half} only when read, which also
+ * avoids the loss of precision of repeatedly rounding a running {@code half} sum.
+ *
+ * <p>
+ * {@code HalfAdder} is implemented to provide, as much as possible, the same interface as {@link DoubleAdder}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class HalfAdder extends Number {
+
+    private static final long serialVersionUID = 2209215315208937620L;
+
+    /**
+     * The accumulated sum.
+     *
+     * @serial
+     */
+    private final DoubleAdder adder = new DoubleAdder();
+
+    /**
+     * Creates a new adder with initial sum of zero.
+     */
+    public HalfAdder() {
+        super();
+    }
+
+    /**
+     * Adds the given value.
+     *
+     * @param x
+     *            the value to add
+     */
+    public void add(float x) {
+        adder.add(x);
+    }
+
+    /**
+     * Adds the given value.
+     *
+     * @param x
+     *            the value to add
+     */
+    public void add(Half x) {
+        adder.add(x.floatValue());
+    }
+
+    /**
+     * Returns the current sum rounded to the nearest {@code half}, ties to even. The returned value is <em>NOT</em> an
+     * atomic snapshot; invocation in the absence of concurrent updates returns an accurate result, but concurrent
+     * updates that occur while the sum is being calculated might not be incorporated.
+     *
+     * @return the sum
+     */
+    public Half sum() {
+        return toHalf(adder.sum());
+    }
+
+    /**
+     * Resets variables maintaining the sum to zero.
+     */
+    public void reset() {
+        adder.reset();
+    }
+
+    /**
+     * Equivalent in effect to {@link #sum} followed by {@link #reset}.
+     *
+     * @return the sum
+     */
+    public Half sumThenReset() {
+        return toHalf(adder.sumThenReset());
+    }
+
+    /**
+     * Returns the String representation of the {@link #sum}.
+     *
+     * @return the String representation of the {@link #sum}
+     */
+    @Override
+    public String toString() {
+        return sum().toString();
+    }
+
+    @Override
+    public int intValue() {
+        return sum().intValue();
+    }
+
+    @Override
+    public long longValue() {
+        return sum().longValue();
+    }
+
+    @Override
+    public float floatValue() {
+        return sum().floatValue();
+    }
+
+    @Override
+    public double doubleValue() {
+        return sum().doubleValue();
+    }
+
+    private static Half toHalf(double sum) {
+        return Half.shortBitsToHalf(Half.roundToHalfShortBits(sum));
+    }
+
+}
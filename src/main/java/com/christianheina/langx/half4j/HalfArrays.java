@@ -0,0 +1,791 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.nio.ShortBuffer;
+
+/**
+ * The class {@code HalfArrays} contains methods for performing elementwise operations on arrays and buffers of
+ * {@code half} values, represented by their short bits.
+ *
+ * <p>
+ * Each element is converted to {@code float}, the operation is performed in {@code float} and the result is rounded
+ * back to the nearest {@code half} once, ties to even. The destination may be the same array or buffer as one of the
+ * operands, in which case the operation is performed in place.
+ *
+ * <p>
+ * Reductions such as {@link #dot(short[], short[])} accumulate in {@code float} and return the {@code float} result
+ * without rounding it to {@code half}.
+ *
+ * <p>
+ * Buffer operations process the remaining elements of each buffer and do not modify buffer positions.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class HalfArrays {
+
+    private static final int BUFFER_CHUNK_SIZE = 1024;
+
+    private HalfArrays() {
+        /* Hidden Constructor */ }
+
+    /**
+     * Computes {@code y = alpha * x + y}.
+     *
+     * @param alpha
+     *            the scalar multiplier
+     * @param x
+     *            the {@code half} bits to scale
+     * @param y
+     *            the {@code half} bits to add to and store the result in
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length
+     */
+    public static void axpy(float alpha, short[] x, short[] y) {
+        checkLength(x.length, y.length);
+        axpy(alpha, x, 0, y, 0, y, 0, y.length);
+    }
+
+    /**
+     * Computes {@code y = alpha * x + y}.
+     *
+     * @param alpha
+     *            the scalar multiplier
+     * @param x
+     *            the {@code half} bits to scale
+     * @param y
+     *            the {@code half} bits to add to and store the result in
+     *
+     * @throws IllegalArgumentException
+     *             if the buffers have different number of remaining elements
+     */
+    public static void axpy(float alpha, ShortBuffer x, ShortBuffer y) {
+        binary(x, y, y, (a, aOff, b, bOff, dst, dstOff, len) -> axpy(alpha, a, aOff, b, bOff, dst, dstOff, len));
+    }
+
+    /**
+     * Computes {@code dst = alpha * src}.
+     *
+     * @param alpha
+     *            the scalar multiplier
+     * @param src
+     *            the {@code half} bits to scale
+     * @param dst
+     *            the destination of the result
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length
+     */
+    public static void scale(float alpha, short[] src, short[] dst) {
+        checkLength(src.length, dst.length);
+        scale(alpha, src, 0, dst, 0, dst.length);
+    }
+
+    /**
+     * Computes {@code dst = alpha * src}.
+     *
+     * @param alpha
+     *            the scalar multiplier
+     * @param src
+     *            the {@code half} bits to scale
+     * @param dst
+     *            the destination of the result
+     *
+     * @throws IllegalArgumentException
+     *             if the buffers have different number of remaining elements
+     */
+    public static void scale(float alpha, ShortBuffer src, ShortBuffer dst) {
+        unary(src, dst, (s, sOff, d, dOff, len) -> scale(alpha, s, sOff, d, dOff, len));
+    }
+
+    /**
+     * Computes {@code dst = a + b}.
+     *
+     * @param a
+     *            the first operand
+     * @param b
+     *            the second operand
+     * @param dst
+     *            the destination of the result
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length
+     */
+    public static void add(short[] a, short[] b, short[] dst) {
+        checkLength(a.length, b.length, dst.length);
+        add(a, 0, b, 0, dst, 0, dst.length);
+    }
+
+    /**
+     * Computes {@code dst = a + b}.
+     *
+     * @param a
+     *            the first operand
+     * @param b
+     *            the second operand
+     * @param dst
+     *            the destination of the result
+     *
+     * @throws IllegalArgumentException
+     *             if the buffers have different number of remaining elements
+     */
+    public static void add(ShortBuffer a, ShortBuffer b, ShortBuffer dst) {
+        binary(a, b, dst, HalfArrays::add);
+    }
+
+    /**
+     * Computes {@code dst = a - b}.
+     *
+     * @param a
+     *            the first operand
+     * @param b
+     *            the second operand
+     * @param dst
+     *            the destination of the result
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length
+     */
+    public static void sub(short[] a, short[] b, short[] dst) {
+        checkLength(a.length, b.length, dst.length);
+        sub(a, 0, b, 0, dst, 0, dst.length);
+    }
+
+    /**
+     * Computes {@code dst = a - b}.
+     *
+     * @param a
+     *            the first operand
+     * @param b
+     *            the second operand
+     * @param dst
+     *            the destination of the result
+     *
+     * @throws IllegalArgumentException
+     *             if the buffers have different number of remaining elements
+     */
+    public static void sub(ShortBuffer a, ShortBuffer b, ShortBuffer dst) {
+        binary(a, b, dst, HalfArrays::sub);
+    }
+
+    /**
+     * Computes {@code dst = a * b}.
+     *
+     * @param a
+     *            the first operand
+     * @param b
+     *            the second operand
+     * @param dst
+     *            the destination of the result
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length
+     */
+    public static void mul(short[] a, short[] b, short[] dst) {
+        checkLength(a.length, b.length, dst.length);
+        mul(a, 0, b, 0, dst, 0, dst.length);
+    }
+
+    /**
+     * Computes {@code dst = a * b}.
+     *
+     * @param a
+     *            the first operand
+     * @param b
+     *            the second operand
+     * @param dst
+     *            the destination of the result
+     *
+     * @throws IllegalArgumentException
+     *             if the buffers have different number of remaining elements
+     */
+    public static void mul(ShortBuffer a, ShortBuffer b, ShortBuffer dst) {
+        binary(a, b, dst, HalfArrays::mul);
+    }
+
+    /**
+     * Computes {@code dst = a / b}.
+     *
+     * @param a
+     *            the dividend
+     * @param b
+     *            the divisor
+     * @param dst
+     *            the destination of the result
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length
+     */
+    public static void div(short[] a, short[] b, short[] dst) {
+        checkLength(a.length, b.length, dst.length);
+        div(a, 0, b, 0, dst, 0, dst.length);
+    }
+
+    /**
+     * Computes {@code dst = a / b}.
+     *
+     * @param a
+     *            the dividend
+     * @param b
+     *            the divisor
+     * @param dst
+     *            the destination of the result
+     *
+     * @throws IllegalArgumentException
+     *             if the buffers have different number of remaining elements
+     */
+    public static void div(ShortBuffer a, ShortBuffer b, ShortBuffer dst) {
+        binary(a, b, dst, HalfArrays::div);
+    }
+
+    /**
+     * Clamps each element to the range {@code [min, max]}. NaN elements remain NaN.
+     *
+     * @param src
+     *            the {@code half} bits to clamp
+     * @param min
+     *            the lower bound
+     * @param max
+     *            the upper bound
+     * @param dst
+     *            the destination of the result
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length
+     */
+    public static void clamp(short[] src, float min, float max, short[] dst) {
+        checkLength(src.length, dst.length);
+        clamp(src, 0, min, max, dst, 0, dst.length);
+    }
+
+    /**
+     * Clamps each element to the range {@code [min, max]}. NaN elements remain NaN.
+     *
+     * @param src
+     *            the {@code half} bits to clamp
+     * @param min
+     *            the lower bound
+     * @param max
+     *            the upper bound
+     * @param dst
+     *            the destination of the result
+     *
+     * @throws IllegalArgumentException
+     *             if the buffers have different number of remaining elements
+     */
+    public static void clamp(ShortBuffer src, float min, float max, ShortBuffer dst) {
+        unary(src, dst, (s, sOff, d, dOff, len) -> clamp(s, sOff, min, max, d, dOff, len));
+    }
+
+    /**
+     * Computes {@code dst = max(src, 0)}. Negative values, including negative zero, become positive zero and NaN
+     * elements are kept as is.
+     *
+     * @param src
+     *            the {@code half} bits to rectify
+     * @param dst
+     *            the destination of the result
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length
+     */
+    public static void relu(short[] src, short[] dst) {
+        checkLength(src.length, dst.length);
+        relu(src, 0, dst, 0, dst.length);
+    }
+
+    /**
+     * Computes {@code dst = max(src, 0)}. Negative values, including negative zero, become positive zero and NaN
+     * elements are kept as is.
+     *
+     * @param src
+     *            the {@code half} bits to rectify
+     * @param dst
+     *            the destination of the result
+     *
+     * @throws IllegalArgumentException
+     *             if the buffers have different number of remaining elements
+     */
+    public static void relu(ShortBuffer src, ShortBuffer dst) {
+        unary(src, dst, HalfArrays::relu);
+    }
+
+    /**
+     * Computes the absolute value of each element by clearing the sign bit. NaN elements keep their significand.
+     *
+     * @param src
+     *            the {@code half} bits
+     * @param dst
+     *            the destination of the result
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length
+     */
+    public static void abs(short[] src, short[] dst) {
+        checkLength(src.length, dst.length);
+        abs(src, 0, dst, 0, dst.length);
+    }
+
+    /**
+     * Computes the absolute value of each element by clearing the sign bit. NaN elements keep their significand.
+     *
+     * @param src
+     *            the {@code half} bits
+     * @param dst
+     *            the destination of the result
+     *
+     * @throws IllegalArgumentException
+     *             if the buffers have different number of remaining elements
+     */
+    public static void abs(ShortBuffer src, ShortBuffer dst) {
+        unary(src, dst, HalfArrays::abs);
+    }
+
+    /**
+     * Negates each element by flipping the sign bit.
+     *
+     * @param src
+     *            the {@code half} bits
+     * @param dst
+     *            the destination of the result
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length
+     */
+    public static void negate(short[] src, short[] dst) {
+        checkLength(src.length, dst.length);
+        negate(src, 0, dst, 0, dst.length);
+    }
+
+    /**
+     * Negates each element by flipping the sign bit.
+     *
+     * @param src
+     *            the {@code half} bits
+     * @param dst
+     *            the destination of the result
+     *
+     * @throws IllegalArgumentException
+     *             if the buffers have different number of remaining elements
+     */
+    public static void negate(ShortBuffer src, ShortBuffer dst) {
+        unary(src, dst, HalfArrays::negate);
+    }
+
+    /**
+     * Returns the dot product of two vectors, accumulated in {@code float}.
+     *
+     * @param a
+     *            the {@code half} bits of the first vector
+     * @param b
+     *            the {@code half} bits of the second vector
+     *
+     * @return the dot product
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length
+     */
+    public static float dot(short[] a, short[] b) {
+        checkLength(a.length, b.length);
+        countTable(2L * a.length);
+        return dot(a, 0, b, 0, a.length);
+    }
+
+    /**
+     * Returns the dot product of two vectors, accumulated in {@code float}.
+     *
+     * @param a
+     *            the {@code half} bits of the first vector
+     * @param b
+     *            the {@code half} bits of the second vector
+     *
+     * @return the dot product
+     *
+     * @throws IllegalArgumentException
+     *             if the buffers have different number of remaining elements
+     */
+    public static float dot(ShortBuffer a, ShortBuffer b) {
+        return reduce(a, b, HalfArrays::dot);
+    }
+
+    /**
+     * Returns the squared Euclidean distance between two vectors, accumulated in {@code float}.
+     *
+     * @param a
+     *            the {@code half} bits of the first vector
+     * @param b
+     *            the {@code half} bits of the second vector
+     *
+     * @return the squared distance
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length
+     */
+    public static float squaredDistance(short[] a, short[] b) {
+        checkLength(a.length, b.length);
+        countTable(2L * a.length);
+        return squaredDistance(a, 0, b, 0, a.length);
+    }
+
+    /**
+     * Returns the squared Euclidean distance between two vectors, accumulated in {@code float}.
+     *
+     * @param a
+     *            the {@code half} bits of the first vector
+     * @param b
+     *            the {@code half} bits of the second vector
+     *
+     * @return the squared distance
+     *
+     * @throws IllegalArgumentException
+     *             if the buffers have different number of remaining elements
+     */
+    public static float squaredDistance(ShortBuffer a, ShortBuffer b) {
+        return reduce(a, b, HalfArrays::squaredDistance);
+    }
+
+    /**
+     * Returns the Euclidean norm of a vector, accumulated in {@code float}.
+     *
+     * @param a
+     *            the {@code half} bits of the vector
+     *
+     * @return the norm
+     */
+    public static float norm(short[] a) {
+        countTable(2L * a.length);
+        return (float) Math.sqrt(dot(a, 0, a, 0, a.length));
+    }
+
+    /**
+     * Returns the Euclidean norm of a vector, accumulated in {@code float}.
+     *
+     * @param a
+     *            the {@code half} bits of the vector
+     *
+     * @return the norm
+     */
+    public static float norm(ShortBuffer a) {
+        return (float) Math.sqrt(dot(a, a));
+    }
+
+    /**
+     * Returns the cosine of the angle between two vectors, or {@code 0} if either vector is zero.
+     *
+     * @param a
+     *            the {@code half} bits of the first vector
+     * @param b
+     *            the {@code half} bits of the second vector
+     *
+     * @return the cosine similarity
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length
+     */
+    public static float cosineSimilarity(short[] a, short[] b) {
+        checkLength(a.length, b.length);
+        countTable(6L * a.length);
+        return cosineSimilarity(dot(a, 0, b, 0, a.length), dot(a, 0, a, 0, a.length), dot(b, 0, b, 0, b.length));
+    }
+
+    /**
+     * Returns the cosine of the angle between two vectors, or {@code 0} if either vector is zero.
+     *
+     * @param a
+     *            the {@code half} bits of the first vector
+     * @param b
+     *            the {@code half} bits of the second vector
+     *
+     * @return the cosine similarity
+     *
+     * @throws IllegalArgumentException
+     *             if the buffers have different number of remaining elements
+     */
+    public static float cosineSimilarity(ShortBuffer a, ShortBuffer b) {
+        return cosineSimilarity(dot(a, b), dot(a, a), dot(b, b));
+    }
+
+    static float dot(short[] a, int aOff, short[] b, int bOff, int len) {
+        float s0 = 0f;
+        float s1 = 0f;
+        float s2 = 0f;
+        float s3 = 0f;
+        int i = 0;
+        for (; i + 3 < len; i += 4) {
+            s0 += HalfFloatTable.toFloat(a[aOff + i]) * HalfFloatTable.toFloat(b[bOff + i]);
+            s1 += HalfFloatTable.toFloat(a[aOff + i + 1]) * HalfFloatTable.toFloat(b[bOff + i + 1]);
+            s2 += HalfFloatTable.toFloat(a[aOff + i + 2]) * HalfFloatTable.toFloat(b[bOff + i + 2]);
+            s3 += HalfFloatTable.toFloat(a[aOff + i + 3]) * HalfFloatTable.toFloat(b[bOff + i + 3]);
+        }
+        for (; i < len; i++) {
+            s0 += HalfFloatTable.toFloat(a[aOff + i]) * HalfFloatTable.toFloat(b[bOff + i]);
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    static float squaredDistance(short[] a, int aOff, short[] b, int bOff, int len) {
+        float s0 = 0f;
+        float s1 = 0f;
+        int i = 0;
+        for (; i + 1 < len; i += 2) {
+            float d0 = HalfFloatTable.toFloat(a[aOff + i]) - HalfFloatTable.toFloat(b[bOff + i]);
+            float d1 = HalfFloatTable.toFloat(a[aOff + i + 1]) - HalfFloatTable.toFloat(b[bOff + i + 1]);
+            s0 += d0 * d0;
+            s1 += d1 * d1;
+        }
+        if (i < len) {
+            float d = HalfFloatTable.toFloat(a[aOff + i]) - HalfFloatTable.toFloat(b[bOff + i]);
+            s0 += d * d;
+        }
+        return s0 + s1;
+    }
+
+    /**
+     * Returns the dot product of a {@code half} vector with a vector that has already been converted to {@code float}.
+     */
+    static float dot(short[] a, int aOff, float[] x, int xOff, int len) {
+        float s0 = 0f;
+        float s1 = 0f;
+        float s2 = 0f;
+        float s3 = 0f;
+        int i = 0;
+        for (; i + 3 < len; i += 4) {
+            s0 += HalfFloatTable.toFloat(a[aOff + i]) * x[xOff + i];
+            s1 += HalfFloatTable.toFloat(a[aOff + i + 1]) * x[xOff + i + 1];
+            s2 += HalfFloatTable.toFloat(a[aOff + i + 2]) * x[xOff + i + 2];
+            s3 += HalfFloatTable.toFloat(a[aOff + i + 3]) * x[xOff + i + 3];
+        }
+        for (; i < len; i++) {
+            s0 += HalfFloatTable.toFloat(a[aOff + i]) * x[xOff + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * Returns the squared distance between a {@code half} vector and a vector that has already been converted to
+     * {@code float}.
+     */
+    static float squaredDistance(short[] a, int aOff, float[] x, int xOff, int len) {
+        float s0 = 0f;
+        float s1 = 0f;
+        int i = 0;
+        for (; i + 1 < len; i += 2) {
+            float d0 = HalfFloatTable.toFloat(a[aOff + i]) - x[xOff + i];
+            float d1 = HalfFloatTable.toFloat(a[aOff + i + 1]) - x[xOff + i + 1];
+            s0 += d0 * d0;
+            s1 += d1 * d1;
+        }
+        if (i < len) {
+            float d = HalfFloatTable.toFloat(a[aOff + i]) - x[xOff + i];
+            s0 += d * d;
+        }
+        return s0 + s1;
+    }
+
+    private static float cosineSimilarity(float dot, float sumOfSquaresA, float sumOfSquaresB) {
+        float norms = (float) Math.sqrt((double) sumOfSquaresA * sumOfSquaresB);
+        return norms == 0f ? 0f : dot / norms;
+    }
+
+    private static void axpy(float alpha, short[] x, int xOff, short[] y, int yOff, short[] dst, int dstOff, int len) {
+        for (int i = 0; i < len; i++) {
+            dst[dstOff + i] = Half.roundToHalfShortBits(
+                    alpha * Half.halfShortToFloat(x[xOff + i]) + Half.halfShortToFloat(y[yOff + i]));
+        }
+    }
+
+    private static void scale(float alpha, short[] src, int srcOff, short[] dst, int dstOff, int len) {
+        for (int i = 0; i < len; i++) {
+            dst[dstOff + i] = Half.roundToHalfShortBits(alpha * Half.halfShortToFloat(src[srcOff + i]));
+        }
+    }
+
+    private static void add(short[] a, int aOff, short[] b, int bOff, short[] dst, int dstOff, int len) {
+        for (int i = 0; i < len; i++) {
+            dst[dstOff + i] = Half
+                    .roundToHalfShortBits(Half.halfShortToFloat(a[aOff + i]) + Half.halfShortToFloat(b[bOff + i]));
+        }
+    }
+
+    private static void sub(short[] a, int aOff, short[] b, int bOff, short[] dst, int dstOff, int len) {
+        for (int i = 0; i < len; i++) {
+            dst[dstOff + i] = Half
+                    .roundToHalfShortBits(Half.halfShortToFloat(a[aOff + i]) - Half.halfShortToFloat(b[bOff + i]));
+        }
+    }
+
+    private static void mul(short[] a, int aOff, short[] b, int bOff, short[] dst, int dstOff, int len) {
+        for (int i = 0; i < len; i++) {
+            dst[dstOff + i] = Half
+                    .roundToHalfShortBits(Half.halfShortToFloat(a[aOff + i]) * Half.halfShortToFloat(b[bOff + i]));
+        }
+    }
+
+    private static void div(short[] a, int aOff, short[] b, int bOff, short[] dst, int dstOff, int len) {
+        for (int i = 0; i < len; i++) {
+            dst[dstOff + i] = Half
+                    .roundToHalfShortBits(Half.halfShortToFloat(a[aOff + i]) / Half.halfShortToFloat(b[bOff + i]));
+        }
+    }
+
+    private static void clamp(short[] src, int srcOff, float min, float max, short[] dst, int dstOff, int len) {
+        for (int i = 0; i < len; i++) {
+            dst[dstOff + i] = Half
+                    .roundToHalfShortBits(Math.min(Math.max(Half.halfShortToFloat(src[srcOff + i]), min), max));
+        }
+    }
+
+    private static void relu(short[] src, int srcOff, short[] dst, int dstOff, int len) {
+        for (int i = 0; i < len; i++) {
+            short bits = src[srcOff + i];
+            // negative and not NaN
+            dst[dstOff + i] = bits < 0 && (bits & 0x7fff) <= HalfConsts.EXP_BIT_MASK ? 0 : bits;
+        }
+    }
+
+    private static void abs(short[] src, int srcOff, short[] dst, int dstOff, int len) {
+        for (int i = 0; i < len; i++) {
+            dst[dstOff + i] = (short) (src[srcOff + i] & ~HalfConsts.SIGN_BIT_MASK);
+        }
+    }
+
+    private static void negate(short[] src, int srcOff, short[] dst, int dstOff, int len) {
+        for (int i = 0; i < len; i++) {
+            dst[dstOff + i] = (short) (src[srcOff + i] ^ HalfConsts.SIGN_BIT_MASK);
+        }
+    }
+
+    static void checkLength(int length, int... otherLengths) {
+        for (int otherLength : otherLengths) {
+            if (length != otherLength) {
+                throw new IllegalArgumentException("Length mismatch: " + length + " != " + otherLength);
+            }
+        }
+    }
+
+    private static void unary(ShortBuffer src, ShortBuffer dst, UnaryKernel kernel) {
+        int len = dst.remaining();
+        checkLength(src.remaining(), len);
+        if (src.hasArray() && dst.hasArray()) {
+            kernel.apply(src.array(), src.arrayOffset() + src.position(), dst.array(),
+                    dst.arrayOffset() + dst.position(), len);
+            return;
+        }
+        int chunkLength = Math.min(len, BUFFER_CHUNK_SIZE);
+        short[] chunk = HalfScratch.acquireShorts(chunkLength);
+        try {
+            for (int i = 0; i < len; i += chunkLength) {
+                int n = Math.min(chunkLength, len - i);
+                get(src, src.position() + i, chunk, n);
+                kernel.apply(chunk, 0, chunk, 0, n);
+                put(dst, dst.position() + i, chunk, n);
+            }
+        } finally {
+            HalfScratch.release(chunk);
+        }
+    }
+
+    private static void binary(ShortBuffer a, ShortBuffer b, ShortBuffer dst, BinaryKernel kernel) {
+        int len = dst.remaining();
+        checkLength(a.remaining(), b.remaining(), len);
+        if (a.hasArray() && b.hasArray() && dst.hasArray()) {
+            kernel.apply(a.array(), a.arrayOffset() + a.position(), b.array(), b.arrayOffset() + b.position(),
+                    dst.array(), dst.arrayOffset() + dst.position(), len);
+            return;
+        }
+        int chunkLength = Math.min(len, BUFFER_CHUNK_SIZE);
+        short[] chunkA = HalfScratch.acquireShorts(chunkLength);
+        short[] chunkB = HalfScratch.acquireShorts(chunkLength);
+        try {
+            for (int i = 0; i < len; i += chunkLength) {
+                int n = Math.min(chunkLength, len - i);
+                get(a, a.position() + i, chunkA, n);
+                get(b, b.position() + i, chunkB, n);
+                kernel.apply(chunkA, 0, chunkB, 0, chunkA, 0, n);
+                put(dst, dst.position() + i, chunkA, n);
+            }
+        } finally {
+            HalfScratch.release(chunkA);
+            HalfScratch.release(chunkB);
+        }
+    }
+
+    /**
+     * Counts {@code half} values decoded through {@link HalfFloatTable} by a public reduction.
+     */
+    private static void countTable(long elements) {
+        if (HalfMetrics.enabled) {
+            HalfMetrics.converted(HalfMetrics.Path.TABLE, elements);
+        }
+    }
+
+    private static float reduce(ShortBuffer a, ShortBuffer b, ReductionKernel kernel) {
+        int len = a.remaining();
+        checkLength(len, b.remaining());
+        countTable(2L * len);
+        if (a.hasArray() && b.hasArray()) {
+            return kernel.apply(a.array(), a.arrayOffset() + a.position(), b.array(), b.arrayOffset() + b.position(),
+                    len);
+        }
+        int chunkLength = Math.min(len, BUFFER_CHUNK_SIZE);
+        short[] chunkA = HalfScratch.acquireShorts(chunkLength);
+        short[] chunkB = HalfScratch.acquireShorts(chunkLength);
+        try {
+            float sum = 0f;
+            for (int i = 0; i < len; i += chunkLength) {
+                int n = Math.min(chunkLength, len - i);
+                get(a, a.position() + i, chunkA, n);
+                get(b, b.position() + i, chunkB, n);
+                sum += kernel.apply(chunkA, 0, chunkB, 0, n);
+            }
+            return sum;
+        } finally {
+            HalfScratch.release(chunkA);
+            HalfScratch.release(chunkB);
+        }
+    }
+
+    // absolute element access, so no duplicate buffer is allocated
+    private static void get(ShortBuffer buf, int index, short[] dst, int len) {
+        for (int i = 0; i < len; i++) {
+            dst[i] = buf.get(index + i);
+        }
+    }
+
+    private static void put(ShortBuffer buf, int index, short[] src, int len) {
+        for (int i = 0; i < len; i++) {
+            buf.put(index + i, src[i]);
+        }
+    }
+
+    @FunctionalInterface
+    private interface UnaryKernel {
+        void apply(short[] src, int srcOff, short[] dst, int dstOff, int len);
+    }
+
+    @FunctionalInterface
+    private interface BinaryKernel {
+        void apply(short[] a, int aOff, short[] b, int bOff, short[] dst, int dstOff, int len);
+    }
+
+    @FunctionalInterface
+    private interface ReductionKernel {
+        float apply(short[] a, int aOff, short[] b, int bOff, int len);
+    }
+
+}
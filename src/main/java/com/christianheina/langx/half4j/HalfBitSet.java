@@ -0,0 +1,252 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.util.Arrays;
+
+/**
+ * A set of {@code half} values stored as one bit for each of the 65,536 {@code half} bit patterns, 8 KB in total.
+ *
+ * <p>
+ * Membership follows {@link Half#equals(Object)}: values are keyed by their {@link HalfUtil#canonicalShortBits(short)
+ * canonical short bits}, so all NaNs are a single member and positive and negative zero are distinct members.
+ * {@code Half} arguments are keyed by {@link Half#halfToShortBits(Half)}. Iteration and array conversion are in the
+ * order of {@link Half#compare(Half, Half)}, from negative infinity to NaN.
+ *
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class HalfBitSet {
+
+    private static final int WORDS = (1 << 16) >>> 6;
+    private static final int NEGATIVE_WORDS = WORDS >>> 1;
+
+    private final long[] words = new long[WORDS];
+    private int size;
+
+    /**
+     * Creates an empty set.
+     */
+    public HalfBitSet() {
+        super();
+    }
+
+    /**
+     * Returns the number of values in this set.
+     *
+     * @return the number of values
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this set holds no values.
+     *
+     * @return {@code true} if this set is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns {@code true} if this set holds the value with the given short bits.
+     *
+     * @param shortBits
+     *            the {@code half} short bits
+     *
+     * @return {@code true} if the value is a member
+     */
+    public boolean contains(short shortBits) {
+        int index = HalfUtil.canonicalShortBits(shortBits) & 0xffff;
+        return (words[index >>> 6] & 1L << index) != 0;
+    }
+
+    /**
+     * Returns {@code true} if this set holds {@code half}.
+     *
+     * @param half
+     *            the value
+     *
+     * @return {@code true} if the value is a member
+     */
+    public boolean contains(Half half) {
+        return contains(Half.halfToShortBits(half));
+    }
+
+    /**
+     * Adds the value with the given short bits.
+     *
+     * @param shortBits
+     *            the {@code half} short bits
+     *
+     * @return {@code true} if the value was not already a member
+     */
+    public boolean add(short shortBits) {
+        int index = HalfUtil.canonicalShortBits(shortBits) & 0xffff;
+        long word = words[index >>> 6];
+        long bit = 1L << index;
+        if ((word & bit) != 0) {
+            return false;
+        }
+        words[index >>> 6] = word | bit;
+        size++;
+        return true;
+    }
+
+    /**
+     * Adds {@code half}.
+     *
+     * @param half
+     *            the value
+     *
+     * @return {@code true} if the value was not already a member
+     */
+    public boolean add(Half half) {
+        return add(Half.halfToShortBits(half));
+    }
+
+    /**
+     * Adds every value of {@code src}.
+     *
+     * @param src
+     *            the {@code half} short bits to add
+     */
+    public void addAll(short[] src) {
+        for (short shortBits : src) {
+            add(shortBits);
+        }
+    }
+
+    /**
+     * Removes the value with the given short bits.
+     *
+     * @param shortBits
+     *            the {@code half} short bits
+     *
+     * @return {@code true} if the value was a member
+     */
+    public boolean remove(short shortBits) {
+        int index = HalfUtil.canonicalShortBits(shortBits) & 0xffff;
+        long word = words[index >>> 6];
+        long bit = 1L << index;
+        if ((word & bit) == 0) {
+            return false;
+        }
+        words[index >>> 6] = word & ~bit;
+        size--;
+        return true;
+    }
+
+    /**
+     * Removes {@code half}.
+     *
+     * @param half
+     *            the value
+     *
+     * @return {@code true} if the value was a member
+     */
+    public boolean remove(Half half) {
+        return remove(Half.halfToShortBits(half));
+    }
+
+    /**
+     * Adds every member of {@code other} to this set.
+     *
+     * @param other
+     *            the set to add
+     */
+    public void or(HalfBitSet other) {
+        int count = 0;
+        for (int i = 0; i < WORDS; i++) {
+            words[i] |= other.words[i];
+            count += Long.bitCount(words[i]);
+        }
+        size = count;
+    }
+
+    /**
+     * Removes every value that is not a member of {@code other} from this set.
+     *
+     * @param other
+     *            the set to intersect with
+     */
+    public void and(HalfBitSet other) {
+        int count = 0;
+        for (int i = 0; i < WORDS; i++) {
+            words[i] &= other.words[i];
+            count += Long.bitCount(words[i]);
+        }
+        size = count;
+    }
+
+    /**
+     * Removes all values.
+     */
+    public void clear() {
+        Arrays.fill(words, 0L);
+        size = 0;
+    }
+
+    /**
+     * Returns the short bits of all members, in the order of {@link Half#compare(Half, Half)}.
+     *
+     * @return array of {@code half} short bits
+     */
+    public short[] toShortBitsArray() {
+        short[] shortBits = new short[size];
+        int n = 0;
+        // negative values, largest magnitude first
+        for (int i = WORDS - 1; i >= NEGATIVE_WORDS; i--) {
+            for (long word = words[i]; word != 0; word &= ~(Long.MIN_VALUE >>> Long.numberOfLeadingZeros(word))) {
+                shortBits[n++] = (short) (i << 6 | 63 - Long.numberOfLeadingZeros(word));
+            }
+        }
+        // positive values, smallest magnitude first, ending with the canonical NaN
+        for (int i = 0; i < NEGATIVE_WORDS; i++) {
+            for (long word = words[i]; word != 0; word &= word - 1) {
+                shortBits[n++] = (short) (i << 6 | Long.numberOfTrailingZeros(word));
+            }
+        }
+        return shortBits;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof HalfBitSet && Arrays.equals(words, ((HalfBitSet) obj).words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (short shortBits : toShortBitsArray()) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(Half.shortBitsToHalf(shortBits));
+        }
+        return sb.append(']').toString();
+    }
+
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * The class {@code HalfBlas} contains matrix-vector and matrix-matrix multiplication kernels for matrices stored as
+ * {@code half} short bits.
+ *
+ * <p>
+ * Matrices are stored in row-major order. A matrix stored in column-major order is the row-major storage of its
+ * transpose, so column-major operands are supported through the {@code transpose} flags. Products are accumulated and
+ * returned in {@code float}.
+ *
+ * <p>
+ * Large products are computed in parallel over rows using the common {@link java.util.concurrent.ForkJoinPool}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class HalfBlas {
+
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int ROW_BLOCK = 16;
+    private static final int K_BLOCK = 256;
+    private static final int N_BLOCK = 512;
+
+    private HalfBlas() {
+        /* Hidden Constructor */ }
+
+    /**
+     * Computes the matrix-vector product {@code y = op(A) * x}, where {@code op(A)} is {@code A} or its transpose.
+     *
+     * @param transpose
+     *            {@code true} to multiply with the transpose of {@code A}
+     * @param rows
+     *            number of rows of the stored matrix {@code A}
+     * @param cols
+     *            number of columns of the stored matrix {@code A}
+     * @param a
+     *            the {@code half} bits of {@code A} in row-major order
+     * @param x
+     *            the {@code half} bits of the vector, of length {@code cols}, or {@code rows} if transposed
+     * @param y
+     *            the destination of the result, of length {@code rows}, or {@code cols} if transposed
+     *
+     * @throws IllegalArgumentException
+     *             if the array lengths do not match the given dimensions
+     */
+    public static void gemv(boolean transpose, int rows, int cols, short[] a, short[] x, float[] y) {
+        checkDimension(a.length, (long) rows * cols);
+        checkDimension(x.length, transpose ? rows : cols);
+        checkDimension(y.length, transpose ? cols : rows);
+        float[] xf = HalfUtil.halfShortBitsToFloatArray(x);
+        boolean parallel = (long) rows * cols >= PARALLEL_THRESHOLD;
+        if (transpose) {
+            int blocks = (cols + N_BLOCK - 1) / N_BLOCK;
+            range(blocks, parallel).forEach(block -> gemvTransposedBlock(rows, cols, a, xf, y, block * N_BLOCK,
+                    Math.min(cols, (block + 1) * N_BLOCK)));
+        } else {
+            range(rows, parallel).forEach(row -> y[row] = dot(a, row * cols, xf, cols));
+        }
+    }
+
+    /**
+     * Computes the matrix-matrix product {@code C = op(A) * op(B)}, where {@code op(X)} is {@code X} or its transpose.
+     * {@code op(A)} is an {@code m x k} matrix, {@code op(B)} is a {@code k x n} matrix and {@code C} is an
+     * {@code m x n} matrix in row-major order.
+     *
+     * @param transposeA
+     *            {@code true} if {@code a} stores the {@code k x m} transpose of {@code op(A)}
+     * @param transposeB
+     *            {@code true} if {@code b} stores the {@code n x k} transpose of {@code op(B)}
+     * @param m
+     *            number of rows of {@code op(A)} and {@code C}
+     * @param n
+     *            number of columns of {@code op(B)} and {@code C}
+     * @param k
+     *            number of columns of {@code op(A)} and rows of {@code op(B)}
+     * @param a
+     *            the {@code half} bits of {@code A} in row-major order
+     * @param b
+     *            the {@code half} bits of {@code B} in row-major order
+     * @param c
+     *            the destination of the result
+     *
+     * @throws IllegalArgumentException
+     *             if the array lengths do not match the given dimensions
+     */
+    public static void gemm(boolean transposeA, boolean transposeB, int m, int n, int k, short[] a, short[] b,
+            float[] c) {
+        checkDimension(a.length, (long) m * k);
+        checkDimension(b.length, (long) k * n);
+        checkDimension(c.length, (long) m * n);
+        Arrays.fill(c, 0f);
+        boolean parallel = (long) m * n * k >= PARALLEL_THRESHOLD;
+        int rowBlocks = (m + ROW_BLOCK - 1) / ROW_BLOCK;
+        float[] bTile = HalfScratch.acquireFloats(Math.min(k, K_BLOCK) * Math.min(n, N_BLOCK));
+        try {
+            for (int k0 = 0; k0 < k; k0 += K_BLOCK) {
+                int kLen = Math.min(K_BLOCK, k - k0);
+                for (int n0 = 0; n0 < n; n0 += N_BLOCK) {
+                    int nLen = Math.min(N_BLOCK, n - n0);
+                    decodeTile(transposeB, k, n, b, k0, kLen, n0, nLen, bTile);
+                    int tileK0 = k0;
+                    int tileN0 = n0;
+                    range(rowBlocks, parallel).forEach(block -> gemmRowBlock(transposeA, m, n, k, a, c, bTile, tileK0,
+                            kLen, tileN0, nLen, block * ROW_BLOCK, Math.min(m, (block + 1) * ROW_BLOCK)));
+                }
+            }
+        } finally {
+            HalfScratch.release(bTile);
+        }
+    }
+
+    private static float dot(short[] a, int offset, float[] x, int length) {
+        float sum = 0f;
+        for (int i = 0; i < length; i++) {
+            sum += Half.halfShortToFloat(a[offset + i]) * x[i];
+        }
+        return sum;
+    }
+
+    private static void gemvTransposedBlock(int rows, int cols, short[] a, float[] x, float[] y, int from, int to) {
+        Arrays.fill(y, from, to, 0f);
+        for (int row = 0; row < rows; row++) {
+            float xi = x[row];
+            int offset = row * cols;
+            for (int col = from; col < to; col++) {
+                y[col] += Half.halfShortToFloat(a[offset + col]) * xi;
+            }
+        }
+    }
+
+    /**
+     * Decodes the {@code kLen x nLen} tile of {@code op(B)} starting at {@code (k0, n0)} into row-major floats.
+     */
+    private static void decodeTile(boolean transposeB, int k, int n, short[] b, int k0, int kLen, int n0, int nLen,
+            float[] tile) {
+        for (int kk = 0; kk < kLen; kk++) {
+            int tileOffset = kk * nLen;
+            if (transposeB) {
+                for (int j = 0; j < nLen; j++) {
+                    tile[tileOffset + j] = Half.halfShortToFloat(b[(n0 + j) * k + k0 + kk]);
+                }
+            } else {
+                HalfUtil.halfShortBitsToFloatArray(b, (k0 + kk) * n + n0, tile, tileOffset, nLen);
+            }
+        }
+    }
+
+    private static void gemmRowBlock(boolean transposeA, int m, int n, int k, short[] a, float[] c, float[] bTile,
+            int k0, int kLen, int n0, int nLen, int fromRow, int toRow) {
+        for (int i = fromRow; i < toRow; i++) {
+            int cOffset = i * n + n0;
+            for (int kk = 0; kk < kLen; kk++) {
+                float aik = Half.halfShortToFloat(transposeA ? a[(k0 + kk) * m + i] : a[i * k + k0 + kk]);
+                int tileOffset = kk * nLen;
+                for (int j = 0; j < nLen; j++) {
+                    c[cOffset + j] += aik * bTile[tileOffset + j];
+                }
+            }
+        }
+    }
+
+    private static IntStream range(int count, boolean parallel) {
+        IntStream range = IntStream.range(0, count);
+        return parallel ? range.parallel() : range;
+    }
+
+    private static void checkDimension(int length, long expected) {
+        if (length != expected) {
+            throw new IllegalArgumentException("Expected length " + expected + " but was " + length);
+        }
+    }
+
+}
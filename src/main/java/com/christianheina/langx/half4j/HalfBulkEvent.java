@@ -0,0 +1,64 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for a bulk {@code half} operation. Only loaded by {@link HalfMetrics} when Flight Recorder
+ * is available, so that the library still runs on JDKs without it.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@Name("com.christianheina.langx.half4j.Bulk")
+@Label("Half Bulk Operation")
+@Category("half4j")
+@Description("A bulk operation on half values")
+@StackTrace(false)
+final class HalfBulkEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Path")
+    String path;
+
+    @Label("Elements")
+    long elements;
+
+    static Object start(String operation, String path, long elements) {
+        HalfBulkEvent event = new HalfBulkEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.operation = operation;
+        event.path = path;
+        event.elements = elements;
+        event.begin();
+        return event;
+    }
+
+    static void finish(Object event) {
+        ((HalfBulkEvent) event).commit();
+    }
+
+}
@@ -0,0 +1,385 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A lossless compression codec for {@code half} values.
+ *
+ * <p>
+ * Values are encoded in blocks of up to {@value #BLOCK_SIZE} values. Each value of a block is XORed with the previous
+ * one, which clears the sign and exponent bits shared by neighbouring values, the high and low bytes of the results are
+ * then shuffled into separate byte planes and the planes are compressed with {@link Deflater}. Blocks that do not
+ * compress are stored as is.
+ *
+ * <p>
+ * {@link Encoder} and {@link Decoder} hold buffers for a single block, so encoding and decoding a stream of any length
+ * uses a bounded amount of memory.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class HalfCodec {
+
+    /**
+     * The maximum number of values in a block.
+     */
+    public static final int BLOCK_SIZE = 1 << 16;
+
+    private static final int MAGIC = 0x48344a43;
+    private static final int END_OF_STREAM = 0;
+    private static final byte STORED = 0;
+    private static final byte DEFLATED = 1;
+
+    private HalfCodec() {
+        /* Hidden Constructor */ }
+
+    /**
+     * Encodes {@code half} short bits.
+     *
+     * @param shortBits
+     *            the {@code half} short bits to encode
+     *
+     * @return the encoded bytes
+     */
+    public static byte[] encode(short... shortBits) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (Encoder encoder = new Encoder(out)) {
+            encoder.write(shortBits, 0, shortBits.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes {@code half} short bits encoded by this codec.
+     *
+     * @param bytes
+     *            the encoded bytes
+     *
+     * @return the decoded {@code half} short bits
+     *
+     * @throws IOException
+     *             if {@code bytes} is not a valid encoding
+     */
+    public static short[] decode(byte... bytes) throws IOException {
+        try (Decoder decoder = new Decoder(new ByteArrayInputStream(bytes))) {
+            short[] shortBits = new short[BLOCK_SIZE];
+            int length = 0;
+            for (int n; (n = decoder.read(shortBits, length, shortBits.length - length)) >= 0;) {
+                length += n;
+                if (length == shortBits.length) {
+                    shortBits = Arrays.copyOf(shortBits, shortBits.length * 2);
+                }
+            }
+            return Arrays.copyOf(shortBits, length);
+        }
+    }
+
+    /**
+     * Encodes {@code half} values to an {@link OutputStream}.
+     */
+    public static final class Encoder implements Closeable {
+
+        private final DataOutputStream out;
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final short[] block = new short[BLOCK_SIZE];
+        private final byte[] planes = new byte[BLOCK_SIZE * Half.BYTES];
+        private final byte[] compressed = new byte[BLOCK_SIZE * Half.BYTES];
+        private int count;
+        private boolean finished;
+
+        /**
+         * Creates an encoder writing to the given stream.
+         *
+         * @param out
+         *            the stream to write to
+         *
+         * @throws IOException
+         *             if an I/O error occurs
+         */
+        public Encoder(OutputStream out) throws IOException {
+            this.out = new DataOutputStream(out);
+            this.out.writeInt(MAGIC);
+        }
+
+        /**
+         * Encodes {@code length} {@code half} short bits from {@code src} starting at {@code srcPos}.
+         *
+         * @param src
+         *            the {@code half} short bits
+         * @param srcPos
+         *            starting position in the source array
+         * @param length
+         *            the number of values to encode
+         *
+         * @throws IOException
+         *             if an I/O error occurs
+         */
+        public void write(short[] src, int srcPos, int length) throws IOException {
+            HalfUtil.checkBounds(src.length, srcPos, Integer.MAX_VALUE, 0, length);
+            checkNotFinished();
+            while (length > 0) {
+                int n = Math.min(length, BLOCK_SIZE - count);
+                System.arraycopy(src, srcPos, block, count, n);
+                count += n;
+                srcPos += n;
+                length -= n;
+                if (count == BLOCK_SIZE) {
+                    writeBlock();
+                }
+            }
+        }
+
+        /**
+         * Encodes the remaining {@code half} short bits of {@code src}.
+         *
+         * @param src
+         *            the {@code half} short bits
+         *
+         * @throws IOException
+         *             if an I/O error occurs
+         */
+        public void write(ShortBuffer src) throws IOException {
+            checkNotFinished();
+            while (src.hasRemaining()) {
+                int n = Math.min(src.remaining(), BLOCK_SIZE - count);
+                src.get(block, count, n);
+                count += n;
+                if (count == BLOCK_SIZE) {
+                    writeBlock();
+                }
+            }
+        }
+
+        /**
+         * Encodes any buffered values as a block and flushes the stream.
+         *
+         * @throws IOException
+         *             if an I/O error occurs
+         */
+        public void flush() throws IOException {
+            checkNotFinished();
+            if (count > 0) {
+                writeBlock();
+            }
+            out.flush();
+        }
+
+        /**
+         * Encodes any buffered values and writes the end of the encoding, without closing the stream.
+         *
+         * @throws IOException
+         *             if an I/O error occurs
+         */
+        public void finish() throws IOException {
+            if (!finished) {
+                flush();
+                out.writeInt(END_OF_STREAM);
+                out.flush();
+                deflater.end();
+                finished = true;
+            }
+        }
+
+        /**
+         * Finishes the encoding and closes the stream.
+         *
+         * @throws IOException
+         *             if an I/O error occurs
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                finish();
+            } finally {
+                out.close();
+            }
+        }
+
+        private void writeBlock() throws IOException {
+            short previous = 0;
+            for (int i = 0; i < count; i++) {
+                int delta = block[i] ^ previous;
+                previous = block[i];
+                planes[i] = (byte) (delta >>> 8);
+                planes[count + i] = (byte) delta;
+            }
+            int rawLength = count * Half.BYTES;
+            deflater.reset();
+            deflater.setInput(planes, 0, rawLength);
+            deflater.finish();
+            int length = 0;
+            while (!deflater.finished() && length < rawLength) {
+                length += deflater.deflate(compressed, length, rawLength - length);
+            }
+            out.writeInt(count);
+            if (deflater.finished() && length < rawLength) {
+                out.writeByte(DEFLATED);
+                out.writeInt(length);
+                out.write(compressed, 0, length);
+            } else {
+                out.writeByte(STORED);
+                out.writeInt(rawLength);
+                out.write(planes, 0, rawLength);
+            }
+            count = 0;
+        }
+
+        private void checkNotFinished() throws IOException {
+            if (finished) {
+                throw new IOException("Encoder is finished");
+            }
+        }
+
+    }
+
+    /**
+     * Decodes {@code half} values from an {@link InputStream}.
+     */
+    public static final class Decoder implements Closeable {
+
+        private final DataInputStream in;
+        private final Inflater inflater = new Inflater();
+        private final short[] block = new short[BLOCK_SIZE];
+        private final byte[] planes = new byte[BLOCK_SIZE * Half.BYTES];
+        private final byte[] compressed = new byte[BLOCK_SIZE * Half.BYTES];
+        private int count;
+        private int position;
+        private boolean ended;
+
+        /**
+         * Creates a decoder reading from the given stream.
+         *
+         * @param in
+         *            the stream to read from
+         *
+         * @throws IOException
+         *             if an I/O error occurs or the stream is not encoded by this codec
+         */
+        public Decoder(InputStream in) throws IOException {
+            this.in = new DataInputStream(in);
+            if (this.in.readInt() != MAGIC) {
+                throw new IOException("Not a half codec stream");
+            }
+        }
+
+        /**
+         * Decodes up to {@code length} {@code half} short bits into {@code dst} starting at {@code dstPos}.
+         *
+         * @param dst
+         *            the destination array
+         * @param dstPos
+         *            starting position in the destination array
+         * @param length
+         *            the maximum number of values to decode
+         *
+         * @return the number of values decoded, or {@code -1} if the end of the encoding has been reached
+         *
+         * @throws IOException
+         *             if an I/O error occurs or the stream is corrupt
+         */
+        public int read(short[] dst, int dstPos, int length) throws IOException {
+            HalfUtil.checkBounds(Integer.MAX_VALUE, 0, dst.length, dstPos, length);
+            if (position == count && !readBlock()) {
+                return -1;
+            }
+            int n = Math.min(length, count - position);
+            System.arraycopy(block, position, dst, dstPos, n);
+            position += n;
+            return n;
+        }
+
+        /**
+         * Closes the decoder and the stream.
+         *
+         * @throws IOException
+         *             if an I/O error occurs
+         */
+        @Override
+        public void close() throws IOException {
+            inflater.end();
+            in.close();
+        }
+
+        private boolean readBlock() throws IOException {
+            if (ended) {
+                return false;
+            }
+            int newCount = in.readInt();
+            if (newCount == END_OF_STREAM) {
+                ended = true;
+                return false;
+            }
+            if (newCount < 0 || newCount > BLOCK_SIZE) {
+                throw new IOException("Corrupt block size " + newCount);
+            }
+            int rawLength = newCount * Half.BYTES;
+            byte method = in.readByte();
+            int length = in.readInt();
+            if (method == STORED && length == rawLength) {
+                in.readFully(planes, 0, rawLength);
+            } else if (method == DEFLATED && length >= 0 && length <= compressed.length) {
+                in.readFully(compressed, 0, length);
+                inflater.reset();
+                inflater.setInput(compressed, 0, length);
+                try {
+                    int inflated = 0;
+                    while (!inflater.finished() && inflated < rawLength) {
+                        int n = inflater.inflate(planes, inflated, rawLength - inflated);
+                        if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                            break;
+                        }
+                        inflated += n;
+                    }
+                    if (inflated != rawLength || !inflater.finished()) {
+                        throw new IOException("Corrupt block");
+                    }
+                } catch (DataFormatException e) {
+                    throw new IOException("Corrupt block", e);
+                }
+            } else {
+                throw new IOException("Corrupt block header");
+            }
+
+            short previous = 0;
+            for (int i = 0; i < newCount; i++) {
+                previous ^= (short) ((planes[i] & 0xff) << 8 | (planes[newCount + i] & 0xff));
+                block[i] = previous;
+            }
+            count = newCount;
+            position = 0;
+            return true;
+        }
+
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+/**
+ * Statistics of a checked conversion from {@code float} to {@code half}, as returned by
+ * {@link HalfUtil#floatArrayToHalfShortBitsChecked(float[], int, short[], int, int)}.
+ *
+ * <p>
+ * Each converted value is classified as at most one of NaN, overflow (a finite value converted to infinity), underflow
+ * (a non-zero value converted to zero) or subnormal (a value converted to a subnormal {@code half}). The relative error
+ * {@code |half - float| / |float|} is tracked for all finite non-zero inputs that did not overflow, so an underflow has
+ * a relative error of {@code 1}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class HalfConversionStats {
+
+    private final long length;
+    private final long nans;
+    private final long overflows;
+    private final long underflows;
+    private final long subnormals;
+    private final double maxRelativeError;
+
+    HalfConversionStats(long length, long nans, long overflows, long underflows, long subnormals,
+            double maxRelativeError) {
+        this.length = length;
+        this.nans = nans;
+        this.overflows = overflows;
+        this.underflows = underflows;
+        this.subnormals = subnormals;
+        this.maxRelativeError = maxRelativeError;
+    }
+
+    /**
+     * Returns the number of converted values.
+     *
+     * @return the number of values
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the number of NaN values.
+     *
+     * @return the number of NaN values
+     */
+    public long getNaNs() {
+        return nans;
+    }
+
+    /**
+     * Returns the number of finite values that overflowed to infinity.
+     *
+     * @return the number of overflows
+     */
+    public long getOverflows() {
+        return overflows;
+    }
+
+    /**
+     * Returns the number of non-zero values that underflowed to zero.
+     *
+     * @return the number of underflows
+     */
+    public long getUnderflows() {
+        return underflows;
+    }
+
+    /**
+     * Returns the number of values converted to a subnormal {@code half}.
+     *
+     * @return the number of subnormal results
+     */
+    public long getSubnormals() {
+        return subnormals;
+    }
+
+    /**
+     * Returns the largest relative error of a finite non-zero value that did not overflow, or {@code 0} if there is no
+     * such value.
+     *
+     * @return the largest relative error
+     */
+    public double getMaxRelativeError() {
+        return maxRelativeError;
+    }
+
+    /**
+     * Returns {@code true} if any finite value overflowed to infinity or any non-zero value underflowed to zero.
+     *
+     * @return {@code true} if a value was out of the range of {@code half}
+     */
+    public boolean isOutOfRange() {
+        return overflows != 0 || underflows != 0;
+    }
+
+    /**
+     * Returns the statistics of this conversion combined with those of another, for conversions done in chunks.
+     *
+     * @param other
+     *            the statistics to combine with
+     *
+     * @return the combined statistics
+     */
+    public HalfConversionStats combine(HalfConversionStats other) {
+        return new HalfConversionStats(length + other.length, nans + other.nans, overflows + other.overflows,
+                underflows + other.underflows, subnormals + other.subnormals,
+                Math.max(maxRelativeError, other.maxRelativeError));
+    }
+
+    @Override
+    public String toString() {
+        return "HalfConversionStats [length=" + length + ", nans=" + nans + ", overflows=" + overflows + ", underflows="
+                + underflows + ", subnormals=" + subnormals + ", maxRelativeError=" + maxRelativeError + "]";
+    }
+
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+/**
+ * The implementations of bulk conversion between {@code half} short bits and {@code float}, one of which is bound for
+ * decoding and one for encoding by the array conversions of {@link HalfUtil}.
+ *
+ * <p>
+ * All implementations produce identical results. The bound implementations follow a fixed policy based only on what the
+ * running JVM provides, and nothing is measured: {@link #INTRINSIC} when the JDK intrinsics are available, and
+ * otherwise {@link #TABLE} for decoding and {@link #SWAR} for encoding. Which implementation is fastest depends on the
+ * CPU, the JIT compiler and the data, so it can be measured on the target machine with
+ * {@code examples.HalfConverterBenchmark} in the test sources. The choice may be overridden with the
+ * {@code half4j.converter} system property, set to the name of an implementation. {@link #report()} describes the bound
+ * implementations.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public enum HalfConverter {
+
+    /**
+     * Converts one value at a time with the bit arithmetic of {@link Half}.
+     */
+    SCALAR {
+        @Override
+        void decode(short[] src, int srcPos, float[] dst, int dstPos, int length) {
+            for (int i = 0; i < length; i++) {
+                dst[dstPos + i] = Half.arithmeticHalfShortToFloat(src[srcPos + i]);
+            }
+        }
+
+        @Override
+        void encode(float[] src, int srcPos, short[] dst, int dstPos, int length) {
+            for (int i = 0; i < length; i++) {
+                dst[dstPos + i] = Half.arithmeticFloatToHalfShortBits(src[srcPos + i]);
+            }
+        }
+    },
+
+    /**
+     * Converts one value at a time with {@code Float.float16ToFloat} and {@code Float.floatToFloat16}, which are
+     * intrinsified by the JIT compiler. Only available on Java 20 and later.
+     */
+    INTRINSIC {
+        @Override
+        void decode(short[] src, int srcPos, float[] dst, int dstPos, int length) {
+            for (int i = 0; i < length; i++) {
+                dst[dstPos + i] = HalfIntrinsics.toFloat(src[srcPos + i]);
+            }
+        }
+
+        @Override
+        void encode(float[] src, int srcPos, short[] dst, int dstPos, int length) {
+            for (int i = 0; i < length; i++) {
+                dst[dstPos + i] = HalfIntrinsics.toHalfShortBits(src[srcPos + i]);
+            }
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return HalfIntrinsics.AVAILABLE;
+        }
+    },
+
+    /**
+     * Decodes with a table of all 65,536 {@code float} values and encodes with a table of 512 base values and shifts
+     * indexed by the sign and exponent of the {@code float}.
+     */
+    TABLE {
+        @Override
+        void decode(short[] src, int srcPos, float[] dst, int dstPos, int length) {
+            for (int i = 0; i < length; i++) {
+                dst[dstPos + i] = HalfFloatTable.toFloat(src[srcPos + i]);
+            }
+        }
+
+        @Override
+        void encode(float[] src, int srcPos, short[] dst, int dstPos, int length) {
+            short[] base = ENCODE_BASE;
+            byte[] shift = ENCODE_SHIFT;
+            for (int i = 0; i < length; i++) {
+                float value = src[srcPos + i];
+                int intBits = Float.floatToRawIntBits(value);
+                int index = intBits >>> 23;
+                int s = shift[index];
+                // a shift of 0 marks the subnormal results, which round
+                dst[dstPos + i] = s == 0 ? Half.floatToHalfShortBits(value)
+                        : (short) (base[index] | (intBits & 0x007fffff) >> s);
+            }
+        }
+    },
+
+    /**
+     * Converts two values at a time in the 32-bit lanes of a {@code long} when both are normal, and one at a time
+     * otherwise.
+     */
+    SWAR {
+        @Override
+        void decode(short[] src, int srcPos, float[] dst, int dstPos, int length) {
+            int i = 0;
+            for (; i + 2 <= length; i += 2) {
+                int h0 = src[srcPos + i];
+                int h1 = src[srcPos + i + 1];
+                if (isNormal(h0) && isNormal(h1)) {
+                    long x = (h0 & 0xffffL) | (h1 & 0xffffL) << 32;
+                    long f = (x & 0x0000_8000_0000_8000L) << 16
+                            | ((x & 0x0000_7fff_0000_7fffL) << 13) + 0x3800_0000_3800_0000L;
+                    dst[dstPos + i] = Float.intBitsToFloat((int) f);
+                    dst[dstPos + i + 1] = Float.intBitsToFloat((int) (f >>> 32));
+                } else {
+                    dst[dstPos + i] = Half.halfShortToFloat((short) h0);
+                    dst[dstPos + i + 1] = Half.halfShortToFloat((short) h1);
+                }
+            }
+            for (; i < length; i++) {
+                dst[dstPos + i] = Half.halfShortToFloat(src[srcPos + i]);
+            }
+        }
+
+        @Override
+        void encode(float[] src, int srcPos, short[] dst, int dstPos, int length) {
+            int i = 0;
+            for (; i + 2 <= length; i += 2) {
+                int f0 = Float.floatToRawIntBits(src[srcPos + i]);
+                int f1 = Float.floatToRawIntBits(src[srcPos + i + 1]);
+                if (HalfIntrinsics.isNormalHalf(f0) && HalfIntrinsics.isNormalHalf(f1)) {
+                    long x = (f0 & 0xffff_ffffL) | (long) f1 << 32;
+                    long h = (x >>> 16 & 0x0000_8000_0000_8000L)
+                            | ((x >>> 13 & 0x0003_ffff_0003_ffffL) - 0x0001_c000_0001_c000L);
+                    dst[dstPos + i] = (short) h;
+                    dst[dstPos + i + 1] = (short) (h >>> 32);
+                } else {
+                    dst[dstPos + i] = Half.floatToHalfShortBits(src[srcPos + i]);
+                    dst[dstPos + i + 1] = Half.floatToHalfShortBits(src[srcPos + i + 1]);
+                }
+            }
+            for (; i < length; i++) {
+                dst[dstPos + i] = Half.floatToHalfShortBits(src[srcPos + i]);
+            }
+        }
+    };
+
+    private static final short[] ENCODE_BASE = new short[512];
+    private static final byte[] ENCODE_SHIFT = new byte[512];
+
+    static {
+        for (int index = 0; index < 512; index++) {
+            int sign = (index & 0x100) << 7;
+            int exponent = index & 0xff;
+            if (exponent > 142) {
+                // infinity, with the significand of NaN
+                ENCODE_BASE[index] = (short) (sign | HalfConsts.EXP_BIT_MASK);
+                ENCODE_SHIFT[index] = (byte) (exponent == 0xff ? 13 : 24);
+            } else if (exponent > 112) {
+                ENCODE_BASE[index] = (short) (sign | (exponent - 112) << 10);
+                ENCODE_SHIFT[index] = 13;
+            } else if (exponent < 102) {
+                ENCODE_BASE[index] = (short) sign;
+                ENCODE_SHIFT[index] = 24;
+            }
+            // exponents 102 to 112 give subnormal results and keep a shift of 0
+        }
+    }
+
+    private static final String PROPERTY = "half4j.converter";
+    private static final String OVERRIDE = System.getProperty(PROPERTY);
+    private static final HalfConverter DECODER;
+    private static final HalfConverter ENCODER;
+
+    static {
+        HalfConverter override = parse(OVERRIDE);
+        if (override != null) {
+            DECODER = override;
+            ENCODER = override;
+        } else if (INTRINSIC.isAvailable()) {
+            DECODER = INTRINSIC;
+            ENCODER = INTRINSIC;
+        } else {
+            DECODER = TABLE;
+            ENCODER = SWAR;
+        }
+    }
+
+    abstract void decode(short[] src, int srcPos, float[] dst, int dstPos, int length);
+
+    abstract void encode(float[] src, int srcPos, short[] dst, int dstPos, int length);
+
+    /**
+     * Returns whether this implementation can be used on the running JVM.
+     *
+     * @return {@code true} if this implementation is available
+     */
+    public boolean isAvailable() {
+        return true;
+    }
+
+    /**
+     * Returns the implementation bound for converting {@code half} short bits to {@code float}.
+     *
+     * @return the bound decoder
+     */
+    public static HalfConverter getDecoder() {
+        return DECODER;
+    }
+
+    /**
+     * Returns the implementation bound for converting {@code float} to {@code half} short bits.
+     *
+     * @return the bound encoder
+     */
+    public static HalfConverter getEncoder() {
+        return ENCODER;
+    }
+
+    /**
+     * Returns a description of the bound implementations, how they were chosen and which implementations are available
+     * on the running JVM.
+     *
+     * @return the report
+     */
+    public static String report() {
+        StringBuilder sb = new StringBuilder("HalfConverter: decoder=").append(DECODER).append(", encoder=")
+                .append(ENCODER);
+        if (OVERRIDE != null) {
+            sb.append(" (").append(PROPERTY).append('=').append(OVERRIDE);
+            if (parse(OVERRIDE) == null) {
+                sb.append(" not available, defaults bound");
+            }
+            sb.append(')');
+        }
+        for (HalfConverter converter : values()) {
+            sb.append(System.lineSeparator()).append("  ").append(converter).append(':')
+                    .append(converter.isAvailable() ? " available" : " not available");
+        }
+        return sb.toString();
+    }
+
+    private static boolean isNormal(int shortBits) {
+        int exponent = shortBits & HalfConsts.EXP_BIT_MASK;
+        return exponent != 0 && exponent != HalfConsts.EXP_BIT_MASK;
+    }
+
+    private static HalfConverter parse(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (HalfConverter converter : values()) {
+            if (converter.name().equalsIgnoreCase(name.trim()) && converter.isAvailable()) {
+                return converter;
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+/**
+ * The {@code float} value of every one of the 65,536 {@code half} bit patterns, 256 KB in total. Converting through the
+ * table is a single load, which is several times faster than {@link Half#halfShortToFloat(short)} on data with mixed
+ * exponents, so it is used by kernels that convert many values, such as reductions.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+final class HalfFloatTable {
+
+    private static final float[] VALUES = new float[1 << 16];
+
+    static {
+        for (int i = 0; i < VALUES.length; i++) {
+            VALUES[i] = Half.halfShortToFloat((short) i);
+        }
+    }
+
+    private HalfFloatTable() {
+        /* Hidden Constructor */ }
+
+    static float toFloat(short shortBits) {
+        return VALUES[shortBits & 0xffff];
+    }
+
+}
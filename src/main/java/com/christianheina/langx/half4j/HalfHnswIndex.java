@@ -0,0 +1,612 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * A Hierarchical Navigable Small World (HNSW) graph index over vectors of {@code half} values for approximate nearest
+ * neighbour search.
+ *
+ * <p>
+ * Vectors are stored as {@code half} short bits in a single array allocated for the capacity of the index, half the
+ * memory of {@code float} vectors, and distances are computed directly from the short bits by the {@link HalfMetric}
+ * kernels. Every vector is a node on level {@code 0} of the graph and on a random number of levels above it, with up to
+ * {@code 2 * m} neighbours on level {@code 0} and up to {@code m} on higher levels. A search descends greedily from the
+ * top level and performs a best-first search of width {@code ef} on level {@code 0}.
+ *
+ * <p>
+ * {@link #add(short[])} and {@link #search(short[], int, int)} may be called concurrently from any number of threads.
+ * The neighbour lists of each node are guarded by a lock that is never held while acquiring another, and the sets of
+ * visited nodes used by searches are pooled without being bound to threads. The level of each node is derived from the
+ * seed and its id, so an index built sequentially is deterministic.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class HalfHnswIndex {
+
+    /**
+     * The default maximum number of neighbours of a node on levels above {@code 0}.
+     */
+    public static final int DEFAULT_M = 16;
+
+    /**
+     * The default width of the search used to find the neighbours of an added vector.
+     */
+    public static final int DEFAULT_EF_CONSTRUCTION = 200;
+
+    private static final int MAX_LEVEL = 16;
+    private static final long EMPTY = -1L;
+    private static final int LOCK_STRIPES = 1 << 12;
+
+    private final int dimension;
+    private final int capacity;
+    private final HalfMetric metric;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final long seed;
+    private final double levelMultiplier;
+
+    private final short[] vectors;
+    private final int[] links0;
+    private final int[][][] upperLinks;
+    private final Object[] locks;
+    private final AtomicInteger size = new AtomicInteger();
+    private final Object entryLock = new Object();
+    private final ConcurrentLinkedQueue<Visited> visitedPool = new ConcurrentLinkedQueue<>();
+    // top level << 32 | entry node
+    private volatile long entry = EMPTY;
+
+    /**
+     * Creates an empty index with {@value #DEFAULT_M} neighbours per node and a construction search width of
+     * {@value #DEFAULT_EF_CONSTRUCTION}.
+     *
+     * @param dimension
+     *            the number of values of each vector
+     * @param capacity
+     *            the maximum number of vectors
+     * @param metric
+     *            the distance between vectors
+     *
+     * @throws IllegalArgumentException
+     *             if the dimension is not positive, the capacity is negative or the vectors would not fit in an array
+     */
+    public HalfHnswIndex(int dimension, int capacity, HalfMetric metric) {
+        this(dimension, capacity, metric, DEFAULT_M, DEFAULT_EF_CONSTRUCTION, 0L);
+    }
+
+    /**
+     * Creates an empty index.
+     *
+     * @param dimension
+     *            the number of values of each vector
+     * @param capacity
+     *            the maximum number of vectors
+     * @param metric
+     *            the distance between vectors
+     * @param m
+     *            the maximum number of neighbours of a node on levels above {@code 0}, at least {@code 2}
+     * @param efConstruction
+     *            the width of the search used to find the neighbours of an added vector, at least {@code 1}
+     * @param seed
+     *            the seed of the random levels of the nodes
+     *
+     * @throws IllegalArgumentException
+     *             if a parameter is out of range or the vectors would not fit in an array
+     */
+    public HalfHnswIndex(int dimension, int capacity, HalfMetric metric, int m, int efConstruction, long seed) {
+        if (dimension <= 0 || capacity < 0 || (long) dimension * capacity > Integer.MAX_VALUE - 8
+                || (long) (2 * m + 1) * capacity > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Invalid dimension " + dimension + " or capacity " + capacity);
+        }
+        if (m < 2 || efConstruction < 1) {
+            throw new IllegalArgumentException("Invalid m " + m + " or efConstruction " + efConstruction);
+        }
+        this.dimension = dimension;
+        this.capacity = capacity;
+        this.metric = metric;
+        this.m = m;
+        this.maxM0 = 2 * m;
+        this.efConstruction = efConstruction;
+        this.seed = seed;
+        this.levelMultiplier = 1.0 / Math.log(m);
+        this.vectors = new short[dimension * capacity];
+        this.links0 = new int[(maxM0 + 1) * capacity];
+        this.upperLinks = new int[capacity][][];
+        this.locks = new Object[Math.min(LOCK_STRIPES, Math.max(capacity, 1))];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Builds an index of all vectors of a store, adding them in parallel using the common
+     * {@link java.util.concurrent.ForkJoinPool}. The id of each vector in the index is its id in the store.
+     *
+     * @param store
+     *            the vectors to index
+     * @param metric
+     *            the distance between vectors
+     * @param m
+     *            the maximum number of neighbours of a node on levels above {@code 0}, at least {@code 2}
+     * @param efConstruction
+     *            the width of the search used to find the neighbours of an added vector, at least {@code 1}
+     * @param seed
+     *            the seed of the random levels of the nodes
+     *
+     * @return the index
+     *
+     * @throws IllegalArgumentException
+     *             if a parameter is out of range or the vectors would not fit in an array
+     */
+    public static HalfHnswIndex build(HalfVectorStore store, HalfMetric metric, int m, int efConstruction, long seed) {
+        if (store.size() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many vectors " + store.size());
+        }
+        int count = (int) store.size();
+        HalfHnswIndex index = new HalfHnswIndex(store.dimension(), count, metric, m, efConstruction, seed);
+        store.getData().get(0, index.vectors, 0, index.vectors.length);
+        index.size.set(count);
+        IntStream.range(0, count).parallel().forEach(index::insert);
+        return index;
+    }
+
+    /**
+     * Returns the number of values of each vector.
+     *
+     * @return the dimension
+     */
+    public int dimension() {
+        return dimension;
+    }
+
+    /**
+     * Returns the maximum number of vectors.
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of vectors added, including vectors that are still being added by other threads.
+     *
+     * @return the number of vectors
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Returns the distance between vectors.
+     *
+     * @return the metric
+     */
+    public HalfMetric getMetric() {
+        return metric;
+    }
+
+    /**
+     * Returns the {@code half} short bits of a vector.
+     *
+     * @param id
+     *            the id of the vector
+     *
+     * @return the short bits of the vector
+     *
+     * @throws IndexOutOfBoundsException
+     *             if there is no vector with the given id
+     */
+    public short[] getVector(int id) {
+        if (id < 0 || id >= size()) {
+            throw new IndexOutOfBoundsException("Id " + id + " out of bounds for size " + size());
+        }
+        return Arrays.copyOfRange(vectors, id * dimension, (id + 1) * dimension);
+    }
+
+    /**
+     * Adds a vector to the index.
+     *
+     * @param vector
+     *            the {@code half} short bits of the vector
+     *
+     * @return the id of the vector, the number of vectors added before it
+     *
+     * @throws IllegalArgumentException
+     *             if the vector does not have the dimension of the index
+     * @throws IllegalStateException
+     *             if the index is full
+     */
+    public int add(short[] vector) {
+        HalfArrays.checkLength(vector.length, dimension);
+        int id;
+        do {
+            id = size.get();
+            if (id >= capacity) {
+                throw new IllegalStateException("Index is full, capacity " + capacity);
+            }
+        } while (!size.compareAndSet(id, id + 1));
+        System.arraycopy(vector, 0, vectors, id * dimension, dimension);
+        insert(id);
+        return id;
+    }
+
+    /**
+     * Returns approximately the {@code k} vectors nearest to {@code query}.
+     *
+     * @param query
+     *            the {@code half} short bits of the query vector
+     * @param k
+     *            the maximum number of neighbours to return
+     * @param ef
+     *            the width of the search, larger values trading speed for recall, at least {@code k} is used
+     *
+     * @return the nearest vectors found, nearest first
+     *
+     * @throws IllegalArgumentException
+     *             if the query does not have the dimension of the index or {@code k} is negative
+     */
+    public HalfNeighbors search(short[] query, int k, int ef) {
+        HalfArrays.checkLength(query.length, dimension);
+        if (k < 0) {
+            throw new IllegalArgumentException("Negative k " + k);
+        }
+        long currentEntry = entry;
+        if (currentEntry == EMPTY || k == 0) {
+            return new TopK(0).toNeighbors();
+        }
+        float[] prepared = metric.prepare(query);
+        int node = greedySearch(prepared, (int) currentEntry, (int) (currentEntry >>> 32), 0);
+        Visited visited = acquireVisited();
+        try {
+            int width = Math.min(Math.max(ef, k), size());
+            HalfNeighbors found = searchLevel(prepared, new int[] { node }, 1, width, 0, visited);
+            TopK topK = new TopK(k, width);
+            for (int i = 0; i < found.size(); i++) {
+                topK.offer(found.getId(i), found.getDistance(i));
+            }
+            return topK.toNeighbors();
+        } finally {
+            releaseVisited(visited);
+        }
+    }
+
+    private void insert(int id) {
+        int level = randomLevel(id);
+        if (level > 0) {
+            upperLinks[id] = new int[level][m + 1];
+        }
+        long currentEntry = entry;
+        if (currentEntry == EMPTY) {
+            synchronized (entryLock) {
+                if (entry == EMPTY) {
+                    entry = (long) level << 32 | id;
+                    return;
+                }
+                currentEntry = entry;
+            }
+        }
+        int topLevel = (int) (currentEntry >>> 32);
+        float[] prepared = metric.prepare(getVectorUnchecked(id));
+        int node = greedySearch(prepared, (int) currentEntry, topLevel, level);
+
+        Visited visited = acquireVisited();
+        try {
+            int[] entryPoints = { node };
+            int entryCount = 1;
+            int[] selected = new int[m];
+            for (int lc = Math.min(level, topLevel); lc >= 0; lc--) {
+                HalfNeighbors candidates = searchLevel(prepared, entryPoints, entryCount, efConstruction, lc, visited);
+                int count = candidates.size();
+                int[] ids = new int[count];
+                float[] distances = new float[count];
+                for (int i = 0; i < count; i++) {
+                    ids[i] = (int) candidates.getId(i);
+                    distances[i] = candidates.getDistance(i);
+                }
+                int selectedCount = selectNeighbors(ids, distances, count, m, selected);
+                addLinks(id, lc, selected, selectedCount);
+                for (int i = 0; i < selectedCount; i++) {
+                    addLinks(selected[i], lc, new int[] { id }, 1);
+                }
+                entryPoints = ids;
+                entryCount = count;
+            }
+        } finally {
+            releaseVisited(visited);
+        }
+
+        if (level > topLevel) {
+            synchronized (entryLock) {
+                if (level > (int) (entry >>> 32)) {
+                    entry = (long) level << 32 | id;
+                }
+            }
+        }
+    }
+
+    /**
+     * Descends from {@code fromLevel} to {@code toLevel} exclusive, moving to the nearest neighbour on each level.
+     */
+    private int greedySearch(float[] prepared, int node, int fromLevel, int toLevel) {
+        float distance = distance(prepared, node);
+        int[] neighbours = new int[m];
+        for (int level = fromLevel; level > toLevel; level--) {
+            boolean changed = true;
+            while (changed) {
+                changed = false;
+                int count = copyLinks(node, level, neighbours);
+                for (int i = 0; i < count; i++) {
+                    float d = distance(prepared, neighbours[i]);
+                    if (d < distance) {
+                        distance = d;
+                        node = neighbours[i];
+                        changed = true;
+                    }
+                }
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Performs a best-first search of width {@code ef} on {@code level}, starting from the given entry points.
+     */
+    private HalfNeighbors searchLevel(float[] prepared, int[] entryPoints, int entryCount, int ef, int level,
+            Visited visited) {
+        visited.clear();
+        Candidates candidates = new Candidates();
+        TopK results = new TopK(ef);
+        for (int i = 0; i < entryCount; i++) {
+            int node = entryPoints[i];
+            if (visited.visit(node)) {
+                float distance = distance(prepared, node);
+                candidates.push(node, distance);
+                results.offer(node, distance);
+            }
+        }
+        int[] neighbours = new int[level == 0 ? maxM0 : m];
+        while (candidates.size() > 0) {
+            float nearest = candidates.nearestDistance();
+            if (results.isFull() && nearest > results.worstDistance()) {
+                break;
+            }
+            int node = candidates.pop();
+            int count = copyLinks(node, level, neighbours);
+            for (int i = 0; i < count; i++) {
+                int neighbour = neighbours[i];
+                if (visited.visit(neighbour)) {
+                    float distance = distance(prepared, neighbour);
+                    if (results.offer(neighbour, distance)) {
+                        candidates.push(neighbour, distance);
+                    }
+                }
+            }
+        }
+        return results.toNeighbors();
+    }
+
+    /**
+     * Selects up to {@code max} of the candidates, ordered by their distance to the base node, keeping a candidate only
+     * if it is nearer to the base node than to every candidate already selected, so that neighbours are spread out.
+     */
+    private int selectNeighbors(int[] ids, float[] distances, int count, int max, int[] selected) {
+        int selectedCount = 0;
+        for (int i = 0; i < count && selectedCount < max; i++) {
+            boolean keep = true;
+            for (int j = 0; j < selectedCount && keep; j++) {
+                keep = metric.distance(vectors, ids[i] * dimension, vectors, selected[j] * dimension,
+                        dimension) >= distances[i];
+            }
+            if (keep) {
+                selected[selectedCount++] = ids[i];
+            }
+        }
+        return selectedCount;
+    }
+
+    /**
+     * Adds links from {@code node} to the given nodes on {@code level}, pruning the neighbours of {@code node} if it
+     * has too many.
+     */
+    private void addLinks(int node, int level, int[] added, int addedCount) {
+        synchronized (lock(node)) {
+            int[] links = level == 0 ? links0 : upperLinks[node][level - 1];
+            int offset = level == 0 ? node * (maxM0 + 1) : 0;
+            int max = level == 0 ? maxM0 : m;
+            int count = links[offset];
+            int[] merged = new int[count + addedCount];
+            System.arraycopy(links, offset + 1, merged, 0, count);
+            int mergedCount = count;
+            for (int i = 0; i < addedCount; i++) {
+                int id = added[i];
+                boolean present = id == node;
+                for (int j = 0; j < mergedCount && !present; j++) {
+                    present = merged[j] == id;
+                }
+                if (!present) {
+                    merged[mergedCount++] = id;
+                }
+            }
+            if (mergedCount > max) {
+                float[] distances = new float[mergedCount];
+                for (int i = 0; i < mergedCount; i++) {
+                    distances[i] = metric.distance(vectors, node * dimension, vectors, merged[i] * dimension,
+                            dimension);
+                }
+                sort(merged, distances, mergedCount);
+                int[] selected = new int[max];
+                mergedCount = selectNeighbors(merged, distances, mergedCount, max, selected);
+                merged = selected;
+            }
+            System.arraycopy(merged, 0, links, offset + 1, mergedCount);
+            links[offset] = mergedCount;
+        }
+    }
+
+    private int copyLinks(int node, int level, int[] dst) {
+        synchronized (lock(node)) {
+            int[] links = level == 0 ? links0 : upperLinks[node][level - 1];
+            int offset = level == 0 ? node * (maxM0 + 1) : 0;
+            int count = links[offset];
+            System.arraycopy(links, offset + 1, dst, 0, count);
+            return count;
+        }
+    }
+
+    private float distance(float[] prepared, int node) {
+        return metric.distance(prepared, vectors, node * dimension, dimension);
+    }
+
+    private short[] getVectorUnchecked(int id) {
+        return Arrays.copyOfRange(vectors, id * dimension, (id + 1) * dimension);
+    }
+
+    private Object lock(int node) {
+        return locks[node % locks.length];
+    }
+
+    private int randomLevel(int id) {
+        long z = seed + (id + 1) * 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        z ^= z >>> 31;
+        double uniform = ((z >>> 11) + 1) * 0x1.0p-53;
+        return (int) Math.min(MAX_LEVEL, -Math.log(uniform) * levelMultiplier);
+    }
+
+    private Visited acquireVisited() {
+        Visited visited = visitedPool.poll();
+        return visited != null ? visited : new Visited(capacity);
+    }
+
+    private void releaseVisited(Visited visited) {
+        visitedPool.offer(visited);
+    }
+
+    private static void sort(int[] ids, float[] distances, int count) {
+        for (int i = 1; i < count; i++) {
+            int id = ids[i];
+            float distance = distances[i];
+            int j = i - 1;
+            for (; j >= 0 && distances[j] > distance; j--) {
+                ids[j + 1] = ids[j];
+                distances[j + 1] = distances[j];
+            }
+            ids[j + 1] = id;
+            distances[j + 1] = distance;
+        }
+    }
+
+    /**
+     * The set of nodes visited by a search, cleared in constant time by advancing an epoch.
+     */
+    private static final class Visited {
+
+        private final int[] marks;
+        private int epoch;
+
+        Visited(int capacity) {
+            this.marks = new int[capacity];
+        }
+
+        void clear() {
+            if (++epoch == 0) {
+                Arrays.fill(marks, 0);
+                epoch = 1;
+            }
+        }
+
+        boolean visit(int node) {
+            if (marks[node] == epoch) {
+                return false;
+            }
+            marks[node] = epoch;
+            return true;
+        }
+
+    }
+
+    /**
+     * A growable min-heap of nodes to expand, ordered by distance.
+     */
+    private static final class Candidates {
+
+        private int[] nodes = new int[64];
+        private float[] distances = new float[64];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        float nearestDistance() {
+            return distances[0];
+        }
+
+        void push(int node, float distance) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                distances = Arrays.copyOf(distances, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (distances[parent] <= distance) {
+                    break;
+                }
+                nodes[i] = nodes[parent];
+                distances[i] = distances[parent];
+                i = parent;
+            }
+            nodes[i] = node;
+            distances[i] = distance;
+        }
+
+        int pop() {
+            int result = nodes[0];
+            int node = nodes[--size];
+            float distance = distances[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && distances[child + 1] < distances[child]) {
+                    child++;
+                }
+                if (distances[child] >= distance) {
+                    break;
+                }
+                nodes[i] = nodes[child];
+                distances[i] = distances[child];
+                i = child;
+            }
+            nodes[i] = node;
+            distances[i] = distance;
+            return result;
+        }
+
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Access to the {@code Float.float16ToFloat} and {@code Float.floatToFloat16} methods of Java 20 and later, which the
+ * JIT compiler replaces with single conversion instructions on CPUs that have them.
+ *
+ * <p>
+ * The methods are looked up at runtime, so the library still runs on Java 8 and jars built on any JDK take the fast
+ * path on Java 20 and later, whereas a class under {@code META-INF/versions} would only be packaged by builds with the
+ * {@code java22} profile. The handles are held in {@code static final} fields, which the JIT compiler treats as
+ * constants, so calls through them are inlined and intrinsified like direct calls.
+ *
+ * <p>
+ * Infinities and NaNs are decoded by {@link Half}, since the conversion instructions the JIT compiler and, on newer
+ * JDKs, the interpreter use turn signaling NaNs into quiet NaNs and {@link Half#halfToRawShortBits(Half)} must return
+ * the bits passed to {@link Half#shortBitsToHalf(short)}.
+ *
+ * <p>
+ * {@code Float.floatToFloat16} rounds to nearest, whereas {@link Half#floatToHalfShortBits(float)} truncates. The
+ * significand bits below {@code half} precision are therefore cleared before converting, which makes every value in the
+ * normal range of {@code half} exact so that rounding gives the truncated result. All other values are converted by
+ * {@link Half}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+final class HalfIntrinsics {
+
+    private static final MethodHandle FLOAT16_TO_FLOAT = find("float16ToFloat",
+            MethodType.methodType(float.class, short.class));
+    private static final MethodHandle FLOAT_TO_FLOAT16 = find("floatToFloat16",
+            MethodType.methodType(short.class, float.class));
+
+    /**
+     * Whether the running JDK provides both conversion methods.
+     */
+    static final boolean AVAILABLE = FLOAT16_TO_FLOAT != null && FLOAT_TO_FLOAT16 != null;
+
+    private HalfIntrinsics() {
+        /* Hidden Constructor */ }
+
+    static float toFloat(short shortBits) {
+        if ((shortBits & HalfConsts.EXP_BIT_MASK) == HalfConsts.EXP_BIT_MASK) {
+            // the conversion instruction quiets signaling NaNs, which would break raw bit round trips
+            return Half.arithmeticHalfShortToFloat(shortBits);
+        }
+        try {
+            return (float) FLOAT16_TO_FLOAT.invokeExact(shortBits);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static short toHalfShortBits(float floatValue) {
+        int intBits = Float.floatToRawIntBits(floatValue);
+        if (!isNormalHalf(intBits)) {
+            return Half.arithmeticFloatToHalfShortBits(floatValue);
+        }
+        try {
+            return (short) FLOAT_TO_FLOAT16.invokeExact(truncate(intBits));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns {@code true} if the {@code float} bits convert to a normal {@code half}, which is when the exponent is
+     * between 113 and 142.
+     */
+    static boolean isNormalHalf(int floatBits) {
+        return ((floatBits >>> 23 & 0xff) - 113 & 0xffff_ffffL) < 30;
+    }
+
+    /**
+     * Returns the {@code float} with the significand bits below {@code half} precision cleared.
+     */
+    static float truncate(int floatBits) {
+        return Float.intBitsToFloat(floatBits & 0xffff_e000);
+    }
+
+    private static MethodHandle find(String name, MethodType type) {
+        try {
+            return MethodHandles.publicLookup().findStatic(Float.class, name, type);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * An inverted file (IVF) index over a {@link HalfVectorStore} for approximate nearest neighbour search.
+ *
+ * <p>
+ * The index partitions the vectors into lists using a coarse quantizer: a set of centroids trained by k-means on a
+ * sample of the vectors, each vector being assigned to the list of its nearest centroid. A search ranks the centroids
+ * against the query and only visits the vectors of the {@code nprobe} nearest lists, so its cost is roughly
+ * {@code nprobe / lists} of an exact search. Centroids are stored as {@code half} short bits and vectors are read from
+ * the store, so the index itself only holds the ids of each list.
+ *
+ * <p>
+ * Vectors are assigned to lists by squared Euclidean distance, or by cosine distance for {@link HalfMetric#COSINE},
+ * whatever the metric used to rank the vectors of the visited lists. Building an index assigns every vector in parallel
+ * using the common {@link java.util.concurrent.ForkJoinPool}. Instances are immutable and safe for concurrent searches.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class HalfIvfIndex {
+
+    /**
+     * The default number of sampled vectors per list used to train the centroids.
+     */
+    public static final int DEFAULT_SAMPLES_PER_LIST = 64;
+
+    private static final int ASSIGN_BLOCK = 256;
+
+    private final HalfVectorStore store;
+    private final HalfMetric metric;
+    private final HalfMetric coarseMetric;
+    private final short[] centroids;
+    private final int[] listOffsets;
+    private final long[] ids;
+
+    private HalfIvfIndex(HalfVectorStore store, HalfMetric metric, short[] centroids, int[] listOffsets, long[] ids) {
+        this.store = store;
+        this.metric = metric;
+        this.coarseMetric = coarseMetric(metric);
+        this.centroids = centroids;
+        this.listOffsets = listOffsets;
+        this.ids = ids;
+    }
+
+    /**
+     * Builds an index of the vectors of a store, training the centroids on {@value #DEFAULT_SAMPLES_PER_LIST} sampled
+     * vectors per list.
+     *
+     * @param store
+     *            the vectors to index
+     * @param metric
+     *            the distance used to rank vectors
+     * @param lists
+     *            the number of lists
+     * @param iterations
+     *            the number of k-means iterations
+     * @param seed
+     *            the seed of the sampling and centroid initialization
+     *
+     * @return the index
+     *
+     * @throws IllegalArgumentException
+     *             if the number of lists is not positive, the number of iterations is negative or the store holds more
+     *             than {@code Integer.MAX_VALUE - 8} vectors
+     */
+    public static HalfIvfIndex build(HalfVectorStore store, HalfMetric metric, int lists, int iterations, long seed) {
+        if (lists <= 0 || iterations < 0) {
+            throw new IllegalArgumentException("Invalid lists " + lists + " or iterations " + iterations);
+        }
+        if (store.size() > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many vectors " + store.size());
+        }
+        int dimension = store.dimension();
+        HalfMetric coarseMetric = coarseMetric(metric);
+        Random random = new Random(seed);
+        short[] sample = KMeans.sample(store,
+                (int) Math.min(store.size(),
+                        Math.min((long) lists * DEFAULT_SAMPLES_PER_LIST, (Integer.MAX_VALUE - 8) / dimension)),
+                random);
+        int clusters = Math.min(lists, Math.max(sample.length / dimension, 1));
+        short[] centroids = KMeans.train(sample, dimension, clusters, iterations, coarseMetric, random);
+
+        int size = (int) store.size();
+        int[] assignedLists = assign(store, coarseMetric, centroids);
+        int[] listOffsets = new int[clusters + 1];
+        for (int list : assignedLists) {
+            listOffsets[list + 1]++;
+        }
+        for (int c = 0; c < clusters; c++) {
+            listOffsets[c + 1] += listOffsets[c];
+        }
+        int[] next = Arrays.copyOf(listOffsets, clusters);
+        long[] ids = new long[size];
+        for (int id = 0; id < size; id++) {
+            ids[next[assignedLists[id]]++] = id;
+        }
+        return new HalfIvfIndex(store, metric, centroids, listOffsets, ids);
+    }
+
+    /**
+     * Returns the indexed store.
+     *
+     * @return the store
+     */
+    public HalfVectorStore getStore() {
+        return store;
+    }
+
+    /**
+     * Returns the distance used to rank vectors.
+     *
+     * @return the metric
+     */
+    public HalfMetric getMetric() {
+        return metric;
+    }
+
+    /**
+     * Returns the number of lists. This is less than the requested number of lists if the store holds fewer vectors.
+     *
+     * @return the number of lists
+     */
+    public int lists() {
+        return listOffsets.length - 1;
+    }
+
+    /**
+     * Returns the number of vectors in a list.
+     *
+     * @param list
+     *            the index of the list
+     *
+     * @return the number of vectors in the list
+     */
+    public int listSize(int list) {
+        return listOffsets[list + 1] - listOffsets[list];
+    }
+
+    /**
+     * Returns the {@code half} short bits of the centroid of a list.
+     *
+     * @param list
+     *            the index of the list
+     *
+     * @return the short bits of the centroid
+     */
+    public short[] getCentroid(int list) {
+        int dimension = store.dimension();
+        short[] centroid = new short[dimension];
+        System.arraycopy(centroids, list * dimension, centroid, 0, dimension);
+        return centroid;
+    }
+
+    /**
+     * Returns approximately the {@code k} vectors nearest to {@code query}, visiting the vectors of the {@code nprobe}
+     * lists with the nearest centroids.
+     *
+     * @param query
+     *            the {@code half} short bits of the query vector
+     * @param k
+     *            the maximum number of neighbours to return
+     * @param nprobe
+     *            the number of lists to visit
+     *
+     * @return the nearest vectors found, nearest first
+     *
+     * @throws IllegalArgumentException
+     *             if the query does not have the dimension of the store or {@code k} or {@code nprobe} is negative
+     */
+    public HalfNeighbors search(short[] query, int k, int nprobe) {
+        int dimension = store.dimension();
+        HalfArrays.checkLength(query.length, dimension);
+        float[] coarseQuery = coarseMetric.prepare(query);
+        TopK probes = new TopK(Math.min(nprobe, lists()));
+        for (int c = 0; c < lists(); c++) {
+            probes.offer(c, coarseMetric.distance(coarseQuery, centroids, c * dimension, dimension));
+        }
+        HalfNeighbors probed = probes.toNeighbors();
+
+        float[] prepared = metric.prepare(query);
+        short[] scratch = HalfScratch.acquireShorts(dimension);
+        try {
+            TopK topK = new TopK(k, ids.length);
+            for (int i = 0; i < probed.size(); i++) {
+                int list = (int) probed.getId(i);
+                for (int j = listOffsets[list]; j < listOffsets[list + 1]; j++) {
+                    topK.offer(ids[j], store.distance(prepared, metric, ids[j], scratch));
+                }
+            }
+            return topK.toNeighbors();
+        } finally {
+            HalfScratch.release(scratch);
+        }
+    }
+
+    private static HalfMetric coarseMetric(HalfMetric metric) {
+        return metric == HalfMetric.COSINE ? HalfMetric.COSINE : HalfMetric.L2;
+    }
+
+    private static int[] assign(HalfVectorStore store, HalfMetric coarseMetric, short[] centroids) {
+        int dimension = store.dimension();
+        int[] lists = new int[(int) store.size()];
+        int blocks = (lists.length + ASSIGN_BLOCK - 1) / ASSIGN_BLOCK;
+        IntStream.range(0, blocks).parallel().forEach(block -> {
+            int from = block * ASSIGN_BLOCK;
+            int rows = Math.min(ASSIGN_BLOCK, lists.length - from);
+            short[] vectors = HalfScratch.acquireShorts(rows * dimension);
+            try {
+                store.getData().get((long) from * dimension, vectors, 0, rows * dimension);
+                for (int i = 0; i < rows; i++) {
+                    lists[from + i] = KMeans.nearest(coarseMetric,
+                            coarseMetric.prepare(KMeans.toFloat(vectors, i * dimension, dimension)), centroids, 0,
+                            centroids.length / dimension, dimension);
+                }
+            } finally {
+                HalfScratch.release(vectors);
+            }
+        });
+        return lists;
+    }
+
+}
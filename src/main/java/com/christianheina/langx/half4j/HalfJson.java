@@ -0,0 +1,513 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The class {@code HalfJson} contains methods for writing and reading {@code half} values as JSON numbers.
+ *
+ * <p>
+ * Each value is written with the fewest significant digits that read back as the same {@code half} value when rounded
+ * to nearest, in plain or exponent notation, whichever is shorter. The text is computed on first use, in blocks of
+ * 1,024 values, and then copied, so writing allocates nothing once the blocks in use are computed. JSON has no
+ * representation of NaN and infinity, they are written as {@code null}, which is read back as NaN.
+ *
+ * <p>
+ * Values are read by rounding the JSON number to the nearest {@code half} value. Numbers are parsed in place, only
+ * numbers of more than 15 significant digits or with large exponents are converted through an intermediate
+ * {@link String}. A number is first rounded to {@code double}, which can only change the {@code half} result when it
+ * lands exactly on the midpoint between two {@code half} values. In that case the number is compared exactly with the
+ * midpoint.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class HalfJson {
+
+    private static final short NAN = 0x7e00;
+    private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+            1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+    private static final long MAX_EXACT_SIGNIFICAND = 1L << 53;
+
+    private HalfJson() {
+        /* Hidden Constructor */ }
+
+    /**
+     * Returns the JSON text of a {@code half} value.
+     *
+     * @param shortBits
+     *            the {@code half} short bits
+     *
+     * @return the JSON number, or {@code null} for NaN and infinities
+     */
+    public static String toJson(short shortBits) {
+        Table table = Table.of(shortBits);
+        int index = shortBits & Table.INDEX_MASK;
+        return new String(table.text, table.offsets[index], table.offsets[index + 1] - table.offsets[index],
+                StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Appends the JSON text of a {@code half} value.
+     *
+     * @param out
+     *            the destination
+     * @param shortBits
+     *            the {@code half} short bits
+     *
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public static void appendValue(Appendable out, short shortBits) throws IOException {
+        Table table = Table.of(shortBits);
+        int index = shortBits & Table.INDEX_MASK;
+        for (int i = table.offsets[index]; i < table.offsets[index + 1]; i++) {
+            out.append((char) table.text[i]);
+        }
+    }
+
+    /**
+     * Appends {@code half} values as a JSON array.
+     *
+     * @param out
+     *            the destination
+     * @param shortBits
+     *            the {@code half} short bits
+     *
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public static void appendArray(Appendable out, short... shortBits) throws IOException {
+        appendArray(out, shortBits, 0, shortBits.length);
+    }
+
+    /**
+     * Appends {@code length} {@code half} values of {@code src} starting at {@code srcPos} as a JSON array.
+     *
+     * @param out
+     *            the destination
+     * @param src
+     *            the {@code half} short bits
+     * @param srcPos
+     *            starting position in the source array
+     * @param length
+     *            the number of values to append
+     *
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public static void appendArray(Appendable out, short[] src, int srcPos, int length) throws IOException {
+        HalfUtil.checkBounds(src.length, srcPos, Integer.MAX_VALUE, 0, length);
+        out.append('[');
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            appendValue(out, src[srcPos + i]);
+        }
+        out.append(']');
+    }
+
+    /**
+     * Writes {@code length} {@code half} values of {@code src} starting at {@code srcPos} as a JSON array of ASCII
+     * bytes into {@code dst}, starting at its position.
+     *
+     * @param dst
+     *            the destination buffer
+     * @param src
+     *            the {@code half} short bits
+     * @param srcPos
+     *            starting position in the source array
+     * @param length
+     *            the number of values to write
+     *
+     * @throws BufferOverflowException
+     *             if there is insufficient space in {@code dst}
+     */
+    public static void writeArray(ByteBuffer dst, short[] src, int srcPos, int length) {
+        HalfUtil.checkBounds(src.length, srcPos, Integer.MAX_VALUE, 0, length);
+        dst.put((byte) '[');
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                dst.put((byte) ',');
+            }
+            Table table = Table.of(src[srcPos + i]);
+            int index = src[srcPos + i] & Table.INDEX_MASK;
+            dst.put(table.text, table.offsets[index], table.offsets[index + 1] - table.offsets[index]);
+        }
+        dst.put((byte) ']');
+    }
+
+    /**
+     * Reads a JSON number, or {@code null}, as a {@code half} value rounded to nearest.
+     *
+     * @param json
+     *            the JSON text, optionally surrounded by whitespace
+     *
+     * @return the {@code half} short bits
+     *
+     * @throws IllegalArgumentException
+     *             if {@code json} is not a JSON number or {@code null}
+     */
+    public static short parseValue(CharSequence json) {
+        Parser parser = new CharSequenceParser(json, 0);
+        short value = parser.value();
+        parser.end();
+        return value;
+    }
+
+    /**
+     * Reads a JSON array of numbers, which may be {@code null}, as {@code half} values rounded to nearest.
+     *
+     * @param json
+     *            the JSON text, optionally surrounded by whitespace
+     * @param dst
+     *            the destination of the {@code half} short bits
+     *
+     * @return the number of values read
+     *
+     * @throws IllegalArgumentException
+     *             if {@code json} is not a JSON array of numbers or has more elements than {@code dst}
+     */
+    public static int parseArray(CharSequence json, short[] dst) {
+        Parser parser = new CharSequenceParser(json, 0);
+        int count = parser.array(dst);
+        parser.end();
+        return count;
+    }
+
+    /**
+     * Reads a JSON array of numbers, which may be {@code null}, from the ASCII bytes of {@code src} starting at its
+     * position, as {@code half} values rounded to nearest. The position of {@code src} is advanced past the array.
+     *
+     * @param src
+     *            the buffer holding the JSON text
+     * @param dst
+     *            the destination of the {@code half} short bits
+     *
+     * @return the number of values read
+     *
+     * @throws IllegalArgumentException
+     *             if {@code src} does not hold a JSON array of numbers or it has more elements than {@code dst}
+     */
+    public static int parseArray(ByteBuffer src, short[] dst) {
+        ByteBufferParser parser = new ByteBufferParser(src);
+        int count = parser.array(dst);
+        src.position(parser.pos);
+        return count;
+    }
+
+    /**
+     * The JSON text of a block of {@code half} values sharing their upper bits, computed on first use of a value in the
+     * block. Blocks are immutable, so a block computed concurrently by two threads is simply computed twice.
+     */
+    private static final class Table {
+
+        private static final int INDEX_BITS = 10;
+        private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+        private static final Table[] BLOCKS = new Table[1 << (Half.SIZE - INDEX_BITS)];
+
+        private final byte[] text;
+        private final int[] offsets;
+
+        private Table(int block) {
+            StringBuilder sb = new StringBuilder(8 << INDEX_BITS);
+            offsets = new int[(1 << INDEX_BITS) + 1];
+            for (int i = 0; i < 1 << INDEX_BITS; i++) {
+                offsets[i] = sb.length();
+                sb.append(shortest((short) (block << INDEX_BITS | i)));
+            }
+            offsets[1 << INDEX_BITS] = sb.length();
+            text = sb.toString().getBytes(StandardCharsets.US_ASCII);
+        }
+
+        static Table of(short shortBits) {
+            int block = (shortBits & 0xffff) >>> INDEX_BITS;
+            Table table = BLOCKS[block];
+            if (table == null) {
+                // final fields make the block safely visible to threads reading it without synchronization
+                table = new Table(block);
+                BLOCKS[block] = table;
+            }
+            return table;
+        }
+
+        private static String shortest(short shortBits) {
+            float value = Half.halfShortToFloat(shortBits);
+            if (!Float.isFinite(value)) {
+                return "null";
+            }
+            String sign = shortBits < 0 ? "-" : "";
+            if (value == 0) {
+                return sign + "0";
+            }
+            BigDecimal exact = new BigDecimal(Math.abs(value));
+            for (int digits = 1;; digits++) {
+                BigDecimal best = null;
+                for (RoundingMode mode : new RoundingMode[] { RoundingMode.HALF_EVEN, RoundingMode.FLOOR,
+                        RoundingMode.CEILING }) {
+                    BigDecimal candidate = exact.round(new MathContext(digits, mode));
+                    if ((Half.roundToHalfShortBits(candidate.doubleValue()) & 0x7fff) == (shortBits & 0x7fff)) {
+                        best = candidate;
+                        break;
+                    }
+                }
+                if (best != null) {
+                    return sign + format(best.stripTrailingZeros());
+                }
+            }
+        }
+
+        private static String format(BigDecimal value) {
+            String plain = value.toPlainString();
+            String digits = value.unscaledValue().toString();
+            int exponent = digits.length() - 1 - value.scale();
+            String scientific = digits.charAt(0) + (digits.length() > 1 ? "." + digits.substring(1) : "") + "e"
+                    + exponent;
+            return scientific.length() < plain.length() ? scientific : plain;
+        }
+
+    }
+
+    /**
+     * A JSON number array parser over a sequence of characters.
+     */
+    private abstract static class Parser {
+
+        int pos;
+
+        abstract int length();
+
+        abstract char charAt(int index);
+
+        abstract String substring(int start, int end);
+
+        final int array(short[] dst) {
+            skipWhitespace();
+            expect('[');
+            skipWhitespace();
+            int count = 0;
+            if (peek() == ']') {
+                pos++;
+                return 0;
+            }
+            while (true) {
+                if (count == dst.length) {
+                    throw error("Too many elements for destination of length " + dst.length);
+                }
+                dst[count++] = value();
+                skipWhitespace();
+                if (peek() == ',') {
+                    pos++;
+                } else {
+                    expect(']');
+                    return count;
+                }
+            }
+        }
+
+        final short value() {
+            skipWhitespace();
+            if (peek() == 'n') {
+                for (int i = 0; i < 4; i++) {
+                    expect("null".charAt(i));
+                }
+                return NAN;
+            }
+            int start = pos;
+            boolean negative = peek() == '-';
+            if (negative) {
+                pos++;
+            }
+            long significand = 0;
+            int significantDigits = 0;
+            int exponent = 0;
+            int digits = 0;
+            for (char c; (c = peek()) >= '0' && c <= '9'; pos++, digits++) {
+                if (significand == 0 && c == '0') {
+                    continue;
+                }
+                if (significantDigits < 18) {
+                    significand = significand * 10 + (c - '0');
+                    significantDigits++;
+                } else {
+                    exponent++;
+                }
+            }
+            if (digits == 0) {
+                throw error("Expected number");
+            }
+            if (peek() == '.') {
+                pos++;
+                int fractionDigits = 0;
+                for (char c; (c = peek()) >= '0' && c <= '9'; pos++, fractionDigits++) {
+                    if (significand == 0 && c == '0') {
+                        exponent--;
+                    } else if (significantDigits < 18) {
+                        significand = significand * 10 + (c - '0');
+                        significantDigits++;
+                        exponent--;
+                    }
+                }
+                if (fractionDigits == 0) {
+                    throw error("Expected digit");
+                }
+            }
+            if (peek() == 'e' || peek() == 'E') {
+                pos++;
+                boolean negativeExponent = peek() == '-';
+                if (negativeExponent || peek() == '+') {
+                    pos++;
+                }
+                int explicitExponent = 0;
+                int exponentDigits = 0;
+                for (char c; (c = peek()) >= '0' && c <= '9'; pos++, exponentDigits++) {
+                    explicitExponent = Math.min(explicitExponent * 10 + (c - '0'), 1000);
+                }
+                if (exponentDigits == 0) {
+                    throw error("Expected exponent");
+                }
+                exponent += negativeExponent ? -explicitExponent : explicitExponent;
+            }
+
+            double magnitude;
+            if (significand == 0) {
+                magnitude = 0;
+            } else if (significand < MAX_EXACT_SIGNIFICAND && Math.abs(exponent) < POWERS_OF_TEN.length) {
+                // both operands are exact, so the result is correctly rounded
+                magnitude = exponent < 0 ? significand / POWERS_OF_TEN[-exponent]
+                        : significand * POWERS_OF_TEN[exponent];
+            } else {
+                magnitude = Math.abs(Double.parseDouble(substring(start, pos)));
+            }
+            if (isMidpoint(magnitude)) {
+                // the number may be just above or below the midpoint and have been rounded onto it
+                int side = new BigDecimal(substring(negative ? start + 1 : start, pos))
+                        .compareTo(new BigDecimal(magnitude));
+                if (side != 0) {
+                    magnitude = side > 0 ? Math.nextUp(magnitude) : Math.nextDown(magnitude);
+                }
+            }
+            return Half.roundToHalfShortBits(negative ? -magnitude : magnitude);
+        }
+
+        /**
+         * Returns {@code true} if a non-negative {@code double} is exactly halfway between two {@code half} values, or
+         * between the largest finite value and 2<sup>16</sup>.
+         */
+        private static boolean isMidpoint(double abs) {
+            if (abs == 0 || abs > 65520.0) {
+                return false;
+            }
+            // midpoints have one significant bit more than half precision, and that last bit is set
+            double scaled = abs < 0x1p-14 ? abs * 0x1p25 : Math.scalb(abs, 11 - Math.getExponent(abs));
+            return scaled == Math.rint(scaled) && scaled % 2 == 1;
+        }
+
+        final void end() {
+            skipWhitespace();
+            if (pos < length()) {
+                throw error("Unexpected trailing characters");
+            }
+        }
+
+        private void expect(char c) {
+            if (peek() != c) {
+                throw error("Expected '" + c + "'");
+            }
+            pos++;
+        }
+
+        private char peek() {
+            return pos < length() ? charAt(pos) : 0;
+        }
+
+        private void skipWhitespace() {
+            for (char c; (c = peek()) == ' ' || c == '\t' || c == '\n' || c == '\r';) {
+                pos++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at index " + pos);
+        }
+
+    }
+
+    private static final class CharSequenceParser extends Parser {
+
+        private final CharSequence json;
+
+        private CharSequenceParser(CharSequence json, int pos) {
+            this.json = json;
+            this.pos = pos;
+        }
+
+        @Override
+        int length() {
+            return json.length();
+        }
+
+        @Override
+        char charAt(int index) {
+            return json.charAt(index);
+        }
+
+        @Override
+        String substring(int start, int end) {
+            return json.subSequence(start, end).toString();
+        }
+
+    }
+
+    private static final class ByteBufferParser extends Parser {
+
+        private final ByteBuffer buf;
+
+        private ByteBufferParser(ByteBuffer buf) {
+            this.buf = buf;
+            this.pos = buf.position();
+        }
+
+        @Override
+        int length() {
+            return buf.limit();
+        }
+
+        @Override
+        char charAt(int index) {
+            return (char) (buf.get(index) & 0xff);
+        }
+
+        @Override
+        String substring(int start, int end) {
+            StringBuilder b = new StringBuilder(end - start);
+            for (int i = start; i < end; i++) {
+                b.append(charAt(i));
+            }
+            return b.toString();
+        }
+
+    }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.nio.ShortBuffer;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Fixed-size {@link java.util.List} view of {@link Half} objects backed by a {@link ShortBuffer} of half bits.
+ *
+ * <p>
+ * Elements are decoded on access, so creating the view is constant time regardless of the number of elements. Changes
+ * made through {@link #set(int, Half)} are written to the backing buffer.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+class HalfList extends AbstractList<Half> implements RandomAccess {
+
+    private final ShortBuffer buf;
+
+    HalfList(ShortBuffer buf) {
+        this.buf = buf;
+    }
+
+    @Override
+    public Half get(int index) {
+        return Half.shortBitsToHalf(buf.get(index));
+    }
+
+    @Override
+    public Half set(int index, Half element) {
+        Half previous = get(index);
+        buf.put(index, Half.halfToRawShortBits(element));
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return buf.limit();
+    }
+
+}
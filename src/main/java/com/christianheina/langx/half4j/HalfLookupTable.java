@@ -0,0 +1,131 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A unary function over {@code half} values evaluated once for every one of the 65,536 {@code half} bit patterns.
+ *
+ * <p>
+ * The table holds the {@code half} short bits of the function result for each input, 128 KB in total, so applying the
+ * function to an array is a single lookup per element. Instances are immutable and safe for use by multiple threads.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class HalfLookupTable {
+
+    private static final int TABLE_SIZE = 1 << Half.SIZE;
+
+    private final short[] table;
+
+    private HalfLookupTable(short[] table) {
+        /* Hidden Constructor */
+        this.table = table;
+    }
+
+    /**
+     * Returns a lookup table for {@code function}. The function is called once with the {@code float} value of every
+     * {@code half} bit pattern, including NaNs, and each {@code double} result is rounded directly to the nearest
+     * {@code half}, ties to even. NaN results are stored as the canonical {@code half} NaN.
+     *
+     * @param function
+     *            the function to tabulate
+     *
+     * @return a lookup table for {@code function}
+     */
+    public static HalfLookupTable of(DoubleUnaryOperator function) {
+        short[] table = new short[TABLE_SIZE];
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            table[i] = Half.roundToHalfShortBits(function.applyAsDouble(Half.halfShortToFloat((short) i)));
+        }
+        return new HalfLookupTable(table);
+    }
+
+    /**
+     * Returns the function result for a {@code half} value represented by its short bits.
+     *
+     * @param shortBits
+     *            the {@code half} short bits
+     *
+     * @return the short bits of the function result
+     */
+    public short apply(short shortBits) {
+        return table[shortBits & 0xffff];
+    }
+
+    /**
+     * Returns the function result for a {@code half} value.
+     *
+     * @param half
+     *            the {@code half} value
+     *
+     * @return the function result
+     */
+    public Half apply(Half half) {
+        return Half.shortBitsToHalf(apply(Half.halfToRawShortBits(half)));
+    }
+
+    /**
+     * Applies the function to each element of {@code src} and stores the result in {@code dst}.
+     *
+     * @param src
+     *            the {@code half} short bits
+     * @param dst
+     *            the destination of the result, may be {@code src}
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length
+     */
+    public void apply(short[] src, short[] dst) {
+        HalfArrays.checkLength(src.length, dst.length);
+        apply(src, 0, dst, 0, src.length);
+    }
+
+    /**
+     * Applies the function to {@code length} elements starting at {@code srcPos} in {@code src} and stores the result
+     * starting at {@code dstPos} in {@code dst}.
+     *
+     * @param src
+     *            the {@code half} short bits
+     * @param srcPos
+     *            starting position in the source array
+     * @param dst
+     *            the destination array, may be {@code src}
+     * @param dstPos
+     *            starting position in the destination array
+     * @param length
+     *            the number of elements to process
+     *
+     * @throws IndexOutOfBoundsException
+     *             if processing would cause access of data outside array bounds
+     */
+    public void apply(short[] src, int srcPos, short[] dst, int dstPos, int length) {
+        HalfUtil.checkBounds(src.length, srcPos, dst.length, dstPos, length);
+        boolean metrics = HalfMetrics.enabled;
+        Object event = metrics ? HalfMetrics.begin("HalfLookupTable.apply", HalfMetrics.Path.TABLE, length) : null;
+        short[] lookup = table;
+        for (int i = 0; i < length; i++) {
+            dst[dstPos + i] = lookup[src[srcPos + i] & 0xffff];
+        }
+        if (metrics) {
+            HalfMetrics.end(event);
+            HalfMetrics.converted(HalfMetrics.Path.TABLE, length);
+        }
+    }
+
+}
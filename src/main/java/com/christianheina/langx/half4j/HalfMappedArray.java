@@ -0,0 +1,385 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * A {@code long} indexed view of {@code half} values stored in one or more {@link ByteBuffer} chunks, typically
+ * memory-mapped from a file.
+ *
+ * <p>
+ * A single {@link ByteBuffer} is limited to 2 GB, so larger regions are mapped as consecutive chunks of
+ * {@value #CHUNK_BYTES} bytes. Values are read from, and written to, the underlying buffers directly without copying
+ * the region.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class HalfMappedArray {
+
+    /**
+     * The maximum number of bytes in each chunk.
+     */
+    public static final int CHUNK_BYTES = 1 << 30;
+
+    private static final int CHUNK_SHIFT = 30;
+
+    private final ByteBuffer[] chunks;
+    private final long size;
+    private final ByteOrder order;
+    private final int chunkShift;
+
+    private HalfMappedArray(ByteBuffer[] chunks, long size, ByteOrder order, int chunkShift) {
+        this.chunks = chunks;
+        this.size = size;
+        this.order = order;
+        this.chunkShift = chunkShift;
+    }
+
+    /**
+     * Maps {@code size} {@code half} values starting at byte {@code position} of a file into memory.
+     *
+     * <p>
+     * The mapping remains valid after the channel is closed.
+     *
+     * @param channel
+     *            the file channel to map
+     * @param mode
+     *            the map mode, {@link MapMode#READ_ONLY} or {@link MapMode#READ_WRITE}
+     * @param position
+     *            the byte position in the file at which the values start
+     * @param size
+     *            the number of {@code half} values to map
+     * @param order
+     *            the byte order of the values in the file
+     *
+     * @return a view of the mapped values
+     *
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public static HalfMappedArray map(FileChannel channel, MapMode mode, long position, long size, ByteOrder order)
+            throws IOException {
+        long bytes = size * Half.BYTES;
+        ByteBuffer[] chunks = new ByteBuffer[(int) ((bytes + CHUNK_BYTES - 1) >>> CHUNK_SHIFT)];
+        for (int i = 0; i < chunks.length; i++) {
+            long offset = (long) i << CHUNK_SHIFT;
+            chunks[i] = channel.map(mode, position + offset, Math.min(CHUNK_BYTES, bytes - offset)).order(order);
+        }
+        return new HalfMappedArray(chunks, size, order, CHUNK_SHIFT);
+    }
+
+    /**
+     * Returns a view of the {@code half} values in the remaining bytes of {@code buf}, using the byte order of
+     * {@code buf}. If the number of remaining bytes is odd the last byte is ignored. Buffers larger than
+     * {@value #CHUNK_BYTES} bytes are viewed as consecutive chunks, like mapped regions.
+     *
+     * @param buf
+     *            the buffer to view
+     *
+     * @return a view of the values in {@code buf}
+     */
+    public static HalfMappedArray wrap(ByteBuffer buf) {
+        return wrap(buf, CHUNK_SHIFT);
+    }
+
+    /**
+     * Returns a view of {@code buf} in chunks of {@code 1 << chunkShift} bytes, so that tests can cross chunk
+     * boundaries without allocating gigabytes.
+     */
+    static HalfMappedArray wrap(ByteBuffer buf, int chunkShift) {
+        long size = buf.remaining() / Half.BYTES;
+        long bytes = size * Half.BYTES;
+        int chunkBytes = 1 << chunkShift;
+        ByteBuffer[] chunks = new ByteBuffer[(int) ((bytes + chunkBytes - 1) >>> chunkShift)];
+        for (int i = 0; i < chunks.length; i++) {
+            int start = buf.position() + (i << chunkShift);
+            ByteBuffer chunk = buf.duplicate();
+            chunk.limit((int) (start + Math.min(chunkBytes, bytes - ((long) i << chunkShift))));
+            chunk.position(start);
+            chunks[i] = chunk.slice().order(buf.order());
+        }
+        return new HalfMappedArray(chunks, size, buf.order(), chunkShift);
+    }
+
+    /**
+     * Returns the number of {@code half} values.
+     *
+     * @return the number of values
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the byte order of the values in the underlying buffers.
+     *
+     * @return the byte order
+     */
+    public ByteOrder order() {
+        return order;
+    }
+
+    /**
+     * Returns the short bits of the value at {@code index}.
+     *
+     * @param index
+     *            the index of the value
+     *
+     * @return the {@code half} short bits
+     *
+     * @throws IndexOutOfBoundsException
+     *             if {@code index} is negative or not less than {@link #size()}
+     */
+    public short getShortBits(long index) {
+        long byteIndex = checkedIndex(index) * Half.BYTES;
+        return chunks[(int) (byteIndex >>> chunkShift)].getShort((int) (byteIndex & ((1 << chunkShift) - 1)));
+    }
+
+    /**
+     * Returns the value at {@code index}.
+     *
+     * @param index
+     *            the index of the value
+     *
+     * @return the {@code Half} value
+     *
+     * @throws IndexOutOfBoundsException
+     *             if {@code index} is negative or not less than {@link #size()}
+     */
+    public Half get(long index) {
+        return Half.shortBitsToHalf(getShortBits(index));
+    }
+
+    /**
+     * Returns the value at {@code index} as a {@code float}.
+     *
+     * @param index
+     *            the index of the value
+     *
+     * @return the {@code float} value
+     *
+     * @throws IndexOutOfBoundsException
+     *             if {@code index} is negative or not less than {@link #size()}
+     */
+    public float getFloat(long index) {
+        return Half.halfShortToFloat(getShortBits(index));
+    }
+
+    /**
+     * Sets the short bits of the value at {@code index}.
+     *
+     * @param index
+     *            the index of the value
+     * @param shortBits
+     *            the {@code half} short bits
+     *
+     * @throws IndexOutOfBoundsException
+     *             if {@code index} is negative or not less than {@link #size()}
+     * @throws java.nio.ReadOnlyBufferException
+     *             if the view is read-only
+     */
+    public void setShortBits(long index, short shortBits) {
+        long byteIndex = checkedIndex(index) * Half.BYTES;
+        chunks[(int) (byteIndex >>> chunkShift)].putShort((int) (byteIndex & ((1 << chunkShift) - 1)), shortBits);
+    }
+
+    /**
+     * Copies {@code length} values starting at {@code index} into {@code dst} starting at {@code dstPos}.
+     *
+     * @param index
+     *            the index of the first value
+     * @param dst
+     *            the destination array
+     * @param dstPos
+     *            starting position in the destination array
+     * @param length
+     *            the number of values to copy
+     *
+     * @throws IndexOutOfBoundsException
+     *             if copying would cause access of data outside the view or array bounds
+     */
+    public void get(long index, short[] dst, int dstPos, int length) {
+        checkRange(index, length, dstPos, dst.length);
+        for (int i = 0; i < length;) {
+            ShortBuffer chunk = chunk(index + i);
+            int n = Math.min(length - i, chunk.remaining());
+            chunk.get(dst, dstPos + i, n);
+            i += n;
+        }
+    }
+
+    /**
+     * Converts {@code length} values starting at {@code index} to {@code float} and stores them in {@code dst} starting
+     * at {@code dstPos}.
+     *
+     * @param index
+     *            the index of the first value
+     * @param dst
+     *            the destination array
+     * @param dstPos
+     *            starting position in the destination array
+     * @param length
+     *            the number of values to convert
+     *
+     * @throws IndexOutOfBoundsException
+     *             if converting would cause access of data outside the view or array bounds
+     */
+    public void get(long index, float[] dst, int dstPos, int length) {
+        checkRange(index, length, dstPos, dst.length);
+        for (int i = 0; i < length;) {
+            ShortBuffer chunk = chunk(index + i);
+            int n = Math.min(length - i, chunk.remaining());
+            for (int j = 0; j < n; j++) {
+                dst[dstPos + i + j] = Half.halfShortToFloat(chunk.get());
+            }
+            i += n;
+        }
+    }
+
+    /**
+     * Copies {@code length} short bits from {@code src} starting at {@code srcPos} to this view starting at
+     * {@code index}.
+     *
+     * @param index
+     *            the index of the first value to write
+     * @param src
+     *            the source array
+     * @param srcPos
+     *            starting position in the source array
+     * @param length
+     *            the number of values to copy
+     *
+     * @throws IndexOutOfBoundsException
+     *             if copying would cause access of data outside the view or array bounds
+     * @throws java.nio.ReadOnlyBufferException
+     *             if the view is read-only
+     */
+    public void put(long index, short[] src, int srcPos, int length) {
+        checkRange(index, length, srcPos, src.length);
+        for (int i = 0; i < length;) {
+            ShortBuffer chunk = chunk(index + i);
+            int n = Math.min(length - i, chunk.remaining());
+            chunk.put(src, srcPos + i, n);
+            i += n;
+        }
+    }
+
+    /**
+     * Returns all values converted to {@code float}.
+     *
+     * @return array of floats
+     *
+     * @throws IllegalStateException
+     *             if there are more values than fit in an array
+     */
+    public float[] toFloatArray() {
+        float[] floats = new float[arrayLength()];
+        get(0, floats, 0, floats.length);
+        return floats;
+    }
+
+    /**
+     * Returns a copy of the short bits of all values.
+     *
+     * @return array of {@code half} short bits
+     *
+     * @throws IllegalStateException
+     *             if there are more values than fit in an array
+     */
+    public short[] toShortBitsArray() {
+        short[] shortBits = new short[arrayLength()];
+        get(0, shortBits, 0, shortBits.length);
+        return shortBits;
+    }
+
+    /**
+     * Returns a {@link ShortBuffer} view of all values, sharing the underlying memory.
+     *
+     * @return a buffer of {@code half} short bits
+     *
+     * @throws IllegalStateException
+     *             if the values span more than one chunk
+     */
+    public ShortBuffer asShortBuffer() {
+        if (chunks.length > 1) {
+            throw new IllegalStateException("Values span " + chunks.length + " chunks");
+        }
+        if (chunks.length == 0) {
+            return ShortBuffer.allocate(0);
+        }
+        ShortBuffer buf = chunks[0].duplicate().order(chunks[0].order()).asShortBuffer();
+        buf.limit((int) size);
+        return buf;
+    }
+
+    /**
+     * Returns {@link ShortBuffer} views of the chunks holding the values, sharing the underlying memory.
+     *
+     * @return buffers of {@code half} short bits, in order
+     */
+    public ShortBuffer[] asShortBuffers() {
+        ShortBuffer[] buffers = new ShortBuffer[chunks.length];
+        for (int i = 0; i < chunks.length; i++) {
+            buffers[i] = chunks[i].duplicate().order(chunks[i].order()).asShortBuffer();
+        }
+        if (buffers.length > 0) {
+            ShortBuffer last = buffers[buffers.length - 1];
+            last.limit((int) (size - ((long) (buffers.length - 1) << (chunkShift - 1))));
+        }
+        return buffers;
+    }
+
+    /**
+     * Returns a {@link ShortBuffer} over the chunk containing {@code index}, positioned at {@code index}.
+     */
+    private ShortBuffer chunk(long index) {
+        long byteIndex = index * Half.BYTES;
+        ByteBuffer chunk = chunks[(int) (byteIndex >>> chunkShift)];
+        ShortBuffer buf = chunk.duplicate().order(chunk.order()).asShortBuffer();
+        long chunkStart = (byteIndex >>> chunkShift) << (chunkShift - 1);
+        buf.limit((int) Math.min(buf.capacity(), size - chunkStart));
+        buf.position((int) (index - chunkStart));
+        return buf;
+    }
+
+    private long checkedIndex(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index);
+        }
+        return index;
+    }
+
+    private void checkRange(long index, int length, int arrayPos, int arrayLength) {
+        if (index < 0 || length < 0 || index > size - length || arrayPos < 0 || arrayPos > arrayLength - length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", arrayPos: " + arrayPos + ", length: " + length);
+        }
+    }
+
+    private int arrayLength() {
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Too many values for an array: " + size);
+        }
+        return (int) size;
+    }
+
+}
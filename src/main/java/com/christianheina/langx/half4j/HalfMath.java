@@ -16,13 +16,22 @@
 
 package com.christianheina.langx.half4j;
 
+import java.util.function.DoubleUnaryOperator;
+
 /**
  * The class {@code HalfMath} contains methods for performing basic numeric operations on or using {@link Half} objects.
  * 
+ * <p>
+ * The exponential, logarithm, root and activation functions are evaluated in {@code double} precision and the result is
+ * rounded once to the nearest {@code half}, ties to even. Their bulk variants give bit-identical results.
+ * 
  * @author Christian Heina (developer@christianheina.com)
  */
 public class HalfMath {
 
+    private static final double LN_2 = Math.log(2.0);
+    private static final double SQRT_2_OVER_PI = Math.sqrt(2.0 / Math.PI);
+
     private HalfMath() {
         /* Hidden Constructor */ }
 
@@ -110,6 +119,421 @@ public class HalfMath {
         return Half.shortBitsToHalf((short) (Half.halfToRawShortBits(half) & 0x7fff));
     }
 
+    /**
+     * Returns Euler's number <i>e</i> raised to the power of a {@code half} value.
+     *
+     * @param half
+     *            a {@code half} value
+     * 
+     * @return the value computed and rounded to {@code half}
+     */
+    public static Half exp(Half half) {
+        return Half.shortBitsToHalf(apply(UnaryFunction.EXP, half.floatValue()));
+    }
+
+    /**
+     * Returns Euler's number <i>e</i> raised to the power of a {@code half} value represented by its short bits.
+     *
+     * @param shortBits
+     *            the {@code half} short bits
+     * 
+     * @return the short bits of the value computed and rounded to {@code half}
+     */
+    public static short exp(short shortBits) {
+        return apply(UnaryFunction.EXP, Half.halfShortToFloat(shortBits));
+    }
+
+    /**
+     * Computes Euler's number <i>e</i> raised to the power of each {@code half} value of {@code src} and stores the
+     * result in {@code dst}. Results are looked up in a table covering every {@code half} value, which is computed on
+     * first use.
+     *
+     * @param src
+     *            the {@code half} short bits
+     * @param dst
+     *            the destination of the result, may be {@code src}
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length
+     */
+    public static void exp(short[] src, short[] dst) {
+        UnaryFunction.EXP.table().apply(src, dst);
+    }
+
+    /**
+     * Returns the natural logarithm (base <i>e</i>) of a {@code half} value.
+     *
+     * @param half
+     *            a {@code half} value
+     * 
+     * @return the value computed and rounded to {@code half}
+     */
+    public static Half log(Half half) {
+        return Half.shortBitsToHalf(apply(UnaryFunction.LOG, half.floatValue()));
+    }
+
+    /**
+     * Returns the natural logarithm (base <i>e</i>) of a {@code half} value represented by its short bits.
+     *
+     * @param shortBits
+     *            the {@code half} short bits
+     * 
+     * @return the short bits of the value computed and rounded to {@code half}
+     */
+    public static short log(short shortBits) {
+        return apply(UnaryFunction.LOG, Half.halfShortToFloat(shortBits));
+    }
+
+    /**
+     * Computes the natural logarithm (base <i>e</i>) of each {@code half} value of {@code src} and stores the result in
+     * {@code dst}. Results are looked up in a table covering every {@code half} value, which is computed on first use.
+     *
+     * @param src
+     *            the {@code half} short bits
+     * @param dst
+     *            the destination of the result, may be {@code src}
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length
+     */
+    public static void log(short[] src, short[] dst) {
+        UnaryFunction.LOG.table().apply(src, dst);
+    }
+
+    /**
+     * Returns the base 2 logarithm of a {@code half} value.
+     *
+     * @param half
+     *            a {@code half} value
+     * 
+     * @return the value computed and rounded to {@code half}
+     */
+    public static Half log2(Half half) {
+        return Half.shortBitsToHalf(apply(UnaryFunction.LOG2, half.floatValue()));
+    }
+
+    /**
+     * Returns the base 2 logarithm of a {@code half} value represented by its short bits.
+     *
+     * @param shortBits
+     *            the {@code half} short bits
+     * 
+     * @return the short bits of the value computed and rounded to {@code half}
+     */
+    public static short log2(short shortBits) {
+        return apply(UnaryFunction.LOG2, Half.halfShortToFloat(shortBits));
+    }
+
+    /**
+     * Computes the base 2 logarithm of each {@code half} value of {@code src} and stores the result in {@code dst}.
+     * Results are looked up in a table covering every {@code half} value, which is computed on first use.
+     *
+     * @param src
+     *            the {@code half} short bits
+     * @param dst
+     *            the destination of the result, may be {@code src}
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length
+     */
+    public static void log2(short[] src, short[] dst) {
+        UnaryFunction.LOG2.table().apply(src, dst);
+    }
+
+    /**
+     * Returns the positive square root of a {@code half} value.
+     *
+     * @param half
+     *            a {@code half} value
+     * 
+     * @return the value computed and rounded to {@code half}
+     */
+    public static Half sqrt(Half half) {
+        return Half.shortBitsToHalf(apply(UnaryFunction.SQRT, half.floatValue()));
+    }
+
+    /**
+     * Returns the positive square root of a {@code half} value represented by its short bits.
+     *
+     * @param shortBits
+     *            the {@code half} short bits
+     * 
+     * @return the short bits of the value computed and rounded to {@code half}
+     */
+    public static short sqrt(short shortBits) {
+        return apply(UnaryFunction.SQRT, Half.halfShortToFloat(shortBits));
+    }
+
+    /**
+     * Computes the positive square root of each {@code half} value of {@code src} and stores the result in {@code dst}.
+     * Results are looked up in a table covering every {@code half} value, which is computed on first use.
+     *
+     * @param src
+     *            the {@code half} short bits
+     * @param dst
+     *            the destination of the result, may be {@code src}
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length
+     */
+    public static void sqrt(short[] src, short[] dst) {
+        UnaryFunction.SQRT.table().apply(src, dst);
+    }
+
+    /**
+     * Returns the reciprocal of the positive square root of a {@code half} value.
+     *
+     * @param half
+     *            a {@code half} value
+     * 
+     * @return the value computed and rounded to {@code half}
+     */
+    public static Half rsqrt(Half half) {
+        return Half.shortBitsToHalf(apply(UnaryFunction.RSQRT, half.floatValue()));
+    }
+
+    /**
+     * Returns the reciprocal of the positive square root of a {@code half} value represented by its short bits.
+     *
+     * @param shortBits
+     *            the {@code half} short bits
+     * 
+     * @return the short bits of the value computed and rounded to {@code half}
+     */
+    public static short rsqrt(short shortBits) {
+        return apply(UnaryFunction.RSQRT, Half.halfShortToFloat(shortBits));
+    }
+
+    /**
+     * Computes the reciprocal of the positive square root of each {@code half} value of {@code src} and stores the
+     * result in {@code dst}. Results are looked up in a table covering every {@code half} value, which is computed on
+     * first use.
+     *
+     * @param src
+     *            the {@code half} short bits
+     * @param dst
+     *            the destination of the result, may be {@code src}
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length
+     */
+    public static void rsqrt(short[] src, short[] dst) {
+        UnaryFunction.RSQRT.table().apply(src, dst);
+    }
+
+    /**
+     * Returns the hyperbolic tangent of a {@code half} value.
+     *
+     * @param half
+     *            a {@code half} value
+     * 
+     * @return the value computed and rounded to {@code half}
+     */
+    public static Half tanh(Half half) {
+        return Half.shortBitsToHalf(apply(UnaryFunction.TANH, half.floatValue()));
+    }
+
+    /**
+     * Returns the hyperbolic tangent of a {@code half} value represented by its short bits.
+     *
+     * @param shortBits
+     *            the {@code half} short bits
+     * 
+     * @return the short bits of the value computed and rounded to {@code half}
+     */
+    public static short tanh(short shortBits) {
+        return apply(UnaryFunction.TANH, Half.halfShortToFloat(shortBits));
+    }
+
+    /**
+     * Computes the hyperbolic tangent of each {@code half} value of {@code src} and stores the result in {@code dst}.
+     * Results are looked up in a table covering every {@code half} value, which is computed on first use.
+     *
+     * @param src
+     *            the {@code half} short bits
+     * @param dst
+     *            the destination of the result, may be {@code src}
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length
+     */
+    public static void tanh(short[] src, short[] dst) {
+        UnaryFunction.TANH.table().apply(src, dst);
+    }
+
+    /**
+     * Returns the logistic sigmoid, <code>1 / (1 + e<sup>-x</sup>)</code>, of a {@code half} value.
+     *
+     * @param half
+     *            a {@code half} value
+     * 
+     * @return the value computed and rounded to {@code half}
+     */
+    public static Half sigmoid(Half half) {
+        return Half.shortBitsToHalf(apply(UnaryFunction.SIGMOID, half.floatValue()));
+    }
+
+    /**
+     * Returns the logistic sigmoid, <code>1 / (1 + e<sup>-x</sup>)</code>, of a {@code half} value represented by its
+     * short bits.
+     *
+     * @param shortBits
+     *            the {@code half} short bits
+     * 
+     * @return the short bits of the value computed and rounded to {@code half}
+     */
+    public static short sigmoid(short shortBits) {
+        return apply(UnaryFunction.SIGMOID, Half.halfShortToFloat(shortBits));
+    }
+
+    /**
+     * Computes the logistic sigmoid, <code>1 / (1 + e<sup>-x</sup>)</code>, of each {@code half} value of {@code src}
+     * and stores the result in {@code dst}. Results are looked up in a table covering every {@code half} value, which
+     * is computed on first use.
+     *
+     * @param src
+     *            the {@code half} short bits
+     * @param dst
+     *            the destination of the result, may be {@code src}
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length
+     */
+    public static void sigmoid(short[] src, short[] dst) {
+        UnaryFunction.SIGMOID.table().apply(src, dst);
+    }
+
+    /**
+     * Returns the Gaussian error linear unit of a {@code half} value.
+     *
+     * <p>
+     * The result is computed using the {@code tanh} approximation
+     * <code>0.5 * x * (1 + tanh(sqrt(2 / &pi;) * (x + 0.044715 * x<sup>3</sup>)))</code>.
+     *
+     * @param half
+     *            a {@code half} value
+     * 
+     * @return the value computed and rounded to {@code half}
+     */
+    public static Half gelu(Half half) {
+        return Half.shortBitsToHalf(apply(UnaryFunction.GELU, half.floatValue()));
+    }
+
+    /**
+     * Returns the Gaussian error linear unit of a {@code half} value represented by its short bits.
+     *
+     * <p>
+     * The result is computed using the {@code tanh} approximation
+     * <code>0.5 * x * (1 + tanh(sqrt(2 / &pi;) * (x + 0.044715 * x<sup>3</sup>)))</code>.
+     *
+     * @param shortBits
+     *            the {@code half} short bits
+     * 
+     * @return the short bits of the value computed and rounded to {@code half}
+     */
+    public static short gelu(short shortBits) {
+        return apply(UnaryFunction.GELU, Half.halfShortToFloat(shortBits));
+    }
+
+    /**
+     * Computes the Gaussian error linear unit of each {@code half} value of {@code src} and stores the result in
+     * {@code dst}. Results are looked up in a table covering every {@code half} value, which is computed on first use.
+     *
+     * @param src
+     *            the {@code half} short bits
+     * @param dst
+     *            the destination of the result, may be {@code src}
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length
+     */
+    public static void gelu(short[] src, short[] dst) {
+        UnaryFunction.GELU.table().apply(src, dst);
+    }
+
+    /**
+     * Returns the sigmoid linear unit, <code>x * sigmoid(x)</code>, of a {@code half} value.
+     *
+     * @param half
+     *            a {@code half} value
+     * 
+     * @return the value computed and rounded to {@code half}
+     */
+    public static Half silu(Half half) {
+        return Half.shortBitsToHalf(apply(UnaryFunction.SILU, half.floatValue()));
+    }
+
+    /**
+     * Returns the sigmoid linear unit, <code>x * sigmoid(x)</code>, of a {@code half} value represented by its short
+     * bits.
+     *
+     * @param shortBits
+     *            the {@code half} short bits
+     * 
+     * @return the short bits of the value computed and rounded to {@code half}
+     */
+    public static short silu(short shortBits) {
+        return apply(UnaryFunction.SILU, Half.halfShortToFloat(shortBits));
+    }
+
+    /**
+     * Computes the sigmoid linear unit, <code>x * sigmoid(x)</code>, of each {@code half} value of {@code src} and
+     * stores the result in {@code dst}. Results are looked up in a table covering every {@code half} value, which is
+     * computed on first use.
+     *
+     * @param src
+     *            the {@code half} short bits
+     * @param dst
+     *            the destination of the result, may be {@code src}
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length
+     */
+    public static void silu(short[] src, short[] dst) {
+        UnaryFunction.SILU.table().apply(src, dst);
+    }
+
+    /**
+     * Returns the softplus, <code>log(1 + e<sup>x</sup>)</code>, of a {@code half} value.
+     *
+     * @param half
+     *            a {@code half} value
+     * 
+     * @return the value computed and rounded to {@code half}
+     */
+    public static Half softplus(Half half) {
+        return Half.shortBitsToHalf(apply(UnaryFunction.SOFTPLUS, half.floatValue()));
+    }
+
+    /**
+     * Returns the softplus, <code>log(1 + e<sup>x</sup>)</code>, of a {@code half} value represented by its short bits.
+     *
+     * @param shortBits
+     *            the {@code half} short bits
+     * 
+     * @return the short bits of the value computed and rounded to {@code half}
+     */
+    public static short softplus(short shortBits) {
+        return apply(UnaryFunction.SOFTPLUS, Half.halfShortToFloat(shortBits));
+    }
+
+    /**
+     * Computes the softplus, <code>log(1 + e<sup>x</sup>)</code>, of each {@code half} value of {@code src} and stores
+     * the result in {@code dst}. Results are looked up in a table covering every {@code half} value, which is computed
+     * on first use.
+     *
+     * @param src
+     *            the {@code half} short bits
+     * @param dst
+     *            the destination of the result, may be {@code src}
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length
+     */
+    public static void softplus(short[] src, short[] dst) {
+        UnaryFunction.SOFTPLUS.table().apply(src, dst);
+    }
+
     /**
      * Returns a floating-point power of two in the normal range.
      */
@@ -118,4 +542,64 @@ public class HalfMath {
                 (short) (((n + HalfConsts.EXP_BIAS) << (HalfConsts.SIGNIFICAND_WIDTH - 1)) & HalfConsts.EXP_BIT_MASK));
     }
 
+    private static short apply(UnaryFunction function, float floatValue) {
+        return Half.roundToHalfShortBits(function.operator.applyAsDouble(floatValue));
+    }
+
+    private static double log2(double x) {
+        return Math.log(x) / LN_2;
+    }
+
+    private static double rsqrt(double x) {
+        return 1.0 / Math.sqrt(x);
+    }
+
+    private static double sigmoid(double x) {
+        return 1.0 / (1.0 + Math.exp(-x));
+    }
+
+    private static double gelu(double x) {
+        if (x == Double.NEGATIVE_INFINITY) {
+            return -0.0;
+        }
+        return 0.5 * x * (1.0 + Math.tanh(SQRT_2_OVER_PI * (x + 0.044715 * x * x * x)));
+    }
+
+    private static double silu(double x) {
+        if (x == Double.NEGATIVE_INFINITY) {
+            return -0.0;
+        }
+        return x * sigmoid(x);
+    }
+
+    private static double softplus(double x) {
+        // log1p(exp(x)) equals x beyond half precision for large x
+        return x > 32.0 ? x : Math.log1p(Math.exp(x));
+    }
+
+    /**
+     * Unary functions with lazily computed {@link HalfLookupTable} instances.
+     */
+    private enum UnaryFunction {
+        EXP(Math::exp), LOG(Math::log), LOG2(HalfMath::log2), SQRT(Math::sqrt), RSQRT(HalfMath::rsqrt),
+        TANH(Math::tanh), SIGMOID(HalfMath::sigmoid), GELU(HalfMath::gelu), SILU(HalfMath::silu),
+        SOFTPLUS(HalfMath::softplus);
+
+        private final DoubleUnaryOperator operator;
+        private volatile HalfLookupTable table;
+
+        UnaryFunction(DoubleUnaryOperator operator) {
+            this.operator = operator;
+        }
+
+        HalfLookupTable table() {
+            HalfLookupTable result = table;
+            if (result == null) {
+                result = HalfLookupTable.of(operator);
+                table = result;
+            }
+            return result;
+        }
+    }
+
 }
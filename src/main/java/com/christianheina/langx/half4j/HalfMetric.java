@@ -0,0 +1,153 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+/**
+ * A distance between vectors of {@code half} values, used by {@link HalfVectorStore} and the vector indexes.
+ *
+ * <p>
+ * Every metric is expressed as a distance, smaller meaning more similar, so that nearest neighbours are always the
+ * vectors with the smallest distance: {@link #DOT} is the negated dot product, {@link #COSINE} is one minus the cosine
+ * similarity and {@link #L2} is the squared Euclidean distance. Distances are accumulated in {@code float}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public enum HalfMetric {
+
+    /**
+     * The negated dot product.
+     */
+    DOT {
+        @Override
+        float distance(float[] query, short[] vectors, int offset, int dimension) {
+            return -HalfArrays.dot(vectors, offset, query, 0, dimension);
+        }
+
+        @Override
+        float distance(short[] a, int aOff, short[] b, int bOff, int dimension) {
+            return -HalfArrays.dot(a, aOff, b, bOff, dimension);
+        }
+    },
+
+    /**
+     * One minus the cosine similarity, {@code 1} if either vector is zero.
+     */
+    COSINE {
+        @Override
+        float[] prepare(float[] query) {
+            float sumOfSquares = 0f;
+            for (float value : query) {
+                sumOfSquares += value * value;
+            }
+            if (sumOfSquares > 0f) {
+                float scale = (float) (1.0 / Math.sqrt(sumOfSquares));
+                for (int i = 0; i < query.length; i++) {
+                    query[i] *= scale;
+                }
+            }
+            return query;
+        }
+
+        @Override
+        float distance(float[] query, short[] vectors, int offset, int dimension) {
+            float dot = 0f;
+            float sumOfSquares = 0f;
+            for (int i = 0; i < dimension; i++) {
+                float value = HalfFloatTable.toFloat(vectors[offset + i]);
+                dot += value * query[i];
+                sumOfSquares += value * value;
+            }
+            return sumOfSquares == 0f ? 1f : 1f - dot / (float) Math.sqrt(sumOfSquares);
+        }
+
+        @Override
+        float distance(short[] a, int aOff, short[] b, int bOff, int dimension) {
+            float dot = 0f;
+            float sumOfSquaresA = 0f;
+            float sumOfSquaresB = 0f;
+            for (int i = 0; i < dimension; i++) {
+                float valueA = HalfFloatTable.toFloat(a[aOff + i]);
+                float valueB = HalfFloatTable.toFloat(b[bOff + i]);
+                dot += valueA * valueB;
+                sumOfSquaresA += valueA * valueA;
+                sumOfSquaresB += valueB * valueB;
+            }
+            float norms = (float) Math.sqrt((double) sumOfSquaresA * sumOfSquaresB);
+            return norms == 0f ? 1f : 1f - dot / norms;
+        }
+    },
+
+    /**
+     * The squared Euclidean distance.
+     */
+    L2 {
+        @Override
+        float distance(float[] query, short[] vectors, int offset, int dimension) {
+            return HalfArrays.squaredDistance(vectors, offset, query, 0, dimension);
+        }
+
+        @Override
+        float distance(short[] a, int aOff, short[] b, int bOff, int dimension) {
+            return HalfArrays.squaredDistance(a, aOff, b, bOff, dimension);
+        }
+    };
+
+    /**
+     * Returns the distance between two vectors.
+     *
+     * @param a
+     *            the {@code half} bits of the first vector
+     * @param b
+     *            the {@code half} bits of the second vector
+     *
+     * @return the distance
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length
+     */
+    public float distance(short[] a, short[] b) {
+        HalfArrays.checkLength(a.length, b.length);
+        return distance(a, 0, b, 0, a.length);
+    }
+
+    /**
+     * Converts a query vector to {@code float} and prepares it for repeated use with
+     * {@link #distance(float[], short[], int, int)}.
+     */
+    float[] prepare(short[] query) {
+        return prepare(HalfUtil.halfShortBitsToFloatArray(query));
+    }
+
+    /**
+     * Prepares a query vector, which may be modified, for repeated use with
+     * {@link #distance(float[], short[], int, int)}.
+     */
+    float[] prepare(float[] query) {
+        return query;
+    }
+
+    /**
+     * Returns the distance between a prepared query and the vector starting at {@code offset} of {@code vectors}.
+     */
+    abstract float distance(float[] query, short[] vectors, int offset, int dimension);
+
+    /**
+     * Returns the distance between the vectors starting at {@code aOff} of {@code a} and {@code bOff} of {@code b}.
+     */
+    abstract float distance(short[] a, int aOff, short[] b, int bOff, int dimension);
+
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional instrumentation of {@code half} conversions, to tell how much work goes into conversion as opposed to
+ * arithmetic.
+ *
+ * <p>
+ * When enabled, the number of elements converted is counted separately for each {@link Path}, and every {@code float}
+ * to {@code half} conversion is classified so that NaN inputs, overflows to infinity, underflows to zero and subnormal
+ * results are counted. Bulk operations of at least {@link #getEventThreshold()} elements additionally emit a
+ * {@code com.christianheina.langx.half4j.Bulk} JDK Flight Recorder event when the running JDK provides Flight Recorder.
+ *
+ * <p>
+ * Instrumentation is disabled by default and may be enabled at startup with the {@code half4j.metrics} system property
+ * or toggled at runtime with {@link #setEnabled(boolean)}. When disabled, the cost on an instrumented path is a single
+ * read of a volatile field. Counters are {@link LongAdder}s, so enabled instrumentation does not contend between
+ * threads, although classifying conversions does add a pass over the converted elements.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class HalfMetrics {
+
+    /**
+     * The conversion paths that are counted.
+     */
+    public enum Path {
+        /**
+         * Single value conversions through {@link Half}.
+         */
+        SCALAR,
+        /**
+         * Array conversions in {@link HalfUtil}.
+         */
+        BULK,
+        /**
+         * Conversions through lookup tables, in {@link HalfLookupTable} and the public reductions of
+         * {@link HalfArrays}.
+         */
+        TABLE,
+        /**
+         * Elements transformed by the SIMD within a register bulk operations of {@link HalfSwar}.
+         */
+        SIMD
+    }
+
+    /**
+     * The default minimum number of elements of a bulk operation that emits a Flight Recorder event.
+     */
+    public static final int DEFAULT_EVENT_THRESHOLD = 1 << 16;
+
+    static volatile boolean enabled = Boolean.getBoolean("half4j.metrics");
+    private static volatile int eventThreshold = Integer.getInteger("half4j.metrics.eventThreshold",
+            DEFAULT_EVENT_THRESHOLD);
+
+    private static final LongAdder[] CONVERTED = new LongAdder[Path.values().length];
+    private static final LongAdder NAN = new LongAdder();
+    private static final LongAdder OVERFLOW = new LongAdder();
+    private static final LongAdder UNDERFLOW = new LongAdder();
+    private static final LongAdder SUBNORMAL = new LongAdder();
+    private static final boolean FLIGHT_RECORDER = flightRecorderAvailable();
+
+    static {
+        for (int i = 0; i < CONVERTED.length; i++) {
+            CONVERTED[i] = new LongAdder();
+        }
+    }
+
+    private HalfMetrics() {
+        /* Hidden Constructor */ }
+
+    /**
+     * Returns whether instrumentation is enabled.
+     *
+     * @return {@code true} if conversions are counted
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables instrumentation. Counts are kept when instrumentation is disabled.
+     *
+     * @param enable
+     *            {@code true} to count conversions and emit events
+     */
+    public static void setEnabled(boolean enable) {
+        enabled = enable;
+    }
+
+    /**
+     * Returns the minimum number of elements of a bulk operation that emits a Flight Recorder event.
+     *
+     * @return the event threshold
+     */
+    public static int getEventThreshold() {
+        return eventThreshold;
+    }
+
+    /**
+     * Sets the minimum number of elements of a bulk operation that emits a Flight Recorder event.
+     *
+     * @param threshold
+     *            the event threshold
+     *
+     * @throws IllegalArgumentException
+     *             if {@code threshold} is negative
+     */
+    public static void setEventThreshold(int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Event threshold must not be negative: " + threshold);
+        }
+        eventThreshold = threshold;
+    }
+
+    /**
+     * Returns the number of elements converted through {@code path} while instrumentation was enabled.
+     *
+     * @param path
+     *            the conversion path
+     *
+     * @return the number of converted elements
+     */
+    public static long getConverted(Path path) {
+        return CONVERTED[path.ordinal()].sum();
+    }
+
+    /**
+     * Returns the number of NaN values converted to {@code half}.
+     *
+     * @return the number of NaN inputs
+     */
+    public static long getNaNs() {
+        return NAN.sum();
+    }
+
+    /**
+     * Returns the number of finite values that overflowed to infinity when converted to {@code half}.
+     *
+     * @return the number of overflows
+     */
+    public static long getOverflows() {
+        return OVERFLOW.sum();
+    }
+
+    /**
+     * Returns the number of non-zero values that underflowed to zero when converted to {@code half}.
+     *
+     * @return the number of underflows
+     */
+    public static long getUnderflows() {
+        return UNDERFLOW.sum();
+    }
+
+    /**
+     * Returns the number of values converted to a subnormal {@code half}.
+     *
+     * @return the number of subnormal results
+     */
+    public static long getSubnormals() {
+        return SUBNORMAL.sum();
+    }
+
+    /**
+     * Resets all counts to zero.
+     */
+    public static void reset() {
+        for (LongAdder converted : CONVERTED) {
+            converted.reset();
+        }
+        NAN.reset();
+        OVERFLOW.reset();
+        UNDERFLOW.reset();
+        SUBNORMAL.reset();
+    }
+
+    /**
+     * Returns a summary of all counts.
+     *
+     * @return the counts as a string
+     */
+    public static String report() {
+        StringBuilder sb = new StringBuilder("HalfMetrics[enabled=").append(enabled);
+        for (Path path : Path.values()) {
+            sb.append(", ").append(path.name().toLowerCase(Locale.ROOT)).append('=').append(getConverted(path));
+        }
+        return sb.append(", nan=").append(getNaNs()).append(", overflow=").append(getOverflows()).append(", underflow=")
+                .append(getUnderflows()).append(", subnormal=").append(getSubnormals()).append(']').toString();
+    }
+
+    static void converted(Path path, long elements) {
+        CONVERTED[path.ordinal()].add(elements);
+    }
+
+    static void overflowed() {
+        OVERFLOW.increment();
+    }
+
+    static void encoded(float value, short shortBits) {
+        int nan = 0;
+        int overflow = 0;
+        int underflow = 0;
+        int subnormal = 0;
+        int magnitude = shortBits & 0x7fff;
+        if (value != value) {
+            nan = 1;
+        } else if (magnitude == HalfConsts.EXP_BIT_MASK) {
+            overflow = Float.isInfinite(value) ? 0 : 1;
+        } else if (magnitude == 0) {
+            underflow = value != 0 ? 1 : 0;
+        } else if (magnitude < 0x0400) {
+            subnormal = 1;
+        }
+        add(nan, overflow, underflow, subnormal);
+    }
+
+    static void encoded(float[] src, int srcPos, short[] dst, int dstPos, int length) {
+        int nan = 0;
+        int overflow = 0;
+        int underflow = 0;
+        int subnormal = 0;
+        for (int i = 0; i < length; i++) {
+            float value = src[srcPos + i];
+            int magnitude = dst[dstPos + i] & 0x7fff;
+            if (value != value) {
+                nan++;
+            } else if (magnitude == HalfConsts.EXP_BIT_MASK) {
+                overflow += Float.isInfinite(value) ? 0 : 1;
+            } else if (magnitude == 0) {
+                underflow += value != 0 ? 1 : 0;
+            } else if (magnitude < 0x0400) {
+                subnormal++;
+            }
+        }
+        add(nan, overflow, underflow, subnormal);
+    }
+
+    static void add(int nan, int overflow, int underflow, int subnormal) {
+        if (nan != 0) {
+            NAN.add(nan);
+        }
+        if (overflow != 0) {
+            OVERFLOW.add(overflow);
+        }
+        if (underflow != 0) {
+            UNDERFLOW.add(underflow);
+        }
+        if (subnormal != 0) {
+            SUBNORMAL.add(subnormal);
+        }
+    }
+
+    /**
+     * Starts a Flight Recorder event for a bulk operation, or returns {@code null} if the operation is below the
+     * threshold or no event is recorded. The event is typed {@code Object} so that callers never link Flight Recorder
+     * classes.
+     */
+    static Object begin(String operation, Path path, long elements) {
+        if (!FLIGHT_RECORDER || elements < eventThreshold) {
+            return null;
+        }
+        return HalfBulkEvent.start(operation, path.name(), elements);
+    }
+
+    static void end(Object event) {
+        if (event != null) {
+            HalfBulkEvent.finish(event);
+        }
+    }
+
+    private static boolean flightRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, HalfMetrics.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+}
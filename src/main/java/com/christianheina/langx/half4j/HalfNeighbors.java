@@ -0,0 +1,93 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.util.Arrays;
+
+/**
+ * The result of a nearest neighbour search: the ids of the nearest vectors and their distances, ordered from nearest to
+ * farthest. Equal distances are ordered by id.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public final class HalfNeighbors {
+
+    private final long[] ids;
+    private final float[] distances;
+
+    HalfNeighbors(long[] ids, float[] distances) {
+        this.ids = ids;
+        this.distances = distances;
+    }
+
+    /**
+     * Returns the number of neighbours found.
+     *
+     * @return the number of neighbours
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Returns the id of the neighbour at the given rank.
+     *
+     * @param rank
+     *            the rank, {@code 0} being the nearest neighbour
+     *
+     * @return the id of the neighbour
+     */
+    public long getId(int rank) {
+        return ids[rank];
+    }
+
+    /**
+     * Returns the distance of the neighbour at the given rank.
+     *
+     * @param rank
+     *            the rank, {@code 0} being the nearest neighbour
+     *
+     * @return the distance of the neighbour
+     */
+    public float getDistance(int rank) {
+        return distances[rank];
+    }
+
+    /**
+     * Returns the ids of all neighbours, nearest first.
+     *
+     * @return a new array holding the ids
+     */
+    public long[] getIds() {
+        return ids.clone();
+    }
+
+    /**
+     * Returns the distances of all neighbours, nearest first.
+     *
+     * @return a new array holding the distances
+     */
+    public float[] getDistances() {
+        return distances.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "HalfNeighbors [ids=" + Arrays.toString(ids) + ", distances=" + Arrays.toString(distances) + "]";
+    }
+
+}
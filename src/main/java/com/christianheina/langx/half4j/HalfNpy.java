@@ -0,0 +1,454 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * A {@code float16} array in the NumPy {@code .npy} format.
+ *
+ * <p>
+ * Arrays read from, or created in, a file are memory-mapped, so their data is never copied onto the heap regardless of
+ * size. Arrays of dtype {@code '<f2'} and {@code '>f2'} in C or Fortran order and of any shape are supported. The
+ * values are exposed in file order, interpreting them according to {@link #isFortranOrder()} is left to the caller.
+ *
+ * <p>
+ * Arrays in {@code .npz} archives are read onto the heap since entries of a zip file can not be mapped.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class HalfNpy {
+
+    private static final byte[] MAGIC = { (byte) 0x93, 'N', 'U', 'M', 'P', 'Y' };
+    private static final int HEADER_ALIGNMENT = 64;
+    // the limit NumPy's reader applies by default, so a corrupt header length cannot allocate up to 4 GiB
+    private static final int MAX_HEADER_LENGTH = 10000;
+    private static final int WRITE_BUFFER_SIZE = 8192;
+    private static final String NPY_SUFFIX = ".npy";
+
+    private static final Pattern DESCR = Pattern.compile("'descr'\\s*:\\s*'([^']*)'");
+    private static final Pattern FORTRAN_ORDER = Pattern.compile("'fortran_order'\\s*:\\s*(True|False)");
+    private static final Pattern SHAPE = Pattern.compile("'shape'\\s*:\\s*\\(([^)]*)\\)");
+
+    private final long[] shape;
+    private final boolean fortranOrder;
+    private final HalfMappedArray data;
+
+    private HalfNpy(long[] shape, boolean fortranOrder, HalfMappedArray data) {
+        this.shape = shape;
+        this.fortranOrder = fortranOrder;
+        this.data = data;
+    }
+
+    /**
+     * Creates a C order array of the given shape holding the given {@code half} short bits. The short bits are copied
+     * to a little-endian buffer.
+     *
+     * @param shortBits
+     *            the {@code half} short bits in C order
+     * @param shape
+     *            the shape of the array, empty for a scalar
+     *
+     * @return the array
+     *
+     * @throws IllegalArgumentException
+     *             if the number of elements of the shape is not the length of {@code shortBits}
+     */
+    public static HalfNpy of(short[] shortBits, long... shape) {
+        checkSize(shortBits.length, shape);
+        ByteBuffer buf = ByteBuffer.allocate(shortBits.length * Half.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buf.asShortBuffer().put(shortBits);
+        return new HalfNpy(shape.clone(), false, HalfMappedArray.wrap(buf));
+    }
+
+    /**
+     * Creates a C order array of the given shape viewing the given values.
+     *
+     * @param data
+     *            the values in C order
+     * @param shape
+     *            the shape of the array, empty for a scalar
+     *
+     * @return the array
+     *
+     * @throws IllegalArgumentException
+     *             if the number of elements of the shape is not the size of {@code data}
+     */
+    public static HalfNpy of(HalfMappedArray data, long... shape) {
+        checkSize(data.size(), shape);
+        return new HalfNpy(shape.clone(), false, data);
+    }
+
+    /**
+     * Memory-maps a {@code .npy} file for reading.
+     *
+     * @param path
+     *            the file to read
+     *
+     * @return the array
+     *
+     * @throws IOException
+     *             if an I/O error occurs, the file is not a valid {@code .npy} file or its dtype is not {@code float16}
+     */
+    public static HalfNpy read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Header header = readHeader(new DataInputStream(Channels.newInputStream(channel)));
+            long offset = channel.position();
+            long size = header.size;
+            if ((channel.size() - offset) / Half.BYTES < size) {
+                throw new IOException("Truncated data, expected " + size + " elements");
+            }
+            HalfMappedArray data = HalfMappedArray.map(channel, MapMode.READ_ONLY, offset, size, header.order);
+            return new HalfNpy(header.shape, header.fortranOrder, data);
+        }
+    }
+
+    /**
+     * Reads a {@code .npy} array from a stream onto the heap. The stream is read up to the end of the array and is not
+     * closed.
+     *
+     * @param in
+     *            the stream to read
+     *
+     * @return the array
+     *
+     * @throws IOException
+     *             if an I/O error occurs, the stream does not hold a valid {@code .npy} array, its dtype is not
+     *             {@code float16} or it has more elements than fit in a buffer
+     */
+    public static HalfNpy read(InputStream in) throws IOException {
+        DataInputStream dataIn = new DataInputStream(in);
+        Header header = readHeader(dataIn);
+        long size = header.size;
+        if (size > Integer.MAX_VALUE / Half.BYTES) {
+            throw new IOException("Too many elements to read onto the heap: " + size);
+        }
+        byte[] bytes = new byte[(int) size * Half.BYTES];
+        dataIn.readFully(bytes);
+        return new HalfNpy(header.shape, header.fortranOrder,
+                HalfMappedArray.wrap(ByteBuffer.wrap(bytes).order(header.order)));
+    }
+
+    /**
+     * Creates a zero filled C order {@code .npy} file of the given shape and memory-maps it for reading and writing.
+     * Values set in the returned array are written to the file.
+     *
+     * @param path
+     *            the file to create, replaced if it exists
+     * @param order
+     *            the byte order of the values
+     * @param shape
+     *            the shape of the array, empty for a scalar
+     *
+     * @return the array
+     *
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public static HalfNpy create(Path path, ByteOrder order, long... shape) throws IOException {
+        long[] copy = shape.clone();
+        long size = elementCount(copy);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.wrap(header(order, false, copy));
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            HalfMappedArray data = HalfMappedArray.map(channel, MapMode.READ_WRITE, channel.position(), size, order);
+            return new HalfNpy(copy, false, data);
+        }
+    }
+
+    /**
+     * Reads all {@code float16} arrays of a {@code .npz} archive onto the heap.
+     *
+     * @param path
+     *            the archive to read
+     *
+     * @return the arrays by name, without the {@code .npy} suffix, in archive order
+     *
+     * @throws IOException
+     *             if an I/O error occurs or an entry is not a {@code float16} {@code .npy} array
+     */
+    public static Map<String, HalfNpy> readNpz(Path path) throws IOException {
+        Map<String, HalfNpy> arrays = new LinkedHashMap<>();
+        try (ZipInputStream in = new ZipInputStream(Files.newInputStream(path))) {
+            for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+                String name = entry.getName();
+                if (name.endsWith(NPY_SUFFIX)) {
+                    name = name.substring(0, name.length() - NPY_SUFFIX.length());
+                }
+                arrays.put(name, read(in));
+            }
+        }
+        return arrays;
+    }
+
+    /**
+     * Writes arrays to a compressed {@code .npz} archive.
+     *
+     * @param path
+     *            the archive to write, replaced if it exists
+     * @param arrays
+     *            the arrays by name
+     *
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public static void writeNpz(Path path, Map<String, HalfNpy> arrays) throws IOException {
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(path))) {
+            for (Map.Entry<String, HalfNpy> entry : arrays.entrySet()) {
+                out.putNextEntry(new ZipEntry(entry.getKey() + NPY_SUFFIX));
+                entry.getValue().write(out);
+                out.closeEntry();
+            }
+        }
+    }
+
+    /**
+     * Writes this array to a {@code .npy} file.
+     *
+     * @param path
+     *            the file to write, replaced if it exists
+     *
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public void write(Path path) throws IOException {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            write(out);
+        }
+    }
+
+    /**
+     * Writes this array in the {@code .npy} format to a stream. The values are streamed in their current byte order
+     * through a small buffer. The stream is not closed.
+     *
+     * @param out
+     *            the stream to write to
+     *
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public void write(OutputStream out) throws IOException {
+        out.write(header(data.order(), fortranOrder, shape));
+        ByteBuffer buf = ByteBuffer.allocate(WRITE_BUFFER_SIZE).order(data.order());
+        ShortBuffer shorts = buf.asShortBuffer();
+        for (ShortBuffer chunk : data.asShortBuffers()) {
+            while (chunk.hasRemaining()) {
+                int n = Math.min(chunk.remaining(), shorts.capacity());
+                ShortBuffer slice = chunk.slice();
+                slice.limit(n);
+                shorts.clear();
+                shorts.put(slice);
+                chunk.position(chunk.position() + n);
+                out.write(buf.array(), 0, n * Half.BYTES);
+            }
+        }
+    }
+
+    /**
+     * Returns the shape of the array.
+     *
+     * @return the length of each dimension, empty for a scalar
+     */
+    public long[] getShape() {
+        return shape.clone();
+    }
+
+    /**
+     * Returns whether the values are stored in Fortran (column-major) rather than C (row-major) order.
+     *
+     * @return {@code true} if the values are in Fortran order
+     */
+    public boolean isFortranOrder() {
+        return fortranOrder;
+    }
+
+    /**
+     * Returns the values of the array, in storage order.
+     *
+     * @return the values
+     */
+    public HalfMappedArray getData() {
+        return data;
+    }
+
+    private static Header readHeader(DataInputStream in) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(MAGIC, magic)) {
+            throw new IOException("Not a .npy array");
+        }
+        int major = in.readUnsignedByte();
+        in.readUnsignedByte();
+        long headerLength;
+        if (major == 1) {
+            headerLength = in.readUnsignedByte() | in.readUnsignedByte() << 8;
+        } else if (major == 2 || major == 3) {
+            headerLength = (in.readUnsignedByte() | in.readUnsignedByte() << 8 | in.readUnsignedByte() << 16
+                    | (long) in.readUnsignedByte() << 24);
+        } else {
+            throw new IOException("Unsupported .npy version " + major);
+        }
+        if (headerLength > MAX_HEADER_LENGTH) {
+            throw new IOException("Header too long: " + headerLength);
+        }
+        byte[] headerBytes = new byte[(int) headerLength];
+        in.readFully(headerBytes);
+        String header = new String(headerBytes, major == 3 ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1);
+
+        String descr = group(DESCR, header);
+        ByteOrder order;
+        if ("<f2".equals(descr)) {
+            order = ByteOrder.LITTLE_ENDIAN;
+        } else if (">f2".equals(descr)) {
+            order = ByteOrder.BIG_ENDIAN;
+        } else {
+            throw new IOException("Unsupported dtype '" + descr + "'");
+        }
+        boolean fortranOrder = "True".equals(group(FORTRAN_ORDER, header));
+        String[] dims = group(SHAPE, header).split(",");
+        long[] shape = new long[dims.length];
+        int rank = 0;
+        for (String dim : dims) {
+            String trimmed = dim.trim();
+            if (trimmed.endsWith("L")) {
+                trimmed = trimmed.substring(0, trimmed.length() - 1);
+            }
+            if (!trimmed.isEmpty()) {
+                try {
+                    shape[rank++] = Long.parseLong(trimmed);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid shape '" + group(SHAPE, header) + "'", e);
+                }
+            }
+        }
+        shape = Arrays.copyOf(shape, rank);
+        long size;
+        try {
+            size = elementCount(shape);
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            throw new IOException("Invalid shape '" + group(SHAPE, header) + "'", e);
+        }
+        return new Header(order, fortranOrder, shape, size);
+    }
+
+    private static String group(Pattern pattern, String header) throws IOException {
+        Matcher matcher = pattern.matcher(header);
+        if (!matcher.find()) {
+            throw new IOException("Invalid .npy header: " + header);
+        }
+        return matcher.group(1);
+    }
+
+    private static byte[] header(ByteOrder order, boolean fortranOrder, long[] shape) {
+        StringBuilder dict = new StringBuilder().append("{'descr': '")
+                .append(order == ByteOrder.LITTLE_ENDIAN ? '<' : '>').append("f2', 'fortran_order': ")
+                .append(fortranOrder ? "True" : "False").append(", 'shape': (");
+        for (int i = 0; i < shape.length; i++) {
+            if (i > 0) {
+                dict.append(", ");
+            }
+            dict.append(shape[i]);
+        }
+        dict.append(shape.length == 1 ? ",), }" : "), }");
+
+        // pad with spaces and a newline so that the data is aligned
+        int prefixLength = MAGIC.length + 4;
+        int headerLength = alignedHeaderLength(prefixLength, dict.length());
+        if (headerLength > 0xffff) {
+            prefixLength = MAGIC.length + 6;
+            headerLength = alignedHeaderLength(prefixLength, dict.length());
+        }
+        while (dict.length() < headerLength - 1) {
+            dict.append(' ');
+        }
+        dict.append('\n');
+
+        ByteBuffer buf = ByteBuffer.allocate(prefixLength + headerLength).order(ByteOrder.LITTLE_ENDIAN);
+        buf.put(MAGIC);
+        if (prefixLength == MAGIC.length + 4) {
+            buf.put((byte) 1).put((byte) 0).putShort((short) headerLength);
+        } else {
+            buf.put((byte) 2).put((byte) 0).putInt(headerLength);
+        }
+        buf.put(dict.toString().getBytes(StandardCharsets.ISO_8859_1));
+        return buf.array();
+    }
+
+    private static int alignedHeaderLength(int prefixLength, int dictLength) {
+        int total = prefixLength + dictLength + 1;
+        return (total + HEADER_ALIGNMENT - 1) / HEADER_ALIGNMENT * HEADER_ALIGNMENT - prefixLength;
+    }
+
+    private static long elementCount(long[] shape) {
+        long count = 1;
+        for (long dim : shape) {
+            if (dim < 0) {
+                throw new IllegalArgumentException("Negative dimension in shape " + Arrays.toString(shape));
+            }
+            count = Math.multiplyExact(count, dim);
+        }
+        return count;
+    }
+
+    private static void checkSize(long size, long[] shape) {
+        if (elementCount(shape) != size) {
+            throw new IllegalArgumentException(
+                    "Shape " + Arrays.toString(shape) + " does not match " + size + " elements");
+        }
+    }
+
+    private static final class Header {
+
+        private final ByteOrder order;
+        private final boolean fortranOrder;
+        private final long[] shape;
+        private final long size;
+
+        private Header(ByteOrder order, boolean fortranOrder, long[] shape, long size) {
+            this.order = order;
+            this.fortranOrder = fortranOrder;
+            this.shape = shape;
+            this.size = size;
+        }
+
+    }
+
+}
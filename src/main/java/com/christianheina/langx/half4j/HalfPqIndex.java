@@ -0,0 +1,221 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * An index of vectors compressed by a {@link HalfProductQuantizer}, searched by asymmetric distance computation.
+ *
+ * <p>
+ * Each vector is held as its code of one byte per subspace, so the index needs {@code subspaces} bytes per vector
+ * instead of {@code 2 * dimension}. A search computes a table of the distances between the query, which is not
+ * quantized, and every centroid once, after which the distance to an encoded vector is the sum of one table entry per
+ * subspace. For {@link HalfMetric#COSINE} a second table of the squared centroid norms gives the norm of the encoded
+ * vector. Searches of large indexes are performed in parallel using the common {@link ForkJoinPool}.
+ *
+ * <p>
+ * Distances are those to the quantized vectors, so results are approximate. Instances are immutable and safe for
+ * concurrent searches.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class HalfPqIndex {
+
+    private static final int CHUNK_BYTES = 1 << 30;
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int BLOCK_ROWS = 1 << 12;
+    private static final int TASKS_PER_THREAD = 4;
+
+    private final HalfProductQuantizer quantizer;
+    private final HalfMetric metric;
+    private final long size;
+    private final int chunkRows;
+    private final byte[][] codes;
+
+    private HalfPqIndex(HalfProductQuantizer quantizer, HalfMetric metric, long size) {
+        this.quantizer = quantizer;
+        this.metric = metric;
+        this.size = size;
+        this.chunkRows = CHUNK_BYTES / quantizer.subspaces();
+        this.codes = new byte[(int) ((size + chunkRows - 1) / chunkRows)][];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = new byte[(int) Math.min(chunkRows, size - (long) i * chunkRows) * quantizer.subspaces()];
+        }
+    }
+
+    /**
+     * Builds an index of all vectors of a store, encoding them in parallel using the common {@link ForkJoinPool}. The
+     * id of each vector in the index is its id in the store.
+     *
+     * @param store
+     *            the vectors to encode
+     * @param quantizer
+     *            the quantizer
+     * @param metric
+     *            the distance between vectors
+     *
+     * @return the index
+     *
+     * @throws IllegalArgumentException
+     *             if the store and quantizer have different dimensions
+     */
+    public static HalfPqIndex build(HalfVectorStore store, HalfProductQuantizer quantizer, HalfMetric metric) {
+        HalfArrays.checkLength(store.dimension(), quantizer.dimension());
+        HalfPqIndex index = new HalfPqIndex(quantizer, metric, store.size());
+        int dimension = store.dimension();
+        int subspaces = quantizer.subspaces();
+        LongStream.range(0, (store.size() + BLOCK_ROWS - 1) / BLOCK_ROWS).parallel().forEach(block -> {
+            long from = block * BLOCK_ROWS;
+            int rows = (int) Math.min(BLOCK_ROWS, store.size() - from);
+            short[] vectors = HalfScratch.acquireShorts(rows * dimension);
+            float[] scratch = HalfScratch.acquireFloats(dimension / subspaces);
+            try {
+                store.getData().get(from * dimension, vectors, 0, rows * dimension);
+                for (int i = 0; i < rows; i++) {
+                    long id = from + i;
+                    quantizer.encode(vectors, i * dimension, index.codes[(int) (id / index.chunkRows)],
+                            (int) (id % index.chunkRows) * subspaces, scratch);
+                }
+            } finally {
+                HalfScratch.release(vectors);
+                HalfScratch.release(scratch);
+            }
+        });
+        return index;
+    }
+
+    /**
+     * Returns the number of vectors.
+     *
+     * @return the number of vectors
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the quantizer of the vectors.
+     *
+     * @return the quantizer
+     */
+    public HalfProductQuantizer getQuantizer() {
+        return quantizer;
+    }
+
+    /**
+     * Returns the distance between vectors.
+     *
+     * @return the metric
+     */
+    public HalfMetric getMetric() {
+        return metric;
+    }
+
+    /**
+     * Returns the code of a vector.
+     *
+     * @param id
+     *            the id of the vector
+     *
+     * @return a new array holding the code
+     *
+     * @throws IndexOutOfBoundsException
+     *             if there is no vector with the given id
+     */
+    public byte[] getCode(long id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Id " + id + " out of bounds for size " + size);
+        }
+        int subspaces = quantizer.subspaces();
+        byte[] code = new byte[subspaces];
+        System.arraycopy(codes[(int) (id / chunkRows)], (int) (id % chunkRows) * subspaces, code, 0, subspaces);
+        return code;
+    }
+
+    /**
+     * Returns approximately the {@code k} vectors nearest to {@code query}, visiting every encoded vector.
+     *
+     * @param query
+     *            the {@code half} short bits of the query vector
+     * @param k
+     *            the maximum number of neighbours to return
+     *
+     * @return the nearest vectors, nearest first, with their distances to the quantized vectors
+     *
+     * @throws IllegalArgumentException
+     *             if the query does not have the dimension of the index or {@code k} is negative
+     */
+    public HalfNeighbors search(short[] query, int k) {
+        HalfArrays.checkLength(query.length, quantizer.dimension());
+        int entries = quantizer.subspaces() * quantizer.centroids();
+        float[] table = HalfScratch.acquireFloats(entries);
+        float[] norms = metric == HalfMetric.COSINE ? HalfScratch.acquireFloats(entries) : null;
+        try {
+            quantizer.distanceTable(metric.prepare(query), metric, table, norms);
+
+            long blocks = (size + BLOCK_ROWS - 1) / BLOCK_ROWS;
+            int tasks = size * quantizer.subspaces() < PARALLEL_THRESHOLD ? 1
+                    : (int) Math.min(blocks, (long) ForkJoinPool.getCommonPoolParallelism() * TASKS_PER_THREAD);
+            if (tasks <= 1) {
+                TopK topK = new TopK(k, size);
+                scan(table, norms, 0, size, topK);
+                return topK.toNeighbors();
+            }
+            return IntStream.range(0, tasks).parallel().mapToObj(task -> {
+                TopK topK = new TopK(k, size);
+                scan(table, norms, blocks * task / tasks * BLOCK_ROWS,
+                        Math.min(size, blocks * (task + 1) / tasks * BLOCK_ROWS), topK);
+                return topK;
+            }).reduce(TopK::merge).get().toNeighbors();
+        } finally {
+            HalfScratch.release(table);
+            if (norms != null) {
+                HalfScratch.release(norms);
+            }
+        }
+    }
+
+    private void scan(float[] table, float[] norms, long from, long to, TopK topK) {
+        int subspaces = quantizer.subspaces();
+        int centroids = quantizer.centroids();
+        for (long id = from; id < to;) {
+            byte[] chunk = codes[(int) (id / chunkRows)];
+            int offset = (int) (id % chunkRows) * subspaces;
+            long end = Math.min(to, (id / chunkRows + 1) * chunkRows);
+            for (; id < end; id++, offset += subspaces) {
+                float distance = 0f;
+                float sumOfSquares = 0f;
+                for (int s = 0, entry = 0; s < subspaces; s++, entry += centroids) {
+                    int code = chunk[offset + s] & 0xff;
+                    distance += table[entry + code];
+                    if (norms != null) {
+                        sumOfSquares += norms[entry + code];
+                    }
+                }
+                if (norms != null) {
+                    // the table holds the negated dot product with the normalized query
+                    distance = sumOfSquares == 0f ? 1f : 1f + distance / (float) Math.sqrt(sumOfSquares);
+                }
+                topK.offer(id, distance);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.util.Random;
+
+/**
+ * A product quantizer compressing vectors of {@code half} values to one byte code per subspace.
+ *
+ * <p>
+ * The dimensions of a vector are split into {@code subspaces} contiguous subvectors of equal length, and each subvector
+ * is replaced by the index of its nearest centroid in the codebook of its subspace. The codebooks are trained by
+ * k-means with squared Euclidean distance and stored as {@code half} short bits, so a quantizer of {@code m} subspaces
+ * with {@code k} centroids holds {@code k * dimension} short bits and encodes a vector in {@code m} bytes.
+ *
+ * <p>
+ * Distances between a query and encoded vectors are computed by {@link HalfPqIndex} from a table of the distances
+ * between the query subvectors and every centroid. Instances are immutable and safe for use by multiple threads.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class HalfProductQuantizer {
+
+    /**
+     * The maximum number of centroids per subspace, so that a code fits in a byte.
+     */
+    public static final int MAX_CENTROIDS = 256;
+
+    /**
+     * The default number of sampled vectors per centroid used to train the codebooks.
+     */
+    public static final int DEFAULT_SAMPLES_PER_CENTROID = 64;
+
+    private final int dimension;
+    private final int subspaces;
+    private final int subDimension;
+    private final int centroids;
+    // subspace after subspace, centroid after centroid
+    private final short[] codebooks;
+
+    private HalfProductQuantizer(int dimension, int subspaces, int centroids, short[] codebooks) {
+        this.dimension = dimension;
+        this.subspaces = subspaces;
+        this.subDimension = dimension / subspaces;
+        this.centroids = centroids;
+        this.codebooks = codebooks;
+    }
+
+    /**
+     * Trains a quantizer on {@value #DEFAULT_SAMPLES_PER_CENTROID} sampled vectors per centroid of a store.
+     *
+     * @param store
+     *            the vectors to sample
+     * @param subspaces
+     *            the number of subspaces, and of bytes per code, which must divide the dimension
+     * @param centroids
+     *            the number of centroids per subspace, at most {@value #MAX_CENTROIDS}
+     * @param iterations
+     *            the number of k-means iterations
+     * @param seed
+     *            the seed of the sampling and centroid initialization
+     *
+     * @return the quantizer
+     *
+     * @throws IllegalArgumentException
+     *             if the number of subspaces does not divide the dimension, the number of centroids is out of range,
+     *             the number of iterations is negative or the store is empty
+     */
+    public static HalfProductQuantizer train(HalfVectorStore store, int subspaces, int centroids, int iterations,
+            long seed) {
+        int dimension = store.dimension();
+        if (subspaces <= 0 || dimension % subspaces != 0) {
+            throw new IllegalArgumentException("Invalid subspaces " + subspaces + " for dimension " + dimension);
+        }
+        if (centroids <= 0 || centroids > MAX_CENTROIDS || iterations < 0) {
+            throw new IllegalArgumentException("Invalid centroids " + centroids + " or iterations " + iterations);
+        }
+        if (store.size() == 0) {
+            throw new IllegalArgumentException("Empty store");
+        }
+        Random random = new Random(seed);
+        short[] sample = KMeans.sample(store,
+                (int) Math.min(store.size(),
+                        Math.min((long) centroids * DEFAULT_SAMPLES_PER_CENTROID, (Integer.MAX_VALUE - 8) / dimension)),
+                random);
+        int sampleSize = sample.length / dimension;
+        int subDimension = dimension / subspaces;
+        short[] codebooks = new short[centroids * dimension];
+        short[] subSample = new short[sampleSize * subDimension];
+        for (int s = 0; s < subspaces; s++) {
+            for (int i = 0; i < sampleSize; i++) {
+                System.arraycopy(sample, i * dimension + s * subDimension, subSample, i * subDimension, subDimension);
+            }
+            int clusters = Math.min(centroids, sampleSize);
+            short[] codebook = KMeans.train(subSample, subDimension, clusters, iterations, HalfMetric.L2, random);
+            System.arraycopy(codebook, 0, codebooks, s * centroids * subDimension, codebook.length);
+            // duplicate centroids when there are fewer sampled vectors than centroids
+            for (int c = clusters; c < centroids; c++) {
+                System.arraycopy(codebook, (c % clusters) * subDimension, codebooks, (s * centroids + c) * subDimension,
+                        subDimension);
+            }
+        }
+        return new HalfProductQuantizer(dimension, subspaces, centroids, codebooks);
+    }
+
+    /**
+     * Returns the number of values of each vector.
+     *
+     * @return the dimension
+     */
+    public int dimension() {
+        return dimension;
+    }
+
+    /**
+     * Returns the number of subspaces, which is the number of bytes of a code.
+     *
+     * @return the number of subspaces
+     */
+    public int subspaces() {
+        return subspaces;
+    }
+
+    /**
+     * Returns the number of centroids per subspace.
+     *
+     * @return the number of centroids
+     */
+    public int centroids() {
+        return centroids;
+    }
+
+    /**
+     * Returns the codebook of a subspace, the {@code half} short bits of its centroids one after the other.
+     *
+     * @param subspace
+     *            the index of the subspace
+     *
+     * @return a new array holding the codebook
+     */
+    public short[] getCodebook(int subspace) {
+        int length = centroids * subDimension;
+        short[] codebook = new short[length];
+        System.arraycopy(codebooks, subspace * length, codebook, 0, length);
+        return codebook;
+    }
+
+    /**
+     * Encodes a vector.
+     *
+     * @param vector
+     *            the {@code half} short bits of the vector
+     *
+     * @return the code, one byte per subspace
+     *
+     * @throws IllegalArgumentException
+     *             if the vector does not have the dimension of the quantizer
+     */
+    public byte[] encode(short[] vector) {
+        HalfArrays.checkLength(vector.length, dimension);
+        byte[] code = new byte[subspaces];
+        float[] scratch = HalfScratch.acquireFloats(subDimension);
+        try {
+            encode(vector, 0, code, 0, scratch);
+        } finally {
+            HalfScratch.release(scratch);
+        }
+        return code;
+    }
+
+    /**
+     * Decodes a code to the {@code half} short bits of the centroids it refers to.
+     *
+     * @param code
+     *            the code, one byte per subspace
+     *
+     * @return the short bits of the approximated vector
+     *
+     * @throws IllegalArgumentException
+     *             if the code does not have one byte per subspace
+     */
+    public short[] decode(byte[] code) {
+        HalfArrays.checkLength(code.length, subspaces);
+        short[] vector = new short[dimension];
+        for (int s = 0; s < subspaces; s++) {
+            System.arraycopy(codebooks, (s * centroids + (code[s] & 0xff)) * subDimension, vector, s * subDimension,
+                    subDimension);
+        }
+        return vector;
+    }
+
+    /**
+     * Encodes the vector starting at {@code vectorPos} of {@code vectors} into {@code codes} starting at
+     * {@code codePos}, using {@code scratch} of the subspace dimension.
+     */
+    void encode(short[] vectors, int vectorPos, byte[] codes, int codePos, float[] scratch) {
+        for (int s = 0; s < subspaces; s++) {
+            HalfUtil.halfShortBitsToFloatArray(vectors, vectorPos + s * subDimension, scratch, 0, subDimension);
+            codes[codePos + s] = (byte) KMeans.nearest(HalfMetric.L2, scratch, codebooks, s * centroids * subDimension,
+                    centroids, subDimension);
+        }
+    }
+
+    /**
+     * Fills {@code table}, of {@code subspaces * centroids} entries, with the contribution of every centroid to the
+     * {@code metric} distance of the query, the negated dot product for {@link HalfMetric#DOT} and
+     * {@link HalfMetric#COSINE}, and fills {@code norms} with the squared norms of the centroids.
+     */
+    void distanceTable(float[] query, HalfMetric metric, float[] table, float[] norms) {
+        for (int s = 0; s < subspaces; s++) {
+            for (int c = 0; c < centroids; c++) {
+                int entry = s * centroids + c;
+                int offset = entry * subDimension;
+                if (metric == HalfMetric.L2) {
+                    table[entry] = HalfArrays.squaredDistance(codebooks, offset, query, s * subDimension, subDimension);
+                } else {
+                    table[entry] = -HalfArrays.dot(codebooks, offset, query, s * subDimension, subDimension);
+                }
+                if (norms != null) {
+                    norms[entry] = HalfArrays.dot(codebooks, offset, codebooks, offset, subDimension);
+                }
+            }
+        }
+    }
+
+}
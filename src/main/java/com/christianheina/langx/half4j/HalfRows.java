@@ -0,0 +1,207 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+/**
+ * The class {@code HalfRows} contains row-wise softmax and normalization kernels for matrices of {@code half} values
+ * stored as short bits in row-major order.
+ *
+ * <p>
+ * Row statistics are accumulated in {@code float} in a single read of the row, after which the row is read once more to
+ * write the result, rounded to the nearest {@code half}, ties to even. No temporary arrays are allocated. The
+ * destination may be the same array as the source.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class HalfRows {
+
+    private HalfRows() {
+        /* Hidden Constructor */ }
+
+    /**
+     * Computes the softmax of each row, <code>e<sup>x<sub>i</sub></sup> / &sum; e<sup>x<sub>j</sub></sup></code>.
+     *
+     * @param src
+     *            the {@code half} bits of the rows
+     * @param dst
+     *            the destination of the result
+     * @param cols
+     *            the number of elements in each row
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length or the length is not a multiple of {@code cols}
+     */
+    public static void softmax(short[] src, short[] dst, int cols) {
+        int rows = rows(src, dst, cols);
+        for (int row = 0, offset = 0; row < rows; row++, offset += cols) {
+            float max = Float.NEGATIVE_INFINITY;
+            float sum = 0f;
+            // online softmax, rescale the running sum whenever a new maximum is found
+            for (int i = offset; i < offset + cols; i++) {
+                float x = Half.halfShortToFloat(src[i]);
+                if (x > max) {
+                    sum = sum * (float) Math.exp(max - x) + 1f;
+                    max = x;
+                } else {
+                    sum += (float) Math.exp(x - max);
+                }
+            }
+            float scale = 1f / sum;
+            for (int i = offset; i < offset + cols; i++) {
+                dst[i] = Half.roundToHalfShortBits((float) Math.exp(Half.halfShortToFloat(src[i]) - max) * scale);
+            }
+        }
+    }
+
+    /**
+     * Computes the logarithm of the softmax of each row,
+     * <code>x<sub>i</sub> - log(&sum; e<sup>x<sub>j</sub></sup>)</code>.
+     *
+     * @param src
+     *            the {@code half} bits of the rows
+     * @param dst
+     *            the destination of the result
+     * @param cols
+     *            the number of elements in each row
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length or the length is not a multiple of {@code cols}
+     */
+    public static void logSoftmax(short[] src, short[] dst, int cols) {
+        int rows = rows(src, dst, cols);
+        for (int row = 0, offset = 0; row < rows; row++, offset += cols) {
+            float max = Float.NEGATIVE_INFINITY;
+            float sum = 0f;
+            for (int i = offset; i < offset + cols; i++) {
+                float x = Half.halfShortToFloat(src[i]);
+                if (x > max) {
+                    sum = sum * (float) Math.exp(max - x) + 1f;
+                    max = x;
+                } else {
+                    sum += (float) Math.exp(x - max);
+                }
+            }
+            float logSum = max + (float) Math.log(sum);
+            for (int i = offset; i < offset + cols; i++) {
+                dst[i] = Half.roundToHalfShortBits(Half.halfShortToFloat(src[i]) - logSum);
+            }
+        }
+    }
+
+    /**
+     * Computes the layer normalization of each row, <code>(x<sub>i</sub> - mean) / sqrt(variance + epsilon) *
+     * gamma<sub>i</sub> + beta<sub>i</sub></code>, using the biased variance of the row.
+     *
+     * @param src
+     *            the {@code half} bits of the rows
+     * @param dst
+     *            the destination of the result
+     * @param cols
+     *            the number of elements in each row
+     * @param gamma
+     *            the {@code half} bits of the per column scale, or {@code null} for no scaling
+     * @param beta
+     *            the {@code half} bits of the per column shift, or {@code null} for no shift
+     * @param epsilon
+     *            the value added to the variance for numerical stability
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length, the length is not a multiple of {@code cols} or the length of
+     *             {@code gamma} or {@code beta} is not {@code cols}
+     */
+    public static void layerNorm(short[] src, short[] dst, int cols, short[] gamma, short[] beta, float epsilon) {
+        int rows = rows(src, dst, cols);
+        checkParameter(gamma, cols);
+        checkParameter(beta, cols);
+        for (int row = 0, offset = 0; row < rows; row++, offset += cols) {
+            // Welford's algorithm
+            float mean = 0f;
+            float m2 = 0f;
+            for (int i = 0; i < cols; i++) {
+                float x = Half.halfShortToFloat(src[offset + i]);
+                float delta = x - mean;
+                mean += delta / (i + 1);
+                m2 += delta * (x - mean);
+            }
+            float invStd = 1f / (float) Math.sqrt(m2 / cols + epsilon);
+            for (int i = 0; i < cols; i++) {
+                float y = (Half.halfShortToFloat(src[offset + i]) - mean) * invStd;
+                if (gamma != null) {
+                    y *= Half.halfShortToFloat(gamma[i]);
+                }
+                if (beta != null) {
+                    y += Half.halfShortToFloat(beta[i]);
+                }
+                dst[offset + i] = Half.roundToHalfShortBits(y);
+            }
+        }
+    }
+
+    /**
+     * Computes the root mean square normalization of each row,
+     * <code>x<sub>i</sub> / sqrt(mean(x<sup>2</sup>) + epsilon) * gamma<sub>i</sub></code>.
+     *
+     * @param src
+     *            the {@code half} bits of the rows
+     * @param dst
+     *            the destination of the result
+     * @param cols
+     *            the number of elements in each row
+     * @param gamma
+     *            the {@code half} bits of the per column scale, or {@code null} for no scaling
+     * @param epsilon
+     *            the value added to the mean square for numerical stability
+     *
+     * @throws IllegalArgumentException
+     *             if the arrays are of different length, the length is not a multiple of {@code cols} or the length of
+     *             {@code gamma} is not {@code cols}
+     */
+    public static void rmsNorm(short[] src, short[] dst, int cols, short[] gamma, float epsilon) {
+        int rows = rows(src, dst, cols);
+        checkParameter(gamma, cols);
+        for (int row = 0, offset = 0; row < rows; row++, offset += cols) {
+            float sumOfSquares = 0f;
+            for (int i = offset; i < offset + cols; i++) {
+                float x = Half.halfShortToFloat(src[i]);
+                sumOfSquares += x * x;
+            }
+            float invRms = 1f / (float) Math.sqrt(sumOfSquares / cols + epsilon);
+            for (int i = 0; i < cols; i++) {
+                float y = Half.halfShortToFloat(src[offset + i]) * invRms;
+                if (gamma != null) {
+                    y *= Half.halfShortToFloat(gamma[i]);
+                }
+                dst[offset + i] = Half.roundToHalfShortBits(y);
+            }
+        }
+    }
+
+    private static int rows(short[] src, short[] dst, int cols) {
+        HalfArrays.checkLength(src.length, dst.length);
+        if (cols <= 0 || src.length % cols != 0) {
+            throw new IllegalArgumentException("Length " + src.length + " is not a multiple of " + cols);
+        }
+        return src.length / cols;
+    }
+
+    private static void checkParameter(short[] parameter, int cols) {
+        if (parameter != null) {
+            HalfArrays.checkLength(cols, parameter.length);
+        }
+    }
+
+}
@@ -0,0 +1,627 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A reader of files in the safetensors format.
+ *
+ * <p>
+ * Each {@code F16}, {@code BF16} and {@code F32} tensor in the file is memory-mapped on its own, in chunks of
+ * {@link HalfMappedArray#CHUNK_BYTES} bytes, so opening a file reads only its JSON header and tensor data is paged in
+ * from the file as it is accessed. Tensors of other dtypes are not mapped, their names are listed by
+ * {@link #getUnsupportedTensorNames()}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class HalfSafetensors {
+
+    private static final String METADATA_KEY = "__metadata__";
+    private static final int CONVERSION_BLOCK_SIZE = 4096;
+
+    /**
+     * The supported tensor element types.
+     */
+    public enum Dtype {
+
+        /**
+         * IEEE 754 half-precision.
+         */
+        F16(2),
+
+        /**
+         * bfloat16, the upper 16 bits of an IEEE 754 single-precision value.
+         */
+        BF16(2),
+
+        /**
+         * IEEE 754 single-precision.
+         */
+        F32(4);
+
+        private final int bytes;
+
+        Dtype(int bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * Returns the number of bytes of an element.
+         *
+         * @return the element size in bytes
+         */
+        public int getBytes() {
+            return bytes;
+        }
+
+    }
+
+    private final Map<String, String> metadata;
+    private final Map<String, Tensor> tensors;
+    private final Map<String, String> unsupported;
+
+    private HalfSafetensors(Map<String, String> metadata, Map<String, Tensor> tensors,
+            Map<String, String> unsupported) {
+        this.metadata = metadata;
+        this.tensors = tensors;
+        this.unsupported = unsupported;
+    }
+
+    /**
+     * Opens a safetensors file and memory-maps its supported tensors. The mappings remain valid after this method has
+     * closed the file.
+     *
+     * @param path
+     *            the file to open
+     *
+     * @return the tensors of the file
+     *
+     * @throws IOException
+     *             if an I/O error occurs or the file is not a valid safetensors file
+     */
+    public static HalfSafetensors open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer lengthBuf = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, lengthBuf, 0);
+            long headerLength = lengthBuf.getLong(0);
+            long dataStart = Long.BYTES + headerLength;
+            if (headerLength < 0 || headerLength > Integer.MAX_VALUE || dataStart > channel.size()) {
+                throw new IOException("Invalid header length " + headerLength);
+            }
+            ByteBuffer headerBuf = ByteBuffer.allocate((int) headerLength);
+            readFully(channel, headerBuf, Long.BYTES);
+            Object header = new JsonParser(new String(headerBuf.array(), StandardCharsets.UTF_8)).parse();
+            if (!(header instanceof Map)) {
+                throw new IOException("Header is not a JSON object");
+            }
+
+            Map<String, String> metadata = new LinkedHashMap<>();
+            Map<String, Tensor> tensors = new LinkedHashMap<>();
+            Map<String, String> unsupported = new LinkedHashMap<>();
+            long dataLength = channel.size() - dataStart;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) header).entrySet()) {
+                String name = (String) entry.getKey();
+                if (METADATA_KEY.equals(name)) {
+                    for (Map.Entry<?, ?> meta : asMap(entry.getValue(), name).entrySet()) {
+                        metadata.put((String) meta.getKey(), String.valueOf(meta.getValue()));
+                    }
+                    continue;
+                }
+                Map<?, ?> info = asMap(entry.getValue(), name);
+                String dtypeName = String.valueOf(info.get("dtype"));
+                Dtype dtype;
+                try {
+                    dtype = Dtype.valueOf(dtypeName);
+                } catch (IllegalArgumentException e) {
+                    unsupported.put(name, dtypeName);
+                    continue;
+                }
+                long[] shape = asLongs(info.get("shape"), name);
+                long[] offsets = asLongs(info.get("data_offsets"), name);
+                long size = 1;
+                long bytes;
+                try {
+                    for (long dim : shape) {
+                        if (dim < 0) {
+                            throw new IOException("Invalid shape of tensor " + name);
+                        }
+                        size = Math.multiplyExact(size, dim);
+                    }
+                    bytes = Math.multiplyExact(size, dtype.getBytes());
+                } catch (ArithmeticException e) {
+                    throw new IOException("Invalid shape of tensor " + name, e);
+                }
+                if (offsets.length != 2 || offsets[0] < 0 || offsets[1] > dataLength
+                        || offsets[1] - offsets[0] != bytes) {
+                    throw new IOException("Invalid data offsets of tensor " + name);
+                }
+                HalfMappedArray data = HalfMappedArray.map(channel, MapMode.READ_ONLY, dataStart + offsets[0],
+                        (offsets[1] - offsets[0]) / Half.BYTES, ByteOrder.LITTLE_ENDIAN);
+                tensors.put(name, new Tensor(name, dtype, shape, size, data));
+            }
+            return new HalfSafetensors(Collections.unmodifiableMap(metadata), Collections.unmodifiableMap(tensors),
+                    Collections.unmodifiableMap(unsupported));
+        }
+    }
+
+    /**
+     * Returns the free form metadata of the file.
+     *
+     * @return the {@code __metadata__} entries
+     */
+    public Map<String, String> getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * Returns the names of the supported tensors in the file, in header order.
+     *
+     * @return the tensor names
+     */
+    public Set<String> getTensorNames() {
+        return tensors.keySet();
+    }
+
+    /**
+     * Returns the names of the tensors in the file whose dtype is not supported, in header order.
+     *
+     * @return the unsupported tensor names
+     */
+    public Set<String> getUnsupportedTensorNames() {
+        return unsupported.keySet();
+    }
+
+    /**
+     * Returns the tensor with the given name.
+     *
+     * @param name
+     *            the tensor name
+     *
+     * @return the tensor
+     *
+     * @throws IllegalArgumentException
+     *             if there is no supported tensor with the given name
+     */
+    public Tensor getTensor(String name) {
+        Tensor tensor = tensors.get(name);
+        if (tensor == null) {
+            String dtype = unsupported.get(name);
+            throw new IllegalArgumentException(
+                    dtype == null ? "No tensor named " + name : "Unsupported dtype " + dtype + " of tensor " + name);
+        }
+        return tensor;
+    }
+
+    /**
+     * A memory-mapped tensor of a safetensors file. Values are stored little-endian in row-major order.
+     */
+    public static final class Tensor {
+
+        private final String name;
+        private final Dtype dtype;
+        private final long[] shape;
+        private final long size;
+        private final HalfMappedArray data;
+
+        private Tensor(String name, Dtype dtype, long[] shape, long size, HalfMappedArray data) {
+            this.name = name;
+            this.dtype = dtype;
+            this.shape = shape;
+            this.size = size;
+            this.data = data;
+        }
+
+        /**
+         * Returns the name of the tensor.
+         *
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the element type of the tensor.
+         *
+         * @return the dtype
+         */
+        public Dtype getDtype() {
+            return dtype;
+        }
+
+        /**
+         * Returns the shape of the tensor.
+         *
+         * @return the length of each dimension, empty for a scalar
+         */
+        public long[] getShape() {
+            return shape.clone();
+        }
+
+        /**
+         * Returns the number of elements of the tensor.
+         *
+         * @return the number of elements
+         */
+        public long size() {
+            return size;
+        }
+
+        /**
+         * Returns the mapped {@code half} values of an {@code F16} tensor.
+         *
+         * @return the values
+         *
+         * @throws IllegalStateException
+         *             if the dtype is not {@code F16}
+         */
+        public HalfMappedArray getHalfData() {
+            if (dtype != Dtype.F16) {
+                throw new IllegalStateException("Tensor " + name + " is " + dtype + ", not F16");
+            }
+            return data;
+        }
+
+        /**
+         * Returns the element at {@code index} converted to {@code float}.
+         *
+         * @param index
+         *            the row-major index of the element
+         *
+         * @return the {@code float} value
+         *
+         * @throws IndexOutOfBoundsException
+         *             if {@code index} is negative or not less than {@link #size()}
+         */
+        public float getFloat(long index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("index " + index);
+            }
+            switch (dtype) {
+            case F16:
+                return data.getFloat(index);
+            case BF16:
+                return bfloat16ToFloat(data.getShortBits(index));
+            default:
+                return f32ToFloat(data.getShortBits(2 * index), data.getShortBits(2 * index + 1));
+            }
+        }
+
+        /**
+         * Returns the element at {@code index} converted to {@link Half}.
+         *
+         * @param index
+         *            the row-major index of the element
+         *
+         * @return the {@code Half} value
+         *
+         * @throws IndexOutOfBoundsException
+         *             if {@code index} is negative or not less than {@link #size()}
+         */
+        public Half getHalf(long index) {
+            if (dtype == Dtype.F16) {
+                return data.get(index);
+            }
+            return Half.shortBitsToHalf(Half.floatToHalfShortBits(getFloat(index)));
+        }
+
+        /**
+         * Converts {@code length} elements starting at {@code index} to {@code float} and stores them in {@code dst}
+         * starting at {@code dstPos}.
+         *
+         * @param index
+         *            the row-major index of the first element
+         * @param dst
+         *            the destination array
+         * @param dstPos
+         *            starting position in the destination array
+         * @param length
+         *            the number of elements to convert
+         *
+         * @throws IndexOutOfBoundsException
+         *             if converting would cause access of data outside the tensor or array bounds
+         */
+        public void get(long index, float[] dst, int dstPos, int length) {
+            if (index < 0 || length < 0 || index > size - length || dstPos < 0 || dstPos > dst.length - length) {
+                throw new IndexOutOfBoundsException("index: " + index + ", dstPos: " + dstPos + ", length: " + length);
+            }
+            if (dtype == Dtype.F16) {
+                data.get(index, dst, dstPos, length);
+                return;
+            }
+            int perElement = dtype.getBytes() / Half.BYTES;
+            short[] block = HalfScratch.acquireShorts(CONVERSION_BLOCK_SIZE);
+            try {
+                int elementsPerBlock = CONVERSION_BLOCK_SIZE / perElement;
+                for (int i = 0; i < length; i += elementsPerBlock) {
+                    int n = Math.min(length - i, elementsPerBlock);
+                    data.get((index + i) * perElement, block, 0, n * perElement);
+                    for (int j = 0; j < n; j++) {
+                        dst[dstPos + i + j] = dtype == Dtype.BF16 ? bfloat16ToFloat(block[j])
+                                : f32ToFloat(block[2 * j], block[2 * j + 1]);
+                    }
+                }
+            } finally {
+                HalfScratch.release(block);
+            }
+        }
+
+        /**
+         * Returns all elements converted to {@code float}.
+         *
+         * @return array of floats
+         *
+         * @throws IllegalStateException
+         *             if there are more elements than fit in an array
+         */
+        public float[] toFloatArray() {
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Too many elements for an array: " + size);
+            }
+            float[] floats = new float[(int) size];
+            get(0, floats, 0, floats.length);
+            return floats;
+        }
+
+        private static float bfloat16ToFloat(short bits) {
+            return Float.intBitsToFloat((bits & 0xffff) << 16);
+        }
+
+        private static float f32ToFloat(short low, short high) {
+            return Float.intBitsToFloat(high << 16 | (low & 0xffff));
+        }
+
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, position + buf.position()) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+    }
+
+    private static Map<?, ?> asMap(Object value, String name) throws IOException {
+        if (!(value instanceof Map)) {
+            throw new IOException("Entry " + name + " is not a JSON object");
+        }
+        return (Map<?, ?>) value;
+    }
+
+    private static long[] asLongs(Object value, String name) throws IOException {
+        if (!(value instanceof List)) {
+            throw new IOException("Invalid tensor " + name);
+        }
+        List<?> list = (List<?>) value;
+        long[] longs = new long[list.size()];
+        for (int i = 0; i < longs.length; i++) {
+            if (!(list.get(i) instanceof Long)) {
+                throw new IOException("Invalid tensor " + name);
+            }
+            longs[i] = (Long) list.get(i);
+        }
+        return longs;
+    }
+
+    /**
+     * A minimal JSON parser producing {@link Map}, {@link List}, {@link String}, {@link Long}, {@link Double},
+     * {@link Boolean} and {@code null} values.
+     */
+    private static final class JsonParser {
+
+        private final String json;
+        private int pos;
+
+        private JsonParser(String json) {
+            this.json = json;
+        }
+
+        private Object parse() throws IOException {
+            Object value = value();
+            skipWhitespace();
+            if (pos < json.length()) {
+                throw error("Unexpected trailing characters");
+            }
+            return value;
+        }
+
+        private Object value() throws IOException {
+            skipWhitespace();
+            if (pos >= json.length()) {
+                throw error("Unexpected end of header");
+            }
+            char c = json.charAt(pos);
+            switch (c) {
+            case '{':
+                return object();
+            case '[':
+                return array();
+            case '"':
+                return string();
+            case 't':
+                return literal("true", Boolean.TRUE);
+            case 'f':
+                return literal("false", Boolean.FALSE);
+            case 'n':
+                return literal("null", null);
+            default:
+                return number();
+            }
+        }
+
+        private Map<String, Object> object() throws IOException {
+            Map<String, Object> map = new LinkedHashMap<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return map;
+            }
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') {
+                    throw error("Expected string key");
+                }
+                String key = string();
+                skipWhitespace();
+                expect(':');
+                map.put(key, value());
+                skipWhitespace();
+                if (peek() == ',') {
+                    pos++;
+                } else {
+                    expect('}');
+                    return map;
+                }
+            }
+        }
+
+        private List<Object> array() throws IOException {
+            List<Object> list = new ArrayList<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return list;
+            }
+            while (true) {
+                list.add(value());
+                skipWhitespace();
+                if (peek() == ',') {
+                    pos++;
+                } else {
+                    expect(']');
+                    return list;
+                }
+            }
+        }
+
+        private String string() throws IOException {
+            StringBuilder b = new StringBuilder();
+            pos++;
+            while (true) {
+                if (pos >= json.length()) {
+                    throw error("Unterminated string");
+                }
+                char c = json.charAt(pos++);
+                if (c == '"') {
+                    return b.toString();
+                }
+                if (c != '\\') {
+                    b.append(c);
+                    continue;
+                }
+                if (pos >= json.length()) {
+                    throw error("Unterminated string");
+                }
+                char escaped = json.charAt(pos++);
+                switch (escaped) {
+                case 'b':
+                    b.append('\b');
+                    break;
+                case 'f':
+                    b.append('\f');
+                    break;
+                case 'n':
+                    b.append('\n');
+                    break;
+                case 'r':
+                    b.append('\r');
+                    break;
+                case 't':
+                    b.append('\t');
+                    break;
+                case 'u':
+                    if (pos + 4 > json.length()) {
+                        throw error("Invalid unicode escape");
+                    }
+                    try {
+                        b.append((char) Integer.parseInt(json.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Invalid unicode escape");
+                    }
+                    pos += 4;
+                    break;
+                default:
+                    b.append(escaped);
+                }
+            }
+        }
+
+        private Object number() throws IOException {
+            int start = pos;
+            while (pos < json.length() && "+-0123456789.eE".indexOf(json.charAt(pos)) >= 0) {
+                pos++;
+            }
+            String number = json.substring(start, pos);
+            try {
+                if (number.indexOf('.') < 0 && number.indexOf('e') < 0 && number.indexOf('E') < 0) {
+                    return Long.valueOf(number);
+                }
+                return Double.valueOf(number);
+            } catch (NumberFormatException e) {
+                pos = start;
+                throw error("Invalid value");
+            }
+        }
+
+        private Object literal(String literal, Object value) throws IOException {
+            if (!json.startsWith(literal, pos)) {
+                throw error("Invalid value");
+            }
+            pos += literal.length();
+            return value;
+        }
+
+        private void expect(char c) throws IOException {
+            if (peek() != c) {
+                throw error("Expected '" + c + "'");
+            }
+            pos++;
+        }
+
+        private char peek() {
+            return pos < json.length() ? json.charAt(pos) : 0;
+        }
+
+        private void skipWhitespace() {
+            while (pos < json.length() && Character.isWhitespace(json.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private IOException error(String message) {
+            return new IOException(message + " at position " + pos + " of header");
+        }
+
+    }
+
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A pool of scratch arrays for bulk operations, so that operations called repeatedly do not allocate temporary arrays.
+ *
+ * <p>
+ * Arrays are pooled by size class, the powers of two from {@value #MIN_LENGTH} to {@value #MAX_LENGTH} elements. Each
+ * size class is a small array of slots, and a thread starts its search for a pooled or free slot at a position derived
+ * from its id. Slots are taken and returned with atomic compare-and-set operations, so the pool never blocks, never
+ * pins a carrier thread and holds no per-thread state, which makes it suitable for virtual threads where a
+ * {@link ThreadLocal} cache would hold one set of arrays for every thread ever created. When no pooled array is found a
+ * new one is allocated, and when no free slot is found a returned array is left to the garbage collector.
+ *
+ * <p>
+ * Acquired arrays are at least the requested length and their contents are undefined. An array must be released at most
+ * once and must not be used after it is released:
+ *
+ * <pre>
+ * short[] scratch = HalfScratch.acquireShorts(length);
+ * try {
+ *     // use the first length elements of scratch
+ * } finally {
+ *     HalfScratch.release(scratch);
+ * }
+ * </pre>
+ *
+ * <p>
+ * Each size class retains at most 2<sup>20</sup> elements of each type, so the largest size classes pool only a few
+ * arrays and a burst of large requests leaves at most a few megabytes behind per size class.
+ *
+ * <p>
+ * Requests longer than {@value #MAX_LENGTH} elements are always allocated and are counted neither as hits nor as
+ * misses.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class HalfScratch {
+
+    /**
+     * The length of the smallest pooled array.
+     */
+    public static final int MIN_LENGTH = 1 << 10;
+
+    /**
+     * The length of the largest pooled array.
+     */
+    public static final int MAX_LENGTH = 1 << 20;
+
+    private static final int MIN_SHIFT = 10;
+    private static final int SIZE_CLASSES = 11;
+    private static final int PROBES = 4;
+    private static final int SLOTS = slots();
+    private static final int RETAINED_SHIFT = 20;
+
+    private static final Pool<short[]> SHORTS = new Pool<>();
+    private static final Pool<float[]> FLOATS = new Pool<>();
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+
+    private HalfScratch() {
+        /* Hidden Constructor */ }
+
+    /**
+     * Returns a {@code short} array of at least {@code minLength} elements, from the pool if possible.
+     *
+     * @param minLength
+     *            the minimum length of the array
+     *
+     * @return an array with undefined contents
+     *
+     * @throws NegativeArraySizeException
+     *             if {@code minLength} is negative
+     */
+    public static short[] acquireShorts(int minLength) {
+        int sizeClass = sizeClass(minLength);
+        if (sizeClass < 0) {
+            return new short[minLength];
+        }
+        short[] array = SHORTS.take(sizeClass);
+        return array != null ? array : new short[MIN_LENGTH << sizeClass];
+    }
+
+    /**
+     * Returns a {@code float} array of at least {@code minLength} elements, from the pool if possible.
+     *
+     * @param minLength
+     *            the minimum length of the array
+     *
+     * @return an array with undefined contents
+     *
+     * @throws NegativeArraySizeException
+     *             if {@code minLength} is negative
+     */
+    public static float[] acquireFloats(int minLength) {
+        int sizeClass = sizeClass(minLength);
+        if (sizeClass < 0) {
+            return new float[minLength];
+        }
+        float[] array = FLOATS.take(sizeClass);
+        return array != null ? array : new float[MIN_LENGTH << sizeClass];
+    }
+
+    /**
+     * Returns an array acquired by {@link #acquireShorts(int)} to the pool.
+     *
+     * @param array
+     *            the array to return
+     */
+    public static void release(short[] array) {
+        int sizeClass = pooledSizeClass(array.length);
+        if (sizeClass >= 0) {
+            SHORTS.give(sizeClass, array);
+        }
+    }
+
+    /**
+     * Returns an array acquired by {@link #acquireFloats(int)} to the pool.
+     *
+     * @param array
+     *            the array to return
+     */
+    public static void release(float[] array) {
+        int sizeClass = pooledSizeClass(array.length);
+        if (sizeClass >= 0) {
+            FLOATS.give(sizeClass, array);
+        }
+    }
+
+    /**
+     * Returns the number of acquisitions served from the pool since the last reset.
+     *
+     * @return the number of pool hits
+     */
+    public static long getHits() {
+        return HITS.sum();
+    }
+
+    /**
+     * Returns the number of acquisitions that allocated a new array since the last reset.
+     *
+     * @return the number of pool misses
+     */
+    public static long getMisses() {
+        return MISSES.sum();
+    }
+
+    /**
+     * Resets the hit and miss counts to zero.
+     */
+    public static void resetStatistics() {
+        HITS.reset();
+        MISSES.reset();
+    }
+
+    private static int sizeClass(int minLength) {
+        if (minLength < 0) {
+            throw new NegativeArraySizeException(Integer.toString(minLength));
+        }
+        if (minLength > MAX_LENGTH) {
+            return -1;
+        }
+        return minLength <= MIN_LENGTH ? 0 : 32 - Integer.numberOfLeadingZeros(minLength - 1) - MIN_SHIFT;
+    }
+
+    private static int pooledSizeClass(int length) {
+        int sizeClass = Integer.numberOfTrailingZeros(length) - MIN_SHIFT;
+        return Integer.bitCount(length) == 1 && sizeClass >= 0 && sizeClass < SIZE_CLASSES ? sizeClass : -1;
+    }
+
+    private static int slots() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        return Math.min(64, Integer.highestOneBit(Math.max(1, processors * 2 - 1)) << 1);
+    }
+
+    /**
+     * Returns the mask of the slots used by a size class, fewer for larger arrays so that each size class retains at
+     * most 2<sup>{@value #RETAINED_SHIFT}</sup> elements.
+     */
+    private static int slotMask(int sizeClass) {
+        return Math.min(SLOTS, 1 << Math.max(0, RETAINED_SHIFT - MIN_SHIFT - sizeClass)) - 1;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static int probe() {
+        long id = Thread.currentThread().getId();
+        return (int) ((id * 0x9e3779b97f4a7c15L) >>> 40);
+    }
+
+    private static final class Pool<T> {
+
+        private final AtomicReferenceArray<T> slots = new AtomicReferenceArray<>(SIZE_CLASSES * SLOTS);
+
+        T take(int sizeClass) {
+            int base = sizeClass * SLOTS;
+            int mask = slotMask(sizeClass);
+            int probe = probe();
+            for (int i = 0; i < PROBES; i++) {
+                int slot = base + ((probe + i) & mask);
+                T array = slots.get(slot);
+                if (array != null && slots.compareAndSet(slot, array, null)) {
+                    HITS.increment();
+                    return array;
+                }
+            }
+            MISSES.increment();
+            return null;
+        }
+
+        void give(int sizeClass, T array) {
+            int base = sizeClass * SLOTS;
+            int mask = slotMask(sizeClass);
+            int probe = probe();
+            for (int i = 0; i < PROBES; i++) {
+                int slot = base + ((probe + i) & mask);
+                if (slots.get(slot) == null && slots.compareAndSet(slot, null, array)) {
+                    return;
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The class {@code HalfSerialization} contains methods for writing and reading {@link Half} values, arrays and
+ * collections in a compact binary form.
+ *
+ * <p>
+ * Each value is written as its two byte {@code half} short bits. All NaN values are written as the canonical NaN. A
+ * {@code Half} holding a {@code float} that is not exactly representable in {@code half} precision is written as the
+ * reserved NaN pattern {@code 0x7c01} followed by the four byte {@code float}, and {@code null} is written as the
+ * reserved NaN pattern {@code 0x7c02}, so every value reads back equal to the value written.
+ *
+ * <p>
+ * Arrays and collections are written as their {@code int} length, {@code -1} for a {@code null} array, followed by
+ * their elements, which is far smaller than the default serialized form of a {@code Half[]}. {@code Half} itself is
+ * serialized through a proxy holding the compact form of its value.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class HalfSerialization {
+
+    private static final short FLOAT_FOLLOWS = 0x7c01;
+    private static final short NULL = 0x7c02;
+    private static final short CANONICAL_NAN = 0x7e00;
+    // lengths are read from untrusted input, so storage grows with the elements actually read
+    private static final int INITIAL_CAPACITY = 1 << 16;
+
+    private HalfSerialization() {
+        /* Hidden Constructor */ }
+
+    /**
+     * Writes a {@code Half} value, which may be {@code null}.
+     *
+     * @param out
+     *            the output to write to
+     * @param half
+     *            the value to write
+     *
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public static void writeHalf(DataOutput out, Half half) throws IOException {
+        if (half == null) {
+            out.writeShort(NULL);
+            return;
+        }
+        float floatValue = half.floatValue();
+        if (Float.isNaN(floatValue)) {
+            out.writeShort(CANONICAL_NAN);
+            return;
+        }
+        short shortBits = Half.floatToHalfShortBits(floatValue);
+        if (Float.floatToIntBits(Half.halfShortToFloat(shortBits)) == Float.floatToIntBits(floatValue)) {
+            out.writeShort(shortBits);
+        } else {
+            out.writeShort(FLOAT_FOLLOWS);
+            out.writeFloat(floatValue);
+        }
+    }
+
+    /**
+     * Reads a {@code Half} value written by {@link #writeHalf(DataOutput, Half)}. Values equal to a {@code Half}
+     * constant are returned as that constant.
+     *
+     * @param in
+     *            the input to read from
+     *
+     * @return the value, or {@code null}
+     *
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public static Half readHalf(DataInput in) throws IOException {
+        short shortBits = in.readShort();
+        switch (shortBits) {
+        case NULL:
+            return null;
+        case FLOAT_FOLLOWS:
+            return Half.valueOf(in.readFloat());
+        case 0x0000:
+            return Half.POSITIVE_ZERO;
+        case (short) 0x8000:
+            return Half.NEGATIVE_ZERO;
+        case 0x7c00:
+            return Half.POSITIVE_INFINITY;
+        case (short) 0xfc00:
+            return Half.NEGATIVE_INFINITY;
+        case CANONICAL_NAN:
+            return Half.NaN;
+        case 0x7bff:
+            return Half.MAX_VALUE;
+        case (short) 0xfbff:
+            return Half.NEGATIVE_MAX_VALUE;
+        case 0x0400:
+            return Half.MIN_NORMAL;
+        case 0x0001:
+            return Half.MIN_VALUE;
+        default:
+            return Half.shortBitsToHalf(shortBits);
+        }
+    }
+
+    /**
+     * Writes an array of {@code Half} values. The array and its elements may be {@code null}.
+     *
+     * @param out
+     *            the output to write to
+     * @param halves
+     *            the array to write
+     *
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public static void writeHalfArray(DataOutput out, Half[] halves) throws IOException {
+        if (halves == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(halves.length);
+        for (Half half : halves) {
+            writeHalf(out, half);
+        }
+    }
+
+    /**
+     * Reads an array of {@code Half} values written by {@link #writeHalfArray(DataOutput, Half[])}.
+     *
+     * @param in
+     *            the input to read from
+     *
+     * @return the array, or {@code null}
+     *
+     * @throws IOException
+     *             if an I/O error occurs or the length is invalid
+     */
+    public static Half[] readHalfArray(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length == -1) {
+            return null;
+        }
+        checkLength(length);
+        Half[] halves = new Half[Math.min(length, INITIAL_CAPACITY)];
+        for (int i = 0; i < length; i++) {
+            if (i == halves.length) {
+                halves = Arrays.copyOf(halves, (int) Math.min(length, 2L * halves.length));
+            }
+            halves[i] = readHalf(in);
+        }
+        return halves;
+    }
+
+    /**
+     * Writes a collection of {@code Half} values, in iteration order. The elements may be {@code null}.
+     *
+     * @param out
+     *            the output to write to
+     * @param halves
+     *            the collection to write
+     *
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public static void writeHalfCollection(DataOutput out, Collection<Half> halves) throws IOException {
+        out.writeInt(halves.size());
+        for (Half half : halves) {
+            writeHalf(out, half);
+        }
+    }
+
+    /**
+     * Reads a collection of {@code Half} values written by {@link #writeHalfCollection(DataOutput, Collection)}.
+     *
+     * @param in
+     *            the input to read from
+     *
+     * @return the values in a mutable list
+     *
+     * @throws IOException
+     *             if an I/O error occurs or the length is invalid
+     */
+    public static List<Half> readHalfList(DataInput in) throws IOException {
+        int length = in.readInt();
+        checkLength(length);
+        List<Half> halves = new ArrayList<>(Math.min(length, INITIAL_CAPACITY));
+        for (int i = 0; i < length; i++) {
+            halves.add(readHalf(in));
+        }
+        return halves;
+    }
+
+    private static void checkLength(int length) throws IOException {
+        if (length < 0) {
+            throw new StreamCorruptedException("Invalid length " + length);
+        }
+    }
+
+}
@@ -0,0 +1,485 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable, compressed sequence of {@link Half} values.
+ *
+ * <p>
+ * Values are encoded with the XOR scheme of the Gorilla time series database, adapted to 16 bit values. Each value is
+ * XORed with the previous value; an unchanged value takes a single bit and a changed value stores only the meaningful
+ * bits of the XOR, reusing the leading and trailing zero counts of the previous value when they fit.
+ *
+ * <p>
+ * The sequence is divided into blocks of {@link #blockSize()} values. The first value of each block is stored in full
+ * and the bit offset of each block is recorded as a checkpoint, so decoding can start at any block. Random access
+ * decodes from the start of the containing block.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class HalfSeries {
+
+    /**
+     * The default number of values in a block.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+    private static final int MAGIC = 0x48345453;
+    private static final int LEADING_BITS = 4;
+    private static final int LENGTH_BITS = 4;
+
+    private final long[] words;
+    private final long bitLength;
+    private final long[] checkpoints;
+    private final int size;
+    private final int blockSize;
+
+    private HalfSeries(long[] words, long bitLength, long[] checkpoints, int size, int blockSize) {
+        this.words = words;
+        this.bitLength = bitLength;
+        this.checkpoints = checkpoints;
+        this.size = size;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Encodes {@code half} short bits with the default block size.
+     *
+     * @param shortBits
+     *            the {@code half} short bits to encode
+     *
+     * @return the encoded sequence
+     */
+    public static HalfSeries of(short... shortBits) {
+        Encoder encoder = new Encoder();
+        encoder.append(shortBits, 0, shortBits.length);
+        return encoder.build();
+    }
+
+    /**
+     * Reads a sequence written by {@link #toByteArray()}.
+     *
+     * @param bytes
+     *            the serialized sequence
+     *
+     * @return the sequence
+     *
+     * @throws IOException
+     *             if {@code bytes} is not a valid serialized sequence
+     */
+    public static HalfSeries fromByteArray(byte... bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a half series");
+        }
+        int size = in.readInt();
+        int blockSize = in.readInt();
+        long bitLength = in.readLong();
+        if (size < 0 || blockSize <= 0 || bitLength < 0 || bitLength > (long) bytes.length * Byte.SIZE) {
+            throw new IOException("Corrupt half series header");
+        }
+        long blocks = ((long) size + blockSize - 1) / blockSize;
+        if (blocks * Long.BYTES > bytes.length) {
+            throw new IOException("Corrupt half series header");
+        }
+        long[] checkpoints = new long[(int) blocks];
+        for (int i = 0; i < checkpoints.length; i++) {
+            checkpoints[i] = in.readLong();
+            if (checkpoints[i] < 0 || checkpoints[i] > bitLength) {
+                throw new IOException("Corrupt half series checkpoint");
+            }
+        }
+        long[] words = new long[(int) ((bitLength + Long.SIZE - 1) / Long.SIZE)];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = in.readLong();
+        }
+        return new HalfSeries(words, bitLength, checkpoints, size, blockSize);
+    }
+
+    /**
+     * Returns the number of values in the sequence.
+     *
+     * @return the number of values
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of values in each block, the last block may hold fewer values.
+     *
+     * @return the block size
+     */
+    public int blockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Returns the number of blocks in the sequence.
+     *
+     * @return the number of blocks
+     */
+    public int blockCount() {
+        return checkpoints.length;
+    }
+
+    /**
+     * Returns the number of bits used by the encoded values, excluding checkpoints.
+     *
+     * @return the number of encoded bits
+     */
+    public long bitLength() {
+        return bitLength;
+    }
+
+    /**
+     * Returns the short bits of the value at {@code index}.
+     *
+     * @param index
+     *            the index of the value
+     *
+     * @return the {@code half} short bits
+     *
+     * @throws IndexOutOfBoundsException
+     *             if {@code index} is negative or not less than {@link #size()}
+     */
+    public short getShortBits(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index);
+        }
+        BlockIterator iterator = blockIterator(index / blockSize);
+        short value = 0;
+        for (int i = index % blockSize; i >= 0; i--) {
+            value = iterator.nextValue();
+        }
+        return value;
+    }
+
+    /**
+     * Returns the value at {@code index}.
+     *
+     * @param index
+     *            the index of the value
+     *
+     * @return the {@code Half} value
+     *
+     * @throws IndexOutOfBoundsException
+     *             if {@code index} is negative or not less than {@link #size()}
+     */
+    public Half get(int index) {
+        return Half.shortBitsToHalf(getShortBits(index));
+    }
+
+    /**
+     * Decodes all values.
+     *
+     * @return array of {@code half} short bits
+     */
+    public short[] toShortBitsArray() {
+        short[] shortBits = new short[size];
+        BlockIterator iterator = blockIterator(0);
+        for (int pos = 0; iterator.hasNext();) {
+            pos += iterator.next(shortBits, pos);
+        }
+        return shortBits;
+    }
+
+    /**
+     * Returns an iterator decoding the blocks of the sequence starting at block {@code fromBlock}.
+     *
+     * @param fromBlock
+     *            the index of the first block to decode
+     *
+     * @return a block iterator
+     *
+     * @throws IndexOutOfBoundsException
+     *             if {@code fromBlock} is negative or greater than {@link #blockCount()}
+     */
+    public BlockIterator blockIterator(int fromBlock) {
+        if (fromBlock < 0 || fromBlock > checkpoints.length) {
+            throw new IndexOutOfBoundsException("block " + fromBlock);
+        }
+        return new BlockIterator(fromBlock);
+    }
+
+    /**
+     * Serializes the sequence, including its checkpoints.
+     *
+     * @return the serialized sequence
+     */
+    public byte[] toByteArray() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(size);
+            out.writeInt(blockSize);
+            out.writeLong(bitLength);
+            for (long checkpoint : checkpoints) {
+                out.writeLong(checkpoint);
+            }
+            for (int i = 0; i < (bitLength + Long.SIZE - 1) / Long.SIZE; i++) {
+                out.writeLong(words[i]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Encodes a sequence of {@code half} values into a {@link HalfSeries}.
+     */
+    public static final class Encoder {
+
+        private final int blockSize;
+        private long[] words = new long[16];
+        private long bitLength;
+        private long[] checkpoints = new long[16];
+        private int size;
+        private short previous;
+        private int previousLeading;
+        private int previousTrailing;
+
+        /**
+         * Creates an encoder with the default block size.
+         */
+        public Encoder() {
+            this(DEFAULT_BLOCK_SIZE);
+        }
+
+        /**
+         * Creates an encoder with the given block size.
+         *
+         * @param blockSize
+         *            the number of values in each block
+         *
+         * @throws IllegalArgumentException
+         *             if {@code blockSize} is not positive
+         */
+        public Encoder(int blockSize) {
+            if (blockSize <= 0) {
+                throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+            }
+            this.blockSize = blockSize;
+        }
+
+        /**
+         * Appends a value.
+         *
+         * @param value
+         *            the value to append
+         *
+         * @return this encoder
+         */
+        public Encoder append(Half value) {
+            return append(Half.halfToRawShortBits(value));
+        }
+
+        /**
+         * Appends a value given as {@code half} short bits.
+         *
+         * @param shortBits
+         *            the {@code half} short bits to append
+         *
+         * @return this encoder
+         */
+        public Encoder append(short shortBits) {
+            if (size % blockSize == 0) {
+                int block = size / blockSize;
+                if (block == checkpoints.length) {
+                    checkpoints = Arrays.copyOf(checkpoints, block * 2);
+                }
+                checkpoints[block] = bitLength;
+                writeBits(shortBits & 0xffff, Half.SIZE);
+                previousLeading = -1;
+            } else {
+                int xor = (shortBits ^ previous) & 0xffff;
+                if (xor == 0) {
+                    writeBits(0, 1);
+                } else {
+                    int leading = Integer.numberOfLeadingZeros(xor) - (Integer.SIZE - Half.SIZE);
+                    int trailing = Integer.numberOfTrailingZeros(xor);
+                    if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+                        // the meaningful bits fit in the window of the previous value
+                        writeBits(0b10, 2);
+                        writeBits(xor >>> previousTrailing, Half.SIZE - previousLeading - previousTrailing);
+                    } else {
+                        int length = Half.SIZE - leading - trailing;
+                        writeBits(0b11, 2);
+                        writeBits(leading, LEADING_BITS);
+                        writeBits(length - 1, LENGTH_BITS);
+                        writeBits(xor >>> trailing, length);
+                        previousLeading = leading;
+                        previousTrailing = trailing;
+                    }
+                }
+            }
+            previous = shortBits;
+            size++;
+            return this;
+        }
+
+        /**
+         * Appends {@code length} {@code half} short bits from {@code src} starting at {@code srcPos}.
+         *
+         * @param src
+         *            the {@code half} short bits
+         * @param srcPos
+         *            starting position in the source array
+         * @param length
+         *            the number of values to append
+         *
+         * @return this encoder
+         */
+        public Encoder append(short[] src, int srcPos, int length) {
+            HalfUtil.checkBounds(src.length, srcPos, Integer.MAX_VALUE, 0, length);
+            for (int i = 0; i < length; i++) {
+                append(src[srcPos + i]);
+            }
+            return this;
+        }
+
+        /**
+         * Returns the sequence of the values appended so far. The encoder may continue to be used.
+         *
+         * @return the encoded sequence
+         */
+        public HalfSeries build() {
+            int blocks = (int) (((long) size + blockSize - 1) / blockSize);
+            return new HalfSeries(Arrays.copyOf(words, (int) ((bitLength + Long.SIZE - 1) / Long.SIZE)), bitLength,
+                    Arrays.copyOf(checkpoints, blocks), size, blockSize);
+        }
+
+        private void writeBits(int bits, int count) {
+            int index = (int) (bitLength >>> 6);
+            if (index + 1 >= words.length) {
+                words = Arrays.copyOf(words, words.length * 2);
+            }
+            int offset = (int) (bitLength & 63);
+            long value = (long) bits << (Long.SIZE - count) >>> offset;
+            words[index] |= value;
+            if (offset + count > Long.SIZE) {
+                words[index + 1] |= (long) bits << (Long.SIZE - (offset + count - Long.SIZE));
+            }
+            bitLength += count;
+        }
+
+    }
+
+    /**
+     * Decodes the blocks of a {@link HalfSeries} in order.
+     */
+    public final class BlockIterator {
+
+        private int block;
+        private long bitPosition;
+        private int remaining;
+        private short previous;
+        private int previousLeading;
+        private int previousTrailing;
+
+        private BlockIterator(int block) {
+            this.block = block;
+        }
+
+        /**
+         * Returns whether there are more blocks to decode.
+         *
+         * @return {@code true} if there are more blocks
+         */
+        public boolean hasNext() {
+            return block < checkpoints.length;
+        }
+
+        /**
+         * Returns the index of the next block to decode.
+         *
+         * @return the next block index
+         */
+        public int nextBlockIndex() {
+            return block;
+        }
+
+        /**
+         * Decodes the next block into {@code dst} starting at {@code dstPos}.
+         *
+         * @param dst
+         *            the destination array, with room for at least {@link HalfSeries#blockSize()} values or the number
+         *            of remaining values, whichever is less
+         * @param dstPos
+         *            starting position in the destination array
+         *
+         * @return the number of values decoded
+         *
+         * @throws NoSuchElementException
+         *             if there are no more blocks
+         */
+        public int next(short[] dst, int dstPos) {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int count = (int) Math.min(blockSize, size - (long) block * blockSize);
+            HalfUtil.checkBounds(Integer.MAX_VALUE, 0, dst.length, dstPos, count);
+            for (int i = 0; i < count; i++) {
+                dst[dstPos + i] = nextValue();
+            }
+            return count;
+        }
+
+        private short nextValue() {
+            if (remaining == 0) {
+                bitPosition = checkpoints[block];
+                remaining = (int) Math.min(blockSize, size - (long) block * blockSize);
+                block++;
+                previous = (short) readBits(Half.SIZE);
+                previousLeading = -1;
+            } else if (readBits(1) != 0) {
+                if (readBits(1) != 0) {
+                    previousLeading = readBits(LEADING_BITS);
+                    int length = readBits(LENGTH_BITS) + 1;
+                    previousTrailing = Half.SIZE - previousLeading - length;
+                }
+                int length = Half.SIZE - previousLeading - previousTrailing;
+                previous ^= (short) (readBits(length) << previousTrailing);
+            }
+            remaining--;
+            return previous;
+        }
+
+        private int readBits(int count) {
+            int index = (int) (bitPosition >>> 6);
+            int offset = (int) (bitPosition & 63);
+            long value = words[index] << offset;
+            if (offset + count > Long.SIZE) {
+                value |= words[index + 1] >>> (Long.SIZE - offset);
+            }
+            bitPosition += count;
+            return (int) (value >>> (Long.SIZE - count));
+        }
+
+    }
+
+}
@@ -0,0 +1,534 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The class {@code HalfSwar} contains SIMD within a register (SWAR) operations on {@code half} values packed two per
+ * {@code int} or four per {@code long}.
+ *
+ * <p>
+ * Each 16-bit lane of the packed value holds the short bits of one {@code half}. Lane {@code i} of a {@code long} is
+ * bits {@code 16 * i} through {@code 16 * i + 15}. Operations never carry between lanes. Predicates return a lane mask
+ * where lanes for which the predicate holds are {@code 0xffff} and all other lanes are {@code 0}.
+ *
+ * <p>
+ * Bulk operations read {@link ByteBuffer} contents eight bytes at a time using the byte order of the buffer, so that
+ * every lane holds one complete {@code half}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class HalfSwar {
+
+    private static final long SIGN_BITS = 0x8000_8000_8000_8000L;
+    private static final long MAGNITUDE_BITS = 0x7fff_7fff_7fff_7fffL;
+    private static final long EXP_BITS = repeat(HalfConsts.EXP_BIT_MASK);
+    private static final long NAN_OFFSET = repeat(HalfConsts.SIGN_BIT_MASK - (HalfConsts.EXP_BIT_MASK + 1));
+    private static final long INFINITE_OFFSET = repeat(HalfConsts.SIGN_BIT_MASK - HalfConsts.EXP_BIT_MASK);
+
+    private HalfSwar() {
+        /* Hidden Constructor */ }
+
+    /**
+     * Packs four {@code half} short bits into a {@code long}, {@code lane0} in the lowest bits.
+     *
+     * @param lane0
+     *            the short bits of lane 0
+     * @param lane1
+     *            the short bits of lane 1
+     * @param lane2
+     *            the short bits of lane 2
+     * @param lane3
+     *            the short bits of lane 3
+     *
+     * @return the packed value
+     */
+    public static long pack(short lane0, short lane1, short lane2, short lane3) {
+        return (lane0 & 0xffffL) | (lane1 & 0xffffL) << 16 | (lane2 & 0xffffL) << 32 | (lane3 & 0xffffL) << 48;
+    }
+
+    /**
+     * Packs two {@code half} short bits into an {@code int}, {@code lane0} in the lowest bits.
+     *
+     * @param lane0
+     *            the short bits of lane 0
+     * @param lane1
+     *            the short bits of lane 1
+     *
+     * @return the packed value
+     */
+    public static int pack(short lane0, short lane1) {
+        return (lane0 & 0xffff) | lane1 << 16;
+    }
+
+    /**
+     * Returns the short bits of lane {@code lane} of a packed {@code long}.
+     *
+     * @param packed
+     *            the packed value
+     * @param lane
+     *            the lane, {@code 0} to {@code 3}
+     *
+     * @return the short bits of the lane
+     */
+    public static short lane(long packed, int lane) {
+        return (short) (packed >>> (lane << 4));
+    }
+
+    /**
+     * Returns the absolute value of every lane by clearing the sign bits.
+     *
+     * @param packed
+     *            four packed {@code half} values
+     *
+     * @return the packed absolute values
+     */
+    public static long abs(long packed) {
+        return packed & MAGNITUDE_BITS;
+    }
+
+    /**
+     * Returns the absolute value of every lane by clearing the sign bits.
+     *
+     * @param packed
+     *            two packed {@code half} values
+     *
+     * @return the packed absolute values
+     */
+    public static int abs(int packed) {
+        return (int) abs(Integer.toUnsignedLong(packed));
+    }
+
+    /**
+     * Negates every lane by flipping the sign bits.
+     *
+     * @param packed
+     *            four packed {@code half} values
+     *
+     * @return the packed negated values
+     */
+    public static long negate(long packed) {
+        return packed ^ SIGN_BITS;
+    }
+
+    /**
+     * Negates every lane by flipping the sign bits.
+     *
+     * @param packed
+     *            two packed {@code half} values
+     *
+     * @return the packed negated values
+     */
+    public static int negate(int packed) {
+        return packed ^ (int) SIGN_BITS;
+    }
+
+    /**
+     * Returns the lane mask of lanes with the sign bit set, including negative zero and NaN with the sign bit set.
+     *
+     * @param packed
+     *            four packed {@code half} values
+     *
+     * @return the lane mask
+     */
+    public static long isSignBitSet(long packed) {
+        return toMask(packed & SIGN_BITS);
+    }
+
+    /**
+     * Returns the lane mask of lanes with the sign bit set, including negative zero and NaN with the sign bit set.
+     *
+     * @param packed
+     *            two packed {@code half} values
+     *
+     * @return the lane mask
+     */
+    public static int isSignBitSet(int packed) {
+        return (int) isSignBitSet(Integer.toUnsignedLong(packed));
+    }
+
+    /**
+     * Returns the lane mask of NaN lanes.
+     *
+     * @param packed
+     *            four packed {@code half} values
+     *
+     * @return the lane mask
+     */
+    public static long isNaN(long packed) {
+        return toMask(nanFlags(packed));
+    }
+
+    /**
+     * Returns the lane mask of NaN lanes.
+     *
+     * @param packed
+     *            two packed {@code half} values
+     *
+     * @return the lane mask
+     */
+    public static int isNaN(int packed) {
+        return (int) isNaN(Integer.toUnsignedLong(packed));
+    }
+
+    /**
+     * Returns the lane mask of infinite lanes.
+     *
+     * @param packed
+     *            four packed {@code half} values
+     *
+     * @return the lane mask
+     */
+    public static long isInfinite(long packed) {
+        return toMask(infiniteFlags(packed));
+    }
+
+    /**
+     * Returns the lane mask of infinite lanes.
+     *
+     * @param packed
+     *            two packed {@code half} values
+     *
+     * @return the lane mask
+     */
+    public static int isInfinite(int packed) {
+        return (int) isInfinite(Integer.toUnsignedLong(packed));
+    }
+
+    /**
+     * Returns the lane mask of finite lanes, that is lanes that are neither NaN nor infinite.
+     *
+     * @param packed
+     *            four packed {@code half} values
+     *
+     * @return the lane mask
+     */
+    public static long isFinite(long packed) {
+        return toMask(~nonFiniteFlags(packed) & SIGN_BITS);
+    }
+
+    /**
+     * Returns the lane mask of finite lanes, that is lanes that are neither NaN nor infinite.
+     *
+     * @param packed
+     *            two packed {@code half} values
+     *
+     * @return the lane mask
+     */
+    public static int isFinite(int packed) {
+        return (int) isFinite(Integer.toUnsignedLong(packed));
+    }
+
+    /**
+     * Returns the lane mask of lanes where {@code a} is numerically equal to {@code b}. NaN is not equal to any value
+     * and positive zero is equal to negative zero.
+     *
+     * @param a
+     *            four packed {@code half} values
+     * @param b
+     *            four packed {@code half} values
+     *
+     * @return the lane mask
+     */
+    public static long equal(long a, long b) {
+        long notEqual = nonZeroFlags(a ^ b) & ~bothZeroFlags(a, b);
+        return toMask(~(notEqual | nanFlags(a) | nanFlags(b)) & SIGN_BITS);
+    }
+
+    /**
+     * Returns the lane mask of lanes where {@code a} is numerically equal to {@code b}. NaN is not equal to any value
+     * and positive zero is equal to negative zero.
+     *
+     * @param a
+     *            two packed {@code half} values
+     * @param b
+     *            two packed {@code half} values
+     *
+     * @return the lane mask
+     */
+    public static int equal(int a, int b) {
+        return (int) equal(Integer.toUnsignedLong(a), Integer.toUnsignedLong(b));
+    }
+
+    /**
+     * Returns the lane mask of lanes where {@code a} is numerically less than {@code b}. Comparisons with NaN are false
+     * and negative zero is not less than positive zero.
+     *
+     * @param a
+     *            four packed {@code half} values
+     * @param b
+     *            four packed {@code half} values
+     *
+     * @return the lane mask
+     */
+    public static long lessThan(long a, long b) {
+        // map to keys ordered as unsigned 16-bit integers
+        long keyA = a ^ (toMask(a & SIGN_BITS) | SIGN_BITS);
+        long keyB = b ^ (toMask(b & SIGN_BITS) | SIGN_BITS);
+        // lane-wise subtraction that cannot borrow across lanes, then compute the borrow out of each lane
+        long difference = (keyA | SIGN_BITS) - (keyB & MAGNITUDE_BITS);
+        long borrow = ((~keyA & keyB) | (~(keyA ^ keyB) & ~difference)) & SIGN_BITS;
+        return toMask(borrow & ~(nanFlags(a) | nanFlags(b) | bothZeroFlags(a, b)));
+    }
+
+    /**
+     * Returns the lane mask of lanes where {@code a} is numerically less than {@code b}. Comparisons with NaN are false
+     * and negative zero is not less than positive zero.
+     *
+     * @param a
+     *            two packed {@code half} values
+     * @param b
+     *            two packed {@code half} values
+     *
+     * @return the lane mask
+     */
+    public static int lessThan(int a, int b) {
+        return (int) lessThan(Integer.toUnsignedLong(a), Integer.toUnsignedLong(b));
+    }
+
+    /**
+     * Counts the NaN values in {@code src}.
+     *
+     * @param src
+     *            the {@code half} short bits
+     *
+     * @return the number of NaN values
+     */
+    public static int countNaN(short[] src) {
+        int count = 0;
+        int i = 0;
+        for (; i + 4 <= src.length; i += 4) {
+            count += Long.bitCount(nanFlags(pack(src[i], src[i + 1], src[i + 2], src[i + 3])));
+        }
+        for (; i < src.length; i++) {
+            count += Long.bitCount(nanFlags(src[i] & 0xffffL));
+        }
+        return count;
+    }
+
+    /**
+     * Counts the NaN values in the remaining bytes of {@code buf}. The position of {@code buf} is not changed.
+     *
+     * @param buf
+     *            the {@code half} values
+     *
+     * @return the number of NaN values
+     */
+    public static int countNaN(ByteBuffer buf) {
+        int count = 0;
+        int i = buf.position();
+        int end = i + (buf.remaining() & ~1);
+        for (; i + 8 <= end; i += 8) {
+            count += Long.bitCount(nanFlags(buf.getLong(i)));
+        }
+        for (; i < end; i += 2) {
+            count += Long.bitCount(nanFlags(buf.getShort(i) & 0xffffL));
+        }
+        return count;
+    }
+
+    /**
+     * Counts the infinite values in {@code src}.
+     *
+     * @param src
+     *            the {@code half} short bits
+     *
+     * @return the number of infinite values
+     */
+    public static int countInfinite(short[] src) {
+        int count = 0;
+        int i = 0;
+        for (; i + 4 <= src.length; i += 4) {
+            count += Long.bitCount(infiniteFlags(pack(src[i], src[i + 1], src[i + 2], src[i + 3])));
+        }
+        for (; i < src.length; i++) {
+            count += Long.bitCount(infiniteFlags(src[i] & 0xffffL));
+        }
+        return count;
+    }
+
+    /**
+     * Counts the infinite values in the remaining bytes of {@code buf}. The position of {@code buf} is not changed.
+     *
+     * @param buf
+     *            the {@code half} values
+     *
+     * @return the number of infinite values
+     */
+    public static int countInfinite(ByteBuffer buf) {
+        int count = 0;
+        int i = buf.position();
+        int end = i + (buf.remaining() & ~1);
+        for (; i + 8 <= end; i += 8) {
+            count += Long.bitCount(infiniteFlags(buf.getLong(i)));
+        }
+        for (; i < end; i += 2) {
+            count += Long.bitCount(infiniteFlags(buf.getShort(i) & 0xffffL));
+        }
+        return count;
+    }
+
+    /**
+     * Returns {@code true} if all values of {@code src} are finite.
+     *
+     * @param src
+     *            the {@code half} short bits
+     *
+     * @return {@code true} if no value is NaN or infinite; {@code false} otherwise
+     */
+    public static boolean isAllFinite(short[] src) {
+        long flags = 0;
+        int i = 0;
+        for (; i + 4 <= src.length; i += 4) {
+            flags |= nonFiniteFlags(pack(src[i], src[i + 1], src[i + 2], src[i + 3]));
+        }
+        for (; i < src.length; i++) {
+            flags |= nonFiniteFlags(src[i] & 0xffffL);
+        }
+        return (flags & SIGN_BITS) == 0;
+    }
+
+    /**
+     * Returns {@code true} if all values in the remaining bytes of {@code buf} are finite. The position of {@code buf}
+     * is not changed.
+     *
+     * @param buf
+     *            the {@code half} values
+     *
+     * @return {@code true} if no value is NaN or infinite; {@code false} otherwise
+     */
+    public static boolean isAllFinite(ByteBuffer buf) {
+        long flags = 0;
+        int i = buf.position();
+        int end = i + (buf.remaining() & ~1);
+        for (; i + 8 <= end; i += 8) {
+            flags |= nonFiniteFlags(buf.getLong(i));
+        }
+        for (; i < end; i += 2) {
+            flags |= nonFiniteFlags(buf.getShort(i) & 0xffffL);
+        }
+        return (flags & SIGN_BITS) == 0;
+    }
+
+    /**
+     * Stores the absolute value of each {@code half} in the remaining bytes of {@code src} in {@code dst}, starting at
+     * the position of {@code dst}. Buffer positions are not changed.
+     *
+     * @param src
+     *            the {@code half} values
+     * @param dst
+     *            the destination of the result, may be {@code src}
+     *
+     * @throws IllegalArgumentException
+     *             if the buffers have different number of remaining bytes
+     */
+    public static void abs(ByteBuffer src, ByteBuffer dst) {
+        xorOrMask(src, dst, MAGNITUDE_BITS, false);
+    }
+
+    /**
+     * Stores the negation of each {@code half} in the remaining bytes of {@code src} in {@code dst}, starting at the
+     * position of {@code dst}. Buffer positions are not changed.
+     *
+     * @param src
+     *            the {@code half} values
+     * @param dst
+     *            the destination of the result, may be {@code src}
+     *
+     * @throws IllegalArgumentException
+     *             if the buffers have different number of remaining bytes
+     */
+    public static void negate(ByteBuffer src, ByteBuffer dst) {
+        xorOrMask(src, dst, SIGN_BITS, true);
+    }
+
+    private static void xorOrMask(ByteBuffer src, ByteBuffer dst, long bits, boolean xor) {
+        HalfArrays.checkLength(src.remaining(), dst.remaining());
+        if (src.order() != dst.order()) {
+            throw new IllegalArgumentException("Byte order mismatch: " + src.order() + " != " + dst.order());
+        }
+        int length = src.remaining() & ~1;
+        boolean metrics = HalfMetrics.enabled;
+        Object event = metrics
+                ? HalfMetrics.begin(xor ? "HalfSwar.negate" : "HalfSwar.abs", HalfMetrics.Path.SIMD, length >> 1)
+                : null;
+        int srcPos = src.position();
+        int dstPos = dst.position();
+        int i = 0;
+        for (; i + 8 <= length; i += 8) {
+            long packed = src.getLong(srcPos + i);
+            dst.putLong(dstPos + i, xor ? packed ^ bits : packed & bits);
+        }
+        for (; i < length; i += 2) {
+            short shortBits = src.getShort(srcPos + i);
+            dst.putShort(dstPos + i, (short) (xor ? shortBits ^ bits : shortBits & bits));
+        }
+        if (metrics) {
+            HalfMetrics.end(event);
+            HalfMetrics.converted(HalfMetrics.Path.SIMD, length >> 1);
+        }
+    }
+
+    /**
+     * Returns {@code 0x8000} in each NaN lane.
+     */
+    private static long nanFlags(long packed) {
+        return ((packed & MAGNITUDE_BITS) + NAN_OFFSET) & SIGN_BITS;
+    }
+
+    /**
+     * Returns {@code 0x8000} in each NaN or infinite lane.
+     */
+    private static long nonFiniteFlags(long packed) {
+        return ((packed & MAGNITUDE_BITS) + INFINITE_OFFSET) & SIGN_BITS;
+    }
+
+    /**
+     * Returns {@code 0x8000} in each infinite lane.
+     */
+    private static long infiniteFlags(long packed) {
+        return ~nonZeroFlags((packed & MAGNITUDE_BITS) ^ EXP_BITS) & SIGN_BITS;
+    }
+
+    /**
+     * Returns {@code 0x8000} in each lane that is zero in both {@code a} and {@code b}, ignoring sign.
+     */
+    private static long bothZeroFlags(long a, long b) {
+        return ~nonZeroFlags((a | b) & MAGNITUDE_BITS) & SIGN_BITS;
+    }
+
+    /**
+     * Returns {@code 0x8000} in each non-zero lane.
+     */
+    private static long nonZeroFlags(long packed) {
+        return (((packed & MAGNITUDE_BITS) + MAGNITUDE_BITS) | packed) & SIGN_BITS;
+    }
+
+    /**
+     * Expands {@code 0x8000} lane flags to {@code 0xffff} lane masks.
+     */
+    private static long toMask(long flags) {
+        return (flags >>> 15) * 0xffff;
+    }
+
+    private static long repeat(int shortBits) {
+        long lane = shortBits & 0xffffL;
+        return lane | lane << 16 | lane << 32 | lane << 48;
+    }
+
+}
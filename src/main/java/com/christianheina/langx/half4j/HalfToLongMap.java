@@ -0,0 +1,249 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.util.Arrays;
+
+/**
+ * A map from {@code half} values to {@code long} values stored densely in an array indexed by the 65,536 {@code half}
+ * bit patterns, 520 KB in total, with no boxing and no hashing. Suited to counting occurrences of {@code half} values,
+ * where a {@code HashMap<Half, Long>} boxes every key and count.
+ *
+ * <p>
+ * Keys follow {@link Half#equals(Object)} as described for {@link HalfBitSet}: all NaNs are one key and positive and
+ * negative zero are distinct keys. The value of an absent key reads as {@code 0}.
+ *
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class HalfToLongMap {
+
+    private final long[] values = new long[1 << 16];
+    private final HalfBitSet keys = new HalfBitSet();
+
+    /**
+     * Creates an empty map.
+     */
+    public HalfToLongMap() {
+        super();
+    }
+
+    /**
+     * Returns the number of keys in this map.
+     *
+     * @return the number of keys
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * Returns {@code true} if this map holds no keys.
+     *
+     * @return {@code true} if this map is empty
+     */
+    public boolean isEmpty() {
+        return keys.isEmpty();
+    }
+
+    /**
+     * Returns {@code true} if this map holds the key with the given short bits.
+     *
+     * @param shortBits
+     *            the {@code half} short bits of the key
+     *
+     * @return {@code true} if the key is present
+     */
+    public boolean containsKey(short shortBits) {
+        return keys.contains(shortBits);
+    }
+
+    /**
+     * Returns {@code true} if this map holds {@code key}.
+     *
+     * @param key
+     *            the key
+     *
+     * @return {@code true} if the key is present
+     */
+    public boolean containsKey(Half key) {
+        return containsKey(Half.halfToShortBits(key));
+    }
+
+    /**
+     * Returns the value of the key with the given short bits, or {@code 0} if the key is absent.
+     *
+     * @param shortBits
+     *            the {@code half} short bits of the key
+     *
+     * @return the value
+     */
+    public long get(short shortBits) {
+        return values[index(shortBits)];
+    }
+
+    /**
+     * Returns the value of {@code key}, or {@code 0} if the key is absent.
+     *
+     * @param key
+     *            the key
+     *
+     * @return the value
+     */
+    public long get(Half key) {
+        return get(Half.halfToShortBits(key));
+    }
+
+    /**
+     * Sets the value of the key with the given short bits.
+     *
+     * @param shortBits
+     *            the {@code half} short bits of the key
+     * @param value
+     *            the value
+     *
+     * @return the previous value, or {@code 0} if the key was absent
+     */
+    public long put(short shortBits, long value) {
+        int index = index(shortBits);
+        long previous = values[index];
+        values[index] = value;
+        keys.add(shortBits);
+        return previous;
+    }
+
+    /**
+     * Sets the value of {@code key}.
+     *
+     * @param key
+     *            the key
+     * @param value
+     *            the value
+     *
+     * @return the previous value, or {@code 0} if the key was absent
+     */
+    public long put(Half key, long value) {
+        return put(Half.halfToShortBits(key), value);
+    }
+
+    /**
+     * Adds {@code delta} to the value of the key with the given short bits, adding the key with value {@code delta} if
+     * it is absent.
+     *
+     * @param shortBits
+     *            the {@code half} short bits of the key
+     * @param delta
+     *            the amount to add
+     *
+     * @return the new value
+     */
+    public long add(short shortBits, long delta) {
+        int index = index(shortBits);
+        keys.add(shortBits);
+        return values[index] += delta;
+    }
+
+    /**
+     * Adds {@code delta} to the value of {@code key}, adding the key with value {@code delta} if it is absent.
+     *
+     * @param key
+     *            the key
+     * @param delta
+     *            the amount to add
+     *
+     * @return the new value
+     */
+    public long add(Half key, long delta) {
+        return add(Half.halfToShortBits(key), delta);
+    }
+
+    /**
+     * Counts the occurrences of each value of {@code src}, adding one to the value of its key.
+     *
+     * @param src
+     *            the {@code half} short bits to count
+     */
+    public void count(short[] src) {
+        for (short shortBits : src) {
+            add(shortBits, 1L);
+        }
+    }
+
+    /**
+     * Removes the key with the given short bits.
+     *
+     * @param shortBits
+     *            the {@code half} short bits of the key
+     *
+     * @return the removed value, or {@code 0} if the key was absent
+     */
+    public long remove(short shortBits) {
+        int index = index(shortBits);
+        long previous = values[index];
+        values[index] = 0L;
+        keys.remove(shortBits);
+        return previous;
+    }
+
+    /**
+     * Removes {@code key}.
+     *
+     * @param key
+     *            the key
+     *
+     * @return the removed value, or {@code 0} if the key was absent
+     */
+    public long remove(Half key) {
+        return remove(Half.halfToShortBits(key));
+    }
+
+    /**
+     * Removes all keys.
+     */
+    public void clear() {
+        Arrays.fill(values, 0L);
+        keys.clear();
+    }
+
+    /**
+     * Returns the short bits of all keys, in the order of {@link Half#compare(Half, Half)}.
+     *
+     * @return array of {@code half} short bits
+     */
+    public short[] keys() {
+        return keys.toShortBitsArray();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (short shortBits : keys()) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(Half.shortBitsToHalf(shortBits)).append('=').append(get(shortBits));
+        }
+        return sb.append('}').toString();
+    }
+
+    private static int index(short shortBits) {
+        return HalfUtil.canonicalShortBits(shortBits) & 0xffff;
+    }
+
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * A map from {@code half} values to objects stored densely in an array indexed by the 65,536 {@code half} bit patterns,
+ * with no boxing and no hashing of keys.
+ *
+ * <p>
+ * Keys follow {@link Half#equals(Object)} as described for {@link HalfBitSet}: all NaNs are one key and positive and
+ * negative zero are distinct keys. Values may be {@code null}; {@link #containsKey(short)} tells an absent key from a
+ * key mapped to {@code null}.
+ *
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <V>
+ *            the type of the values
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class HalfToObjectMap<V> {
+
+    private final Object[] values = new Object[1 << 16];
+    private final HalfBitSet keys = new HalfBitSet();
+
+    /**
+     * Creates an empty map.
+     */
+    public HalfToObjectMap() {
+        super();
+    }
+
+    /**
+     * Returns the number of keys in this map.
+     *
+     * @return the number of keys
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * Returns {@code true} if this map holds no keys.
+     *
+     * @return {@code true} if this map is empty
+     */
+    public boolean isEmpty() {
+        return keys.isEmpty();
+    }
+
+    /**
+     * Returns {@code true} if this map holds the key with the given short bits.
+     *
+     * @param shortBits
+     *            the {@code half} short bits of the key
+     *
+     * @return {@code true} if the key is present
+     */
+    public boolean containsKey(short shortBits) {
+        return keys.contains(shortBits);
+    }
+
+    /**
+     * Returns {@code true} if this map holds {@code key}.
+     *
+     * @param key
+     *            the key
+     *
+     * @return {@code true} if the key is present
+     */
+    public boolean containsKey(Half key) {
+        return containsKey(Half.halfToShortBits(key));
+    }
+
+    /**
+     * Returns the value of the key with the given short bits, or {@code null} if the key is absent.
+     *
+     * @param shortBits
+     *            the {@code half} short bits of the key
+     *
+     * @return the value
+     */
+    @SuppressWarnings("unchecked")
+    public V get(short shortBits) {
+        return (V) values[index(shortBits)];
+    }
+
+    /**
+     * Returns the value of {@code key}, or {@code null} if the key is absent.
+     *
+     * @param key
+     *            the key
+     *
+     * @return the value
+     */
+    public V get(Half key) {
+        return get(Half.halfToShortBits(key));
+    }
+
+    /**
+     * Sets the value of the key with the given short bits.
+     *
+     * @param shortBits
+     *            the {@code half} short bits of the key
+     * @param value
+     *            the value
+     *
+     * @return the previous value, or {@code null} if the key was absent
+     */
+    public V put(short shortBits, V value) {
+        V previous = get(shortBits);
+        values[index(shortBits)] = value;
+        keys.add(shortBits);
+        return previous;
+    }
+
+    /**
+     * Sets the value of {@code key}.
+     *
+     * @param key
+     *            the key
+     * @param value
+     *            the value
+     *
+     * @return the previous value, or {@code null} if the key was absent
+     */
+    public V put(Half key, V value) {
+        return put(Half.halfToShortBits(key), value);
+    }
+
+    /**
+     * Returns the value of the key with the given short bits, first setting it to a value from {@code supplier} if the
+     * key is absent.
+     *
+     * @param shortBits
+     *            the {@code half} short bits of the key
+     * @param supplier
+     *            the supplier of the value of an absent key
+     *
+     * @return the present or supplied value
+     */
+    public V computeIfAbsent(short shortBits, Supplier<? extends V> supplier) {
+        if (keys.contains(shortBits)) {
+            return get(shortBits);
+        }
+        V value = supplier.get();
+        put(shortBits, value);
+        return value;
+    }
+
+    /**
+     * Removes the key with the given short bits.
+     *
+     * @param shortBits
+     *            the {@code half} short bits of the key
+     *
+     * @return the removed value, or {@code null} if the key was absent
+     */
+    public V remove(short shortBits) {
+        V previous = get(shortBits);
+        values[index(shortBits)] = null;
+        keys.remove(shortBits);
+        return previous;
+    }
+
+    /**
+     * Removes {@code key}.
+     *
+     * @param key
+     *            the key
+     *
+     * @return the removed value, or {@code null} if the key was absent
+     */
+    public V remove(Half key) {
+        return remove(Half.halfToShortBits(key));
+    }
+
+    /**
+     * Removes all keys.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        keys.clear();
+    }
+
+    /**
+     * Returns the short bits of all keys, in the order of {@link Half#compare(Half, Half)}.
+     *
+     * @return array of {@code half} short bits
+     */
+    public short[] keys() {
+        return keys.toShortBitsArray();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (short shortBits : keys()) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(Half.shortBitsToHalf(shortBits)).append('=').append(get(shortBits));
+        }
+        return sb.append('}').toString();
+    }
+
+    private static int index(short shortBits) {
+        return HalfUtil.canonicalShortBits(shortBits) & 0xffff;
+    }
+
+}
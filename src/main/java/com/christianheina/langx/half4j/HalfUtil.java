@@ -16,7 +16,9 @@
 
 package com.christianheina.langx.half4j;
 
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
 import java.util.Arrays;
 import java.util.List;
 
@@ -27,6 +29,18 @@ import java.util.List;
  */
 public class HalfUtil {
 
+    private static final char[] BASE64_DIGITS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/"
+            .toCharArray();
+    private static final int[] BASE64_VALUES = new int[128];
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    static {
+        Arrays.fill(BASE64_VALUES, -1);
+        for (int i = 0; i < BASE64_DIGITS.length; i++) {
+            BASE64_VALUES[BASE64_DIGITS[i]] = i;
+        }
+    }
+
     private HalfUtil() {
         /* Hidden Constructor */ }
 
@@ -34,25 +48,34 @@ public class HalfUtil {
      * Convert bytes to List of Half objects.<br>
      * If number of bytes is odd the last byte will be dropped.
      * 
+     * <p>
+     * The returned list is a fixed-size view backed by {@code bytes}; elements are decoded when accessed and changes
+     * made through {@link List#set(int, Object)} are written to {@code bytes}.
+     * 
      * @param bytes
      *            the bytes to convert.
      * 
      * @return List of Half objects.
      */
     public static List<Half> bytesToHalfList(byte... bytes) {
-        return bytesToHalfList(bytesToByteBuffer(bytes));
+        return bytesToHalfList(ByteBuffer.wrap(bytes));
     }
 
     /**
      * Convert ByteBuffer to List of Half objects.
      * 
+     * <p>
+     * The returned list is a fixed-size view of the remaining bytes of {@code buf}, using the byte order of
+     * {@code buf}. Elements are decoded when accessed and changes made through {@link List#set(int, Object)} are
+     * written to {@code buf}.
+     * 
      * @param buf
      *            the ByteBuffer to convert.
      * 
      * @return List of Half objects.
      */
     public static List<Half> bytesToHalfList(ByteBuffer buf) {
-        return Arrays.asList(bytesToHalfArray(buf));
+        return new HalfList(buf.asShortBuffer());
     }
 
     /**
@@ -86,6 +109,639 @@ public class HalfUtil {
         return halfArray;
     }
 
+    /**
+     * Convert {@code half} short bits to array of floats.
+     * 
+     * @param shortBits
+     *            the {@code half} short bits to convert.
+     * 
+     * @return array of floats.
+     */
+    public static float[] halfShortBitsToFloatArray(short... shortBits) {
+        float[] floatArray = new float[shortBits.length];
+        halfShortBitsToFloatArray(shortBits, 0, floatArray, 0, shortBits.length);
+        return floatArray;
+    }
+
+    /**
+     * Convert {@code length} {@code half} short bits starting at {@code srcPos} in {@code src} to floats stored
+     * starting at {@code dstPos} in {@code dst}.
+     * 
+     * @param src
+     *            the {@code half} short bits to convert.
+     * @param srcPos
+     *            starting position in the source array.
+     * @param dst
+     *            the destination array.
+     * @param dstPos
+     *            starting position in the destination array.
+     * @param length
+     *            the number of elements to convert.
+     * 
+     * @throws IndexOutOfBoundsException
+     *             if converting would cause access of data outside array bounds.
+     */
+    public static void halfShortBitsToFloatArray(short[] src, int srcPos, float[] dst, int dstPos, int length) {
+        checkBounds(src.length, srcPos, dst.length, dstPos, length);
+        boolean metrics = HalfMetrics.enabled;
+        Object event = metrics ? HalfMetrics.begin("halfShortBitsToFloatArray", HalfMetrics.Path.BULK, length) : null;
+        HalfConverter.getDecoder().decode(src, srcPos, dst, dstPos, length);
+        if (metrics) {
+            HalfMetrics.end(event);
+            HalfMetrics.converted(HalfMetrics.Path.BULK, length);
+        }
+    }
+
+    /**
+     * Convert floats to array of {@code half} short bits.
+     * 
+     * @param floats
+     *            the floats to convert.
+     * 
+     * @return array of {@code half} short bits.
+     */
+    public static short[] floatArrayToHalfShortBits(float... floats) {
+        short[] shortArray = new short[floats.length];
+        floatArrayToHalfShortBits(floats, 0, shortArray, 0, floats.length);
+        return shortArray;
+    }
+
+    /**
+     * Convert {@code length} floats starting at {@code srcPos} in {@code src} to {@code half} short bits stored
+     * starting at {@code dstPos} in {@code dst}.
+     * 
+     * @param src
+     *            the floats to convert.
+     * @param srcPos
+     *            starting position in the source array.
+     * @param dst
+     *            the destination array.
+     * @param dstPos
+     *            starting position in the destination array.
+     * @param length
+     *            the number of elements to convert.
+     * 
+     * @throws IndexOutOfBoundsException
+     *             if converting would cause access of data outside array bounds.
+     */
+    public static void floatArrayToHalfShortBits(float[] src, int srcPos, short[] dst, int dstPos, int length) {
+        checkBounds(src.length, srcPos, dst.length, dstPos, length);
+        boolean metrics = HalfMetrics.enabled;
+        Object event = metrics ? HalfMetrics.begin("floatArrayToHalfShortBits", HalfMetrics.Path.BULK, length) : null;
+        HalfConverter.getEncoder().encode(src, srcPos, dst, dstPos, length);
+        if (metrics) {
+            HalfMetrics.end(event);
+            HalfMetrics.converted(HalfMetrics.Path.BULK, length);
+            HalfMetrics.encoded(src, srcPos, dst, dstPos, length);
+        }
+    }
+
+    /**
+     * Convert floats to array of {@code half} short bits, like {@link #floatArrayToHalfShortBits(float...)}, and return
+     * statistics of the values that did not convert exactly.
+     * 
+     * @param floats
+     *            the floats to convert.
+     * @param dst
+     *            the destination array, at least as long as {@code floats}.
+     * 
+     * @return the statistics of the conversion.
+     * 
+     * @throws IndexOutOfBoundsException
+     *             if {@code dst} is shorter than {@code floats}.
+     */
+    public static HalfConversionStats floatArrayToHalfShortBitsChecked(float[] floats, short[] dst) {
+        return floatArrayToHalfShortBitsChecked(floats, 0, dst, 0, floats.length);
+    }
+
+    /**
+     * Convert {@code length} floats starting at {@code srcPos} in {@code src} to {@code half} short bits stored
+     * starting at {@code dstPos} in {@code dst}, like
+     * {@link #floatArrayToHalfShortBits(float[], int, short[], int, int)}, and return statistics of the overflows,
+     * underflows to zero, subnormal results and relative error of the conversion. The statistics are gathered in the
+     * same pass as the conversion.
+     * 
+     * @param src
+     *            the floats to convert.
+     * @param srcPos
+     *            starting position in the source array.
+     * @param dst
+     *            the destination array.
+     * @param dstPos
+     *            starting position in the destination array.
+     * @param length
+     *            the number of elements to convert.
+     * 
+     * @return the statistics of the conversion.
+     * 
+     * @throws IndexOutOfBoundsException
+     *             if converting would cause access of data outside array bounds.
+     */
+    public static HalfConversionStats floatArrayToHalfShortBitsChecked(float[] src, int srcPos, short[] dst, int dstPos,
+            int length) {
+        checkBounds(src.length, srcPos, dst.length, dstPos, length);
+        int nans = 0;
+        int overflows = 0;
+        int underflows = 0;
+        int subnormals = 0;
+        double maxRelativeError = 0;
+        for (int i = 0; i < length; i++) {
+            float value = src[srcPos + i];
+            short shortBits = Half.floatToHalfShortBits(value);
+            dst[dstPos + i] = shortBits;
+            int magnitude = shortBits & 0x7fff;
+            if (magnitude >= HalfConsts.EXP_BIT_MASK) {
+                // NaN or infinity, an overflow unless the input was infinite
+                nans += value != value ? 1 : 0;
+                overflows += magnitude == HalfConsts.EXP_BIT_MASK && !Float.isInfinite(value) ? 1 : 0;
+            } else if (value != 0) {
+                underflows += magnitude == 0 ? 1 : 0;
+                subnormals += magnitude != 0 && magnitude < 0x0400 ? 1 : 0;
+                double error = Math.abs((double) HalfFloatTable.toFloat(shortBits) - value) / Math.abs(value);
+                maxRelativeError = Math.max(maxRelativeError, error);
+            }
+        }
+        if (HalfMetrics.enabled) {
+            HalfMetrics.converted(HalfMetrics.Path.BULK, length);
+            HalfMetrics.add(nans, overflows, underflows, subnormals);
+        }
+        return new HalfConversionStats(length, nans, overflows, underflows, subnormals, maxRelativeError);
+    }
+
+    /**
+     * Encode {@code half} short bits as base64 of their little-endian bytes.
+     * 
+     * @param shortBits
+     *            the {@code half} short bits to encode.
+     * 
+     * @return padded base64 text.
+     */
+    public static String halfShortBitsToBase64(short... shortBits) {
+        char[] chars = new char[base64Length(shortBits.length)];
+        halfShortBitsToBase64(shortBits, 0, chars, 0, shortBits.length);
+        return new String(chars);
+    }
+
+    /**
+     * Encode {@code length} {@code half} short bits starting at {@code srcPos} in {@code src} as base64 of their
+     * little-endian bytes stored starting at {@code dstPos} in {@code dst}. Exactly
+     * <code>4 * ceil(2 * length / 3)</code> characters are written.
+     * 
+     * @param src
+     *            the {@code half} short bits to encode.
+     * @param srcPos
+     *            starting position in the source array.
+     * @param dst
+     *            the destination array.
+     * @param dstPos
+     *            starting position in the destination array.
+     * @param length
+     *            the number of elements to encode.
+     * 
+     * @return the number of characters written.
+     * 
+     * @throws IndexOutOfBoundsException
+     *             if encoding would cause access of data outside array bounds.
+     */
+    public static int halfShortBitsToBase64(short[] src, int srcPos, char[] dst, int dstPos, int length) {
+        int chars = base64Length(length);
+        checkBounds(src.length, srcPos, Integer.MAX_VALUE, 0, length);
+        checkBounds(Integer.MAX_VALUE, 0, dst.length, dstPos, chars);
+        int bytes = length * Half.BYTES;
+        for (int b = 0, d = dstPos; b < bytes; b += 3, d += 4) {
+            int group = byteAt(src, srcPos, b) << 16 | (b + 1 < bytes ? byteAt(src, srcPos, b + 1) << 8 : 0)
+                    | (b + 2 < bytes ? byteAt(src, srcPos, b + 2) : 0);
+            dst[d] = BASE64_DIGITS[group >>> 18];
+            dst[d + 1] = BASE64_DIGITS[(group >>> 12) & 0x3f];
+            dst[d + 2] = b + 1 < bytes ? BASE64_DIGITS[(group >>> 6) & 0x3f] : '=';
+            dst[d + 3] = b + 2 < bytes ? BASE64_DIGITS[group & 0x3f] : '=';
+        }
+        return chars;
+    }
+
+    /**
+     * Encode the remaining {@code half} short bits of {@code src} as base64 of their little-endian bytes stored
+     * starting at {@code dstPos} in {@code dst}. The position of {@code src} is advanced to its limit.
+     * 
+     * @param src
+     *            the {@code half} short bits to encode.
+     * @param dst
+     *            the destination array.
+     * @param dstPos
+     *            starting position in the destination array.
+     * 
+     * @return the number of characters written.
+     * 
+     * @throws IndexOutOfBoundsException
+     *             if encoding would cause access of data outside array bounds.
+     */
+    public static int halfShortBitsToBase64(ShortBuffer src, char[] dst, int dstPos) {
+        int length = src.remaining();
+        int chars;
+        if (src.hasArray()) {
+            chars = halfShortBitsToBase64(src.array(), src.arrayOffset() + src.position(), dst, dstPos, length);
+        } else {
+            chars = base64Length(length);
+            checkBounds(Integer.MAX_VALUE, 0, dst.length, dstPos, chars);
+            int srcPos = src.position();
+            int bytes = length * Half.BYTES;
+            for (int b = 0, d = dstPos; b < bytes; b += 3, d += 4) {
+                int group = byteAt(src, srcPos, b) << 16 | (b + 1 < bytes ? byteAt(src, srcPos, b + 1) << 8 : 0)
+                        | (b + 2 < bytes ? byteAt(src, srcPos, b + 2) : 0);
+                dst[d] = BASE64_DIGITS[group >>> 18];
+                dst[d + 1] = BASE64_DIGITS[(group >>> 12) & 0x3f];
+                dst[d + 2] = b + 1 < bytes ? BASE64_DIGITS[(group >>> 6) & 0x3f] : '=';
+                dst[d + 3] = b + 2 < bytes ? BASE64_DIGITS[group & 0x3f] : '=';
+            }
+        }
+        src.position(src.limit());
+        return chars;
+    }
+
+    /**
+     * Decode base64 of little-endian bytes to {@code half} short bits. Padding is optional.
+     * 
+     * @param base64
+     *            the base64 text to decode.
+     * 
+     * @return array of {@code half} short bits.
+     * 
+     * @throws IllegalArgumentException
+     *             if {@code base64} is not valid base64 of an even number of bytes.
+     */
+    public static short[] base64ToHalfShortBits(CharSequence base64) {
+        short[] shortBits = new short[base64DecodedLength(base64) / Half.BYTES];
+        base64ToHalfShortBits(base64, shortBits, 0);
+        return shortBits;
+    }
+
+    /**
+     * Decode base64 of little-endian bytes to {@code half} short bits stored starting at {@code dstPos} in {@code dst}.
+     * Padding is optional.
+     * 
+     * @param base64
+     *            the base64 text to decode.
+     * @param dst
+     *            the destination array.
+     * @param dstPos
+     *            starting position in the destination array.
+     * 
+     * @return the number of elements decoded.
+     * 
+     * @throws IllegalArgumentException
+     *             if {@code base64} is not valid base64 of an even number of bytes.
+     * @throws IndexOutOfBoundsException
+     *             if decoding would cause access of data outside array bounds.
+     */
+    public static int base64ToHalfShortBits(CharSequence base64, short[] dst, int dstPos) {
+        int bytes = base64DecodedLength(base64);
+        int length = bytes / Half.BYTES;
+        checkBounds(Integer.MAX_VALUE, 0, dst.length, dstPos, length);
+        for (int b = 0, c = 0; b < bytes; b += 3, c += 4) {
+            int group = base64Digit(base64, c) << 18 | base64Digit(base64, c + 1) << 12;
+            if (b + 1 < bytes) {
+                group |= base64Digit(base64, c + 2) << 6;
+            }
+            if (b + 2 < bytes) {
+                group |= base64Digit(base64, c + 3);
+            }
+            putByte(dst, dstPos, b, group >>> 16);
+            if (b + 1 < bytes) {
+                putByte(dst, dstPos, b + 1, group >>> 8);
+            }
+            if (b + 2 < bytes) {
+                putByte(dst, dstPos, b + 2, group);
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Decode base64 of little-endian bytes to {@code half} short bits put into {@code dst} starting at its position.
+     * Padding is optional.
+     * 
+     * @param base64
+     *            the base64 text to decode.
+     * @param dst
+     *            the destination buffer.
+     * 
+     * @return the number of elements decoded.
+     * 
+     * @throws IllegalArgumentException
+     *             if {@code base64} is not valid base64 of an even number of bytes.
+     * @throws java.nio.BufferOverflowException
+     *             if there is insufficient space in {@code dst}.
+     */
+    public static int base64ToHalfShortBits(CharSequence base64, ShortBuffer dst) {
+        int bytes = base64DecodedLength(base64);
+        int length = bytes / Half.BYTES;
+        if (dst.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        int dstPos = dst.position();
+        if (dst.hasArray()) {
+            base64ToHalfShortBits(base64, dst.array(), dst.arrayOffset() + dstPos);
+        } else {
+            for (int b = 0, c = 0; b < bytes; b += 3, c += 4) {
+                int group = base64Digit(base64, c) << 18 | base64Digit(base64, c + 1) << 12;
+                if (b + 1 < bytes) {
+                    group |= base64Digit(base64, c + 2) << 6;
+                }
+                if (b + 2 < bytes) {
+                    group |= base64Digit(base64, c + 3);
+                }
+                putByte(dst, dstPos, b, group >>> 16);
+                if (b + 1 < bytes) {
+                    putByte(dst, dstPos, b + 1, group >>> 8);
+                }
+                if (b + 2 < bytes) {
+                    putByte(dst, dstPos, b + 2, group);
+                }
+            }
+        }
+        dst.position(dstPos + length);
+        return length;
+    }
+
+    /**
+     * Encode {@code half} short bits as lowercase hexadecimal of their little-endian bytes.
+     * 
+     * @param shortBits
+     *            the {@code half} short bits to encode.
+     * 
+     * @return hexadecimal text.
+     */
+    public static String halfShortBitsToHex(short... shortBits) {
+        char[] chars = new char[shortBits.length * 4];
+        halfShortBitsToHex(shortBits, 0, chars, 0, shortBits.length);
+        return new String(chars);
+    }
+
+    /**
+     * Encode {@code length} {@code half} short bits starting at {@code srcPos} in {@code src} as lowercase hexadecimal
+     * of their little-endian bytes stored starting at {@code dstPos} in {@code dst}. Exactly {@code 4 * length}
+     * characters are written.
+     * 
+     * @param src
+     *            the {@code half} short bits to encode.
+     * @param srcPos
+     *            starting position in the source array.
+     * @param dst
+     *            the destination array.
+     * @param dstPos
+     *            starting position in the destination array.
+     * @param length
+     *            the number of elements to encode.
+     * 
+     * @return the number of characters written.
+     * 
+     * @throws IndexOutOfBoundsException
+     *             if encoding would cause access of data outside array bounds.
+     */
+    public static int halfShortBitsToHex(short[] src, int srcPos, char[] dst, int dstPos, int length) {
+        checkBounds(src.length, srcPos, Integer.MAX_VALUE, 0, length);
+        checkBounds(Integer.MAX_VALUE, 0, dst.length, dstPos, length * 4);
+        for (int i = 0; i < length; i++) {
+            putHex(src[srcPos + i], dst, dstPos + i * 4);
+        }
+        return length * 4;
+    }
+
+    /**
+     * Encode the remaining {@code half} short bits of {@code src} as lowercase hexadecimal of their little-endian bytes
+     * stored starting at {@code dstPos} in {@code dst}. The position of {@code src} is advanced to its limit.
+     * 
+     * @param src
+     *            the {@code half} short bits to encode.
+     * @param dst
+     *            the destination array.
+     * @param dstPos
+     *            starting position in the destination array.
+     * 
+     * @return the number of characters written.
+     * 
+     * @throws IndexOutOfBoundsException
+     *             if encoding would cause access of data outside array bounds.
+     */
+    public static int halfShortBitsToHex(ShortBuffer src, char[] dst, int dstPos) {
+        int length = src.remaining();
+        checkBounds(Integer.MAX_VALUE, 0, dst.length, dstPos, length * 4);
+        for (int i = 0; i < length; i++) {
+            putHex(src.get(), dst, dstPos + i * 4);
+        }
+        return length * 4;
+    }
+
+    /**
+     * Decode hexadecimal of little-endian bytes to {@code half} short bits. Both upper and lowercase digits are
+     * accepted.
+     * 
+     * @param hex
+     *            the hexadecimal text to decode.
+     * 
+     * @return array of {@code half} short bits.
+     * 
+     * @throws IllegalArgumentException
+     *             if {@code hex} is not hexadecimal of an even number of bytes.
+     */
+    public static short[] hexToHalfShortBits(CharSequence hex) {
+        short[] shortBits = new short[hexDecodedLength(hex)];
+        hexToHalfShortBits(hex, shortBits, 0);
+        return shortBits;
+    }
+
+    /**
+     * Decode hexadecimal of little-endian bytes to {@code half} short bits stored starting at {@code dstPos} in
+     * {@code dst}. Both upper and lowercase digits are accepted.
+     * 
+     * @param hex
+     *            the hexadecimal text to decode.
+     * @param dst
+     *            the destination array.
+     * @param dstPos
+     *            starting position in the destination array.
+     * 
+     * @return the number of elements decoded.
+     * 
+     * @throws IllegalArgumentException
+     *             if {@code hex} is not hexadecimal of an even number of bytes.
+     * @throws IndexOutOfBoundsException
+     *             if decoding would cause access of data outside array bounds.
+     */
+    public static int hexToHalfShortBits(CharSequence hex, short[] dst, int dstPos) {
+        int length = hexDecodedLength(hex);
+        checkBounds(Integer.MAX_VALUE, 0, dst.length, dstPos, length);
+        for (int i = 0; i < length; i++) {
+            dst[dstPos + i] = hexValue(hex, i * 4);
+        }
+        return length;
+    }
+
+    /**
+     * Decode hexadecimal of little-endian bytes to {@code half} short bits put into {@code dst} starting at its
+     * position. Both upper and lowercase digits are accepted.
+     * 
+     * @param hex
+     *            the hexadecimal text to decode.
+     * @param dst
+     *            the destination buffer.
+     * 
+     * @return the number of elements decoded.
+     * 
+     * @throws IllegalArgumentException
+     *             if {@code hex} is not hexadecimal of an even number of bytes.
+     * @throws java.nio.BufferOverflowException
+     *             if there is insufficient space in {@code dst}.
+     */
+    public static int hexToHalfShortBits(CharSequence hex, ShortBuffer dst) {
+        int length = hexDecodedLength(hex);
+        if (dst.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        for (int i = 0; i < length; i++) {
+            dst.put(hexValue(hex, i * 4));
+        }
+        return length;
+    }
+
+    /**
+     * Returns the canonical short bits of a {@code half} value: every NaN is collapsed to {@code 0x7e00}, like
+     * {@link Half#halfToShortBits(Half)}, and all other values are returned unchanged. Two {@code half} values are
+     * {@link Half#equals(Object) equal} exactly when their canonical short bits are equal, so in particular positive
+     * and negative zero are distinct.
+     * 
+     * @param shortBits
+     *            the {@code half} short bits.
+     * 
+     * @return the canonical short bits.
+     */
+    public static short canonicalShortBits(short shortBits) {
+        return (shortBits & 0x7fff) > HalfConsts.EXP_BIT_MASK ? (short) 0x7e00 : shortBits;
+    }
+
+    /**
+     * Compares two {@code half} values given as short bits, without converting them, in the order of
+     * {@link Half#compare(Half, Half)}: negative zero is less than positive zero, and NaN is equal to itself and
+     * greater than every other value including positive infinity. May be used as a comparator of {@code Short} short
+     * bits with {@code HalfUtil::compareShortBits}.
+     * 
+     * @param shortBits1
+     *            the first {@code half} short bits.
+     * @param shortBits2
+     *            the second {@code half} short bits.
+     * 
+     * @return a negative integer, zero, or a positive integer as the first value is less than, equal to, or greater
+     *         than the second.
+     */
+    public static int compareShortBits(short shortBits1, short shortBits2) {
+        return Integer.compare(sortKey(shortBits1), sortKey(shortBits2));
+    }
+
+    /**
+     * Returns a key whose integer order is the order of {@link Half#compare(Half, Half)}.
+     */
+    private static int sortKey(short shortBits) {
+        int bits = canonicalShortBits(shortBits);
+        return bits < 0 ? 0x7fff - (bits & 0x7fff) : bits + 0x8000;
+    }
+
+    static void checkBounds(int srcLength, int srcPos, int dstLength, int dstPos, int length) {
+        if (srcPos < 0 || dstPos < 0 || length < 0 || srcPos > srcLength - length || dstPos > dstLength - length) {
+            throw new IndexOutOfBoundsException("srcPos: " + srcPos + ", dstPos: " + dstPos + ", length: " + length);
+        }
+    }
+
+    private static int base64Length(int length) {
+        return (length * Half.BYTES + 2) / 3 * 4;
+    }
+
+    private static int base64DecodedLength(CharSequence base64) {
+        int chars = base64.length();
+        if (chars > 0 && base64.charAt(chars - 1) == '=') {
+            if (chars % 4 != 0) {
+                throw new IllegalArgumentException("Invalid base64 padding");
+            }
+            chars -= base64.charAt(chars - 2) == '=' ? 2 : 1;
+        }
+        if (chars % 4 == 1) {
+            throw new IllegalArgumentException("Invalid base64 length " + base64.length());
+        }
+        int bytes = chars / 4 * 3 + (chars % 4 == 0 ? 0 : chars % 4 - 1);
+        if (bytes % Half.BYTES != 0) {
+            throw new IllegalArgumentException("Odd number of bytes in base64");
+        }
+        return bytes;
+    }
+
+    private static int base64Digit(CharSequence base64, int index) {
+        char c = base64.charAt(index);
+        int value = c < BASE64_VALUES.length ? BASE64_VALUES[c] : -1;
+        if (value < 0) {
+            throw new IllegalArgumentException("Invalid base64 character '" + c + "' at index " + index);
+        }
+        return value;
+    }
+
+    private static int byteAt(short[] src, int srcPos, int byteIndex) {
+        short value = src[srcPos + (byteIndex >>> 1)];
+        return (byteIndex & 1) == 0 ? value & 0xff : (value >>> 8) & 0xff;
+    }
+
+    private static int byteAt(ShortBuffer src, int srcPos, int byteIndex) {
+        short value = src.get(srcPos + (byteIndex >>> 1));
+        return (byteIndex & 1) == 0 ? value & 0xff : (value >>> 8) & 0xff;
+    }
+
+    private static void putByte(short[] dst, int dstPos, int byteIndex, int value) {
+        int index = dstPos + (byteIndex >>> 1);
+        if ((byteIndex & 1) == 0) {
+            dst[index] = (short) (value & 0xff);
+        } else {
+            dst[index] |= (short) ((value & 0xff) << 8);
+        }
+    }
+
+    private static void putByte(ShortBuffer dst, int dstPos, int byteIndex, int value) {
+        int index = dstPos + (byteIndex >>> 1);
+        if ((byteIndex & 1) == 0) {
+            dst.put(index, (short) (value & 0xff));
+        } else {
+            dst.put(index, (short) (dst.get(index) | (value & 0xff) << 8));
+        }
+    }
+
+    private static void putHex(short value, char[] dst, int dstPos) {
+        dst[dstPos] = HEX_DIGITS[(value >>> 4) & 0xf];
+        dst[dstPos + 1] = HEX_DIGITS[value & 0xf];
+        dst[dstPos + 2] = HEX_DIGITS[(value >>> 12) & 0xf];
+        dst[dstPos + 3] = HEX_DIGITS[(value >>> 8) & 0xf];
+    }
+
+    private static int hexDecodedLength(CharSequence hex) {
+        if (hex.length() % 4 != 0) {
+            throw new IllegalArgumentException("Invalid hex length " + hex.length());
+        }
+        return hex.length() / 4;
+    }
+
+    private static short hexValue(CharSequence hex, int index) {
+        int low = hexDigit(hex, index) << 4 | hexDigit(hex, index + 1);
+        int high = hexDigit(hex, index + 2) << 4 | hexDigit(hex, index + 3);
+        return (short) (high << 8 | low);
+    }
+
+    private static int hexDigit(CharSequence hex, int index) {
+        char c = hex.charAt(index);
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        } else if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        } else if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        throw new IllegalArgumentException("Invalid hex character '" + c + "' at index " + index);
+    }
+
     private static ByteBuffer bytesToByteBuffer(byte... bytes) {
         ByteBuffer buf = ByteBuffer.allocate(bytes.length);
         buf.put(bytes);
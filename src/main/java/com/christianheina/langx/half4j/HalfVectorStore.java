@@ -0,0 +1,244 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * A store of fixed dimension vectors of {@code half} values, held in row-major order in a {@link HalfMappedArray}, with
+ * exact nearest neighbour search.
+ *
+ * <p>
+ * The vectors are never converted to {@link Half} objects. A search converts the query to {@code float} once and reads
+ * the vectors in blocks of short bits, which are reduced against the query by the {@link HalfArrays} kernels. Searches
+ * of large stores are performed in parallel over ranges of vectors using the common {@link ForkJoinPool}, each range
+ * keeping its own {@code k} nearest vectors, which are merged at the end.
+ *
+ * <p>
+ * The id of a vector is its row index. Instances are safe for concurrent searches as long as the underlying values are
+ * not modified. See {@link HalfIvfIndex} for approximate search that does not visit every vector.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class HalfVectorStore {
+
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int BLOCK_ELEMENTS = 1 << 14;
+    private static final int TASKS_PER_THREAD = 4;
+
+    private final HalfMappedArray data;
+    private final int dimension;
+    private final long size;
+
+    /**
+     * Creates a store of the vectors held in {@code data} in row-major order.
+     *
+     * @param data
+     *            the {@code half} values of the vectors
+     * @param dimension
+     *            the number of values of each vector
+     *
+     * @throws IllegalArgumentException
+     *             if the dimension is not positive or the number of values is not a multiple of it
+     */
+    public HalfVectorStore(HalfMappedArray data, int dimension) {
+        if (dimension <= 0 || data.size() % dimension != 0) {
+            throw new IllegalArgumentException("Invalid dimension " + dimension + " for " + data.size() + " values");
+        }
+        this.data = data;
+        this.dimension = dimension;
+        this.size = data.size() / dimension;
+    }
+
+    /**
+     * Creates a store of the vectors held in {@code shortBits} in row-major order. The short bits are copied.
+     *
+     * @param shortBits
+     *            the {@code half} short bits of the vectors
+     * @param dimension
+     *            the number of values of each vector
+     *
+     * @return the store
+     *
+     * @throws IllegalArgumentException
+     *             if the dimension is not positive or the number of values is not a multiple of it
+     */
+    public static HalfVectorStore of(short[] shortBits, int dimension) {
+        ByteBuffer buf = ByteBuffer.allocate(shortBits.length * Half.BYTES).order(ByteOrder.nativeOrder());
+        buf.asShortBuffer().put(shortBits);
+        return new HalfVectorStore(HalfMappedArray.wrap(buf), dimension);
+    }
+
+    /**
+     * Creates a store of the rows of a two-dimensional C order array, such as an array memory mapped by
+     * {@link HalfNpy#read(java.nio.file.Path)}.
+     *
+     * @param npy
+     *            the array, one vector per row
+     *
+     * @return the store
+     *
+     * @throws IllegalArgumentException
+     *             if the array is not two-dimensional or is in Fortran order
+     */
+    public static HalfVectorStore of(HalfNpy npy) {
+        long[] shape = npy.getShape();
+        if (shape.length != 2 || npy.isFortranOrder() || shape[1] <= 0 || shape[1] > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Expected a two-dimensional C order array");
+        }
+        return new HalfVectorStore(npy.getData(), (int) shape[1]);
+    }
+
+    /**
+     * Returns the number of vectors.
+     *
+     * @return the number of vectors
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of values of each vector.
+     *
+     * @return the dimension
+     */
+    public int dimension() {
+        return dimension;
+    }
+
+    /**
+     * Returns the values of the vectors in row-major order.
+     *
+     * @return the values
+     */
+    public HalfMappedArray getData() {
+        return data;
+    }
+
+    /**
+     * Returns the {@code half} short bits of a vector.
+     *
+     * @param id
+     *            the id of the vector
+     *
+     * @return the short bits of the vector
+     *
+     * @throws IndexOutOfBoundsException
+     *             if there is no vector with the given id
+     */
+    public short[] getVector(long id) {
+        short[] vector = new short[dimension];
+        getVector(id, vector, 0);
+        return vector;
+    }
+
+    /**
+     * Copies the {@code half} short bits of a vector to {@code dst} starting at {@code dstPos}.
+     *
+     * @param id
+     *            the id of the vector
+     * @param dst
+     *            the destination array
+     * @param dstPos
+     *            starting position in the destination array
+     *
+     * @throws IndexOutOfBoundsException
+     *             if there is no vector with the given id or copying would cause access of data outside array bounds
+     */
+    public void getVector(long id, short[] dst, int dstPos) {
+        checkId(id);
+        data.get(id * dimension, dst, dstPos, dimension);
+    }
+
+    /**
+     * Returns the {@code k} vectors nearest to {@code query}, visiting every vector.
+     *
+     * @param query
+     *            the {@code half} short bits of the query vector
+     * @param k
+     *            the maximum number of neighbours to return
+     * @param metric
+     *            the distance between vectors
+     *
+     * @return the nearest vectors, nearest first
+     *
+     * @throws IllegalArgumentException
+     *             if the query does not have the dimension of the store or {@code k} is negative
+     */
+    public HalfNeighbors search(short[] query, int k, HalfMetric metric) {
+        HalfArrays.checkLength(query.length, dimension);
+        float[] prepared = metric.prepare(query);
+        int rowsPerBlock = rowsPerBlock();
+        long blocks = (size + rowsPerBlock - 1) / rowsPerBlock;
+        int tasks = size * dimension < PARALLEL_THRESHOLD ? 1
+                : (int) Math.min(blocks, (long) ForkJoinPool.getCommonPoolParallelism() * TASKS_PER_THREAD);
+        if (tasks <= 1) {
+            TopK topK = new TopK(k, size);
+            scan(prepared, metric, 0, size, topK);
+            return topK.toNeighbors();
+        }
+        return IntStream.range(0, tasks).parallel().mapToObj(task -> {
+            TopK topK = new TopK(k, size);
+            scan(prepared, metric, blocks * task / tasks * rowsPerBlock,
+                    Math.min(size, blocks * (task + 1) / tasks * rowsPerBlock), topK);
+            return topK;
+        }).reduce(TopK::merge).get().toNeighbors();
+    }
+
+    /**
+     * Offers the vectors with ids {@code from} inclusive to {@code to} exclusive to {@code topK}.
+     */
+    void scan(float[] prepared, HalfMetric metric, long from, long to, TopK topK) {
+        int rowsPerBlock = rowsPerBlock();
+        short[] block = HalfScratch.acquireShorts((int) Math.min(rowsPerBlock, to - from) * dimension);
+        try {
+            for (long row = from; row < to; row += rowsPerBlock) {
+                int rows = (int) Math.min(rowsPerBlock, to - row);
+                data.get(row * dimension, block, 0, rows * dimension);
+                for (int i = 0; i < rows; i++) {
+                    topK.offer(row + i, metric.distance(prepared, block, i * dimension, dimension));
+                }
+            }
+        } finally {
+            HalfScratch.release(block);
+        }
+    }
+
+    /**
+     * Returns the distance between a prepared query and a vector, using {@code scratch} of at least the dimension of
+     * the store to read the vector.
+     */
+    float distance(float[] prepared, HalfMetric metric, long id, short[] scratch) {
+        data.get(id * dimension, scratch, 0, dimension);
+        return metric.distance(prepared, scratch, 0, dimension);
+    }
+
+    private int rowsPerBlock() {
+        return Math.max(1, BLOCK_ELEMENTS / dimension);
+    }
+
+    private void checkId(long id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Id " + id + " out of bounds for size " + size);
+        }
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * The k-means clustering used to train the centroids of {@link HalfIvfIndex} and the codebooks of
+ * {@link HalfProductQuantizer}. Samples and centroids are held as {@code half} short bits, means are accumulated in
+ * {@code float}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+final class KMeans {
+
+    private KMeans() {
+        /* Hidden Constructor */ }
+
+    /**
+     * Returns {@code count} distinct vectors of a store, in random order.
+     */
+    static short[] sample(HalfVectorStore store, int count, Random random) {
+        int dimension = store.dimension();
+        long size = store.size();
+        short[] sample = new short[count * dimension];
+        // Floyd's algorithm picks count distinct ids, which are then shuffled
+        long[] picked = new long[count];
+        Set<Long> seen = new HashSet<>();
+        for (long j = size - count, i = 0; j < size; j++, i++) {
+            long id = (long) (random.nextDouble() * (j + 1));
+            picked[(int) i] = seen.add(id) ? id : j;
+            seen.add(picked[(int) i]);
+        }
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long tmp = picked[i];
+            picked[i] = picked[j];
+            picked[j] = tmp;
+        }
+        for (int i = 0; i < count; i++) {
+            store.getVector(picked[i], sample, i * dimension);
+        }
+        return sample;
+    }
+
+    /**
+     * Trains {@code clusters} centroids on a sample in random order, initialized with its first vectors. The metric is
+     * {@link HalfMetric#L2}, or {@link HalfMetric#COSINE} for spherical k-means with normalized centroids.
+     */
+    static short[] train(short[] sample, int dimension, int clusters, int iterations, HalfMetric metric,
+            Random random) {
+        int sampleSize = sample.length / dimension;
+        short[] centroids = new short[clusters * dimension];
+        System.arraycopy(sample, 0, centroids, 0, Math.min(clusters, sampleSize) * dimension);
+
+        int[] assignment = new int[sampleSize];
+        float[] sums = new float[clusters * dimension];
+        int[] counts = new int[clusters];
+        float[] mean = new float[dimension];
+        for (int iteration = 0; iteration < iterations && sampleSize > clusters; iteration++) {
+            IntStream.range(0, sampleSize).parallel().forEach(i -> assignment[i] = nearest(metric,
+                    metric.prepare(toFloat(sample, i * dimension, dimension)), centroids, 0, clusters, dimension));
+            Arrays.fill(sums, 0f);
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < sampleSize; i++) {
+                int c = assignment[i];
+                counts[c]++;
+                for (int j = 0; j < dimension; j++) {
+                    sums[c * dimension + j] += HalfFloatTable.toFloat(sample[i * dimension + j]);
+                }
+            }
+            for (int c = 0; c < clusters; c++) {
+                if (counts[c] == 0) {
+                    // reseed an empty cluster with a random sampled vector
+                    System.arraycopy(sample, random.nextInt(sampleSize) * dimension, centroids, c * dimension,
+                            dimension);
+                    continue;
+                }
+                for (int j = 0; j < dimension; j++) {
+                    mean[j] = sums[c * dimension + j] / counts[c];
+                }
+                HalfUtil.floatArrayToHalfShortBits(metric.prepare(mean), 0, centroids, c * dimension, dimension);
+            }
+        }
+        return centroids;
+    }
+
+    /**
+     * Returns the index of the centroid nearest to a prepared vector, among {@code count} centroids starting at
+     * {@code offset}.
+     */
+    static int nearest(HalfMetric metric, float[] prepared, short[] centroids, int offset, int count, int dimension) {
+        int nearest = 0;
+        float nearestDistance = Float.POSITIVE_INFINITY;
+        for (int c = 0; c < count; c++) {
+            float distance = metric.distance(prepared, centroids, offset + c * dimension, dimension);
+            if (distance < nearestDistance) {
+                nearest = c;
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+
+    static float[] toFloat(short[] src, int srcPos, int length) {
+        float[] dst = new float[length];
+        HalfUtil.halfShortBitsToFloatArray(src, srcPos, dst, 0, length);
+        return dst;
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * The serialization proxy of {@link Half}.
+ *
+ * <p>
+ * The value is written in the compact form of {@link HalfSerialization}, two bytes for every value representable in
+ * {@code half} precision. On deserialization the proxy resolves to the equal {@code Half} constant, if there is one.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+final class Ser implements Externalizable {
+
+    private static final long serialVersionUID = -2484418710340916346L;
+
+    /**
+     * The value being serialized.
+     */
+    private Half half;
+
+    /**
+     * Constructor for deserialization.
+     */
+    public Ser() {
+        super();
+    }
+
+    Ser(Half half) {
+        this.half = half;
+    }
+
+    /**
+     * Writes the value in its compact form.
+     *
+     * @serialData the compact form of the value, see {@link HalfSerialization}
+     */
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        HalfSerialization.writeHalf(out, half);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        half = HalfSerialization.readHalf(in);
+    }
+
+    private Object readResolve() {
+        return half;
+    }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+/**
+ * A bounded max-heap keeping the {@code k} nearest of the candidates offered to it, ordered by distance and then id.
+ * Candidates with a NaN distance are ignored.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+final class TopK {
+
+    private final int k;
+    private final long[] ids;
+    private final float[] distances;
+    private int size;
+
+    TopK(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Negative k " + k);
+        }
+        this.k = k;
+        this.ids = new long[k];
+        this.distances = new float[k];
+    }
+
+    /**
+     * Creates a heap for the {@code k} nearest of at most {@code candidates} candidates, so that a {@code k} far larger
+     * than the number of candidates does not allocate for results that can never be found.
+     */
+    TopK(int k, long candidates) {
+        this((int) Math.min(k, candidates));
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isFull() {
+        return size == k;
+    }
+
+    /**
+     * Returns the distance of the farthest kept candidate, or positive infinity if fewer than {@code k} are kept.
+     */
+    float worstDistance() {
+        return size < k ? Float.POSITIVE_INFINITY : distances[0];
+    }
+
+    /**
+     * Offers a candidate and returns whether it was kept.
+     */
+    boolean offer(long id, float distance) {
+        if (Float.isNaN(distance) || k == 0) {
+            return false;
+        }
+        if (size < k) {
+            int i = size++;
+            // sift up
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!farther(distance, id, distances[parent], ids[parent])) {
+                    break;
+                }
+                ids[i] = ids[parent];
+                distances[i] = distances[parent];
+                i = parent;
+            }
+            ids[i] = id;
+            distances[i] = distance;
+            return true;
+        }
+        if (!farther(distances[0], ids[0], distance, id)) {
+            return false;
+        }
+        siftDown(id, distance, size);
+        return true;
+    }
+
+    TopK merge(TopK other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.ids[i], other.distances[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Empties the heap into a result ordered from nearest to farthest.
+     */
+    HalfNeighbors toNeighbors() {
+        long[] sortedIds = new long[size];
+        float[] sortedDistances = new float[size];
+        while (size > 0) {
+            int last = --size;
+            sortedIds[last] = ids[0];
+            sortedDistances[last] = distances[0];
+            siftDown(ids[last], distances[last], last);
+        }
+        return new HalfNeighbors(sortedIds, sortedDistances);
+    }
+
+    private void siftDown(long id, float distance, int length) {
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= length) {
+                break;
+            }
+            if (child + 1 < length && farther(distances[child + 1], ids[child + 1], distances[child], ids[child])) {
+                child++;
+            }
+            if (!farther(distances[child], ids[child], distance, id)) {
+                break;
+            }
+            ids[i] = ids[child];
+            distances[i] = distances[child];
+            i = child;
+        }
+        ids[i] = id;
+        distances[i] = distance;
+    }
+
+    private static boolean farther(float distanceA, long idA, float distanceB, long idB) {
+        return distanceA > distanceB || distanceA == distanceB && idA > idB;
+    }
+
+}
@@ -0,0 +1,374 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Objects;
+
+/**
+ * A {@code long} indexed view of {@code half} values stored in a {@link MemorySegment}, such as native memory shared
+ * with a native inference runtime or a memory-mapped file.
+ *
+ * <p>
+ * Unlike {@link HalfMappedArray} a segment is not limited to 2 GB, and its lifetime is that of the {@link Arena} that
+ * allocated or mapped it: accessing the view after the arena is closed throws {@link IllegalStateException}. Values are
+ * accessed with {@link ValueLayout#JAVA_SHORT_UNALIGNED} in the byte order of the view, so the segment needs no
+ * particular alignment. Bulk conversions to and from {@code float} copy the short bits in blocks and convert them with
+ * the implementation bound by {@link HalfConverter}.
+ *
+ * <p>
+ * This class uses the Foreign Function and Memory API and requires Java 22 or later.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+public class HalfSegment {
+
+    private static final int BLOCK_LENGTH = 1 << 12;
+
+    private final MemorySegment segment;
+    private final ValueLayout.OfShort layout;
+    private final long size;
+
+    private HalfSegment(MemorySegment segment, ByteOrder order) {
+        this.segment = segment;
+        this.layout = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(order);
+        this.size = segment.byteSize() / Half.BYTES;
+    }
+
+    /**
+     * Returns a view of the {@code half} values in {@code segment}. If the size of the segment is odd the last byte is
+     * ignored.
+     *
+     * @param segment
+     *            the segment to view
+     * @param order
+     *            the byte order of the values in the segment
+     *
+     * @return a view of the values in {@code segment}
+     */
+    public static HalfSegment of(MemorySegment segment, ByteOrder order) {
+        return new HalfSegment(Objects.requireNonNull(segment), Objects.requireNonNull(order));
+    }
+
+    /**
+     * Allocates a zeroed segment of {@code size} {@code half} values in {@code arena}.
+     *
+     * @param arena
+     *            the arena that owns the segment
+     * @param size
+     *            the number of {@code half} values
+     * @param order
+     *            the byte order of the values
+     *
+     * @return a view of the allocated values
+     *
+     * @throws IllegalArgumentException
+     *             if {@code size} is negative
+     */
+    public static HalfSegment allocate(Arena arena, long size, ByteOrder order) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size must not be negative: " + size);
+        }
+        return of(arena.allocate(size * Half.BYTES, Half.BYTES), order);
+    }
+
+    /**
+     * Maps {@code size} {@code half} values starting at byte {@code position} of a file into a segment owned by
+     * {@code arena}. The mapping is not limited to 2 GB and is unmapped when the arena is closed.
+     *
+     * @param channel
+     *            the file channel to map
+     * @param mode
+     *            the map mode, {@link MapMode#READ_ONLY} or {@link MapMode#READ_WRITE}
+     * @param position
+     *            the byte position in the file at which the values start
+     * @param size
+     *            the number of {@code half} values to map
+     * @param order
+     *            the byte order of the values in the file
+     * @param arena
+     *            the arena that owns the mapping
+     *
+     * @return a view of the mapped values
+     *
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public static HalfSegment map(FileChannel channel, MapMode mode, long position, long size, ByteOrder order,
+            Arena arena) throws IOException {
+        return of(channel.map(mode, position, size * Half.BYTES, arena), order);
+    }
+
+    /**
+     * Returns the number of {@code half} values.
+     *
+     * @return the number of values
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the byte order of the values in the segment.
+     *
+     * @return the byte order
+     */
+    public ByteOrder order() {
+        return layout.order();
+    }
+
+    /**
+     * Returns the underlying segment.
+     *
+     * @return the segment
+     */
+    public MemorySegment segment() {
+        return segment;
+    }
+
+    /**
+     * Returns the short bits of the value at {@code index}.
+     *
+     * @param index
+     *            the index of the value
+     *
+     * @return the {@code half} short bits
+     *
+     * @throws IndexOutOfBoundsException
+     *             if {@code index} is negative or not less than {@link #size()}
+     */
+    public short getShortBits(long index) {
+        return segment.get(layout, Objects.checkIndex(index, size) * Half.BYTES);
+    }
+
+    /**
+     * Returns the value at {@code index}.
+     *
+     * @param index
+     *            the index of the value
+     *
+     * @return the {@code Half} value
+     *
+     * @throws IndexOutOfBoundsException
+     *             if {@code index} is negative or not less than {@link #size()}
+     */
+    public Half get(long index) {
+        return Half.shortBitsToHalf(getShortBits(index));
+    }
+
+    /**
+     * Returns the value at {@code index} as a {@code float}.
+     *
+     * @param index
+     *            the index of the value
+     *
+     * @return the {@code float} value
+     *
+     * @throws IndexOutOfBoundsException
+     *             if {@code index} is negative or not less than {@link #size()}
+     */
+    public float getFloat(long index) {
+        return Half.halfShortToFloat(getShortBits(index));
+    }
+
+    /**
+     * Sets the short bits of the value at {@code index}.
+     *
+     * @param index
+     *            the index of the value
+     * @param shortBits
+     *            the {@code half} short bits
+     *
+     * @throws IndexOutOfBoundsException
+     *             if {@code index} is negative or not less than {@link #size()}
+     * @throws IllegalArgumentException
+     *             if the segment is read-only
+     */
+    public void setShortBits(long index, short shortBits) {
+        segment.set(layout, Objects.checkIndex(index, size) * Half.BYTES, shortBits);
+    }
+
+    /**
+     * Sets the value at {@code index} to a {@code float} converted to {@code half}.
+     *
+     * @param index
+     *            the index of the value
+     * @param floatValue
+     *            the value to set
+     *
+     * @throws IndexOutOfBoundsException
+     *             if {@code index} is negative or not less than {@link #size()}
+     * @throws IllegalArgumentException
+     *             if the segment is read-only
+     */
+    public void setFloat(long index, float floatValue) {
+        setShortBits(index, Half.floatToHalfShortBits(floatValue));
+    }
+
+    /**
+     * Copies {@code length} values starting at {@code index} into {@code dst} starting at {@code dstPos}.
+     *
+     * @param index
+     *            the index of the first value
+     * @param dst
+     *            the destination array
+     * @param dstPos
+     *            starting position in the destination array
+     * @param length
+     *            the number of values to copy
+     *
+     * @throws IndexOutOfBoundsException
+     *             if copying would cause access of data outside the view or array bounds
+     */
+    public void get(long index, short[] dst, int dstPos, int length) {
+        checkRange(index, length, dstPos, dst.length);
+        MemorySegment.copy(segment, layout, index * Half.BYTES, dst, dstPos, length);
+    }
+
+    /**
+     * Converts {@code length} values starting at {@code index} to {@code float} and stores them in {@code dst} starting
+     * at {@code dstPos}.
+     *
+     * @param index
+     *            the index of the first value
+     * @param dst
+     *            the destination array
+     * @param dstPos
+     *            starting position in the destination array
+     * @param length
+     *            the number of values to convert
+     *
+     * @throws IndexOutOfBoundsException
+     *             if converting would cause access of data outside the view or array bounds
+     */
+    public void get(long index, float[] dst, int dstPos, int length) {
+        checkRange(index, length, dstPos, dst.length);
+        short[] block = HalfScratch.acquireShorts(Math.min(length, BLOCK_LENGTH));
+        try {
+            for (int i = 0; i < length; i += BLOCK_LENGTH) {
+                int n = Math.min(length - i, BLOCK_LENGTH);
+                MemorySegment.copy(segment, layout, (index + i) * Half.BYTES, block, 0, n);
+                HalfConverter.getDecoder().decode(block, 0, dst, dstPos + i, n);
+            }
+        } finally {
+            HalfScratch.release(block);
+        }
+    }
+
+    /**
+     * Copies {@code length} short bits from {@code src} starting at {@code srcPos} to this view starting at
+     * {@code index}.
+     *
+     * @param index
+     *            the index of the first value to write
+     * @param src
+     *            the source array
+     * @param srcPos
+     *            starting position in the source array
+     * @param length
+     *            the number of values to copy
+     *
+     * @throws IndexOutOfBoundsException
+     *             if copying would cause access of data outside the view or array bounds
+     * @throws IllegalArgumentException
+     *             if the segment is read-only
+     */
+    public void put(long index, short[] src, int srcPos, int length) {
+        checkRange(index, length, srcPos, src.length);
+        MemorySegment.copy(src, srcPos, segment, layout, index * Half.BYTES, length);
+    }
+
+    /**
+     * Converts {@code length} floats from {@code src} starting at {@code srcPos} to {@code half} and stores them in
+     * this view starting at {@code index}.
+     *
+     * @param index
+     *            the index of the first value to write
+     * @param src
+     *            the source array
+     * @param srcPos
+     *            starting position in the source array
+     * @param length
+     *            the number of values to convert
+     *
+     * @throws IndexOutOfBoundsException
+     *             if converting would cause access of data outside the view or array bounds
+     * @throws IllegalArgumentException
+     *             if the segment is read-only
+     */
+    public void put(long index, float[] src, int srcPos, int length) {
+        checkRange(index, length, srcPos, src.length);
+        short[] block = HalfScratch.acquireShorts(Math.min(length, BLOCK_LENGTH));
+        try {
+            for (int i = 0; i < length; i += BLOCK_LENGTH) {
+                int n = Math.min(length - i, BLOCK_LENGTH);
+                HalfConverter.getEncoder().encode(src, srcPos + i, block, 0, n);
+                MemorySegment.copy(block, 0, segment, layout, (index + i) * Half.BYTES, n);
+            }
+        } finally {
+            HalfScratch.release(block);
+        }
+    }
+
+    /**
+     * Returns all values converted to {@code float}.
+     *
+     * @return array of floats
+     *
+     * @throws IllegalStateException
+     *             if there are more values than fit in an array
+     */
+    public float[] toFloatArray() {
+        float[] floats = new float[arrayLength()];
+        get(0, floats, 0, floats.length);
+        return floats;
+    }
+
+    /**
+     * Returns a copy of the short bits of all values.
+     *
+     * @return array of {@code half} short bits
+     *
+     * @throws IllegalStateException
+     *             if there are more values than fit in an array
+     */
+    public short[] toShortBitsArray() {
+        short[] shortBits = new short[arrayLength()];
+        get(0, shortBits, 0, shortBits.length);
+        return shortBits;
+    }
+
+    private void checkRange(long index, int length, int arrayPos, int arrayLength) {
+        if (index < 0 || length < 0 || index > size - length || arrayPos < 0 || arrayPos > arrayLength - length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", arrayPos: " + arrayPos + ", length: " + length);
+        }
+    }
+
+    private int arrayLength() {
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Too many values for an array: " + size);
+        }
+        return (int) size;
+    }
+
+}
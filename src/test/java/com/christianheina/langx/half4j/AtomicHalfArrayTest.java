@@ -0,0 +1,97 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.util.stream.IntStream;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link AtomicHalfArray}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class AtomicHalfArrayTest {
+
+    @Test
+    public void getSetTest() {
+        AtomicHalfArray array = new AtomicHalfArray(3);
+        Assert.assertEquals(array.length(), 3);
+        Assert.assertEquals(array.get(2), Half.POSITIVE_ZERO);
+
+        array.set(0, Half.valueOf(1.0f));
+        array.set(1, Half.NEGATIVE_INFINITY);
+        array.setShortBits(2, (short) 0xc000);
+        Assert.assertEquals(array.toShortBitsArray(), new short[] { 0x3c00, (short) 0xfc00, (short) 0xc000 });
+        Assert.assertEquals(array.getAndSet(1, Half.NaN), Half.NEGATIVE_INFINITY);
+        Assert.assertEquals(array.get(0), Half.valueOf(1.0f));
+        Assert.assertEquals(array.toString(), "[1.0, NaN, -2.0]");
+    }
+
+    @Test
+    public void compareAndSetTest() {
+        AtomicHalfArray array = new AtomicHalfArray(new short[] { 0x3c00, 0x4000 });
+        Assert.assertFalse(array.compareAndSet(1, Half.valueOf(1.0f), Half.valueOf(3.0f)));
+        Assert.assertTrue(array.compareAndSet(1, Half.valueOf(2.0f), Half.valueOf(3.0f)));
+        Assert.assertEquals(array.get(0), Half.valueOf(1.0f));
+        Assert.assertEquals(array.get(1), Half.valueOf(3.0f));
+    }
+
+    @Test
+    public void addTest() {
+        AtomicHalfArray array = new AtomicHalfArray(2);
+        Assert.assertEquals(array.getAndAdd(1, 1.5f), Half.POSITIVE_ZERO);
+        Assert.assertEquals(array.addAndGet(1, 1.5f), Half.valueOf(3.0f));
+        Assert.assertEquals(array.accumulateAndGet(0, Half.valueOf(-4.0f), Half::min), Half.valueOf(-4.0f));
+        Assert.assertEquals(array.toShortBitsArray(), HalfUtil.floatArrayToHalfShortBits(-4.0f, 3.0f));
+    }
+
+    @Test
+    public void accumulateNonHalfResultTest() {
+        AtomicHalfArray array = new AtomicHalfArray(1);
+        // 1.0001 is not a half value, the element and the returned value both hold it as stored
+        Half updated = array.accumulateAndGet(0, Half.valueOf(1.0001f), (current, x) -> x);
+        Assert.assertEquals(updated, array.get(0));
+        Assert.assertEquals(updated.floatValue(), array.get(0).floatValue());
+        Assert.assertNotEquals(updated.floatValue(), 1.0001f);
+    }
+
+    @Test
+    public void addRoundToNearestTest() {
+        AtomicHalfArray array = new AtomicHalfArray(1);
+        array.set(0, Half.valueOf(1.0f));
+        // three quarters of an ulp rounds up
+        Assert.assertEquals(array.addAndGet(0, 0x1.8p-11f), Half.shortBitsToHalf((short) 0x3c01));
+    }
+
+    @Test
+    public void concurrentAddTest() {
+        AtomicHalfArray array = new AtomicHalfArray(5);
+        IntStream.range(0, 5 * 1000).parallel().forEach(i -> array.getAndAdd(i % 5, 1.0f));
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(array.get(i), Half.valueOf(1000.0f));
+        }
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void indexOutOfBoundsTest() {
+        new AtomicHalfArray(3).get(3);
+    }
+
+}
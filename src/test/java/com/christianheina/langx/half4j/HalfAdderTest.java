@@ -0,0 +1,77 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.util.stream.IntStream;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HalfAdder}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfAdderTest {
+
+    @Test
+    public void sumTest() {
+        HalfAdder adder = new HalfAdder();
+        Assert.assertEquals(adder.sum(), Half.POSITIVE_ZERO);
+        adder.add(1.5f);
+        adder.add(Half.valueOf(2.0f));
+        Assert.assertEquals(adder.sum(), Half.valueOf(3.5f));
+        Assert.assertEquals(adder.intValue(), 3);
+        Assert.assertEquals(adder.doubleValue(), 3.5);
+        Assert.assertEquals(adder.toString(), "3.5");
+        Assert.assertEquals(adder.sumThenReset(), Half.valueOf(3.5f));
+        Assert.assertEquals(adder.sum(), Half.POSITIVE_ZERO);
+    }
+
+    @Test
+    public void roundOnReadTest() {
+        // 4096 additions of 1.0 saturate a half running sum at 2048, the adder keeps counting
+        HalfAdder adder = new HalfAdder();
+        for (int i = 0; i < 4096; i++) {
+            adder.add(1.0f);
+        }
+        Assert.assertEquals(adder.sum(), Half.valueOf(4096.0f));
+        adder.add(Float.POSITIVE_INFINITY);
+        Assert.assertEquals(adder.sum(), Half.POSITIVE_INFINITY);
+        adder.reset();
+        Assert.assertEquals(adder.sum(), Half.POSITIVE_ZERO);
+    }
+
+    @Test
+    public void roundToNearestTest() {
+        // 1 + 2^-11 + 2^-30 is just above the midpoint to the next half, but it is a tie once rounded to float
+        HalfAdder adder = new HalfAdder();
+        adder.add(1.0f);
+        adder.add(0x1p-11f);
+        adder.add(0x1p-30f);
+        Assert.assertEquals(Half.halfToRawShortBits(adder.sum()), (short) 0x3c01);
+    }
+
+    @Test
+    public void concurrentAddTest() {
+        HalfAdder adder = new HalfAdder();
+        IntStream.range(0, 10000).parallel().forEach(i -> adder.add(0.5f));
+        Assert.assertEquals(adder.sum(), Half.valueOf(5000.0f));
+    }
+
+}
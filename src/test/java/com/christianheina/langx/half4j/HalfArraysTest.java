@@ -0,0 +1,211 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HalfArrays}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfArraysTest {
+
+    private static final short[] A = halfs(1.0f, -2.0f, 0.5f, 65504f, 0f);
+    private static final short[] B = halfs(2.0f, 3.0f, -0.25f, 65504f, -0f);
+
+    @Test
+    public void axpyTest() {
+        short[] y = B.clone();
+        HalfArrays.axpy(2.0f, A, y);
+        Assert.assertEquals(y, halfs(4.0f, -1.0f, 0.75f, Float.POSITIVE_INFINITY, 0f));
+    }
+
+    @Test
+    public void scaleTest() {
+        short[] dst = new short[A.length];
+        HalfArrays.scale(-0.5f, A, dst);
+        Assert.assertEquals(dst, halfs(-0.5f, 1.0f, -0.25f, -32752f, -0f));
+    }
+
+    @Test
+    public void arithmeticTest() {
+        short[] dst = new short[A.length];
+        HalfArrays.add(A, B, dst);
+        Assert.assertEquals(dst, halfs(3.0f, 1.0f, 0.25f, Float.POSITIVE_INFINITY, 0f));
+        HalfArrays.sub(A, B, dst);
+        Assert.assertEquals(dst, halfs(-1.0f, -5.0f, 0.75f, 0f, 0f));
+        HalfArrays.mul(A, B, dst);
+        Assert.assertEquals(dst, halfs(2.0f, -6.0f, -0.125f, Float.POSITIVE_INFINITY, -0f));
+        HalfArrays.div(A, B, dst);
+        Assert.assertEquals(Half.shortBitsToHalf(dst[4]), Half.NaN);
+        dst[4] = 0;
+        Assert.assertEquals(dst, halfs(0.5f, -2.0f / 3.0f, -2.0f, 1.0f, 0f));
+    }
+
+    @Test
+    public void roundToNearestTest() {
+        // 1.5 * (1 + 2^-10) is halfway between 1.5 + 2^-10 and 1.5 + 2^-9, truncation would give the odd one
+        short[] dst = new short[1];
+        HalfArrays.mul(new short[] { 0x3e00 }, new short[] { 0x3c01 }, dst);
+        Assert.assertEquals(dst[0], (short) 0x3e02);
+
+        // products and sums of two halves are exact in double, so rounding the double is the correct result
+        short[] a = new short[1 << 12];
+        short[] b = new short[a.length];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = (short) (0x3000 + i * 7);
+            b[i] = (short) (0xb400 + i * 13);
+        }
+        short[] sum = new short[a.length];
+        short[] product = new short[a.length];
+        HalfArrays.add(a, b, sum);
+        HalfArrays.mul(a, b, product);
+        for (int i = 0; i < a.length; i++) {
+            double x = Half.halfShortToFloat(a[i]);
+            double y = Half.halfShortToFloat(b[i]);
+            Assert.assertEquals(sum[i], Half.roundToHalfShortBits(x + y));
+            Assert.assertEquals(product[i], Half.roundToHalfShortBits(x * y));
+        }
+    }
+
+    @Test
+    public void inPlaceTest() {
+        short[] a = A.clone();
+        HalfArrays.add(a, a, a);
+        Assert.assertEquals(a, halfs(2.0f, -4.0f, 1.0f, Float.POSITIVE_INFINITY, 0f));
+    }
+
+    @Test
+    public void clampTest() {
+        short[] src = halfs(-3.0f, 0.5f, 3.0f, Float.NaN);
+        HalfArrays.clamp(src, -1.0f, 1.0f, src);
+        Assert.assertEquals(src, halfs(-1.0f, 0.5f, 1.0f, Float.NaN));
+    }
+
+    @Test
+    public void reluTest() {
+        short[] src = halfs(-3.0f, -0f, 0.5f, Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY);
+        short[] dst = new short[src.length];
+        HalfArrays.relu(src, dst);
+        Assert.assertEquals(dst, halfs(0f, 0f, 0.5f, 0f, Float.POSITIVE_INFINITY));
+
+        short[] nan = new short[] { (short) 0xfe00 };
+        HalfArrays.relu(nan, nan);
+        Assert.assertEquals(nan[0], (short) 0xfe00);
+    }
+
+    @Test
+    public void absNegateTest() {
+        short[] dst = new short[A.length];
+        HalfArrays.abs(A, dst);
+        Assert.assertEquals(dst, halfs(1.0f, 2.0f, 0.5f, 65504f, 0f));
+        HalfArrays.negate(A, dst);
+        Assert.assertEquals(dst, halfs(-1.0f, 2.0f, -0.5f, -65504f, -0f));
+    }
+
+    @Test
+    public void heapBufferTest() {
+        short[] dst = new short[A.length + 1];
+        ShortBuffer dstBuf = ShortBuffer.wrap(dst, 1, A.length).slice();
+        HalfArrays.add(ShortBuffer.wrap(A), ShortBuffer.wrap(B), dstBuf);
+        Assert.assertEquals(dstBuf.position(), 0);
+        Assert.assertEquals(dst, halfs(0f, 3.0f, 1.0f, 0.25f, Float.POSITIVE_INFINITY, 0f));
+    }
+
+    @Test
+    public void directBufferTest() {
+        int length = 3000;
+        ShortBuffer x = ByteBuffer.allocateDirect(length * 2).asShortBuffer();
+        ShortBuffer y = ByteBuffer.allocateDirect(length * 2).asShortBuffer();
+        for (int i = 0; i < length; i++) {
+            x.put(i, Half.floatToHalfShortBits(i));
+            y.put(i, Half.floatToHalfShortBits(1.0f));
+        }
+        HalfArrays.axpy(0.5f, x, y);
+        for (int i = 0; i < length; i++) {
+            Assert.assertEquals(y.get(i), Half.roundToHalfShortBits(0.5f * Half.halfShortToFloat(x.get(i)) + 1.0f));
+        }
+
+        HalfArrays.negate(x, x);
+        Assert.assertEquals(Half.halfShortToFloat(x.get(length - 1)),
+                -Half.halfShortToFloat(Half.floatToHalfShortBits(length - 1)));
+    }
+
+    @Test
+    public void reductionTest() {
+        short[] a = halfs(1.0f, -2.0f, 0.5f, 3.0f, 4.0f);
+        short[] b = halfs(2.0f, 3.0f, -0.25f, 1.0f, 0f);
+        Assert.assertEquals(HalfArrays.dot(a, b), 2.0f - 6.0f - 0.125f + 3.0f);
+        Assert.assertEquals(HalfArrays.squaredDistance(a, b), 1.0f + 25.0f + 0.5625f + 4.0f + 16.0f);
+        Assert.assertEquals(HalfArrays.norm(halfs(3.0f, 4.0f)), 5.0f);
+        Assert.assertEquals(HalfArrays.cosineSimilarity(halfs(1.0f, 1.0f), halfs(-2.0f, -2.0f)), -1.0f, 1e-6f);
+        Assert.assertEquals(HalfArrays.cosineSimilarity(halfs(1.0f, 1.0f), halfs(0f, 0f)), 0f);
+        // accumulated in float, so the result may exceed the range of half
+        Assert.assertEquals(HalfArrays.dot(A, B), 2.0f - 6.0f - 0.125f + 65504f * 65504f);
+    }
+
+    @Test
+    public void bufferReductionTest() {
+        int length = 3000;
+        short[] a = new short[length];
+        short[] b = new short[length];
+        ShortBuffer x = ByteBuffer.allocateDirect(length * 2).asShortBuffer();
+        ShortBuffer y = ByteBuffer.allocateDirect(length * 2).asShortBuffer();
+        for (int i = 0; i < length; i++) {
+            a[i] = Half.floatToHalfShortBits((i % 7) - 3);
+            b[i] = Half.floatToHalfShortBits((i % 5) * 0.5f);
+            x.put(i, a[i]);
+            y.put(i, b[i]);
+        }
+        Assert.assertEquals(HalfArrays.dot(x, y), HalfArrays.dot(a, b), 1e-3f);
+        Assert.assertEquals(HalfArrays.dot(ShortBuffer.wrap(a), ShortBuffer.wrap(b)), HalfArrays.dot(a, b));
+        Assert.assertEquals(HalfArrays.squaredDistance(x, y), HalfArrays.squaredDistance(a, b), 1e-2f);
+        Assert.assertEquals(HalfArrays.norm(x), HalfArrays.norm(a), 1e-3f);
+        Assert.assertEquals(HalfArrays.cosineSimilarity(x, y), HalfArrays.cosineSimilarity(a, b), 1e-6f);
+        Assert.assertEquals(x.position(), 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void reductionLengthMismatchTest() {
+        HalfArrays.dot(A, new short[A.length + 1]);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void lengthMismatchTest() {
+        HalfArrays.add(A, B, new short[A.length - 1]);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void bufferLengthMismatchTest() {
+        HalfArrays.relu(ShortBuffer.wrap(A), ShortBuffer.allocate(A.length + 1));
+    }
+
+    private static short[] halfs(float... floats) {
+        short[] bits = new short[floats.length];
+        for (int i = 0; i < floats.length; i++) {
+            bits[i] = Half.floatToHalfShortBits(floats[i]);
+        }
+        return bits;
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.util.Arrays;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HalfBitSet}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfBitSetTest {
+
+    @Test
+    public void addRemoveTest() {
+        HalfBitSet set = new HalfBitSet();
+        Assert.assertTrue(set.isEmpty());
+        Assert.assertTrue(set.add((short) 0x3c00));
+        Assert.assertFalse(set.add(Half.valueOf(1.0f)));
+        Assert.assertTrue(set.contains(Half.valueOf(1.0f)));
+        Assert.assertEquals(set.size(), 1);
+        Assert.assertTrue(set.remove((short) 0x3c00));
+        Assert.assertFalse(set.remove(Half.valueOf(1.0f)));
+        Assert.assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void equalsSemanticsTest() {
+        HalfBitSet set = new HalfBitSet();
+        set.add((short) 0x7c01);
+        // every NaN is the same member, as Half.NaN equals every other NaN
+        Assert.assertTrue(set.contains((short) 0xfe00));
+        Assert.assertTrue(set.contains(Half.NaN));
+        Assert.assertFalse(set.add((short) 0xffff));
+        // positive and negative zero are distinct, as they are not equal
+        set.add((short) 0x0000);
+        Assert.assertFalse(set.contains((short) 0x8000));
+        Assert.assertFalse(set.contains(Half.NEGATIVE_ZERO));
+        Assert.assertEquals(set.size(), 2);
+    }
+
+    @Test
+    public void toShortBitsArrayTest() {
+        HalfBitSet set = new HalfBitSet();
+        short[] values = { 0x7e01, 0x3c00, (short) 0xbc00, 0x0000, (short) 0x8000, 0x7c00, (short) 0xfc00, 0x0001,
+                (short) 0x8001, (short) 0xc000 };
+        set.addAll(values);
+        short[] expected = { (short) 0xfc00, (short) 0xc000, (short) 0xbc00, (short) 0x8001, (short) 0x8000, 0x0000,
+                0x0001, 0x3c00, 0x7c00, 0x7e00 };
+        Assert.assertEquals(set.toShortBitsArray(), expected);
+
+        Short[] sorted = new Short[values.length];
+        for (int i = 0; i < values.length; i++) {
+            sorted[i] = HalfUtil.canonicalShortBits(values[i]);
+        }
+        Arrays.sort(sorted, HalfUtil::compareShortBits);
+        for (int i = 0; i < sorted.length; i++) {
+            Assert.assertEquals(sorted[i].shortValue(), expected[i]);
+        }
+    }
+
+    @Test
+    public void allValuesTest() {
+        HalfBitSet set = new HalfBitSet();
+        for (int i = 0; i < 1 << 16; i++) {
+            set.add((short) i);
+        }
+        // 2 * 1023 NaN patterns collapse into one
+        Assert.assertEquals(set.size(), (1 << 16) - 2 * 1023 + 1);
+        short[] all = set.toShortBitsArray();
+        Assert.assertEquals(all.length, set.size());
+        for (int i = 1; i < all.length; i++) {
+            Assert.assertTrue(HalfUtil.compareShortBits(all[i - 1], all[i]) < 0);
+        }
+    }
+
+    @Test
+    public void setOperationsTest() {
+        HalfBitSet a = new HalfBitSet();
+        a.addAll(new short[] { 1, 2, 3 });
+        HalfBitSet b = new HalfBitSet();
+        b.addAll(new short[] { 3, 4 });
+        HalfBitSet union = new HalfBitSet();
+        union.or(a);
+        union.or(b);
+        Assert.assertEquals(union.toShortBitsArray(), new short[] { 1, 2, 3, 4 });
+        a.and(b);
+        Assert.assertEquals(a.size(), 1);
+        Assert.assertTrue(a.contains((short) 3));
+        Assert.assertNotEquals(a, b);
+        b.remove((short) 4);
+        Assert.assertEquals(a, b);
+        Assert.assertEquals(a.hashCode(), b.hashCode());
+        b.clear();
+        Assert.assertTrue(b.isEmpty());
+    }
+
+}
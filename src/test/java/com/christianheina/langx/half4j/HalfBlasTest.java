@@ -0,0 +1,136 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HalfBlas}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfBlasTest {
+
+    private static final float DELTA = 1e-3f;
+
+    @Test
+    public void gemvTest() {
+        // 2 x 3 matrix
+        short[] a = HalfUtil.floatArrayToHalfShortBits(1f, 2f, 3f, 4f, 5f, 6f);
+        float[] y = new float[2];
+        HalfBlas.gemv(false, 2, 3, a, HalfUtil.floatArrayToHalfShortBits(1f, 0f, -1f), y);
+        Assert.assertEquals(y, new float[] { -2f, -2f });
+
+        y = new float[3];
+        HalfBlas.gemv(true, 2, 3, a, HalfUtil.floatArrayToHalfShortBits(1f, -1f), y);
+        Assert.assertEquals(y, new float[] { -3f, -3f, -3f });
+    }
+
+    @Test
+    public void gemmTest() {
+        // 2 x 3 times 3 x 2
+        short[] a = HalfUtil.floatArrayToHalfShortBits(1f, 2f, 3f, 4f, 5f, 6f);
+        short[] b = HalfUtil.floatArrayToHalfShortBits(7f, 8f, 9f, 10f, 11f, 12f);
+        float[] c = new float[4];
+        HalfBlas.gemm(false, false, 2, 2, 3, a, b, c);
+        Assert.assertEquals(c, new float[] { 58f, 64f, 139f, 154f });
+
+        // a as 3 x 2 transposed, b as 2 x 3 transposed
+        HalfBlas.gemm(true, true, 2, 2, 3, HalfUtil.floatArrayToHalfShortBits(1f, 4f, 2f, 5f, 3f, 6f),
+                HalfUtil.floatArrayToHalfShortBits(7f, 9f, 11f, 8f, 10f, 12f), c);
+        Assert.assertEquals(c, new float[] { 58f, 64f, 139f, 154f });
+    }
+
+    @DataProvider
+    public Object[][] shapes() {
+        return new Object[][] { { 1, 1, 1 }, { 7, 5, 3 }, { 33, 600, 300 }, { 64, 520, 257 } };
+    }
+
+    @Test(dataProvider = "shapes")
+    public void gemmRandomTest(int m, int n, int k) {
+        Random random = new Random(m * 31 + n * 7 + k);
+        short[] a = randomHalfs(random, m * k);
+        short[] b = randomHalfs(random, k * n);
+        float[] expected = new float[m * n];
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                double sum = 0;
+                for (int kk = 0; kk < k; kk++) {
+                    sum += (double) Half.halfShortToFloat(a[i * k + kk]) * Half.halfShortToFloat(b[kk * n + j]);
+                }
+                expected[i * n + j] = (float) sum;
+            }
+        }
+
+        for (boolean transposeA : new boolean[] { false, true }) {
+            for (boolean transposeB : new boolean[] { false, true }) {
+                float[] c = new float[m * n];
+                HalfBlas.gemm(transposeA, transposeB, m, n, k, transposeA ? transpose(a, m, k) : a,
+                        transposeB ? transpose(b, k, n) : b, c);
+                assertClose(c, expected);
+            }
+        }
+
+        float[] y = new float[m];
+        HalfBlas.gemv(false, m, k, a, Arrays.copyOf(b, k), y);
+        float[] yTransposed = new float[m];
+        HalfBlas.gemv(true, k, m, transpose(a, m, k), Arrays.copyOf(b, k), yTransposed);
+        assertClose(yTransposed, y);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void gemmDimensionMismatchTest() {
+        HalfBlas.gemm(false, false, 2, 2, 2, new short[4], new short[3], new float[4]);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void gemvDimensionMismatchTest() {
+        HalfBlas.gemv(true, 2, 3, new short[6], new short[3], new float[3]);
+    }
+
+    private static short[] randomHalfs(Random random, int length) {
+        short[] halfs = new short[length];
+        for (int i = 0; i < length; i++) {
+            halfs[i] = Half.floatToHalfShortBits(random.nextFloat() * 2f - 1f);
+        }
+        return halfs;
+    }
+
+    private static short[] transpose(short[] matrix, int rows, int cols) {
+        short[] transposed = new short[matrix.length];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                transposed[j * rows + i] = matrix[i * cols + j];
+            }
+        }
+        return transposed;
+    }
+
+    private static void assertClose(float[] actual, float[] expected) {
+        Assert.assertEquals(actual.length, expected.length);
+        for (int i = 0; i < actual.length; i++) {
+            Assert.assertEquals(actual[i], expected[i], DELTA, "index " + i);
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HalfCodec}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfCodecTest {
+
+    private static short[] series(int length) {
+        float[] floats = new float[length];
+        for (int i = 0; i < length; i++) {
+            floats[i] = 20.0f + (float) Math.sin(i / 500.0) * 5.0f;
+        }
+        return HalfUtil.floatArrayToHalfShortBits(floats);
+    }
+
+    @Test
+    public void roundTripTest() throws IOException {
+        short[] values = series(3 * HalfCodec.BLOCK_SIZE + 123);
+        byte[] encoded = HalfCodec.encode(values);
+        Assert.assertEquals(HalfCodec.decode(encoded), values);
+        // smooth data compresses well below 2 bytes per value
+        Assert.assertTrue(encoded.length < values.length / 2, "encoded length " + encoded.length);
+    }
+
+    @Test
+    public void emptyTest() throws IOException {
+        Assert.assertEquals(HalfCodec.decode(HalfCodec.encode()), new short[0]);
+    }
+
+    @Test
+    public void incompressibleTest() throws IOException {
+        short[] values = new short[1000];
+        Random random = new Random(42);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (short) random.nextInt();
+        }
+        byte[] encoded = HalfCodec.encode(values);
+        Assert.assertEquals(HalfCodec.decode(encoded), values);
+        Assert.assertTrue(encoded.length <= values.length * Half.BYTES + 32);
+    }
+
+    @Test
+    public void specialValuesTest() throws IOException {
+        short[] values = { 0x7e00, 0x7c01, (short) 0xfc00, (short) 0x8000, 0x0001, 0x7bff, 0x0000 };
+        Assert.assertEquals(HalfCodec.decode(HalfCodec.encode(values)), values);
+    }
+
+    @Test
+    public void streamingTest() throws IOException {
+        short[] values = series(HalfCodec.BLOCK_SIZE + 1000);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (HalfCodec.Encoder encoder = new HalfCodec.Encoder(out)) {
+            encoder.write(values, 0, 500);
+            encoder.flush();
+            encoder.write(ShortBuffer.wrap(values, 500, values.length - 500));
+        }
+
+        short[] decoded = new short[values.length];
+        int length = 0;
+        try (HalfCodec.Decoder decoder = new HalfCodec.Decoder(new ByteArrayInputStream(out.toByteArray()))) {
+            for (int n; (n = decoder.read(decoded, length, Math.min(777, decoded.length - length))) > 0;) {
+                length += n;
+            }
+            Assert.assertEquals(decoder.read(new short[1], 0, 1), -1);
+        }
+        Assert.assertEquals(length, values.length);
+        Assert.assertEquals(decoded, values);
+    }
+
+    @Test
+    public void finishTest() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HalfCodec.Encoder encoder = new HalfCodec.Encoder(out);
+        encoder.write(new short[] { 0x3c00 }, 0, 1);
+        encoder.finish();
+        encoder.finish();
+        Assert.assertEquals(HalfCodec.decode(out.toByteArray()), new short[] { 0x3c00 });
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void writeAfterFinishTest() throws IOException {
+        HalfCodec.Encoder encoder = new HalfCodec.Encoder(new ByteArrayOutputStream());
+        encoder.finish();
+        encoder.write(new short[1], 0, 1);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void invalidMagicTest() throws IOException {
+        HalfCodec.decode(new byte[8]);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void corruptBlockTest() throws IOException {
+        byte[] encoded = HalfCodec.encode(series(1000));
+        HalfCodec.decode(Arrays.copyOf(encoded, encoded.length - 10));
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HalfConversionStats}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfConversionStatsTest {
+
+    @Test
+    public void combineTest() {
+        HalfConversionStats a = new HalfConversionStats(10, 1, 2, 0, 3, 0.25);
+        HalfConversionStats b = new HalfConversionStats(5, 0, 0, 4, 1, 0.5);
+        HalfConversionStats combined = a.combine(b);
+        Assert.assertEquals(combined.getLength(), 15);
+        Assert.assertEquals(combined.getNaNs(), 1);
+        Assert.assertEquals(combined.getOverflows(), 2);
+        Assert.assertEquals(combined.getUnderflows(), 4);
+        Assert.assertEquals(combined.getSubnormals(), 4);
+        Assert.assertEquals(combined.getMaxRelativeError(), 0.5);
+    }
+
+    @Test
+    public void outOfRangeTest() {
+        Assert.assertFalse(new HalfConversionStats(10, 5, 0, 0, 5, 0.001).isOutOfRange());
+        Assert.assertTrue(new HalfConversionStats(10, 0, 1, 0, 0, 0).isOutOfRange());
+        Assert.assertTrue(new HalfConversionStats(10, 0, 0, 1, 0, 1).isOutOfRange());
+    }
+
+    @Test
+    public void toStringTest() {
+        Assert.assertEquals(new HalfConversionStats(3, 0, 1, 0, 0, 0.5).toString(),
+                "HalfConversionStats [length=3, nans=0, overflows=1, underflows=0, subnormals=0, maxRelativeError=0.5]");
+    }
+
+}
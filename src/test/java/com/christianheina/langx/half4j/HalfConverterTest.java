@@ -0,0 +1,103 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HalfConverter}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfConverterTest {
+
+    @Test
+    public void decodeAllTest() {
+        short[] shorts = new short[1 << 16];
+        for (int i = 0; i < shorts.length; i++) {
+            shorts[i] = (short) i;
+        }
+        float[] expected = new float[shorts.length];
+        HalfConverter.SCALAR.decode(shorts, 0, expected, 0, shorts.length);
+        for (HalfConverter converter : HalfConverter.values()) {
+            if (!converter.isAvailable()) {
+                continue;
+            }
+            float[] decoded = new float[shorts.length + 1];
+            converter.decode(shorts, 0, decoded, 1, shorts.length);
+            for (int i = 0; i < shorts.length; i++) {
+                Assert.assertEquals(Float.floatToRawIntBits(decoded[i + 1]), Float.floatToRawIntBits(expected[i]),
+                        converter + " " + Integer.toHexString(i));
+            }
+        }
+    }
+
+    @Test
+    public void encodeTest() {
+        // every sign and exponent with random significands, and every significand step of a few exponents
+        float[] floats = new float[(1 << 9) * 64 + (1 << 16)];
+        Random random = new Random(47);
+        int n = 0;
+        for (int index = 0; index < 1 << 9; index++) {
+            for (int i = 0; i < 64; i++) {
+                floats[n++] = Float.intBitsToFloat(index << 23 | random.nextInt(1 << 23));
+            }
+        }
+        for (int i = 0; i < 1 << 16; i++) {
+            floats[n++] = Float.intBitsToFloat((102 + i % 12) << 23 | i << 7 & 0x007fffff | (i & 1) << 31);
+        }
+        short[] expected = new short[floats.length];
+        for (int i = 0; i < floats.length; i++) {
+            expected[i] = Half.arithmeticFloatToHalfShortBits(floats[i]);
+        }
+        for (HalfConverter converter : HalfConverter.values()) {
+            if (!converter.isAvailable()) {
+                continue;
+            }
+            short[] encoded = new short[floats.length];
+            converter.encode(floats, 0, encoded, 0, floats.length);
+            Assert.assertEquals(encoded, expected, converter.toString());
+            // odd offsets and lengths exercise the remainder of two-lane loops
+            short[] tail = new short[5];
+            converter.encode(floats, 3, tail, 1, 3);
+            Assert.assertEquals(tail, new short[] { 0, expected[3], expected[4], expected[5], 0 });
+        }
+    }
+
+    @Test
+    public void boundTest() {
+        Assert.assertTrue(HalfConverter.getDecoder().isAvailable());
+        Assert.assertTrue(HalfConverter.getEncoder().isAvailable());
+        if (System.getProperty("half4j.converter") == null) {
+            boolean intrinsic = HalfConverter.INTRINSIC.isAvailable();
+            Assert.assertEquals(HalfConverter.getDecoder(), intrinsic ? HalfConverter.INTRINSIC : HalfConverter.TABLE);
+            Assert.assertEquals(HalfConverter.getEncoder(), intrinsic ? HalfConverter.INTRINSIC : HalfConverter.SWAR);
+        }
+        String report = HalfConverter.report();
+        Assert.assertTrue(report.startsWith(
+                "HalfConverter: decoder=" + HalfConverter.getDecoder() + ", encoder=" + HalfConverter.getEncoder()),
+                report);
+        for (HalfConverter converter : HalfConverter.values()) {
+            Assert.assertTrue(report.contains(converter + ":"), report);
+        }
+    }
+
+}
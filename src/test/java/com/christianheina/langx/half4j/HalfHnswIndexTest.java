@@ -0,0 +1,166 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HalfHnswIndex}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfHnswIndexTest {
+
+    private static final int DIMENSION = 16;
+
+    @Test
+    public void addAndSearchTest() {
+        short[] vectors = HalfVectorStoreTest.randomVectors(new Random(1), 2000, DIMENSION);
+        HalfVectorStore store = HalfVectorStore.of(vectors, DIMENSION);
+        for (HalfMetric metric : HalfMetric.values()) {
+            HalfHnswIndex index = new HalfHnswIndex(DIMENSION, 2000, metric, 8, 100, 1);
+            for (int i = 0; i < 2000; i++) {
+                Assert.assertEquals(index.add(store.getVector(i)), i);
+            }
+            Assert.assertEquals(index.size(), 2000);
+            Assert.assertEquals(index.getVector(7), store.getVector(7));
+            Assert.assertTrue(recall(index, store, metric, new Random(2), 50, 100) >= 0.9, metric.name());
+        }
+    }
+
+    @Test
+    public void exactDistanceTest() {
+        HalfVectorStore store = HalfVectorStore.of(HalfVectorStoreTest.randomVectors(new Random(3), 500, DIMENSION),
+                DIMENSION);
+        HalfHnswIndex index = HalfHnswIndex.build(store, HalfMetric.L2, 8, 50, 1);
+        short[] query = store.getVector(123);
+        HalfNeighbors neighbors = index.search(query, 5, 50);
+        Assert.assertEquals(neighbors.size(), 5);
+        Assert.assertEquals(neighbors.getId(0), 123);
+        Assert.assertEquals(neighbors.getDistance(0), 0f);
+        for (int i = 0; i < neighbors.size(); i++) {
+            Assert.assertEquals(neighbors.getDistance(i),
+                    HalfMetric.L2.distance(query, store.getVector(neighbors.getId(i))));
+        }
+    }
+
+    @Test
+    public void deterministicTest() {
+        short[] vectors = HalfVectorStoreTest.randomVectors(new Random(4), 300, DIMENSION);
+        HalfHnswIndex a = new HalfHnswIndex(DIMENSION, 300, HalfMetric.DOT);
+        HalfHnswIndex b = new HalfHnswIndex(DIMENSION, 300, HalfMetric.DOT);
+        for (int i = 0; i < 300; i++) {
+            short[] vector = Arrays.copyOfRange(vectors, i * DIMENSION, (i + 1) * DIMENSION);
+            a.add(vector);
+            b.add(vector);
+        }
+        short[] query = HalfVectorStoreTest.randomVectors(new Random(5), 1, DIMENSION);
+        Assert.assertEquals(a.search(query, 10, 20).getIds(), b.search(query, 10, 20).getIds());
+    }
+
+    @Test
+    public void concurrentTest() throws Exception {
+        int size = 4000;
+        HalfVectorStore store = HalfVectorStore.of(HalfVectorStoreTest.randomVectors(new Random(6), size, DIMENSION),
+                DIMENSION);
+        HalfHnswIndex index = new HalfHnswIndex(DIMENSION, size, HalfMetric.L2, 8, 100, 1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = thread; i < size; i += 4) {
+                        index.add(store.getVector(i));
+                    }
+                }));
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        HalfNeighbors neighbors = index.search(store.getVector(i), 10, 20);
+                        Assert.assertTrue(neighbors.size() <= 10);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(index.size(), size);
+        // ids depend on the interleaving of the threads, so recall is measured against the index contents
+        short[] contents = new short[size * DIMENSION];
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(index.getVector(i), 0, contents, i * DIMENSION, DIMENSION);
+        }
+        Assert.assertTrue(
+                recall(index, HalfVectorStore.of(contents, DIMENSION), HalfMetric.L2, new Random(7), 50, 100) >= 0.9);
+    }
+
+    @Test
+    public void emptyTest() {
+        HalfHnswIndex index = new HalfHnswIndex(DIMENSION, 10, HalfMetric.COSINE);
+        Assert.assertEquals(index.search(new short[DIMENSION], 5, 10).size(), 0);
+        index.add(new short[DIMENSION]);
+        Assert.assertEquals(index.search(new short[DIMENSION], 5, 10).getIds(), new long[] { 0 });
+        Assert.assertEquals(index.search(new short[DIMENSION], Integer.MAX_VALUE, Integer.MAX_VALUE).getIds(),
+                new long[] { 0 });
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void fullTest() {
+        HalfHnswIndex index = new HalfHnswIndex(DIMENSION, 1, HalfMetric.L2);
+        index.add(new short[DIMENSION]);
+        index.add(new short[DIMENSION]);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void dimensionMismatchTest() {
+        new HalfHnswIndex(DIMENSION, 1, HalfMetric.L2).add(new short[DIMENSION - 1]);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void invalidMTest() {
+        new HalfHnswIndex(DIMENSION, 1, HalfMetric.L2, 1, 10, 0);
+    }
+
+    private static double recall(HalfHnswIndex index, HalfVectorStore store, HalfMetric metric, Random random,
+            int queries, int ef) {
+        int found = 0;
+        for (int q = 0; q < queries; q++) {
+            short[] query = HalfVectorStoreTest.randomVectors(random, 1, DIMENSION);
+            long[] exact = store.search(query, 10, metric).getIds();
+            for (long id : index.search(query, 10, ef).getIds()) {
+                for (long expected : exact) {
+                    found += id == expected ? 1 : 0;
+                }
+            }
+        }
+        return found / (queries * 10.0);
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.util.Arrays;
+
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HalfIntrinsics}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfIntrinsicsTest {
+
+    @Test
+    public void availableTest() {
+        boolean declared = Arrays.stream(Float.class.getMethods())
+                .anyMatch(method -> "float16ToFloat".equals(method.getName()));
+        Assert.assertEquals(HalfIntrinsics.AVAILABLE, declared);
+        Assert.assertEquals(HalfConverter.INTRINSIC.isAvailable(), declared);
+    }
+
+    @Test
+    public void truncateTest() {
+        // rounding the truncated value to nearest, as Float.floatToFloat16 does, gives the truncated half
+        for (int exponent = 113; exponent <= 142; exponent++) {
+            for (int significand = 0; significand < 1 << 23; significand += 0x3ff) {
+                for (int sign = 0; sign < 2; sign++) {
+                    int intBits = sign << 31 | exponent << 23 | significand;
+                    Assert.assertTrue(HalfIntrinsics.isNormalHalf(intBits));
+                    Assert.assertEquals(Half.roundToHalfShortBits(HalfIntrinsics.truncate(intBits)),
+                            Half.arithmeticFloatToHalfShortBits(Float.intBitsToFloat(intBits)));
+                }
+            }
+        }
+        Assert.assertFalse(HalfIntrinsics.isNormalHalf(112 << 23));
+        Assert.assertFalse(HalfIntrinsics.isNormalHalf(143 << 23));
+        Assert.assertFalse(HalfIntrinsics.isNormalHalf(0xff << 23));
+    }
+
+    @Test
+    public void signalingNaNRoundTripTest() {
+        // repeated so that the conversion is compiled by the JIT compiler as well as interpreted
+        for (int round = 0; round < 200; round++) {
+            for (int significand = 1; significand < 1 << 10; significand++) {
+                short shortBits = (short) (0x7c00 | significand);
+                Assert.assertEquals(Half.halfToRawShortBits(Half.shortBitsToHalf(shortBits)), shortBits);
+                Assert.assertEquals(Half.floatToHalfShortBits(Half.halfShortToFloat((short) (shortBits | 0x8000))),
+                        (short) (shortBits | 0x8000));
+            }
+        }
+    }
+
+    @Test
+    public void identicalResultsTest() {
+        if (!HalfIntrinsics.AVAILABLE) {
+            throw new SkipException("Float.float16ToFloat requires Java 20 or later");
+        }
+        for (int i = 0; i < 1 << 16; i++) {
+            Assert.assertEquals(Float.floatToRawIntBits(HalfIntrinsics.toFloat((short) i)),
+                    Float.floatToRawIntBits(Half.arithmeticHalfShortToFloat((short) i)), Integer.toHexString(i));
+        }
+        for (long bits = 0; bits <= 0xffff_ffffL; bits += 0x101) {
+            float value = Float.intBitsToFloat((int) bits);
+            Assert.assertEquals(HalfIntrinsics.toHalfShortBits(value), Half.arithmeticFloatToHalfShortBits(value),
+                    Long.toHexString(bits));
+        }
+    }
+
+}
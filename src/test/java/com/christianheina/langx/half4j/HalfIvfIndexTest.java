@@ -0,0 +1,115 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HalfIvfIndex}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfIvfIndexTest {
+
+    private static final int DIMENSION = 8;
+
+    @Test
+    public void buildTest() {
+        HalfVectorStore store = HalfVectorStore.of(clusteredVectors(new Random(1), 4000, 16), DIMENSION);
+        HalfIvfIndex index = HalfIvfIndex.build(store, HalfMetric.L2, 16, 10, 42);
+        Assert.assertEquals(index.lists(), 16);
+        Assert.assertEquals(index.getMetric(), HalfMetric.L2);
+        Assert.assertSame(index.getStore(), store);
+        Assert.assertEquals(index.getCentroid(0).length, DIMENSION);
+        int total = 0;
+        for (int list = 0; list < index.lists(); list++) {
+            total += index.listSize(list);
+        }
+        Assert.assertEquals(total, 4000);
+    }
+
+    @Test
+    public void exhaustiveProbeTest() {
+        HalfVectorStore store = HalfVectorStore.of(clusteredVectors(new Random(2), 2000, 8), DIMENSION);
+        short[] query = clusteredVectors(new Random(3), 1, 8);
+        for (HalfMetric metric : HalfMetric.values()) {
+            HalfIvfIndex index = HalfIvfIndex.build(store, metric, 8, 5, 7);
+            HalfNeighbors exact = store.search(query, 10, metric);
+            HalfNeighbors approximate = index.search(query, 10, index.lists());
+            Assert.assertEquals(approximate.getIds(), exact.getIds(), metric.name());
+            Assert.assertEquals(approximate.getDistances(), exact.getDistances(), metric.name());
+        }
+    }
+
+    @Test
+    public void recallTest() {
+        HalfVectorStore store = HalfVectorStore.of(clusteredVectors(new Random(4), 5000, 32), DIMENSION);
+        HalfIvfIndex index = HalfIvfIndex.build(store, HalfMetric.L2, 32, 10, 11);
+        Random random = new Random(5);
+        int found = 0;
+        int queries = 50;
+        for (int q = 0; q < queries; q++) {
+            short[] query = store.getVector(random.nextInt(5000));
+            long[] exact = store.search(query, 10, HalfMetric.L2).getIds();
+            long[] approximate = index.search(query, 10, 4).getIds();
+            for (long id : approximate) {
+                for (long expected : exact) {
+                    found += id == expected ? 1 : 0;
+                }
+            }
+        }
+        Assert.assertTrue(found >= queries * 10 * 9 / 10, "recall " + found);
+    }
+
+    @Test
+    public void smallStoreTest() {
+        HalfVectorStore store = HalfVectorStore.of(clusteredVectors(new Random(6), 3, 1), DIMENSION);
+        HalfIvfIndex index = HalfIvfIndex.build(store, HalfMetric.COSINE, 10, 5, 1);
+        Assert.assertEquals(index.lists(), 3);
+        Assert.assertEquals(index.search(store.getVector(1), 5, 10).size(), 3);
+        Assert.assertEquals(index.search(store.getVector(1), 5, 0).size(), 0);
+        Assert.assertEquals(index.search(store.getVector(1), Integer.MAX_VALUE, Integer.MAX_VALUE).size(), 3);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void invalidListsTest() {
+        HalfIvfIndex.build(HalfVectorStore.of(new short[DIMENSION], DIMENSION), HalfMetric.L2, 0, 1, 1);
+    }
+
+    private static short[] clusteredVectors(Random random, int size, int clusters) {
+        float[][] centers = new float[clusters][DIMENSION];
+        Random centerRandom = new Random(clusters);
+        for (float[] center : centers) {
+            for (int j = 0; j < DIMENSION; j++) {
+                center[j] = (float) centerRandom.nextGaussian() * 4;
+            }
+        }
+        short[] vectors = new short[size * DIMENSION];
+        for (int i = 0; i < size; i++) {
+            float[] center = centers[random.nextInt(clusters)];
+            for (int j = 0; j < DIMENSION; j++) {
+                vectors[i * DIMENSION + j] = Half.floatToHalfShortBits(center[j] + (float) random.nextGaussian());
+            }
+        }
+        return vectors;
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HalfJson}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfJsonTest {
+
+    @Test
+    public void toJsonTest() {
+        Assert.assertEquals(HalfJson.toJson((short) 0x3c00), "1");
+        Assert.assertEquals(HalfJson.toJson((short) 0xc100), "-2.5");
+        Assert.assertEquals(HalfJson.toJson((short) 0x2e66), "0.1");
+        Assert.assertEquals(HalfJson.toJson((short) 0x7bff), "65500");
+        Assert.assertEquals(HalfJson.toJson((short) 0x0001), "6e-8");
+        Assert.assertEquals(HalfJson.toJson((short) 0x0000), "0");
+        Assert.assertEquals(HalfJson.toJson((short) 0x8000), "-0");
+        Assert.assertEquals(HalfJson.toJson((short) 0x7c00), "null");
+        Assert.assertEquals(HalfJson.toJson((short) 0x7e00), "null");
+    }
+
+    @Test
+    public void roundTripAllValuesTest() {
+        for (int i = 0; i < 1 << Half.SIZE; i++) {
+            short shortBits = (short) i;
+            String json = HalfJson.toJson(shortBits);
+            short parsed = HalfJson.parseValue(json);
+            if (Float.isFinite(Half.halfShortToFloat(shortBits))) {
+                Assert.assertEquals(parsed, shortBits, json);
+                // a standard parser rounded to nearest reads the same value
+                Assert.assertEquals(Half.roundToHalfShortBits(Double.parseDouble(json)), shortBits);
+            } else {
+                Assert.assertEquals(parsed, (short) 0x7e00);
+            }
+        }
+    }
+
+    @Test
+    public void appendArrayTest() throws IOException {
+        StringBuilder b = new StringBuilder();
+        HalfJson.appendArray(b, (short) 0x3c00, (short) 0x3800, (short) 0xfc00);
+        Assert.assertEquals(b.toString(), "[1,0.5,null]");
+
+        b.setLength(0);
+        HalfJson.appendArray(b);
+        Assert.assertEquals(b.toString(), "[]");
+    }
+
+    @Test
+    public void writeArrayTest() {
+        ByteBuffer buf = ByteBuffer.allocate(32);
+        buf.put((byte) ' ');
+        HalfJson.writeArray(buf, new short[] { 0x4000, 0x4200, 0x4400 }, 1, 2);
+        Assert.assertEquals(new String(buf.array(), 0, buf.position(), StandardCharsets.US_ASCII), " [3,4]");
+
+        buf.flip();
+        short[] dst = new short[4];
+        Assert.assertEquals(HalfJson.parseArray(buf, dst), 2);
+        Assert.assertEquals(buf.position(), 6);
+        Assert.assertEquals(dst[0], (short) 0x4200);
+        Assert.assertEquals(dst[1], (short) 0x4400);
+    }
+
+    @Test(expectedExceptions = BufferOverflowException.class)
+    public void writeArrayOverflowTest() {
+        HalfJson.writeArray(ByteBuffer.allocate(4), new short[] { 0x3c00, 0x3c00 }, 0, 2);
+    }
+
+    @Test
+    public void parseTest() {
+        Assert.assertEquals(HalfJson.parseValue(" 1.0E0 "), (short) 0x3c00);
+        Assert.assertEquals(HalfJson.parseValue("-0.000"), (short) 0x8000);
+        Assert.assertEquals(HalfJson.parseValue("1e5"), (short) 0x7c00);
+        Assert.assertEquals(HalfJson.parseValue("1e-400"), (short) 0x0000);
+        Assert.assertEquals(HalfJson.parseValue("0.1000000000000000000000000001"), (short) 0x2e66);
+        Assert.assertEquals(HalfJson.parseValue("12345678901234567890"), (short) 0x7c00);
+        Assert.assertEquals(HalfJson.parseValue("null"), (short) 0x7e00);
+
+        // numbers just off a midpoint round to double on the midpoint, they must still round to the nearer half
+        Assert.assertEquals(HalfJson.parseValue("1.00048828125"), (short) 0x3c00);
+        Assert.assertEquals(HalfJson.parseValue("1.000488281250000000000001"), (short) 0x3c01);
+        Assert.assertEquals(HalfJson.parseValue("-1.000488281250000000000001"), (short) 0xbc01);
+        Assert.assertEquals(HalfJson.parseValue("1.00146484375"), (short) 0x3c02);
+        Assert.assertEquals(HalfJson.parseValue("1.001464843749999999999999"), (short) 0x3c01);
+        Assert.assertEquals(HalfJson.parseValue("65519.99999999999999999"), (short) 0x7bff);
+        Assert.assertEquals(HalfJson.parseValue("2.98023223876953125e-8"), (short) 0x0000);
+        Assert.assertEquals(HalfJson.parseValue("2.980232238769531250000001e-8"), (short) 0x0001);
+
+        short[] dst = new short[3];
+        Assert.assertEquals(HalfJson.parseArray("[ 1 , -2.5,\n0.1 ]", dst), 3);
+        Assert.assertEquals(dst, new short[] { 0x3c00, (short) 0xc100, 0x2e66 });
+        Assert.assertEquals(HalfJson.parseArray("[]", dst), 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void parseInvalidNumberTest() {
+        HalfJson.parseValue("1.");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void parseTrailingTest() {
+        HalfJson.parseArray("[1] x", new short[1]);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void parseTooManyTest() {
+        HalfJson.parseArray("[1,2]", new short[1]);
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.util.function.DoubleUnaryOperator;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HalfLookupTable}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfLookupTableTest {
+
+    private static final HalfLookupTable SQUARE = HalfLookupTable.of(x -> x * x);
+
+    @Test
+    public void applyTest() {
+        Assert.assertEquals(SQUARE.apply(Half.valueOf(3.0f)), Half.valueOf(9.0f));
+        Assert.assertEquals(SQUARE.apply(Half.valueOf(-0.5f)), Half.valueOf(0.25f));
+        Assert.assertEquals(SQUARE.apply(Half.valueOf(256.0f)), Half.POSITIVE_INFINITY);
+        Assert.assertEquals(SQUARE.apply(Half.NaN), Half.NaN);
+        Assert.assertEquals(SQUARE.apply((short) 0xc000), (short) 0x4400);
+    }
+
+    @Test
+    public void applyArrayTest() {
+        short[] src = new short[1 << Half.SIZE];
+        for (int i = 0; i < src.length; i++) {
+            src[i] = (short) i;
+        }
+        short[] dst = new short[src.length];
+        SQUARE.apply(src, dst);
+        for (int i = 0; i < src.length; i++) {
+            double x = Half.halfShortToFloat(src[i]);
+            Assert.assertEquals(dst[i], nearestHalfShortBits(x * x));
+        }
+
+        SQUARE.apply(src, src);
+        Assert.assertEquals(src, dst);
+    }
+
+    @Test
+    public void roundToNearestTest() {
+        assertCorrectlyRounded(HalfLookupTable.of(Math::exp), Math::exp);
+        assertCorrectlyRounded(HalfLookupTable.of(Math::sqrt), Math::sqrt);
+        assertCorrectlyRounded(HalfLookupTable.of(Math::tanh), Math::tanh);
+        assertCorrectlyRounded(HalfLookupTable.of(x -> x / 3), x -> x / 3);
+    }
+
+    @Test
+    public void roundToNearestTieTest() {
+        // ties: 1 + 2^-11 goes down to the even 1, 1 + 3 * 2^-11 goes up to the even 1 + 2^-9
+        Assert.assertEquals(HalfLookupTable.of(x -> 1 + 0x1p-11).apply((short) 0), (short) 0x3c00);
+        Assert.assertEquals(HalfLookupTable.of(x -> 1 + 3 * 0x1p-11).apply((short) 0), (short) 0x3c02);
+        // just above the midpoint, a float round trip would have truncated this down to 1
+        Assert.assertEquals(HalfLookupTable.of(x -> 1 + 0x1p-11 + 0x1p-30).apply((short) 0), (short) 0x3c01);
+    }
+
+    private static void assertCorrectlyRounded(HalfLookupTable table, DoubleUnaryOperator function) {
+        for (int i = 0; i < 1 << Half.SIZE; i++) {
+            double x = Half.halfShortToFloat((short) i);
+            Assert.assertEquals(table.apply((short) i), nearestHalfShortBits(function.applyAsDouble(x)), "x=" + x);
+        }
+    }
+
+    /**
+     * Reference rounding: picks the nearer of the two {@code half} values bracketing {@code value}, ties to the even
+     * bit pattern. Infinity takes part as the value 2^16, the next step after the largest finite {@code half}.
+     */
+    static short nearestHalfShortBits(double value) {
+        if (Double.isNaN(value)) {
+            return (short) 0x7e00;
+        }
+        int sign = Math.copySign(1.0, value) < 0 ? 0x8000 : 0;
+        double abs = Math.abs(value);
+        if (abs >= 0x1p16) {
+            return (short) (sign | 0x7c00);
+        }
+        // largest finite bit pattern whose value is not above abs
+        int low = 0;
+        int high = 0x7bff;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (Half.halfShortToFloat((short) mid) <= abs) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        double below = abs - Half.halfShortToFloat((short) low);
+        double above = (low == 0x7bff ? 0x1p16 : Half.halfShortToFloat((short) (low + 1))) - abs;
+        int nearest = below < above || (below == above && (low & 1) == 0) ? low : low + 1;
+        return (short) (sign | nearest);
+    }
+
+    @Test
+    public void applyArrayRangeTest() {
+        short[] src = HalfUtil.floatArrayToHalfShortBits(1.0f, 2.0f, 3.0f);
+        short[] dst = new short[4];
+        SQUARE.apply(src, 1, dst, 2, 2);
+        Assert.assertEquals(dst, HalfUtil.floatArrayToHalfShortBits(0f, 0f, 4.0f, 9.0f));
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void applyArrayRangeOutOfBoundsTest() {
+        SQUARE.apply(new short[3], 2, new short[3], 0, 2);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void applyArrayLengthMismatchTest() {
+        SQUARE.apply(new short[3], new short[2]);
+    }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ReadOnlyBufferException;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HalfMappedArray}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfMappedArrayTest {
+
+    @Test
+    public void wrapTest() {
+        ByteBuffer buf = ByteBuffer.wrap(new byte[] { 0x7f, 0x00, 0x00, 0x3c, 0x00, (byte) 0xc0, 0x00, 0x01 });
+        buf.position(1);
+        HalfMappedArray array = HalfMappedArray.wrap(buf);
+        Assert.assertEquals(array.size(), 3);
+        Assert.assertEquals(array.order(), ByteOrder.BIG_ENDIAN);
+        Assert.assertEquals(array.get(0), Half.valueOf(0.0f));
+        Assert.assertEquals(array.getFloat(1), 1.0f);
+        Assert.assertEquals(array.getShortBits(2), (short) 0xc000);
+        Assert.assertEquals(array.toFloatArray(), new float[] { 0.0f, 1.0f, -2.0f });
+    }
+
+    @Test
+    public void setShortBitsTest() {
+        byte[] bytes = new byte[4];
+        HalfMappedArray array = HalfMappedArray.wrap(ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN));
+        array.setShortBits(1, (short) 0x3c00);
+        Assert.assertEquals(bytes, new byte[] { 0x00, 0x00, 0x00, 0x3c });
+
+        array.put(0, new short[] { 0x4000, 0x4200 }, 1, 1);
+        Assert.assertEquals(array.toShortBitsArray(), new short[] { 0x4200, 0x3c00 });
+    }
+
+    @Test
+    public void bulkGetTest() {
+        HalfMappedArray array = HalfMappedArray
+                .wrap(ByteBuffer.wrap(new byte[] { 0x3c, 0x00, 0x40, 0x00, 0x42, 0x00 }));
+        float[] floats = new float[4];
+        array.get(1, floats, 2, 2);
+        Assert.assertEquals(floats, new float[] { 0.0f, 0.0f, 2.0f, 3.0f });
+        short[] shorts = new short[1];
+        array.get(2, shorts, 0, 1);
+        Assert.assertEquals(shorts[0], (short) 0x4200);
+    }
+
+    @Test
+    public void asShortBufferTest() {
+        byte[] bytes = new byte[6];
+        HalfMappedArray array = HalfMappedArray.wrap(ByteBuffer.wrap(bytes));
+        ShortBuffer buf = array.asShortBuffer();
+        Assert.assertEquals(buf.remaining(), 3);
+        buf.put(2, (short) 0x3c00);
+        Assert.assertEquals(array.get(2), Half.valueOf(1.0f));
+
+        ShortBuffer[] buffers = array.asShortBuffers();
+        Assert.assertEquals(buffers.length, 1);
+        Assert.assertEquals(buffers[0].remaining(), 3);
+    }
+
+    @Test
+    public void mapTest() throws IOException {
+        Path path = Files.createTempFile("half4j", ".bin");
+        try {
+            Files.write(path, new byte[] { 0x01, 0x00, 0x3c, 0x00, 0x40 });
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                HalfMappedArray array = HalfMappedArray.map(channel, MapMode.READ_WRITE, 1, 2, ByteOrder.LITTLE_ENDIAN);
+                Assert.assertEquals(array.toFloatArray(), new float[] { 1.0f, 2.0f });
+                array.setShortBits(0, (short) 0x4200);
+            }
+            Assert.assertEquals(Files.readAllBytes(path), new byte[] { 0x01, 0x00, 0x42, 0x00, 0x40 });
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void wrapChunkBoundaryTest() {
+        byte[] bytes = { 0x7f, 0x00, 0x3c, 0x00, 0x40, 0x00, 0x42, 0x00, 0x44, 0x00, 0x45, 0x7f };
+        ByteBuffer buf = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        buf.position(1);
+        // chunks of two values, so the five values span three chunks
+        HalfMappedArray array = HalfMappedArray.wrap(buf, 2);
+        Assert.assertEquals(array.size(), 5);
+        Assert.assertEquals(array.asShortBuffers().length, 3);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(array.getFloat(i), i + 1.0f);
+        }
+        float[] floats = new float[4];
+        array.get(1, floats, 0, 4);
+        Assert.assertEquals(floats, new float[] { 2.0f, 3.0f, 4.0f, 5.0f });
+
+        array.setShortBits(2, (short) 0x4600);
+        array.put(3, new short[] { 0x4700, 0x4800 }, 0, 2);
+        Assert.assertEquals(array.toShortBitsArray(), new short[] { 0x3c00, 0x4000, 0x4600, 0x4700, 0x4800 });
+        Assert.assertEquals(bytes[6], 0x46);
+        Assert.assertEquals(bytes[10], 0x48);
+        Assert.assertEquals(bytes[11], 0x7f);
+    }
+
+    @Test(expectedExceptions = ReadOnlyBufferException.class)
+    public void readOnlyTest() {
+        HalfMappedArray.wrap(ByteBuffer.allocate(2).asReadOnlyBuffer()).setShortBits(0, (short) 0);
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void indexOutOfBoundsTest() {
+        HalfMappedArray.wrap(ByteBuffer.allocate(2)).get(1);
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void rangeOutOfBoundsTest() {
+        HalfMappedArray.wrap(ByteBuffer.allocate(4)).get(1, new float[2], 0, 2);
+    }
+
+}
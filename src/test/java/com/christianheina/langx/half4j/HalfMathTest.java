@@ -16,6 +16,9 @@
 
 package com.christianheina.langx.half4j;
 
+import java.util.function.BiConsumer;
+import java.util.function.DoubleUnaryOperator;
+
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -88,4 +91,105 @@ public class HalfMathTest {
         Assert.assertEquals(HalfMath.abs(Half.NEGATIVE_MAX_VALUE), Half.MAX_VALUE);
     }
 
+    @Test
+    public void expLogTest() {
+        Assert.assertEquals(HalfMath.exp(Half.POSITIVE_ZERO), Half.valueOf(1.0f));
+        Assert.assertEquals(HalfMath.exp(Half.NEGATIVE_INFINITY), Half.POSITIVE_ZERO);
+        Assert.assertEquals(HalfMath.exp(Half.valueOf(12.0f)), Half.POSITIVE_INFINITY);
+        Assert.assertEquals(HalfMath.exp(Half.NaN), Half.NaN);
+        Assert.assertEquals(HalfMath.exp((short) 0x3c00), (short) 0x4170);
+
+        Assert.assertEquals(HalfMath.log(Half.valueOf(1.0f)), Half.POSITIVE_ZERO);
+        Assert.assertEquals(HalfMath.log(Half.POSITIVE_ZERO), Half.NEGATIVE_INFINITY);
+        Assert.assertEquals(HalfMath.log(Half.valueOf(-1.0f)), Half.NaN);
+        Assert.assertEquals(HalfMath.log2(Half.valueOf(1024.0f)), Half.valueOf(10.0f));
+        Assert.assertEquals(HalfMath.log2(Half.MIN_VALUE), Half.valueOf(-24.0f));
+    }
+
+    @Test
+    public void sqrtTest() {
+        Assert.assertEquals(HalfMath.sqrt(Half.valueOf(4.0f)), Half.valueOf(2.0f));
+        Assert.assertEquals(HalfMath.sqrt(Half.NEGATIVE_ZERO), Half.NEGATIVE_ZERO);
+        Assert.assertEquals(HalfMath.sqrt(Half.valueOf(-4.0f)), Half.NaN);
+        Assert.assertEquals(HalfMath.rsqrt(Half.valueOf(0.25f)), Half.valueOf(2.0f));
+        Assert.assertEquals(HalfMath.rsqrt(Half.POSITIVE_ZERO), Half.POSITIVE_INFINITY);
+    }
+
+    @Test
+    public void activationTest() {
+        Assert.assertEquals(HalfMath.tanh(Half.POSITIVE_INFINITY), Half.valueOf(1.0f));
+        Assert.assertEquals(HalfMath.tanh(Half.NEGATIVE_ZERO), Half.NEGATIVE_ZERO);
+
+        Assert.assertEquals(HalfMath.sigmoid(Half.POSITIVE_ZERO), Half.valueOf(0.5f));
+        Assert.assertEquals(HalfMath.sigmoid(Half.POSITIVE_INFINITY), Half.valueOf(1.0f));
+        Assert.assertEquals(HalfMath.sigmoid(Half.NEGATIVE_INFINITY), Half.POSITIVE_ZERO);
+
+        Assert.assertEquals(HalfMath.gelu(Half.POSITIVE_ZERO), Half.POSITIVE_ZERO);
+        Assert.assertEquals(HalfMath.gelu(Half.valueOf(10.0f)), Half.valueOf(10.0f));
+        Assert.assertEquals(HalfMath.gelu(Half.POSITIVE_INFINITY), Half.POSITIVE_INFINITY);
+        Assert.assertEquals(HalfMath.gelu(Half.NEGATIVE_INFINITY), Half.NEGATIVE_ZERO);
+        Assert.assertEquals(HalfMath.gelu(Half.valueOf(1.0f)).floatValue(), 0.8412f, 1e-3f);
+
+        Assert.assertEquals(HalfMath.silu(Half.POSITIVE_ZERO), Half.POSITIVE_ZERO);
+        Assert.assertEquals(HalfMath.silu(Half.NEGATIVE_INFINITY), Half.NEGATIVE_ZERO);
+        Assert.assertEquals(HalfMath.silu(Half.valueOf(1.0f)).floatValue(), 0.7311f, 1e-3f);
+
+        Assert.assertEquals(HalfMath.softplus(Half.POSITIVE_ZERO).floatValue(), (float) Math.log(2.0), 1e-3f);
+        Assert.assertEquals(HalfMath.softplus(Half.MAX_VALUE), Half.MAX_VALUE);
+        Assert.assertEquals(HalfMath.softplus(Half.NEGATIVE_INFINITY), Half.POSITIVE_ZERO);
+    }
+
+    @Test
+    public void roundToNearestTest() {
+        assertCorrectlyRounded(HalfMath::exp, Math::exp);
+        assertCorrectlyRounded(HalfMath::log, Math::log);
+        assertCorrectlyRounded(HalfMath::sqrt, Math::sqrt);
+        assertCorrectlyRounded(HalfMath::tanh, Math::tanh);
+    }
+
+    private static void assertCorrectlyRounded(ShortUnaryOperator scalar, DoubleUnaryOperator function) {
+        for (int i = 0; i < 1 << Half.SIZE; i++) {
+            double x = Half.halfShortToFloat((short) i);
+            Assert.assertEquals(scalar.apply((short) i),
+                    HalfLookupTableTest.nearestHalfShortBits(function.applyAsDouble(x)), "x=" + x);
+        }
+    }
+
+    @Test
+    public void bulkMatchesScalarTest() {
+        short[] src = new short[1 << Half.SIZE];
+        for (int i = 0; i < src.length; i++) {
+            src[i] = (short) i;
+        }
+        short[] dst = new short[src.length];
+
+        assertBulkMatchesScalar(src, dst, HalfMath::exp, HalfMath::exp);
+        assertBulkMatchesScalar(src, dst, HalfMath::log, HalfMath::log);
+        assertBulkMatchesScalar(src, dst, HalfMath::log2, HalfMath::log2);
+        assertBulkMatchesScalar(src, dst, HalfMath::sqrt, HalfMath::sqrt);
+        assertBulkMatchesScalar(src, dst, HalfMath::rsqrt, HalfMath::rsqrt);
+        assertBulkMatchesScalar(src, dst, HalfMath::tanh, HalfMath::tanh);
+        assertBulkMatchesScalar(src, dst, HalfMath::sigmoid, HalfMath::sigmoid);
+        assertBulkMatchesScalar(src, dst, HalfMath::gelu, HalfMath::gelu);
+        assertBulkMatchesScalar(src, dst, HalfMath::silu, HalfMath::silu);
+        assertBulkMatchesScalar(src, dst, HalfMath::softplus, HalfMath::softplus);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void bulkLengthMismatchTest() {
+        HalfMath.exp(new short[2], new short[1]);
+    }
+
+    private static void assertBulkMatchesScalar(short[] src, short[] dst, BiConsumer<short[], short[]> bulk,
+            ShortUnaryOperator scalar) {
+        bulk.accept(src, dst);
+        for (int i = 0; i < src.length; i++) {
+            Assert.assertEquals(dst[i], scalar.apply(src[i]), "bits " + Integer.toHexString(i));
+        }
+    }
+
+    private interface ShortUnaryOperator {
+        short apply(short shortBits);
+    }
+
 }
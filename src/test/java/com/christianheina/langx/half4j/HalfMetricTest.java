@@ -0,0 +1,60 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HalfMetric}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfMetricTest {
+
+    private static final short[] A = HalfUtil.floatArrayToHalfShortBits(1.0f, 2.0f, 2.0f);
+    private static final short[] B = HalfUtil.floatArrayToHalfShortBits(2.0f, 0f, -1.0f);
+
+    @Test
+    public void distanceTest() {
+        Assert.assertEquals(HalfMetric.DOT.distance(A, B), -0f);
+        Assert.assertEquals(HalfMetric.L2.distance(A, B), 1.0f + 4.0f + 9.0f);
+        Assert.assertEquals(HalfMetric.COSINE.distance(A, B), 1.0f, 1e-6f);
+        Assert.assertEquals(HalfMetric.COSINE.distance(A, A), 0f, 1e-6f);
+        Assert.assertEquals(HalfMetric.DOT.distance(A, A), -9.0f);
+    }
+
+    @Test
+    public void cosineZeroVectorTest() {
+        short[] zero = new short[3];
+        Assert.assertEquals(HalfMetric.COSINE.distance(zero, A), 1.0f);
+        Assert.assertEquals(HalfMetric.COSINE.distance(A, zero), 1.0f);
+    }
+
+    @Test
+    public void cosineScaleInvarianceTest() {
+        short[] scaled = HalfUtil.floatArrayToHalfShortBits(4.0f, 8.0f, 8.0f);
+        Assert.assertEquals(HalfMetric.COSINE.distance(scaled, B), HalfMetric.COSINE.distance(A, B), 1e-6f);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void lengthMismatchTest() {
+        HalfMetric.L2.distance(A, new short[2]);
+    }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Unit test for {@link HalfMetrics}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfMetricsTest {
+
+    @BeforeMethod
+    public void enable() {
+        HalfMetrics.reset();
+        HalfMetrics.setEnabled(true);
+    }
+
+    @AfterMethod
+    public void disable() {
+        HalfMetrics.setEnabled(false);
+        HalfMetrics.setEventThreshold(HalfMetrics.DEFAULT_EVENT_THRESHOLD);
+        HalfMetrics.reset();
+    }
+
+    @Test
+    public void disabledTest() {
+        HalfMetrics.setEnabled(false);
+        Assert.assertFalse(HalfMetrics.isEnabled());
+        HalfUtil.floatArrayToHalfShortBits(1f, 2f, Float.NaN);
+        Half.halfToShortBits(Half.valueOf(1f));
+        for (HalfMetrics.Path path : HalfMetrics.Path.values()) {
+            Assert.assertEquals(HalfMetrics.getConverted(path), 0);
+        }
+        Assert.assertEquals(HalfMetrics.getNaNs(), 0);
+    }
+
+    @Test
+    public void bulkTest() {
+        short[] shortBits = HalfUtil.floatArrayToHalfShortBits(1f, Float.NaN, 1e6f, Float.POSITIVE_INFINITY, 1e-6f,
+                1e-9f, 0f, -0f);
+        HalfUtil.halfShortBitsToFloatArray(shortBits);
+        Assert.assertEquals(HalfMetrics.getConverted(HalfMetrics.Path.BULK), 16);
+        Assert.assertEquals(HalfMetrics.getNaNs(), 1);
+        Assert.assertEquals(HalfMetrics.getOverflows(), 1);
+        Assert.assertEquals(HalfMetrics.getSubnormals(), 1);
+        Assert.assertEquals(HalfMetrics.getUnderflows(), 1);
+    }
+
+    @Test
+    public void scalarTest() {
+        Half.halfToShortBits(Half.valueOf(-1e6f));
+        Half.halfToRawShortBits(Half.valueOf(1e-6f));
+        Half.shortBitsToHalf((short) 0x3c00);
+        Assert.assertEquals(HalfMetrics.getConverted(HalfMetrics.Path.SCALAR), 3);
+        Assert.assertEquals(HalfMetrics.getOverflows(), 1);
+        Assert.assertEquals(HalfMetrics.getSubnormals(), 1);
+        Assert.assertEquals(HalfMetrics.getConverted(HalfMetrics.Path.BULK), 0);
+    }
+
+    @Test
+    public void tableTest() {
+        short[] a = HalfUtil.floatArrayToHalfShortBits(1f, 2f, 3f);
+        HalfArrays.dot(a, a);
+        HalfLookupTable.of(Math::abs).apply(a, a);
+        Assert.assertEquals(HalfMetrics.getConverted(HalfMetrics.Path.TABLE), 9);
+    }
+
+    @Test
+    public void simdTest() {
+        ByteBuffer buf = ByteBuffer.allocate(10);
+        HalfSwar.negate(buf, buf);
+        HalfSwar.abs(buf, buf);
+        Assert.assertEquals(HalfMetrics.getConverted(HalfMetrics.Path.SIMD), 10);
+    }
+
+    @Test
+    public void resetTest() {
+        HalfUtil.floatArrayToHalfShortBits(Float.NaN);
+        HalfMetrics.reset();
+        Assert.assertEquals(HalfMetrics.getConverted(HalfMetrics.Path.BULK), 0);
+        Assert.assertEquals(HalfMetrics.getNaNs(), 0);
+        Assert.assertTrue(HalfMetrics.report().startsWith("HalfMetrics[enabled=true, scalar=0, bulk=0"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void negativeThresholdTest() {
+        HalfMetrics.setEventThreshold(-1);
+    }
+
+    @Test
+    public void flightRecorderTest() throws IOException {
+        HalfMetrics.setEventThreshold(100);
+        Path file = Files.createTempFile("half4j", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.christianheina.langx.half4j.Bulk").withoutThreshold();
+            recording.start();
+            HalfUtil.floatArrayToHalfShortBits(new float[99]);
+            HalfUtil.floatArrayToHalfShortBits(new float[100]);
+            recording.stop();
+            recording.dump(file);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            Assert.assertEquals(events.size(), 1);
+            Assert.assertEquals(events.get(0).getString("operation"), "floatArrayToHalfShortBits");
+            Assert.assertEquals(events.get(0).getString("path"), "BULK");
+            Assert.assertEquals(events.get(0).getLong("elements"), 100);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HalfNpy}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfNpyTest {
+
+    private static final short[] VALUES = HalfUtil.floatArrayToHalfShortBits(1.0f, -2.0f, 0.5f, 65504.0f, 0.0f,
+            Float.POSITIVE_INFINITY);
+
+    @Test
+    public void writeHeaderTest() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HalfNpy.of(HalfUtil.floatArrayToHalfShortBits(1.0f, 2.0f, 3.0f), 3).write(out);
+        byte[] bytes = out.toByteArray();
+
+        // same layout as numpy.save
+        Assert.assertEquals(bytes.length, 128 + 6);
+        Assert.assertEquals(bytes[0], (byte) 0x93);
+        Assert.assertEquals(new String(bytes, 1, 5, StandardCharsets.ISO_8859_1), "NUMPY");
+        Assert.assertEquals(bytes[6], 1);
+        Assert.assertEquals(bytes[7], 0);
+        Assert.assertEquals((bytes[8] & 0xff) | (bytes[9] & 0xff) << 8, 118);
+        String header = new String(bytes, 10, 118, StandardCharsets.ISO_8859_1);
+        Assert.assertTrue(header.startsWith("{'descr': '<f2', 'fortran_order': False, 'shape': (3,), }"));
+        Assert.assertTrue(header.endsWith(" \n"));
+        Assert.assertEquals(Arrays.copyOfRange(bytes, 128, 134), new byte[] { 0x00, 0x3c, 0x00, 0x40, 0x00, 0x42 });
+    }
+
+    @Test
+    public void streamRoundTripTest() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HalfNpy.of(VALUES, 2, 3).write(out);
+        HalfNpy npy = HalfNpy.read(new ByteArrayInputStream(out.toByteArray()));
+        Assert.assertEquals(npy.getShape(), new long[] { 2, 3 });
+        Assert.assertFalse(npy.isFortranOrder());
+        Assert.assertEquals(npy.getData().toShortBitsArray(), VALUES);
+        Assert.assertEquals(npy.getData().getFloat(3), 65504.0f);
+    }
+
+    @Test
+    public void scalarTest() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HalfNpy.of(new short[] { 0x3c00 }).write(out);
+        Assert.assertTrue(new String(out.toByteArray(), StandardCharsets.ISO_8859_1).contains("'shape': (), }"));
+        HalfNpy npy = HalfNpy.read(new ByteArrayInputStream(out.toByteArray()));
+        Assert.assertEquals(npy.getShape(), new long[0]);
+        Assert.assertEquals(npy.getData().get(0), Half.valueOf(1.0f));
+    }
+
+    @Test
+    public void readBigEndianFortranTest() throws IOException {
+        String dict = "{'descr': '>f2', 'fortran_order': True, 'shape': (1, 2), }";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(new byte[] { (byte) 0x93, 'N', 'U', 'M', 'P', 'Y', 1, 0, (byte) (dict.length() + 1), 0 });
+        out.write((dict + "\n").getBytes(StandardCharsets.ISO_8859_1));
+        out.write(new byte[] { 0x3c, 0x00, (byte) 0xc0, 0x00 });
+
+        HalfNpy npy = HalfNpy.read(new ByteArrayInputStream(out.toByteArray()));
+        Assert.assertEquals(npy.getShape(), new long[] { 1, 2 });
+        Assert.assertTrue(npy.isFortranOrder());
+        Assert.assertEquals(npy.getData().order(), ByteOrder.BIG_ENDIAN);
+        Assert.assertEquals(npy.getData().toFloatArray(), new float[] { 1.0f, -2.0f });
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void unsupportedDtypeTest() throws IOException {
+        String dict = "{'descr': '<f4', 'fortran_order': False, 'shape': (1,), }\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(new byte[] { (byte) 0x93, 'N', 'U', 'M', 'P', 'Y', 1, 0, (byte) dict.length(), 0 });
+        out.write(dict.getBytes(StandardCharsets.ISO_8859_1));
+        out.write(new byte[4]);
+        HalfNpy.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = "Invalid shape.*")
+    public void negativeDimensionTest() throws IOException {
+        readHeader("{'descr': '<f2', 'fortran_order': False, 'shape': (-1, 2), }");
+    }
+
+    @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = "Invalid shape.*")
+    public void shapeOverflowTest() throws IOException {
+        readHeader("{'descr': '<f2', 'fortran_order': False, 'shape': (4294967296, 4294967296), }");
+    }
+
+    @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = "Header too long.*")
+    public void headerTooLongTest() throws IOException {
+        // version 2 with a header length of 2^31 - 1 and no header following
+        HalfNpy.read(
+                new ByteArrayInputStream(new byte[] { (byte) 0x93, 'N', 'U', 'M', 'P', 'Y', 2, 0, -1, -1, -1, 0x7f }));
+    }
+
+    private static void readHeader(String dict) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(new byte[] { (byte) 0x93, 'N', 'U', 'M', 'P', 'Y', 1, 0, (byte) (dict.length() + 1), 0 });
+        out.write((dict + "\n").getBytes(StandardCharsets.ISO_8859_1));
+        HalfNpy.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void invalidMagicTest() throws IOException {
+        HalfNpy.read(new ByteArrayInputStream(new byte[16]));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shapeMismatchTest() {
+        HalfNpy.of(VALUES, 2, 2);
+    }
+
+    @Test
+    public void fileRoundTripTest() throws IOException {
+        Path path = Files.createTempFile("half4j", ".npy");
+        try {
+            HalfNpy.of(VALUES, 3, 2).write(path);
+            HalfNpy npy = HalfNpy.read(path);
+            Assert.assertEquals(npy.getShape(), new long[] { 3, 2 });
+            Assert.assertEquals(npy.getData().size(), VALUES.length);
+            Assert.assertEquals(npy.getData().toShortBitsArray(), VALUES);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void createTest() throws IOException {
+        Path path = Files.createTempFile("half4j", ".npy");
+        try {
+            HalfNpy created = HalfNpy.create(path, ByteOrder.BIG_ENDIAN, 2, 3);
+            Assert.assertEquals(created.getData().getShortBits(5), 0);
+            created.getData().put(0, VALUES, 0, VALUES.length);
+
+            HalfNpy npy = HalfNpy.read(path);
+            Assert.assertEquals(npy.getShape(), new long[] { 2, 3 });
+            Assert.assertEquals(npy.getData().order(), ByteOrder.BIG_ENDIAN);
+            Assert.assertEquals(npy.getData().toShortBitsArray(), VALUES);
+            Assert.assertEquals(Files.size(path), 128 + VALUES.length * Half.BYTES);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void npzRoundTripTest() throws IOException {
+        Path path = Files.createTempFile("half4j", ".npz");
+        try {
+            Map<String, HalfNpy> arrays = new LinkedHashMap<>();
+            arrays.put("weights", HalfNpy.of(VALUES, 2, 3));
+            arrays.put("bias", HalfNpy.of(new short[] { 0x3c00, 0x4000 }, 2));
+            HalfNpy.writeNpz(path, arrays);
+
+            Map<String, HalfNpy> read = HalfNpy.readNpz(path);
+            Assert.assertEquals(read.keySet().toArray(), new String[] { "weights", "bias" });
+            Assert.assertEquals(read.get("weights").getShape(), new long[] { 2, 3 });
+            Assert.assertEquals(read.get("weights").getData().toShortBitsArray(), VALUES);
+            Assert.assertEquals(read.get("bias").getData().toFloatArray(), new float[] { 1.0f, 2.0f });
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HalfPqIndex}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfPqIndexTest {
+
+    private static final int DIMENSION = 16;
+
+    @Test
+    public void asymmetricDistanceTest() {
+        HalfVectorStore store = HalfVectorStore.of(HalfVectorStoreTest.randomVectors(new Random(1), 1000, DIMENSION),
+                DIMENSION);
+        HalfProductQuantizer quantizer = HalfProductQuantizer.train(store, 4, 32, 5, 1);
+        short[] query = HalfVectorStoreTest.randomVectors(new Random(2), 1, DIMENSION);
+        for (HalfMetric metric : HalfMetric.values()) {
+            HalfPqIndex index = HalfPqIndex.build(store, quantizer, metric);
+            Assert.assertEquals(index.size(), 1000);
+            Assert.assertEquals(index.getMetric(), metric);
+            HalfNeighbors neighbors = index.search(query, 5);
+            Assert.assertEquals(neighbors.size(), 5);
+            for (int i = 0; i < neighbors.size(); i++) {
+                short[] decoded = quantizer.decode(index.getCode(neighbors.getId(i)));
+                Assert.assertEquals(neighbors.getDistance(i),
+                        metric.distance(metric.prepare(query), decoded, 0, DIMENSION), 1e-3f, metric.name());
+            }
+        }
+    }
+
+    @Test
+    public void recallTest() {
+        HalfVectorStore store = HalfVectorStore.of(HalfVectorStoreTest.randomVectors(new Random(3), 5000, DIMENSION),
+                DIMENSION);
+        HalfPqIndex index = HalfPqIndex.build(store, HalfProductQuantizer.train(store, 8, 256, 10, 3), HalfMetric.L2);
+        Random random = new Random(4);
+        int found = 0;
+        for (int q = 0; q < 50; q++) {
+            short[] query = store.getVector(random.nextInt(5000));
+            long[] exact = store.search(query, 10, HalfMetric.L2).getIds();
+            long[] approximate = index.search(query, 100).getIds();
+            for (long expected : exact) {
+                for (long id : approximate) {
+                    found += id == expected ? 1 : 0;
+                }
+            }
+        }
+        // recall of the 10 nearest within the 100 nearest codes
+        Assert.assertTrue(found >= 50 * 10 * 9 / 10, "recall " + found);
+    }
+
+    @Test
+    public void parallelSearchTest() {
+        HalfVectorStore store = HalfVectorStore.of(HalfVectorStoreTest.randomVectors(new Random(5), 20000, DIMENSION),
+                DIMENSION);
+        HalfPqIndex index = HalfPqIndex.build(store, HalfProductQuantizer.train(store, 8, 16, 2, 5), HalfMetric.DOT);
+        short[] query = store.getVector(3);
+        HalfNeighbors neighbors = index.search(query, 20);
+        TopK topK = new TopK(20);
+        float[] prepared = HalfMetric.DOT.prepare(query);
+        for (long id = 0; id < index.size(); id++) {
+            topK.offer(id,
+                    HalfMetric.DOT.distance(prepared, index.getQuantizer().decode(index.getCode(id)), 0, DIMENSION));
+        }
+        HalfNeighbors expected = topK.toNeighbors();
+        // table lookups sum in a different order than the kernels, so ties may be broken differently
+        Assert.assertEquals(neighbors.getDistances(), expected.getDistances(), 1e-3f);
+        Assert.assertEquals(index.search(query, Integer.MAX_VALUE).size(), index.size());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void queryDimensionTest() {
+        HalfVectorStore store = HalfVectorStore.of(new short[DIMENSION * 4], DIMENSION);
+        HalfPqIndex.build(store, HalfProductQuantizer.train(store, 4, 4, 1, 1), HalfMetric.L2)
+                .search(new short[DIMENSION - 1], 1);
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void getCodeOutOfBoundsTest() {
+        HalfVectorStore store = HalfVectorStore.of(new short[DIMENSION * 4], DIMENSION);
+        HalfPqIndex.build(store, HalfProductQuantizer.train(store, 4, 4, 1, 1), HalfMetric.L2).getCode(4);
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HalfProductQuantizer}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfProductQuantizerTest {
+
+    private static final int DIMENSION = 16;
+
+    @Test
+    public void trainTest() {
+        HalfVectorStore store = HalfVectorStore.of(HalfVectorStoreTest.randomVectors(new Random(1), 3000, DIMENSION),
+                DIMENSION);
+        HalfProductQuantizer quantizer = HalfProductQuantizer.train(store, 4, 64, 10, 1);
+        Assert.assertEquals(quantizer.dimension(), DIMENSION);
+        Assert.assertEquals(quantizer.subspaces(), 4);
+        Assert.assertEquals(quantizer.centroids(), 64);
+        Assert.assertEquals(quantizer.getCodebook(3).length, 64 * 4);
+    }
+
+    @Test
+    public void encodeDecodeTest() {
+        HalfVectorStore store = HalfVectorStore.of(HalfVectorStoreTest.randomVectors(new Random(2), 3000, DIMENSION),
+                DIMENSION);
+        HalfProductQuantizer quantizer = HalfProductQuantizer.train(store, 8, 256, 10, 2);
+        float error = 0f;
+        float energy = 0f;
+        for (int i = 0; i < 100; i++) {
+            short[] vector = store.getVector(i);
+            byte[] code = quantizer.encode(vector);
+            Assert.assertEquals(code.length, 8);
+            short[] decoded = quantizer.decode(code);
+            Assert.assertEquals(quantizer.encode(decoded), code);
+            error += HalfArrays.squaredDistance(vector, decoded);
+            energy += HalfArrays.dot(vector, vector);
+        }
+        Assert.assertTrue(error < energy / 4, error + " " + energy);
+    }
+
+    @Test
+    public void exactCodebookTest() {
+        // four distinct vectors fit the codebooks exactly
+        short[] vectors = HalfUtil.floatArrayToHalfShortBits(1f, 2f, 3f, 4f, -1f, 0f, 0.5f, 8f, 1f, 2f, 0.5f, 8f, -1f,
+                0f, 3f, 4f);
+        HalfProductQuantizer quantizer = HalfProductQuantizer.train(HalfVectorStore.of(vectors, 4), 2, 2, 5, 3);
+        for (int i = 0; i < 4; i++) {
+            short[] vector = Arrays.copyOfRange(vectors, i * 4, (i + 1) * 4);
+            Assert.assertEquals(quantizer.decode(quantizer.encode(vector)), vector);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void invalidSubspacesTest() {
+        HalfProductQuantizer.train(HalfVectorStore.of(new short[DIMENSION], DIMENSION), 3, 16, 1, 1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void invalidCentroidsTest() {
+        HalfProductQuantizer.train(HalfVectorStore.of(new short[DIMENSION], DIMENSION), 4, 257, 1, 1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void dimensionMismatchTest() {
+        HalfProductQuantizer.train(HalfVectorStore.of(new short[DIMENSION], DIMENSION), 4, 16, 1, 1)
+                .encode(new short[DIMENSION + 1]);
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HalfRows}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfRowsTest {
+
+    private static final float DELTA = 2e-3f;
+
+    private static final float[] ROWS = new float[] { 1f, 2f, 3f, 4f, -10f, 0f, 10f, 0f };
+
+    @Test
+    public void softmaxTest() {
+        short[] dst = new short[ROWS.length];
+        HalfRows.softmax(HalfUtil.floatArrayToHalfShortBits(ROWS), dst, 4);
+        assertClose(dst, softmaxReference(ROWS, 4, false));
+        float sum = 0f;
+        for (int i = 0; i < 4; i++) {
+            sum += Half.halfShortToFloat(dst[i]);
+        }
+        Assert.assertEquals(sum, 1f, DELTA);
+    }
+
+    @Test
+    public void softmaxLargeValuesTest() {
+        short[] src = HalfUtil.floatArrayToHalfShortBits(65504f, 65504f, -65504f);
+        HalfRows.softmax(src, src, 3);
+        Assert.assertEquals(src, HalfUtil.floatArrayToHalfShortBits(0.5f, 0.5f, 0f));
+    }
+
+    @Test
+    public void logSoftmaxTest() {
+        short[] src = HalfUtil.floatArrayToHalfShortBits(ROWS);
+        HalfRows.logSoftmax(src, src, 4);
+        assertClose(src, softmaxReference(ROWS, 4, true));
+    }
+
+    @Test
+    public void layerNormTest() {
+        short[] dst = new short[ROWS.length];
+        HalfRows.layerNorm(HalfUtil.floatArrayToHalfShortBits(ROWS), dst, 4, null, null, 0f);
+        float invStd = (float) (1 / Math.sqrt(1.25));
+        float[] expected = new float[] { -1.5f * invStd, -0.5f * invStd, 0.5f * invStd, 1.5f * invStd };
+        assertClose(dst, expected, 4);
+
+        short[] gamma = HalfUtil.floatArrayToHalfShortBits(2f, 2f, 2f, 2f);
+        short[] beta = HalfUtil.floatArrayToHalfShortBits(1f, 1f, 1f, 1f);
+        HalfRows.layerNorm(HalfUtil.floatArrayToHalfShortBits(ROWS), dst, 4, gamma, beta, 0f);
+        for (int i = 0; i < 4; i++) {
+            expected[i] = expected[i] * 2f + 1f;
+        }
+        assertClose(dst, expected, 4);
+        // second row has mean 0 and variance 50
+        Assert.assertEquals(Half.halfShortToFloat(dst[6]), (float) (10 / Math.sqrt(50)) * 2f + 1f, DELTA * 4);
+    }
+
+    @Test
+    public void rmsNormTest() {
+        short[] dst = new short[ROWS.length];
+        short[] gamma = HalfUtil.floatArrayToHalfShortBits(1f, 1f, 1f, 0.5f);
+        HalfRows.rmsNorm(HalfUtil.floatArrayToHalfShortBits(ROWS), dst, 4, gamma, 1e-6f);
+        float invRms = (float) (1 / Math.sqrt(30.0 / 4));
+        assertClose(dst, new float[] { invRms, 2f * invRms, 3f * invRms, 2f * invRms }, 4);
+    }
+
+    @Test
+    public void roundToNearestTest() {
+        float[] row = new float[64];
+        Random random = new Random(3);
+        for (int i = 0; i < row.length; i++) {
+            row[i] = Half.halfShortToFloat(Half.roundToHalfShortBits(random.nextFloat() * 8 - 4));
+        }
+        short[] dst = new short[row.length];
+        HalfRows.softmax(HalfUtil.floatArrayToHalfShortBits(row), dst, row.length);
+        float[] expected = softmaxReference(row, row.length, false);
+        for (int i = 0; i < row.length; i++) {
+            // within half an ulp, with a little room for the float accumulation; truncation is off by up to an ulp
+            Half value = Half.shortBitsToHalf(dst[i]);
+            Assert.assertEquals(value.floatValue(), expected[i], 0.51f * HalfMath.ulp(value).floatValue(),
+                    "index " + i);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rowLengthTest() {
+        HalfRows.softmax(new short[6], new short[6], 4);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void parameterLengthTest() {
+        HalfRows.rmsNorm(new short[8], new short[8], 4, new short[3], 1e-6f);
+    }
+
+    private static float[] softmaxReference(float[] values, int cols, boolean log) {
+        float[] result = new float[values.length];
+        for (int offset = 0; offset < values.length; offset += cols) {
+            double sum = 0;
+            for (int i = offset; i < offset + cols; i++) {
+                sum += Math.exp(values[i]);
+            }
+            for (int i = offset; i < offset + cols; i++) {
+                result[i] = (float) (log ? values[i] - Math.log(sum) : Math.exp(values[i]) / sum);
+            }
+        }
+        return result;
+    }
+
+    private static void assertClose(short[] actual, float[] expected) {
+        assertClose(actual, expected, expected.length);
+    }
+
+    private static void assertClose(short[] actual, float[] expected, int length) {
+        for (int i = 0; i < length; i++) {
+            float value = Half.halfShortToFloat(actual[i]);
+            Assert.assertEquals(value, expected[i], DELTA * Math.max(1f, Math.abs(expected[i])), "index " + i);
+        }
+    }
+
+}
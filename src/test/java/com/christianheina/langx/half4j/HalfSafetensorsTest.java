@@ -0,0 +1,170 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.christianheina.langx.half4j.HalfSafetensors.Dtype;
+import com.christianheina.langx.half4j.HalfSafetensors.Tensor;
+
+/**
+ * Unit test for {@link HalfSafetensors}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfSafetensorsTest {
+
+    private Path path;
+
+    @BeforeClass
+    public void writeFile() throws IOException {
+        String header = "{\"__metadata__\":{\"format\":\"pt\"},"
+                + "\"half\":{\"dtype\":\"F16\",\"shape\":[2,2],\"data_offsets\":[0,8]},"
+                + "\"ids\":{\"dtype\":\"I64\",\"shape\":[1],\"data_offsets\":[8,16]},"
+                + "\"brain\":{\"dtype\":\"BF16\",\"shape\":[3],\"data_offsets\":[16,22]},"
+                + "\"single\":{\"dtype\":\"F32\",\"shape\":[2],\"data_offsets\":[22,30]}}   ";
+        byte[] headerBytes = header.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buf = ByteBuffer.allocate(8 + headerBytes.length + 30).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putLong(headerBytes.length).put(headerBytes);
+        buf.putShort((short) 0x3c00).putShort((short) 0x4000).putShort((short) 0xc200).putShort((short) 0x7c00);
+        buf.putLong(42L);
+        buf.putShort((short) 0x3f80).putShort((short) 0xc040).putShort((short) 0x4780);
+        buf.putFloat(0.1f).putFloat(-70000.0f);
+        path = Files.createTempFile("half4j", ".safetensors");
+        Files.write(path, buf.array());
+    }
+
+    @AfterClass
+    public void deleteFile() throws IOException {
+        Files.delete(path);
+    }
+
+    @Test
+    public void openTest() throws IOException {
+        HalfSafetensors safetensors = HalfSafetensors.open(path);
+        Assert.assertEquals(safetensors.getMetadata().get("format"), "pt");
+        Assert.assertEquals(safetensors.getTensorNames().toArray(), new String[] { "half", "brain", "single" });
+    }
+
+    @Test
+    public void f16Test() throws IOException {
+        Tensor tensor = HalfSafetensors.open(path).getTensor("half");
+        Assert.assertEquals(tensor.getName(), "half");
+        Assert.assertEquals(tensor.getDtype(), Dtype.F16);
+        Assert.assertEquals(tensor.getShape(), new long[] { 2, 2 });
+        Assert.assertEquals(tensor.size(), 4);
+        Assert.assertEquals(tensor.getFloat(2), -3.0f);
+        Assert.assertEquals(tensor.getHalf(3), Half.POSITIVE_INFINITY);
+        Assert.assertEquals(tensor.toFloatArray(), new float[] { 1.0f, 2.0f, -3.0f, Float.POSITIVE_INFINITY });
+        Assert.assertEquals(tensor.getHalfData().getShortBits(1), (short) 0x4000);
+    }
+
+    @Test
+    public void bf16Test() throws IOException {
+        Tensor tensor = HalfSafetensors.open(path).getTensor("brain");
+        Assert.assertEquals(tensor.getDtype(), Dtype.BF16);
+        Assert.assertEquals(tensor.getFloat(1), -3.0f);
+        Assert.assertEquals(tensor.toFloatArray(), new float[] { 1.0f, -3.0f, 65536.0f });
+        Assert.assertEquals(tensor.getHalf(2), Half.POSITIVE_INFINITY);
+    }
+
+    @Test
+    public void f32Test() throws IOException {
+        Tensor tensor = HalfSafetensors.open(path).getTensor("single");
+        Assert.assertEquals(tensor.getDtype(), Dtype.F32);
+        Assert.assertEquals(tensor.getFloat(0), 0.1f);
+        float[] floats = new float[3];
+        tensor.get(1, floats, 1, 1);
+        Assert.assertEquals(floats, new float[] { 0.0f, -70000.0f, 0.0f });
+        Assert.assertEquals(tensor.getHalf(0), Half.shortBitsToHalf(Half.floatToHalfShortBits(0.1f)));
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void halfDataOfBf16Test() throws IOException {
+        HalfSafetensors.open(path).getTensor("brain").getHalfData();
+    }
+
+    @Test
+    public void unsupportedTensorTest() throws IOException {
+        HalfSafetensors safetensors = HalfSafetensors.open(path);
+        Assert.assertEquals(safetensors.getUnsupportedTensorNames().toArray(), new String[] { "ids" });
+        try {
+            safetensors.getTensor("ids");
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals(e.getMessage(), "Unsupported dtype I64 of tensor ids");
+        }
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void indexOutOfBoundsTest() throws IOException {
+        HalfSafetensors.open(path).getTensor("single").getFloat(2);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void invalidOffsetsTest() throws IOException {
+        open("{\"t\":{\"dtype\":\"F16\",\"shape\":[2],\"data_offsets\":[0,2]}}", 4);
+    }
+
+    @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = "Invalid shape of tensor t")
+    public void shapeOverflowTest() throws IOException {
+        open("{\"t\":{\"dtype\":\"F16\",\"shape\":[4294967296,4294967296],\"data_offsets\":[0,0]}}", 0);
+    }
+
+    @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = "Invalid shape of tensor t")
+    public void byteSizeOverflowTest() throws IOException {
+        // 2^62 elements of 4 bytes wrap around to a byte size of 0
+        open("{\"t\":{\"dtype\":\"F32\",\"shape\":[4611686018427387904],\"data_offsets\":[0,0]}}", 0);
+    }
+
+    private static void open(String header, int dataLength) throws IOException {
+        byte[] headerBytes = header.getBytes(StandardCharsets.UTF_8);
+        Path invalid = Files.createTempFile("half4j", ".safetensors");
+        try {
+            Files.write(invalid, ByteBuffer.allocate(8 + headerBytes.length + dataLength).order(ByteOrder.LITTLE_ENDIAN)
+                    .putLong(headerBytes.length).put(headerBytes).array());
+            HalfSafetensors.open(invalid);
+        } finally {
+            Files.delete(invalid);
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void invalidJsonTest() throws IOException {
+        byte[] header = "{\"t\":".getBytes(StandardCharsets.UTF_8);
+        Path invalid = Files.createTempFile("half4j", ".safetensors");
+        try {
+            Files.write(invalid, ByteBuffer.allocate(8 + header.length).order(ByteOrder.LITTLE_ENDIAN)
+                    .putLong(header.length).put(header).array());
+            HalfSafetensors.open(invalid);
+        } finally {
+            Files.delete(invalid);
+        }
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HalfScratch}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfScratchTest {
+
+    @Test
+    public void acquireLengthTest() {
+        Assert.assertEquals(HalfScratch.acquireShorts(0).length, HalfScratch.MIN_LENGTH);
+        Assert.assertEquals(HalfScratch.acquireShorts(1000).length, 1024);
+        Assert.assertEquals(HalfScratch.acquireShorts(1025).length, 2048);
+        Assert.assertEquals(HalfScratch.acquireFloats(HalfScratch.MAX_LENGTH).length, HalfScratch.MAX_LENGTH);
+        Assert.assertEquals(HalfScratch.acquireFloats(HalfScratch.MAX_LENGTH + 1).length, HalfScratch.MAX_LENGTH + 1);
+    }
+
+    @Test
+    public void reuseTest() {
+        // size classes not used by the kernels, so no other array is pooled
+        short[] shorts = HalfScratch.acquireShorts(HalfScratch.MAX_LENGTH - 1);
+        HalfScratch.release(shorts);
+        long hits = HalfScratch.getHits();
+        Assert.assertSame(HalfScratch.acquireShorts(HalfScratch.MAX_LENGTH), shorts);
+        Assert.assertEquals(HalfScratch.getHits(), hits + 1);
+        HalfScratch.release(shorts);
+
+        float[] floats = HalfScratch.acquireFloats(HalfScratch.MAX_LENGTH / 2);
+        HalfScratch.release(floats);
+        Assert.assertSame(HalfScratch.acquireFloats(HalfScratch.MAX_LENGTH / 2 - 1), floats);
+        HalfScratch.release(floats);
+    }
+
+    @Test
+    public void retainedLimitTest() {
+        // the largest size class holds a single array, the others released in a burst are left to the collector
+        float[][] burst = new float[4][];
+        for (int i = 0; i < burst.length; i++) {
+            burst[i] = HalfScratch.acquireFloats(HalfScratch.MAX_LENGTH);
+        }
+        for (float[] array : burst) {
+            HalfScratch.release(array);
+        }
+        int pooled = 0;
+        for (int i = 0; i < burst.length; i++) {
+            float[] array = HalfScratch.acquireFloats(HalfScratch.MAX_LENGTH);
+            for (float[] released : burst) {
+                pooled += array == released ? 1 : 0;
+            }
+        }
+        Assert.assertEquals(pooled, 1);
+    }
+
+    @Test
+    public void unpooledTest() {
+        long hits = HalfScratch.getHits();
+        long misses = HalfScratch.getMisses();
+        short[] large = HalfScratch.acquireShorts(HalfScratch.MAX_LENGTH + 1);
+        HalfScratch.release(large);
+        // arrays not allocated by the pool are not pooled
+        HalfScratch.release(new short[1000]);
+        Assert.assertNotSame(HalfScratch.acquireShorts(HalfScratch.MAX_LENGTH + 1), large);
+        Assert.assertEquals(HalfScratch.getHits(), hits);
+        Assert.assertEquals(HalfScratch.getMisses(), misses);
+    }
+
+    @Test
+    public void steadyStateTest() {
+        ShortBuffer x = ByteBuffer.allocateDirect(5000 * 2).asShortBuffer();
+        ShortBuffer y = ByteBuffer.allocateDirect(5000 * 2).asShortBuffer();
+        HalfArrays.add(x, y, y);
+        long misses = HalfScratch.getMisses();
+        long hits = HalfScratch.getHits();
+        for (int i = 0; i < 10; i++) {
+            HalfArrays.add(x, y, y);
+        }
+        Assert.assertEquals(HalfScratch.getMisses(), misses);
+        Assert.assertEquals(HalfScratch.getHits(), hits + 20);
+    }
+
+    @Test
+    public void concurrentTest() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                short value = (short) t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10000; i++) {
+                        short[] scratch = HalfScratch.acquireShorts(2000);
+                        Arrays.fill(scratch, 0, 2000, value);
+                        Thread.yield();
+                        for (int j = 0; j < 2000; j += 97) {
+                            // no other thread may use the array before it is released
+                            Assert.assertEquals(scratch[j], value);
+                        }
+                        HalfScratch.release(scratch);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void resetStatisticsTest() {
+        HalfScratch.release(HalfScratch.acquireFloats(10));
+        HalfScratch.resetStatistics();
+        Assert.assertEquals(HalfScratch.getHits(), 0);
+        Assert.assertEquals(HalfScratch.getMisses(), 0);
+    }
+
+    @Test(expectedExceptions = NegativeArraySizeException.class)
+    public void negativeLengthTest() {
+        HalfScratch.acquireShorts(-1);
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HalfSerialization} and the serialized form of {@link Half}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfSerializationTest {
+
+    private static byte[] serialize(Object obj) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(obj);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        }
+    }
+
+    @Test
+    public void javaSerializationTest() throws IOException, ClassNotFoundException {
+        for (int i = 0; i < 1 << Half.SIZE; i += 97) {
+            Half half = Half.shortBitsToHalf((short) i);
+            Assert.assertEquals(deserialize(serialize(half)), half);
+        }
+        Half inexact = Half.valueOf(0.1f);
+        Assert.assertEquals(deserialize(serialize(inexact)), inexact);
+    }
+
+    @Test
+    public void canonicalInstanceTest() throws IOException, ClassNotFoundException {
+        Assert.assertSame(deserialize(serialize(Half.shortBitsToHalf((short) 0x7c00))), Half.POSITIVE_INFINITY);
+        Assert.assertSame(deserialize(serialize(Half.shortBitsToHalf((short) 0x7e05))), Half.NaN);
+        Assert.assertSame(deserialize(serialize(Half.valueOf(-0.0f))), Half.NEGATIVE_ZERO);
+        Assert.assertSame(deserialize(serialize(Half.valueOf(65504.0f))), Half.MAX_VALUE);
+    }
+
+    @Test
+    public void compactFormTest() throws IOException {
+        Half[] halves = new Half[1000];
+        Arrays.fill(halves, Half.valueOf(1.5f));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        HalfSerialization.writeHalfArray(new DataOutputStream(bytes), halves);
+        Assert.assertEquals(bytes.size(), Integer.BYTES + halves.length * Half.BYTES);
+        Assert.assertTrue(bytes.size() < serialize(halves).length / 2);
+    }
+
+    @Test
+    public void halfTest() throws IOException {
+        Half[] values = { Half.valueOf(1.0f), Half.valueOf(-2.5f), Half.valueOf(0.1f), Half.NaN, null,
+                Half.NEGATIVE_ZERO, Half.MIN_VALUE };
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (Half value : values) {
+            HalfSerialization.writeHalf(out, value);
+        }
+        // 0.1 is not representable in half precision and takes a marker and a float
+        Assert.assertEquals(bytes.size(), values.length * Half.BYTES + Float.BYTES);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        for (Half value : values) {
+            Assert.assertEquals(HalfSerialization.readHalf(in), value);
+        }
+    }
+
+    @Test
+    public void halfArrayTest() throws IOException {
+        Half[] halves = { Half.valueOf(3.0f), null, Half.POSITIVE_INFINITY };
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        HalfSerialization.writeHalfArray(out, halves);
+        HalfSerialization.writeHalfArray(out, null);
+        HalfSerialization.writeHalfArray(out, new Half[0]);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        Assert.assertEquals(HalfSerialization.readHalfArray(in), halves);
+        Assert.assertNull(HalfSerialization.readHalfArray(in));
+        Assert.assertEquals(HalfSerialization.readHalfArray(in), new Half[0]);
+    }
+
+    @Test
+    public void largeHalfArrayTest() throws IOException {
+        Half[] halves = new Half[100000];
+        for (int i = 0; i < halves.length; i++) {
+            halves[i] = Half.shortBitsToHalf((short) i);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        HalfSerialization.writeHalfArray(new DataOutputStream(bytes), halves);
+        Half[] read = HalfSerialization
+                .readHalfArray(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        Assert.assertEquals(read, halves);
+    }
+
+    @Test(expectedExceptions = EOFException.class)
+    public void truncatedHalfArrayTest() throws IOException {
+        // a length of Integer.MAX_VALUE followed by a single element must not allocate for the full length
+        HalfSerialization.readHalfArray(
+                new DataInputStream(new ByteArrayInputStream(new byte[] { 0x7f, -1, -1, -1, 0x3c, 0x00 })));
+    }
+
+    @Test
+    public void halfCollectionTest() throws IOException {
+        List<Half> halves = Arrays.asList(Half.valueOf(1.0f), Half.valueOf(2.0f), null);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        HalfSerialization.writeHalfCollection(new DataOutputStream(bytes), halves);
+        List<Half> read = HalfSerialization
+                .readHalfList(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        Assert.assertEquals(read, halves);
+    }
+
+    @Test(expectedExceptions = StreamCorruptedException.class)
+    public void invalidLengthTest() throws IOException {
+        HalfSerialization.readHalfList(new DataInputStream(new ByteArrayInputStream(new byte[] { -1, -1, -1, -2 })));
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HalfSeries}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfSeriesTest {
+
+    private static short[] gauge(int length) {
+        float[] floats = new float[length];
+        for (int i = 0; i < length; i++) {
+            floats[i] = 50.0f + (i / 10 % 7) * 0.25f;
+        }
+        return HalfUtil.floatArrayToHalfShortBits(floats);
+    }
+
+    @Test
+    public void roundTripTest() {
+        short[] values = gauge(5000);
+        HalfSeries series = HalfSeries.of(values);
+        Assert.assertEquals(series.size(), values.length);
+        Assert.assertEquals(series.blockSize(), HalfSeries.DEFAULT_BLOCK_SIZE);
+        Assert.assertEquals(series.blockCount(), 5);
+        Assert.assertEquals(series.toShortBitsArray(), values);
+        // mostly repeated values take about one bit each
+        Assert.assertTrue(series.bitLength() < values.length * 4L, "bit length " + series.bitLength());
+    }
+
+    @Test
+    public void allBitPatternsTest() {
+        short[] values = new short[1 << Half.SIZE];
+        Random random = new Random(7);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (short) (i % 3 == 0 ? random.nextInt() : i);
+        }
+        HalfSeries series = new HalfSeries.Encoder(100).append(values, 0, values.length).build();
+        Assert.assertEquals(series.toShortBitsArray(), values);
+    }
+
+    @Test
+    public void randomAccessTest() {
+        short[] values = gauge(3000);
+        HalfSeries series = new HalfSeries.Encoder(256).append(values, 0, values.length).build();
+        for (int i = 0; i < values.length; i += 37) {
+            Assert.assertEquals(series.getShortBits(i), values[i]);
+        }
+        Assert.assertEquals(series.get(values.length - 1), Half.shortBitsToHalf(values[values.length - 1]));
+    }
+
+    @Test
+    public void blockIteratorTest() {
+        short[] values = gauge(1000);
+        HalfSeries series = new HalfSeries.Encoder(300).append(values, 0, values.length).build();
+        HalfSeries.BlockIterator iterator = series.blockIterator(2);
+        Assert.assertEquals(iterator.nextBlockIndex(), 2);
+        short[] block = new short[300];
+        Assert.assertEquals(iterator.next(block, 0), 300);
+        for (int i = 0; i < 300; i++) {
+            Assert.assertEquals(block[i], values[600 + i]);
+        }
+        Assert.assertEquals(iterator.next(block, 0), 100);
+        Assert.assertEquals(block[99], values[999]);
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    @Test(expectedExceptions = NoSuchElementException.class)
+    public void blockIteratorEndTest() {
+        HalfSeries.of().blockIterator(0).next(new short[1], 0);
+    }
+
+    @Test
+    public void encoderAppendTest() {
+        HalfSeries.Encoder encoder = new HalfSeries.Encoder(2);
+        encoder.append(Half.valueOf(1.0f)).append(Half.NaN).append(Half.NEGATIVE_INFINITY);
+        HalfSeries series = encoder.build();
+        Assert.assertEquals(series.get(0), Half.valueOf(1.0f));
+        Assert.assertEquals(series.get(1), Half.NaN);
+        Assert.assertEquals(series.get(2), Half.NEGATIVE_INFINITY);
+        encoder.append((short) 0x8000);
+        Assert.assertEquals(series.size(), 3);
+        Assert.assertEquals(encoder.build().getShortBits(3), (short) 0x8000);
+    }
+
+    @Test
+    public void serializationTest() throws IOException {
+        short[] values = gauge(2500);
+        HalfSeries series = HalfSeries.of(values);
+        HalfSeries read = HalfSeries.fromByteArray(series.toByteArray());
+        Assert.assertEquals(read.size(), series.size());
+        Assert.assertEquals(read.blockCount(), series.blockCount());
+        Assert.assertEquals(read.toShortBitsArray(), values);
+        Assert.assertEquals(read.getShortBits(2048), values[2048]);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void invalidSerializationTest() throws IOException {
+        HalfSeries.fromByteArray(new byte[24]);
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void indexOutOfBoundsTest() {
+        HalfSeries.of((short) 0).getShortBits(1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void invalidBlockSizeTest() {
+        new HalfSeries.Encoder(0);
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HalfSwar}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfSwarTest {
+
+    private static final short[] SPECIAL = new short[] { 0x0000, (short) 0x8000, 0x0001, (short) 0x8001, 0x3c00,
+            (short) 0xbc00, 0x7bff, (short) 0xfbff, 0x7c00, (short) 0xfc00, 0x7c01, 0x7e00, (short) 0xfe00, 0x7fff,
+            (short) 0xffff, 0x03ff };
+
+    @Test
+    public void packTest() {
+        long packed = HalfSwar.pack((short) 1, (short) 0xfffe, (short) 3, (short) 0x8004);
+        Assert.assertEquals(packed, 0x8004_0003_fffe_0001L);
+        Assert.assertEquals(HalfSwar.lane(packed, 1), (short) 0xfffe);
+        Assert.assertEquals(HalfSwar.lane(packed, 3), (short) 0x8004);
+        Assert.assertEquals(HalfSwar.pack((short) 0xfffe, (short) 1), 0x0001_fffe);
+    }
+
+    @Test
+    public void classificationTest() {
+        for (short a : SPECIAL) {
+            for (short b : SPECIAL) {
+                long packed = HalfSwar.pack(a, b, b, a);
+                int packedInt = HalfSwar.pack(a, b);
+                Half halfA = Half.shortBitsToHalf(a);
+                Half halfB = Half.shortBitsToHalf(b);
+
+                Assert.assertEquals(HalfSwar.abs(packed), HalfSwar.pack((short) (a & 0x7fff), (short) (b & 0x7fff),
+                        (short) (b & 0x7fff), (short) (a & 0x7fff)));
+                Assert.assertEquals(HalfSwar.negate(packedInt),
+                        HalfSwar.pack((short) (a ^ 0x8000), (short) (b ^ 0x8000)));
+                Assert.assertEquals(HalfSwar.abs(packedInt), HalfSwar.pack((short) (a & 0x7fff), (short) (b & 0x7fff)));
+                Assert.assertEquals(HalfSwar.isSignBitSet(packedInt), mask(a < 0, b < 0));
+                Assert.assertEquals(HalfSwar.isNaN(packedInt), mask(halfA.isNaN(), halfB.isNaN()));
+                Assert.assertEquals(HalfSwar.isInfinite(packedInt), mask(halfA.isInfinite(), halfB.isInfinite()));
+                Assert.assertEquals(HalfSwar.isFinite(packedInt), mask(halfA.isFinite(), halfB.isFinite()));
+                Assert.assertEquals(HalfSwar.isNaN(packed),
+                        mask(halfA.isNaN(), halfB.isNaN(), halfB.isNaN(), halfA.isNaN()));
+            }
+        }
+    }
+
+    @Test
+    public void comparisonTest() {
+        Random random = new Random(33);
+        short[] values = new short[1024];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i < SPECIAL.length ? SPECIAL[i] : (short) random.nextInt();
+        }
+        for (int i = 0; i < values.length; i++) {
+            for (int j = 0; j < values.length; j += 4) {
+                short a = values[i];
+                long packedB = HalfSwar.pack(values[j], values[j + 1], values[j + 2], values[j + 3]);
+                long packedA = HalfSwar.pack(a, a, a, a);
+                long lessThan = HalfSwar.lessThan(packedA, packedB);
+                long equal = HalfSwar.equal(packedA, packedB);
+                for (int lane = 0; lane < 4; lane++) {
+                    float x = Half.halfShortToFloat(a);
+                    float y = Half.halfShortToFloat(values[j + lane]);
+                    String message = Integer.toHexString(a & 0xffff) + " "
+                            + Integer.toHexString(values[j + lane] & 0xffff);
+                    Assert.assertEquals(HalfSwar.lane(lessThan, lane), x < y ? (short) -1 : 0, message);
+                    Assert.assertEquals(HalfSwar.lane(equal, lane), x == y ? (short) -1 : 0, message);
+                }
+                int packedInt = HalfSwar.pack(values[j], values[j + 1]);
+                Assert.assertEquals(HalfSwar.lessThan(packedInt, HalfSwar.pack(a, a)),
+                        (int) HalfSwar.lessThan(packedB, packedA));
+            }
+        }
+    }
+
+    @Test
+    public void countTest() {
+        short[] src = SPECIAL.clone();
+        Assert.assertEquals(HalfSwar.countNaN(src), 5);
+        Assert.assertEquals(HalfSwar.countInfinite(src), 2);
+        Assert.assertFalse(HalfSwar.isAllFinite(src));
+        Assert.assertTrue(HalfSwar.isAllFinite(new short[] { 0x3c00, 0x7bff, (short) 0xfbff, 0, 0 }));
+
+        for (ByteOrder order : new ByteOrder[] { ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN }) {
+            ByteBuffer buf = ByteBuffer.allocate(src.length * 2 + 3).order(order);
+            buf.position(2);
+            buf.asShortBuffer().put(src);
+            buf.limit(buf.capacity() - 1);
+            Assert.assertEquals(HalfSwar.countNaN(buf), 5);
+            Assert.assertEquals(HalfSwar.countInfinite(buf), 2);
+            Assert.assertFalse(HalfSwar.isAllFinite(buf));
+            Assert.assertEquals(buf.position(), 2);
+        }
+    }
+
+    @Test
+    public void bufferAbsNegateTest() {
+        ByteBuffer src = ByteBuffer.allocate(SPECIAL.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+        src.asShortBuffer().put(SPECIAL);
+        ByteBuffer dst = ByteBuffer.allocate(src.capacity()).order(ByteOrder.LITTLE_ENDIAN);
+        HalfSwar.abs(src, dst);
+        short[] expected = new short[SPECIAL.length];
+        HalfArrays.abs(SPECIAL, expected);
+        short[] actual = new short[SPECIAL.length];
+        dst.asShortBuffer().get(actual);
+        Assert.assertEquals(actual, expected);
+
+        HalfSwar.negate(src, src);
+        HalfArrays.negate(SPECIAL, expected);
+        src.asShortBuffer().get(actual);
+        Assert.assertEquals(actual, expected);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void bufferByteOrderMismatchTest() {
+        HalfSwar.abs(ByteBuffer.allocate(8), ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN));
+    }
+
+    private static int mask(boolean lane0, boolean lane1) {
+        return (lane0 ? 0xffff : 0) | (lane1 ? 0xffff0000 : 0);
+    }
+
+    private static long mask(boolean lane0, boolean lane1, boolean lane2, boolean lane3) {
+        return HalfSwar.pack((short) (lane0 ? -1 : 0), (short) (lane1 ? -1 : 0), (short) (lane2 ? -1 : 0),
+                (short) (lane3 ? -1 : 0));
+    }
+
+}
@@ -16,6 +16,8 @@
 
 package com.christianheina.langx.half4j;
 
+import java.util.Random;
+
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -498,4 +500,40 @@ public class HalfTest {
         Assert.assertEquals(Half.min(Half.NaN, LOWEST_ABOVE_ONE), Half.NaN);
     }
 
+    @Test
+    public void roundToHalfShortBitsTest() {
+        Assert.assertEquals(Half.roundToHalfShortBits(1.0), (short) 0x3c00);
+        // ties to even
+        Assert.assertEquals(Half.roundToHalfShortBits(1.0 + 0x1p-11), (short) 0x3c00);
+        Assert.assertEquals(Half.roundToHalfShortBits(1.0 + 3 * 0x1p-11), (short) 0x3c02);
+        Assert.assertEquals(Half.roundToHalfShortBits(2047.4 * 32), (short) 0x7bff);
+        Assert.assertEquals(Half.roundToHalfShortBits(65520.0), (short) 0x7c00);
+        Assert.assertEquals(Half.roundToHalfShortBits(-1e10), (short) 0xfc00);
+        Assert.assertEquals(Half.roundToHalfShortBits(0x1p-25), (short) 0x0000);
+        Assert.assertEquals(Half.roundToHalfShortBits(0x1.8p-25), (short) 0x0001);
+        Assert.assertEquals(Half.roundToHalfShortBits(0x1.ffcp-15 + 0x1p-25), (short) 0x0400);
+        Assert.assertEquals(Half.roundToHalfShortBits(-0.0), (short) 0x8000);
+    }
+
+    @Test
+    public void roundFloatToHalfShortBitsTest() {
+        for (int bits = 0; bits < 0x7c00; bits++) {
+            // the midpoint to the next half and the floats on either side of it
+            float midpoint = (Half.halfShortToFloat((short) bits)
+                    + (bits == 0x7bff ? 65536.0f : Half.halfShortToFloat((short) (bits + 1)))) / 2;
+            for (float value : new float[] { Math.nextDown(midpoint), midpoint, Math.nextUp(midpoint),
+                    Half.halfShortToFloat((short) bits) }) {
+                Assert.assertEquals(Half.roundToHalfShortBits(value), Half.roundToHalfShortBits((double) value));
+                Assert.assertEquals(Half.roundToHalfShortBits(-value), Half.roundToHalfShortBits((double) -value));
+            }
+        }
+        Random random = new Random(1);
+        for (int i = 0; i < 1 << 20; i++) {
+            float value = Float.intBitsToFloat(random.nextInt());
+            Assert.assertEquals(Half.roundToHalfShortBits(value), Half.roundToHalfShortBits((double) value));
+        }
+        Assert.assertEquals(Half.roundToHalfShortBits(Float.POSITIVE_INFINITY), (short) 0x7c00);
+        Assert.assertEquals(Half.roundToHalfShortBits(Float.NaN), (short) 0x7e00);
+    }
+
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HalfToLongMap}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfToLongMapTest {
+
+    @Test
+    public void putGetTest() {
+        HalfToLongMap map = new HalfToLongMap();
+        Assert.assertEquals(map.get((short) 0x3c00), 0);
+        Assert.assertFalse(map.containsKey((short) 0x3c00));
+        Assert.assertEquals(map.put(Half.valueOf(1.0f), 5), 0);
+        Assert.assertEquals(map.put((short) 0x3c00, 7), 5);
+        Assert.assertEquals(map.get(Half.valueOf(1.0f)), 7);
+        Assert.assertTrue(map.containsKey(Half.valueOf(1.0f)));
+        Assert.assertEquals(map.size(), 1);
+        Assert.assertEquals(map.remove(Half.valueOf(1.0f)), 7);
+        Assert.assertEquals(map.remove((short) 0x3c00), 0);
+        Assert.assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void countTest() {
+        HalfToLongMap map = new HalfToLongMap();
+        map.count(new short[] { 0x3c00, 0x7c01, (short) 0xfe00, 0x0000, (short) 0x8000, 0x3c00, 0x3c00 });
+        Assert.assertEquals(map.size(), 4);
+        Assert.assertEquals(map.get((short) 0x3c00), 3);
+        Assert.assertEquals(map.get(Half.NaN), 2);
+        Assert.assertEquals(map.get((short) 0x0000), 1);
+        Assert.assertEquals(map.get(Half.NEGATIVE_ZERO), 1);
+        Assert.assertEquals(map.add(Half.valueOf(1.0f), -3), 0);
+        Assert.assertTrue(map.containsKey((short) 0x3c00));
+        Assert.assertEquals(map.keys(), new short[] { (short) 0x8000, 0x0000, 0x3c00, 0x7e00 });
+        Assert.assertEquals(map.toString(), "{-0.0=1, 0.0=1, 1.0=0, NaN=2}");
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertEquals(map.get((short) 0x3c00), 0);
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HalfToObjectMap}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfToObjectMapTest {
+
+    @Test
+    public void putGetTest() {
+        HalfToObjectMap<String> map = new HalfToObjectMap<>();
+        Assert.assertNull(map.get((short) 0x3c00));
+        Assert.assertNull(map.put(Half.valueOf(1.0f), "one"));
+        Assert.assertEquals(map.put((short) 0x3c00, "uno"), "one");
+        Assert.assertEquals(map.get(Half.valueOf(1.0f)), "uno");
+        Assert.assertNull(map.put(Half.NaN, null));
+        Assert.assertTrue(map.containsKey((short) 0xfc01));
+        Assert.assertFalse(map.containsKey(Half.NEGATIVE_ZERO));
+        Assert.assertEquals(map.size(), 2);
+        Assert.assertEquals(map.toString(), "{1.0=uno, NaN=null}");
+        Assert.assertEquals(map.remove(Half.valueOf(1.0f)), "uno");
+        Assert.assertFalse(map.containsKey((short) 0x3c00));
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void computeIfAbsentTest() {
+        HalfToObjectMap<List<Integer>> map = new HalfToObjectMap<>();
+        short[] values = { 0x3c00, 0x4000, 0x3c00 };
+        for (int i = 0; i < values.length; i++) {
+            map.computeIfAbsent(values[i], ArrayList::new).add(i);
+        }
+        Assert.assertEquals(map.get((short) 0x3c00), Arrays.asList(0, 2));
+        Assert.assertEquals(map.get((short) 0x4000), Arrays.asList(1));
+        Assert.assertEquals(map.keys(), new short[] { 0x3c00, 0x4000 });
+    }
+
+}
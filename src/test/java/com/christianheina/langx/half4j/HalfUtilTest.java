@@ -16,7 +16,13 @@
 
 package com.christianheina.langx.half4j;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -49,6 +55,35 @@ public class HalfUtilTest {
         Assert.assertEquals(Half.halfToShortBits(halfList.get(0)), 0x0);
     }
 
+    @Test
+    public void bytesToHalfListViewTest() {
+        byte[] bytes = new byte[] { 0, 1, 1, 1 };
+        List<Half> halfList = HalfUtil.bytesToHalfList(bytes);
+        Half previous = halfList.set(1, Half.NEGATIVE_INFINITY);
+        Assert.assertEquals(Half.halfToShortBits(previous), 0x101);
+        Assert.assertEquals(halfList.get(1), Half.NEGATIVE_INFINITY);
+        Assert.assertEquals(bytes, new byte[] { 0, 1, (byte) 0xfc, 0 });
+
+        bytes[0] = 0x3c;
+        bytes[1] = 0;
+        Assert.assertEquals(halfList.get(0), Half.valueOf(1.0f));
+    }
+
+    @Test
+    public void bytesToHalfListByteOrderTest() {
+        ByteBuffer buf = ByteBuffer.wrap(BYTE_ARRAY).order(ByteOrder.LITTLE_ENDIAN);
+        buf.position(2);
+        List<Half> halfList = HalfUtil.bytesToHalfList(buf);
+        Assert.assertEquals(halfList.size(), 1);
+        Assert.assertEquals(Half.halfToShortBits(halfList.get(0)), 0x101);
+        Assert.assertEquals(halfList, Collections.singletonList(Half.shortBitsToHalf((short) 0x101)));
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void bytesToHalfListIndexOutOfBoundsTest() {
+        HalfUtil.bytesToHalfList(BYTE_ARRAY).get(2);
+    }
+
     @Test
     public void bytesToHalfArrayTest() {
         Half[] halfArray = HalfUtil.bytesToHalfArray(BYTE_ARRAY);
@@ -57,4 +92,199 @@ public class HalfUtilTest {
         Assert.assertEquals(Half.halfToShortBits(halfArray[1]), 0x101);
     }
 
+    @Test
+    public void halfShortBitsToFloatArrayTest() {
+        Assert.assertEquals(HalfUtil.halfShortBitsToFloatArray((short) 0x3c00, (short) 0xc000, (short) 0x7c00),
+                new float[] { 1.0f, -2.0f, Float.POSITIVE_INFINITY });
+
+        float[] floats = new float[4];
+        HalfUtil.halfShortBitsToFloatArray(new short[] { 0x3c00, 0x3800, 0x3400 }, 1, floats, 2, 2);
+        Assert.assertEquals(floats, new float[] { 0f, 0f, 0.5f, 0.25f });
+    }
+
+    @Test
+    public void floatArrayToHalfShortBitsTest() {
+        Assert.assertEquals(HalfUtil.floatArrayToHalfShortBits(1.0f, -2.0f, 1e6f),
+                new short[] { 0x3c00, (short) 0xc000, 0x7c00 });
+
+        short[] shorts = new short[3];
+        HalfUtil.floatArrayToHalfShortBits(new float[] { 1.0f, 0.5f }, 1, shorts, 0, 1);
+        Assert.assertEquals(shorts, new short[] { 0x3800, 0, 0 });
+    }
+
+    @Test
+    public void floatArrayToHalfShortBitsCheckedTest() {
+        float[] floats = { 1.0f, 1.00048828125f, Float.NaN, 1e6f, Float.NEGATIVE_INFINITY, 1e-6f, 1e-9f, 0f, -0f };
+        short[] shorts = new short[floats.length];
+        HalfConversionStats stats = HalfUtil.floatArrayToHalfShortBitsChecked(floats, shorts);
+        Assert.assertEquals(shorts, HalfUtil.floatArrayToHalfShortBits(floats));
+        Assert.assertEquals(stats.getLength(), floats.length);
+        Assert.assertEquals(stats.getNaNs(), 1);
+        Assert.assertEquals(stats.getOverflows(), 1);
+        Assert.assertEquals(stats.getUnderflows(), 1);
+        Assert.assertEquals(stats.getSubnormals(), 1);
+        Assert.assertEquals(stats.getMaxRelativeError(), 1.0);
+        Assert.assertTrue(stats.isOutOfRange());
+    }
+
+    @Test
+    public void floatArrayToHalfShortBitsCheckedRangeTest() {
+        float[] floats = { 1e6f, 1.00048828125f, 2f };
+        short[] shorts = new short[3];
+        HalfConversionStats stats = HalfUtil.floatArrayToHalfShortBitsChecked(floats, 1, shorts, 1, 2);
+        Assert.assertEquals(shorts, new short[] { 0, 0x3c00, 0x4000 });
+        Assert.assertEquals(stats.getLength(), 2);
+        Assert.assertEquals(stats.getOverflows(), 0);
+        Assert.assertEquals(stats.getMaxRelativeError(), 0.00048828125 / 1.00048828125, 1e-9);
+        Assert.assertFalse(stats.isOutOfRange());
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void floatArrayToHalfShortBitsCheckedOutOfBoundsTest() {
+        HalfUtil.floatArrayToHalfShortBitsChecked(new float[2], new short[1]);
+    }
+
+    @Test
+    public void canonicalShortBitsTest() {
+        Assert.assertEquals(HalfUtil.canonicalShortBits((short) 0x7c01), (short) 0x7e00);
+        Assert.assertEquals(HalfUtil.canonicalShortBits((short) 0xfe00), (short) 0x7e00);
+        Assert.assertEquals(HalfUtil.canonicalShortBits((short) 0xfc00), (short) 0xfc00);
+        Assert.assertEquals(HalfUtil.canonicalShortBits((short) 0x8000), (short) 0x8000);
+    }
+
+    @Test
+    public void compareShortBitsTest() {
+        Random random = new Random(50);
+        for (int i = 0; i < 100_000; i++) {
+            short a = (short) random.nextInt();
+            short b = (short) (i % 2 == 0 ? random.nextInt() : a ^ random.nextInt(4));
+            Assert.assertEquals(Integer.signum(HalfUtil.compareShortBits(a, b)),
+                    Integer.signum(Half.compare(Half.shortBitsToHalf(a), Half.shortBitsToHalf(b))),
+                    Integer.toHexString(a & 0xffff) + " " + Integer.toHexString(b & 0xffff));
+        }
+        Assert.assertTrue(HalfUtil.compareShortBits((short) 0x8000, (short) 0) < 0);
+        Assert.assertTrue(HalfUtil.compareShortBits((short) 0x7c00, (short) 0xfe00) < 0);
+        Assert.assertEquals(HalfUtil.compareShortBits((short) 0x7c01, (short) 0xffff), 0);
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void halfShortBitsToFloatArrayOutOfBoundsTest() {
+        HalfUtil.halfShortBitsToFloatArray(new short[2], 1, new float[2], 0, 2);
+    }
+
+    @Test
+    public void halfShortBitsToBase64Test() {
+        for (int length = 0; length < 8; length++) {
+            short[] shortBits = new short[length];
+            ByteBuffer bytes = ByteBuffer.allocate(length * 2).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < length; i++) {
+                shortBits[i] = (short) (0x3c00 + i * 0x1357);
+                bytes.putShort(shortBits[i]);
+            }
+            String base64 = Base64.getEncoder().encodeToString(bytes.array());
+            Assert.assertEquals(HalfUtil.halfShortBitsToBase64(shortBits), base64);
+            Assert.assertEquals(HalfUtil.base64ToHalfShortBits(base64), shortBits);
+            Assert.assertEquals(HalfUtil.base64ToHalfShortBits(base64.replace("=", "")), shortBits);
+        }
+    }
+
+    @Test
+    public void halfShortBitsToBase64RangeTest() {
+        char[] chars = new char[10];
+        Assert.assertEquals(HalfUtil.halfShortBitsToBase64(new short[] { 0x3c00, 0x4000, 0x4200 }, 1, chars, 1, 2), 8);
+        Assert.assertEquals(new String(chars, 1, 8), "AEAAQg==");
+
+        short[] shorts = new short[4];
+        Assert.assertEquals(HalfUtil.base64ToHalfShortBits("AEAAQg==", shorts, 1), 2);
+        Assert.assertEquals(shorts, new short[] { 0, 0x4000, 0x4200, 0 });
+    }
+
+    @Test
+    public void halfShortBitsToBase64BufferTest() {
+        short[] values = { 0x3c00, 0x4000, 0x4200, 0x4400, 0x4500 };
+        String expected = HalfUtil.halfShortBitsToBase64(values);
+        ShortBuffer direct = ByteBuffer.allocateDirect(values.length * 2).asShortBuffer();
+        direct.put(values).flip();
+        for (ShortBuffer src : new ShortBuffer[] { ShortBuffer.wrap(values), direct }) {
+            char[] chars = new char[expected.length()];
+            Assert.assertEquals(HalfUtil.halfShortBitsToBase64(src, chars, 0), expected.length());
+            Assert.assertEquals(new String(chars), expected);
+            Assert.assertFalse(src.hasRemaining());
+        }
+
+        for (ShortBuffer dst : new ShortBuffer[] { ShortBuffer.allocate(6),
+                ByteBuffer.allocateDirect(12).asShortBuffer() }) {
+            dst.put((short) 1);
+            Assert.assertEquals(HalfUtil.base64ToHalfShortBits(expected, dst), values.length);
+            Assert.assertEquals(dst.position(), 6);
+            dst.flip();
+            dst.get();
+            short[] decoded = new short[values.length];
+            dst.get(decoded);
+            Assert.assertEquals(decoded, values);
+        }
+    }
+
+    @Test
+    public void base64DirectBufferLengthsTest() {
+        for (int length = 0; length < 8; length++) {
+            short[] values = new short[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = (short) (0x80ff + i * 0x1357);
+            }
+            String expected = HalfUtil.halfShortBitsToBase64(values);
+            ShortBuffer src = ByteBuffer.allocateDirect(length * 2 + 2).asShortBuffer();
+            src.position(1);
+            src.put(values).position(1);
+            char[] chars = new char[expected.length() + 1];
+            Assert.assertEquals(HalfUtil.halfShortBitsToBase64(src, chars, 1), expected.length());
+            Assert.assertEquals(new String(chars, 1, expected.length()), expected);
+
+            ShortBuffer dst = ByteBuffer.allocateDirect(length * 2 + 2).asShortBuffer();
+            dst.position(1);
+            Assert.assertEquals(HalfUtil.base64ToHalfShortBits(expected.replace("=", ""), dst), length);
+            short[] decoded = new short[length];
+            dst.position(1);
+            dst.get(decoded);
+            Assert.assertEquals(decoded, values);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void base64InvalidCharacterTest() {
+        HalfUtil.base64ToHalfShortBits("AD*8");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void base64OddBytesTest() {
+        HalfUtil.base64ToHalfShortBits("AA==");
+    }
+
+    @Test
+    public void halfShortBitsToHexTest() {
+        Assert.assertEquals(HalfUtil.halfShortBitsToHex((short) 0x3c00, (short) 0xc0ff), "003cffc0");
+        Assert.assertEquals(HalfUtil.hexToHalfShortBits("003cFFC0"), new short[] { 0x3c00, (short) 0xc0ff });
+        Assert.assertEquals(HalfUtil.halfShortBitsToHex(), "");
+
+        char[] chars = new char[4];
+        Assert.assertEquals(HalfUtil.halfShortBitsToHex(new short[] { 0x3c00, 0x1234 }, 1, chars, 0, 1), 4);
+        Assert.assertEquals(new String(chars), "3412");
+        Assert.assertEquals(HalfUtil.halfShortBitsToHex(ShortBuffer.wrap(new short[] { 0x1234 }), chars, 0), 4);
+        Assert.assertEquals(new String(chars), "3412");
+
+        ShortBuffer dst = ShortBuffer.allocate(2);
+        Assert.assertEquals(HalfUtil.hexToHalfShortBits("3412003c", dst), 2);
+        Assert.assertEquals(dst.array(), new short[] { 0x1234, 0x3c00 });
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void hexInvalidTest() {
+        HalfUtil.hexToHalfShortBits("003g");
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void halfShortBitsToBase64OutOfBoundsTest() {
+        HalfUtil.halfShortBitsToBase64(new short[2], 0, new char[7], 0, 2);
+    }
+
 }
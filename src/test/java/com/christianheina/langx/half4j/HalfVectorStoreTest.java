@@ -0,0 +1,138 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HalfVectorStore}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfVectorStoreTest {
+
+    @Test
+    public void searchTest() {
+        HalfVectorStore store = HalfVectorStore
+                .of(HalfUtil.floatArrayToHalfShortBits(0f, 0f, 1.0f, 0f, 0f, 2.0f, 3.0f, 3.0f, -1.0f, 0f), 2);
+        Assert.assertEquals(store.size(), 5);
+        Assert.assertEquals(store.dimension(), 2);
+        short[] query = HalfUtil.floatArrayToHalfShortBits(1.0f, 0.5f);
+
+        HalfNeighbors l2 = store.search(query, 3, HalfMetric.L2);
+        Assert.assertEquals(l2.getIds(), new long[] { 1, 0, 2 });
+        Assert.assertEquals(l2.getDistances(), new float[] { 0.25f, 1.25f, 3.25f });
+
+        HalfNeighbors dot = store.search(query, 2, HalfMetric.DOT);
+        Assert.assertEquals(dot.getIds(), new long[] { 3, 1 });
+        Assert.assertEquals(dot.getDistance(0), -4.5f);
+
+        HalfNeighbors cosine = store.search(query, 5, HalfMetric.COSINE);
+        Assert.assertEquals(cosine.size(), 5);
+        Assert.assertEquals(cosine.getId(0), 3);
+        Assert.assertEquals(cosine.getId(1), 1);
+        // zero vector has cosine distance 1, which is nearer than the opposite vector
+        Assert.assertEquals(cosine.getIds(), new long[] { 3, 1, 2, 0, 4 });
+    }
+
+    @Test
+    public void kLargerThanSizeTest() {
+        HalfVectorStore store = HalfVectorStore.of(HalfUtil.floatArrayToHalfShortBits(1.0f, 2.0f), 1);
+        Assert.assertEquals(store.search(HalfUtil.floatArrayToHalfShortBits(0f), 10, HalfMetric.L2).getIds(),
+                new long[] { 0, 1 });
+        Assert.assertEquals(store.search(HalfUtil.floatArrayToHalfShortBits(0f), 0, HalfMetric.L2).size(), 0);
+        Assert.assertEquals(
+                store.search(HalfUtil.floatArrayToHalfShortBits(0f), Integer.MAX_VALUE, HalfMetric.L2).getIds(),
+                new long[] { 0, 1 });
+    }
+
+    @Test
+    public void parallelSearchTest() {
+        int dimension = 16;
+        int size = 20000;
+        short[] vectors = randomVectors(new Random(1), size, dimension);
+        HalfVectorStore store = HalfVectorStore.of(vectors, dimension);
+        short[] query = randomVectors(new Random(2), 1, dimension);
+        for (HalfMetric metric : HalfMetric.values()) {
+            HalfNeighbors neighbors = store.search(query, 10, metric);
+            HalfNeighbors expected = naive(vectors, dimension, query, 10, metric);
+            Assert.assertEquals(neighbors.getIds(), expected.getIds(), metric.name());
+            Assert.assertEquals(neighbors.getDistances(), expected.getDistances(), metric.name());
+        }
+    }
+
+    @Test
+    public void npyTest() throws IOException {
+        short[] vectors = randomVectors(new Random(3), 100, 8);
+        Path file = Files.createTempFile("vectors", ".npy");
+        try {
+            HalfNpy.of(vectors, 100, 8).write(file);
+            HalfVectorStore store = HalfVectorStore.of(HalfNpy.read(file));
+            Assert.assertEquals(store.size(), 100);
+            Assert.assertEquals(store.getVector(42), Arrays.copyOfRange(vectors, 42 * 8, 43 * 8));
+            Assert.assertEquals(store.search(store.getVector(42), 1, HalfMetric.L2).getId(0), 42);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void invalidDimensionTest() {
+        HalfVectorStore.of(new short[5], 2);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void queryDimensionTest() {
+        HalfVectorStore.of(new short[4], 2).search(new short[3], 1, HalfMetric.DOT);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void npyShapeTest() {
+        HalfVectorStore.of(HalfNpy.of(new short[4], 4));
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void getVectorOutOfBoundsTest() {
+        HalfVectorStore.of(new short[4], 2).getVector(2);
+    }
+
+    static short[] randomVectors(Random random, int size, int dimension) {
+        short[] vectors = new short[size * dimension];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = Half.floatToHalfShortBits((float) random.nextGaussian());
+        }
+        return vectors;
+    }
+
+    static HalfNeighbors naive(short[] vectors, int dimension, short[] query, int k, HalfMetric metric) {
+        TopK topK = new TopK(k);
+        float[] prepared = metric.prepare(query);
+        for (int i = 0; i < vectors.length / dimension; i++) {
+            topK.offer(i, metric.distance(prepared, vectors, i * dimension, dimension));
+        }
+        return topK.toNeighbors();
+    }
+
+}
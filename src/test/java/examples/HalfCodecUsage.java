@@ -0,0 +1,40 @@
+package examples;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.christianheina.langx.half4j.HalfCodec;
+import com.christianheina.langx.half4j.HalfUtil;
+
+/**
+ * Half codec example usage, printing compression ratio and throughput.
+ * 
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfCodecUsage {
+
+    public static void main(String[] args) throws IOException {
+        // A smooth series of 16M half values
+        float[] floats = new float[1 << 24];
+        for (int i = 0; i < floats.length; i++) {
+            floats[i] = 20.0f + (float) Math.sin(i / 500.0) * 5.0f;
+        }
+        short[] values = HalfUtil.floatArrayToHalfShortBits(floats);
+        double megabytes = values.length * 2 / 1e6;
+
+        long start = System.nanoTime();
+        byte[] encoded = HalfCodec.encode(values);
+        double encodeSeconds = (System.nanoTime() - start) / 1e9;
+
+        start = System.nanoTime();
+        short[] decoded = HalfCodec.decode(encoded);
+        double decodeSeconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("Compression ratio: " + (values.length * 2.0 / encoded.length));
+        System.out.println("Encode throughput: " + (megabytes / encodeSeconds) + " MB/s");
+        System.out.println("Decode throughput: " + (megabytes / decodeSeconds) + " MB/s");
+        System.out.println("Lossless: " + Arrays.equals(values, decoded));
+    }
+
+}
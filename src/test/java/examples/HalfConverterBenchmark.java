@@ -0,0 +1,41 @@
+package examples;
+
+import com.christianheina.langx.half4j.HalfConverter;
+import com.christianheina.langx.half4j.HalfUtil;
+
+/**
+ * Half conversion benchmark, printing the conversion implementations bound on the running JVM, the JDK intrinsics on
+ * Java 20 and later, and their bulk throughput.
+ * 
+ * <p>
+ * Run with {@code -Dhalf4j.converter=SCALAR} or another implementation name to measure a specific implementation and
+ * compare it with the default.
+ * 
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfConverterBenchmark {
+
+    public static void main(String[] args) {
+        System.out.println(HalfConverter.report());
+
+        // 16M values with mixed exponents
+        float[] floats = new float[1 << 24];
+        for (int i = 0; i < floats.length; i++) {
+            floats[i] = (float) Math.scalb(Math.sin(i), i % 24 - 12);
+        }
+        short[] shorts = new short[floats.length];
+        float[] decoded = new float[floats.length];
+
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            HalfUtil.floatArrayToHalfShortBits(floats, 0, shorts, 0, floats.length);
+            long middle = System.nanoTime();
+            HalfUtil.halfShortBitsToFloatArray(shorts, 0, decoded, 0, shorts.length);
+            long end = System.nanoTime();
+            System.out.println("Encode " + floats.length * 1e3 / (middle - start) + " M/s, decode "
+                    + floats.length * 1e3 / (end - middle) + " M/s");
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package examples;
+
+import java.util.Random;
+
+import com.christianheina.langx.half4j.HalfHnswIndex;
+import com.christianheina.langx.half4j.HalfMetric;
+import com.christianheina.langx.half4j.HalfUtil;
+import com.christianheina.langx.half4j.HalfVectorStore;
+
+/**
+ * Half HNSW index example usage, printing build time, recall and throughput. The number of vectors may be given as the
+ * first argument, for example {@code 1000000}.
+ * 
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfHnswIndexUsage {
+
+    private static final int DIMENSION = 96;
+    private static final int QUERIES = 200;
+    private static final int K = 10;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+
+        // Random embeddings
+        Random random = new Random(1);
+        float[] floats = new float[size * DIMENSION];
+        for (int i = 0; i < floats.length; i++) {
+            floats[i] = (float) random.nextGaussian();
+        }
+        HalfVectorStore store = HalfVectorStore.of(HalfUtil.floatArrayToHalfShortBits(floats), DIMENSION);
+        short[][] queries = new short[QUERIES][];
+        long[][] exact = new long[QUERIES][];
+        for (int q = 0; q < QUERIES; q++) {
+            float[] query = new float[DIMENSION];
+            for (int j = 0; j < DIMENSION; j++) {
+                query[j] = (float) random.nextGaussian();
+            }
+            queries[q] = HalfUtil.floatArrayToHalfShortBits(query);
+            exact[q] = store.search(queries[q], K, HalfMetric.L2).getIds();
+        }
+
+        long start = System.nanoTime();
+        HalfHnswIndex index = HalfHnswIndex.build(store, HalfMetric.L2, 16, 100, 1);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println("Build: " + seconds + " s, " + size / seconds + " vectors/s");
+
+        for (int ef : new int[] { 10, 40, 100, 200 }) {
+            int found = 0;
+            start = System.nanoTime();
+            for (int q = 0; q < QUERIES; q++) {
+                for (long id : index.search(queries[q], K, ef).getIds()) {
+                    for (long expected : exact[q]) {
+                        found += id == expected ? 1 : 0;
+                    }
+                }
+            }
+            double qps = QUERIES / ((System.nanoTime() - start) / 1e9);
+            System.out.println(
+                    "ef " + ef + ": recall@" + K + " " + (double) found / (QUERIES * K) + ", " + qps + " queries/s");
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package examples;
+
+import java.util.Random;
+
+import com.christianheina.langx.half4j.HalfMetric;
+import com.christianheina.langx.half4j.HalfPqIndex;
+import com.christianheina.langx.half4j.HalfProductQuantizer;
+import com.christianheina.langx.half4j.HalfUtil;
+import com.christianheina.langx.half4j.HalfVectorStore;
+
+/**
+ * Half product quantization example usage, printing memory per vector, recall and query latency.
+ * 
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfPqIndexUsage {
+
+    private static final int SIZE = 200_000;
+    private static final int DIMENSION = 128;
+    private static final int CLUSTERS = 256;
+    private static final int SUBSPACES = 16;
+    private static final int QUERIES = 100;
+    private static final int K = 10;
+
+    public static void main(String[] args) {
+        // Clustered random embeddings
+        Random random = new Random(1);
+        float[][] centers = new float[CLUSTERS][DIMENSION];
+        for (float[] center : centers) {
+            for (int j = 0; j < DIMENSION; j++) {
+                center[j] = (float) random.nextGaussian();
+            }
+        }
+        float[] floats = new float[SIZE * DIMENSION];
+        for (int i = 0; i < SIZE; i++) {
+            float[] center = centers[random.nextInt(CLUSTERS)];
+            for (int j = 0; j < DIMENSION; j++) {
+                floats[i * DIMENSION + j] = center[j] + (float) random.nextGaussian() * 0.5f;
+            }
+        }
+        HalfVectorStore store = HalfVectorStore.of(HalfUtil.floatArrayToHalfShortBits(floats), DIMENSION);
+
+        long start = System.nanoTime();
+        HalfProductQuantizer quantizer = HalfProductQuantizer.train(store, SUBSPACES, 256, 10, 1);
+        HalfPqIndex index = HalfPqIndex.build(store, quantizer, HalfMetric.L2);
+        System.out.println("Train and encode: " + (System.nanoTime() - start) / 1e9 + " s");
+        System.out.println("Bytes per vector: " + quantizer.subspaces() + " instead of " + DIMENSION * 2);
+
+        int found = 0;
+        int foundInTop100 = 0;
+        long searchNanos = 0;
+        for (int q = 0; q < QUERIES; q++) {
+            short[] query = store.getVector(random.nextInt(SIZE));
+            long[] exact = store.search(query, K, HalfMetric.L2).getIds();
+            start = System.nanoTime();
+            long[] approximate = index.search(query, 100).getIds();
+            searchNanos += System.nanoTime() - start;
+            for (int i = 0; i < approximate.length; i++) {
+                for (long id : exact) {
+                    foundInTop100 += approximate[i] == id ? 1 : 0;
+                    found += i < K && approximate[i] == id ? 1 : 0;
+                }
+            }
+        }
+        System.out.println("Recall@" + K + ": " + (double) found / (QUERIES * K));
+        System.out.println("Recall of " + K + " in 100: " + (double) foundInTop100 / (QUERIES * K));
+        System.out.println("Query latency: " + searchNanos / 1e6 / QUERIES + " ms");
+    }
+
+}
@@ -0,0 +1,79 @@
+package examples;
+
+import java.util.Random;
+
+import com.christianheina.langx.half4j.HalfIvfIndex;
+import com.christianheina.langx.half4j.HalfMetric;
+import com.christianheina.langx.half4j.HalfNeighbors;
+import com.christianheina.langx.half4j.HalfUtil;
+import com.christianheina.langx.half4j.HalfVectorStore;
+
+/**
+ * Half vector store example usage, printing exact search throughput and IVF index recall and throughput.
+ * 
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfVectorStoreUsage {
+
+    private static final int SIZE = 200_000;
+    private static final int DIMENSION = 128;
+    private static final int CLUSTERS = 256;
+    private static final int QUERIES = 100;
+    private static final int K = 10;
+
+    public static void main(String[] args) {
+        // Clustered random embeddings
+        Random random = new Random(1);
+        float[][] centers = new float[CLUSTERS][DIMENSION];
+        for (float[] center : centers) {
+            for (int j = 0; j < DIMENSION; j++) {
+                center[j] = (float) random.nextGaussian();
+            }
+        }
+        float[] floats = new float[SIZE * DIMENSION];
+        for (int i = 0; i < SIZE; i++) {
+            float[] center = centers[random.nextInt(CLUSTERS)];
+            for (int j = 0; j < DIMENSION; j++) {
+                floats[i * DIMENSION + j] = center[j] + (float) random.nextGaussian() * 0.5f;
+            }
+        }
+        HalfVectorStore store = HalfVectorStore.of(HalfUtil.floatArrayToHalfShortBits(floats), DIMENSION);
+        short[][] queries = new short[QUERIES][];
+        for (int q = 0; q < QUERIES; q++) {
+            queries[q] = store.getVector(random.nextInt(SIZE));
+        }
+
+        long start = System.nanoTime();
+        long[][] exact = new long[QUERIES][];
+        for (int q = 0; q < QUERIES; q++) {
+            exact[q] = store.search(queries[q], K, HalfMetric.L2).getIds();
+        }
+        System.out.println("Exact search: " + qps(start) + " queries/s");
+
+        start = System.nanoTime();
+        HalfIvfIndex index = HalfIvfIndex.build(store, HalfMetric.L2, 256, 10, 1);
+        System.out.println("IVF build: " + (System.nanoTime() - start) / 1e9 + " s");
+
+        for (int nprobe : new int[] { 1, 4, 16, 32 }) {
+            int found = 0;
+            start = System.nanoTime();
+            for (int q = 0; q < QUERIES; q++) {
+                HalfNeighbors neighbors = index.search(queries[q], K, nprobe);
+                for (int i = 0; i < neighbors.size(); i++) {
+                    for (long id : exact[q]) {
+                        found += neighbors.getId(i) == id ? 1 : 0;
+                    }
+                }
+            }
+            double qps = qps(start);
+            System.out.println("IVF nprobe " + nprobe + ": recall@" + K + " " + (double) found / (QUERIES * K) + ", "
+                    + qps + " queries/s");
+        }
+    }
+
+    private static double qps(long start) {
+        return QUERIES / ((System.nanoTime() - start) / 1e9);
+    }
+
+}
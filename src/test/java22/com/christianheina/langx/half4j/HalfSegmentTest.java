@@ -0,0 +1,113 @@
+/*
+ * Copyright 2023 Christian Heina
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.christianheina.langx.half4j;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HalfSegment}.
+ *
+ * @author Christian Heina (developer@christianheina.com)
+ */
+@SuppressWarnings("javadoc")
+public class HalfSegmentTest {
+
+    @Test
+    public void ofTest() {
+        MemorySegment segment = MemorySegment
+                .ofArray(new byte[] { 0x7f, 0x00, 0x00, 0x3c, 0x00, (byte) 0xc0, 0x00, 0x01 }).asSlice(1);
+        HalfSegment half = HalfSegment.of(segment, ByteOrder.BIG_ENDIAN);
+        Assert.assertEquals(half.size(), 3);
+        Assert.assertEquals(half.order(), ByteOrder.BIG_ENDIAN);
+        Assert.assertEquals(half.get(0), Half.valueOf(0.0f));
+        Assert.assertEquals(half.getFloat(1), 1.0f);
+        Assert.assertEquals(half.getShortBits(2), (short) 0xc000);
+        Assert.assertEquals(half.toFloatArray(), new float[] { 0.0f, 1.0f, -2.0f });
+    }
+
+    @Test
+    public void byteOrderTest() {
+        byte[] bytes = new byte[4];
+        HalfSegment half = HalfSegment.of(MemorySegment.ofArray(bytes), ByteOrder.LITTLE_ENDIAN);
+        half.setShortBits(1, (short) 0x3c00);
+        Assert.assertEquals(bytes, new byte[] { 0x00, 0x00, 0x00, 0x3c });
+        HalfSegment.of(MemorySegment.ofArray(bytes), ByteOrder.BIG_ENDIAN).setFloat(0, 2.0f);
+        Assert.assertEquals(bytes, new byte[] { 0x40, 0x00, 0x00, 0x3c });
+    }
+
+    @Test
+    public void bulkTest() {
+        float[] floats = new float[10_000];
+        for (int i = 0; i < floats.length; i++) {
+            floats[i] = i / 16.0f;
+        }
+        try (Arena arena = Arena.ofConfined()) {
+            HalfSegment half = HalfSegment.allocate(arena, floats.length + 1, ByteOrder.BIG_ENDIAN);
+            half.put(1, floats, 0, floats.length);
+            Assert.assertEquals(half.getShortBits(0), (short) 0);
+            float[] decoded = new float[floats.length];
+            half.get(1, decoded, 0, decoded.length);
+            Assert.assertEquals(decoded,
+                    HalfUtil.halfShortBitsToFloatArray(HalfUtil.floatArrayToHalfShortBits(floats)));
+
+            short[] shorts = new short[3];
+            half.get(2, shorts, 1, 2);
+            Assert.assertEquals(shorts, new short[] { 0, 0x2c00, 0x3000 });
+            half.put(0, new short[] { 0x4000, 0x4200 }, 1, 1);
+            Assert.assertEquals(half.getFloat(0), 3.0f);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void closedArenaTest() {
+        HalfSegment half;
+        try (Arena arena = Arena.ofConfined()) {
+            half = HalfSegment.allocate(arena, 4, ByteOrder.nativeOrder());
+        }
+        half.getShortBits(0);
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void outOfBoundsTest() {
+        HalfSegment.of(MemorySegment.ofArray(new byte[4]), ByteOrder.nativeOrder()).get(1, new float[2], 0, 2);
+    }
+
+    @Test
+    public void mapTest() throws IOException {
+        Path file = Files.createTempFile("half4j", ".bin");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                Arena arena = Arena.ofConfined()) {
+            HalfSegment half = HalfSegment.map(channel, MapMode.READ_WRITE, 2, 3, ByteOrder.LITTLE_ENDIAN, arena);
+            half.put(0, new float[] { 1.0f, 2.0f, 3.0f }, 0, 3);
+            Assert.assertEquals(half.toShortBitsArray(), new short[] { 0x3c00, 0x4000, 0x4200 });
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+}